@@ -32,6 +32,7 @@ import hsa.awp.common.model.TemplateType;
 import hsa.awp.common.services.TemplateService;
 import hsa.awp.event.facade.EventFacade;
 import hsa.awp.event.model.*;
+import hsa.awp.event.util.OccurrenceIndex;
 import hsa.awp.gui.controller.GuiController;
 import hsa.awp.rule.model.RegistrationRuleSet;
 import hsa.awp.rule.model.Rule;
@@ -533,6 +534,12 @@ public class AdminGuiController extends GuiController implements IAdminGuiContro
     return camFacade.findConfirmedRegistrationsByCampaign(campaign);
   }
 
+  @Override
+  public List<ConfirmedRegistration> findConfirmedRegistrationsByCampaign(Campaign campaign, int firstResult, int maxResults) {
+
+    return camFacade.findConfirmedRegistrationsByCampaign(campaign, firstResult, maxResults);
+  }
+
   @Override
   public List<SingleUser> findSingleUsersByRole(Role role) {
 
@@ -631,6 +638,12 @@ public class AdminGuiController extends GuiController implements IAdminGuiContro
     return camFacade.getConfirmedRegistrationById(id);
   }
 
+  @Override
+  public List<ConfirmedRegistration> getConfirmedRegistrationsByIds(Collection<Long> ids) {
+
+    return camFacade.getConfirmedRegistrationsByIds(ids);
+  }
+
   @Override
   public List<ConfirmedRegistration> getConfirmedRegistrationsByEvent(Event event) {
 
@@ -641,6 +654,24 @@ public class AdminGuiController extends GuiController implements IAdminGuiContro
     return camFacade.findConfirmedRegistrationsByEvent(event.getId());
   }
 
+  @Override
+  public List<EventRegistrationRow> getConfirmedRegistrationRowsByEvent(Long eventId) {
+
+    return camFacade.findConfirmedRegistrationRowsByEventId(eventId);
+  }
+
+  @Override
+  public List<Object[]> getRegisteredParticipantsByEvents(Collection<Long> eventIds) {
+
+    return camFacade.findConfirmedRegistrationParticipantsByEventIds(eventIds);
+  }
+
+  @Override
+  public OccurrenceIndex getOccurrenceIndexByTerm(Long termId) {
+
+    return evtFacade.getOccurrenceIndex(termId);
+  }
+
   @Override
   public DrawProcedure getDrawProcedureById(Long id) {
 
@@ -660,16 +691,7 @@ public class AdminGuiController extends GuiController implements IAdminGuiContro
       return null;
     }
 
-    List<Event> events = new LinkedList<Event>();
-
-    for (Long id : ids) {
-      try {
-        events.add(evtFacade.getEventById(id));
-      } catch (DataAccessException e) {
-        continue;
-      }
-    }
-    return events;
+    return evtFacade.getEventsByIds(ids);
   }
 
   @Override
@@ -718,6 +740,28 @@ public class AdminGuiController extends GuiController implements IAdminGuiContro
     return camFacade.findPriorityListItemsByEventId(event.getId());
   }
 
+  @Override
+  public List<EventRegistrationRow> getPriorityListItemRowsByEvent(Long eventId) {
+
+    return camFacade.findPriorityListItemRowsByEventId(eventId);
+  }
+
+  @Override
+  public long countPriorityListItemsByEvent(Long eventId) {
+
+    return camFacade.countPriorityListItemsByEventId(eventId);
+  }
+
+  @Override
+  public PriorityList getPriorityListById(Long id) {
+
+    try {
+      return camFacade.getPriorityListById(id);
+    } catch (DataAccessException dae) {
+      return null;
+    }
+  }
+
   @Override
   public List<RegistrationRuleSet> getRegistrationRuleSetsByEvent(Event event) {
 
@@ -1173,6 +1217,39 @@ private List<Mandator> getMandatorsFromUser(SingleUser user) {
     return evtFacade.findEventsByMandator(getActiveMandator(session));
   }
 
+  @Override
+  public long countEventsByMandator(String termDesc, Session session) {
+    return evtFacade.countEventsByMandator(getActiveMandator(session), termDesc);
+  }
+
+  @Override
+  public List<Event> getEventsByMandator(int first, int count, String termDesc, String sortProperty, boolean ascending,
+                                         Session session) {
+    return evtFacade.findEventsByMandator(first, count, getActiveMandator(session), termDesc, sortProperty, ascending);
+  }
+
+  @Override
+  public long countEventsByTeacher(String userName, String termDesc) {
+    return evtFacade.countEventsByTeacher(getUserByName(userName), termDesc);
+  }
+
+  @Override
+  public List<Event> getEventsByTeacher(int first, int count, String userName, String termDesc, String sortProperty,
+                                        boolean ascending) {
+    return evtFacade.getEventsByTeacher(first, count, getUserByName(userName), termDesc, sortProperty, ascending);
+  }
+
+  @Override
+  public long countCampaignsByMandator(Session session) {
+    return camFacade.countCampaignsByMandatorId(getActiveMandator(session));
+  }
+
+  @Override
+  public List<Campaign> getCampaignsByMandator(int first, int count, String sortProperty, boolean ascending,
+                                               Session session) {
+    return camFacade.findCampaignsByMandatorId(first, count, getActiveMandator(session), sortProperty, ascending);
+  }
+
   @Override
   public List<Procedure> getProceduresByMandator(Session session) {
     return camFacade.findProceduresByMandatorId(getActiveMandator(session));
@@ -26,6 +26,7 @@ import hsa.awp.common.exception.NoMatchingElementException;
 import hsa.awp.common.exception.ProgrammingErrorException;
 import hsa.awp.common.model.TemplateType;
 import hsa.awp.event.model.*;
+import hsa.awp.event.util.OccurrenceIndex;
 import hsa.awp.gui.controller.IGuiController;
 import hsa.awp.rule.model.RegistrationRuleSet;
 import hsa.awp.rule.model.Rule;
@@ -267,6 +268,16 @@ public interface IAdminGuiController extends IGuiController {
    */
   List<ConfirmedRegistration> findConfirmedRegistrationsByCampaign(Campaign campaign);
 
+  /**
+   * Looks for one page of the {@link ConfirmedRegistration}s associated with an event in {@link Campaign}, ordered by their id.
+   *
+   * @param campaign    {@link Campaign} to look for.
+   * @param firstResult index of the first registration.
+   * @param maxResults  maximum number of registrations.
+   * @return List of {@link ConfirmedRegistration}s.
+   */
+  List<ConfirmedRegistration> findConfirmedRegistrationsByCampaign(Campaign campaign, int firstResult, int maxResults);
+
   /**
    * Looks for {@link SingleUser}s being in a specified {@link Role}.
    *
@@ -350,6 +361,14 @@ public interface IAdminGuiController extends IGuiController {
    */
   ConfirmedRegistration getConfirmedRegistrationById(Long id);
 
+  /**
+   * Looks for all {@link ConfirmedRegistration}s with the given ids.
+   *
+   * @param ids unique ids.
+   * @return found {@link ConfirmedRegistration}s in the order of the given ids, unknown ids are skipped.
+   */
+  List<ConfirmedRegistration> getConfirmedRegistrationsByIds(Collection<Long> ids);
+
   /**
    * Looks for all {@link ConfirmedRegistration}s associated with an {@link Event}.
    *
@@ -358,6 +377,32 @@ public interface IAdminGuiController extends IGuiController {
    */
   List<ConfirmedRegistration> getConfirmedRegistrationsByEvent(Event event);
 
+  /**
+   * Reads the {@link ConfirmedRegistration}s of an {@link Event} as read-only rows including participant, initiator and
+   * procedure names. Only one query is issued.
+   *
+   * @param eventId id of the event.
+   * @return rows sorted by participant name.
+   */
+  List<EventRegistrationRow> getConfirmedRegistrationRowsByEvent(Long eventId);
+
+  /**
+   * Reads which participants are registered with the given {@link Event}s, without loading registrations or users.
+   *
+   * @param eventIds ids of the events.
+   * @return rows of <code>[eventId, participant]</code>.
+   */
+  List<Object[]> getRegisteredParticipantsByEvents(Collection<Long> eventIds);
+
+  /**
+   * Returns the index of the {@link Occurrence}s of all {@link Event}s of a {@link Term}, which finds {@link Event}s clashing
+   * in time.
+   *
+   * @param termId id of the term.
+   * @return index of the {@link Occurrence}s.
+   */
+  OccurrenceIndex getOccurrenceIndexByTerm(Long termId);
+
   /**
    * Looks for a {@link DrawProcedure} by its unique identifier.
    *
@@ -401,6 +446,31 @@ public interface IAdminGuiController extends IGuiController {
    */
   List<PriorityListItem> getPriorityListItemsByEvent(Event event);
 
+  /**
+   * Reads the {@link PriorityListItem}s of an {@link Event} as read-only rows including participant, initiator and procedure
+   * names. Only one query is issued.
+   *
+   * @param eventId id of the event.
+   * @return rows sorted by priority and participant name.
+   */
+  List<EventRegistrationRow> getPriorityListItemRowsByEvent(Long eventId);
+
+  /**
+   * Counts the {@link PriorityListItem}s being applied to a given {@link Event}.
+   *
+   * @param eventId id of the event.
+   * @return number of {@link PriorityListItem}s.
+   */
+  long countPriorityListItemsByEvent(Long eventId);
+
+  /**
+   * Looks for a {@link PriorityList} by its id.
+   *
+   * @param id id of the {@link PriorityList}.
+   * @return the {@link PriorityList} or null if it does not exist anymore.
+   */
+  PriorityList getPriorityListById(Long id);
+
   /**
    * Looks for all {@link RegistrationRuleSet} applied to an {@link Event}.
    *
@@ -597,6 +667,72 @@ public interface IAdminGuiController extends IGuiController {
 
   List<Event> getEventsByMandator(Session session);
 
+  /**
+   * Counts the events of the active mandator.
+   *
+   * @param termDesc description of the term, null for all terms.
+   * @param session  session holding the active mandator.
+   * @return number of events.
+   */
+  long countEventsByMandator(String termDesc, Session session);
+
+  /**
+   * Loads one page of the events of the active mandator, sorted by the database.
+   *
+   * @param first        index of the first event.
+   * @param count        maximum number of events.
+   * @param termDesc     description of the term, null for all terms.
+   * @param sortProperty property path to sort by.
+   * @param ascending    sort direction.
+   * @param session      session holding the active mandator.
+   * @return the events of the page.
+   */
+  List<Event> getEventsByMandator(int first, int count, String termDesc, String sortProperty, boolean ascending,
+                                  Session session);
+
+  /**
+   * Counts the events of a teacher.
+   *
+   * @param userName login of the teacher.
+   * @param termDesc description of the term, null for all terms.
+   * @return number of events.
+   */
+  long countEventsByTeacher(String userName, String termDesc);
+
+  /**
+   * Loads one page of the events of a teacher, sorted by the database.
+   *
+   * @param first        index of the first event.
+   * @param count        maximum number of events.
+   * @param userName     login of the teacher.
+   * @param termDesc     description of the term, null for all terms.
+   * @param sortProperty property path to sort by.
+   * @param ascending    sort direction.
+   * @return the events of the page.
+   */
+  List<Event> getEventsByTeacher(int first, int count, String userName, String termDesc, String sortProperty,
+                                 boolean ascending);
+
+  /**
+   * Counts the campaigns of the active mandator.
+   *
+   * @param session session holding the active mandator.
+   * @return number of campaigns.
+   */
+  long countCampaignsByMandator(Session session);
+
+  /**
+   * Loads one page of the campaigns of the active mandator, sorted by the database.
+   *
+   * @param first        index of the first campaign.
+   * @param count        maximum number of campaigns.
+   * @param sortProperty property to sort by.
+   * @param ascending    sort direction.
+   * @param session      session holding the active mandator.
+   * @return the campaigns of the page.
+   */
+  List<Campaign> getCampaignsByMandator(int first, int count, String sortProperty, boolean ascending, Session session);
+
   List<Procedure> getProceduresByMandator(Session session);
 
   List<Subject> getSubjectsByMandator(Session session);
@@ -23,20 +23,22 @@ package hsa.awp.admingui.report.lists;
 
 import hsa.awp.admingui.controller.IAdminGuiController;
 import hsa.awp.admingui.report.util.Alignment;
-import hsa.awp.admingui.report.util.ExportList;
 import hsa.awp.admingui.report.util.HeaderFooter;
+import hsa.awp.admingui.report.util.PagedRowIterator;
 import hsa.awp.admingui.report.util.Row;
+import hsa.awp.admingui.report.util.StreamingExportList;
 import hsa.awp.admingui.report.util.formats.pdf.PdfCellProperties;
 import hsa.awp.admingui.report.util.formats.pdf.PdfPrintable;
 import hsa.awp.admingui.report.util.formats.pdf.PdfProperties;
 import hsa.awp.admingui.report.view.PrintableLists;
 import hsa.awp.campaign.model.Campaign;
 import hsa.awp.event.model.Event;
+import hsa.awp.user.model.SingleUser;
 import org.apache.wicket.injection.web.InjectorHolder;
 import org.apache.wicket.spring.injection.annot.SpringBean;
 
 import java.util.ArrayList;
-import java.util.LinkedList;
+import java.util.Iterator;
 import java.util.List;
 
 import static hsa.awp.event.util.EventFormattingUtils.formatIdSubjectNameAndDetailInformation;
@@ -44,7 +46,7 @@ import static hsa.awp.event.util.EventFormattingUtils.formatIdSubjectNameAndDeta
 /**
  * A list which displays all registrations in a campaign.
  */
-public class BookingList extends ExportList implements PdfPrintable {
+public class BookingList extends StreamingExportList implements PdfPrintable {
 
   /**
    * Campaign whose registrations will be displayed.
@@ -59,12 +61,7 @@ public class BookingList extends ExportList implements PdfPrintable {
   private transient IAdminGuiController controller;
 
   /**
-   * List of events which are displayed.
-   */
-  private List<Event> events;
-
-  /**
-   * List for all bookings in a campaign.
+   * List for all bookings in a campaign. The events are loaded page by page while the list is printed.
    *
    * @param campaign campaign
    */
@@ -73,42 +70,61 @@ public class BookingList extends ExportList implements PdfPrintable {
     InjectorHolder.getInjector().inject(this);
 
     this.campaign = campaign;
-
-
-    events = new LinkedList<Event>();
-
-    for (Long id : campaign.getEventIds()) {
-      events.add(controller.getEventById(id));
-    }
-
-    fillRows();
   }
 
-  private void fillRows() {
-    int eventIndex = 1;
-    for (Event event : events) {
-      List<String> content = new ArrayList<String>();
+  @Override
+  public Iterator<Row> iterator() {
+
+    final List<Long> eventIds = new ArrayList<Long>(campaign.getEventIds());
+
+    return new PagedRowIterator<Long>() {
+      private int eventIndex = 1;
+
+      @Override
+      protected List<Long> loadPage(int firstResult, int maxResults) {
+
+        return eventIds.subList(Math.min(firstResult, eventIds.size()), Math.min(firstResult + maxResults, eventIds.size()));
+      }
+
+      @Override
+      protected List<Row> createRows(List<Long> ids) {
+
+        List<Event> events = controller.getEventsById(ids);
+        List<SingleUser> teachers = new ArrayList<SingleUser>();
+        List<Row> page = new ArrayList<Row>(events.size());
+        for (Event event : events) {
+          page.add(createRow(eventIndex, event, teachers));
+          eventIndex++;
+        }
+        evict(events);
+        evict(teachers);
+        return page;
+      }
+    };
+  }
 
-      content.add(String.valueOf(eventIndex));
-      content.add(getEventDescription(event));
-      content.add(generateTeachersString(event));
-      content.add(String.valueOf(controller.countConfirmedRegistrationsByEventId(event.getId())));
-      content.add(String.valueOf(event.getMaxParticipants()));
+  private Row createRow(int eventIndex, Event event, List<SingleUser> teachers) {
+    List<String> content = new ArrayList<String>();
 
-      eventIndex++;
+    content.add(String.valueOf(eventIndex));
+    content.add(getEventDescription(event));
+    content.add(generateTeachersString(event, teachers));
+    content.add(String.valueOf(controller.countConfirmedRegistrationsByEventId(event.getId())));
+    content.add(String.valueOf(event.getMaxParticipants()));
 
-      rows.add(new Row(content));
-    }
+    return new Row(content);
   }
 
   private String getEventDescription(Event event) {
     return formatIdSubjectNameAndDetailInformation(event);
   }
 
-  private String generateTeachersString(Event event) {
+  private String generateTeachersString(Event event, List<SingleUser> teachers) {
     String lects = "";
     for (Long id : event.getTeachers()) {
-      lects += controller.getUserById(id).getName() + ",";
+      SingleUser teacher = controller.getUserById(id);
+      teachers.add(teacher);
+      lects += teacher.getName() + ",";
     }
 
     if (!lects.equals("")) {
@@ -27,14 +27,17 @@ import hsa.awp.admingui.report.util.Row;
 import hsa.awp.admingui.report.util.formats.csv.CsvPrintable;
 import hsa.awp.admingui.report.util.formats.csv.CsvProperties;
 import hsa.awp.admingui.report.view.PrintableLists;
-import hsa.awp.campaign.model.ConfirmedRegistration;
 import hsa.awp.event.model.Event;
-import hsa.awp.user.model.SingleUser;
+import hsa.awp.event.util.OccurrenceIndex;
 import org.apache.wicket.injection.web.InjectorHolder;
 import org.apache.wicket.spring.injection.annot.SpringBean;
 
 import java.util.*;
 
+/**
+ * Lists for every given event the given events sharing at least one participant with it, including the event itself. Optionally
+ * only events whose occurrences also clash in time are listed.
+ */
 public class ConflictList extends ExportList implements CsvPrintable {
   /**
    * Controller which feeds the class with data.
@@ -42,82 +45,147 @@ public class ConflictList extends ExportList implements CsvPrintable {
   @SpringBean(name = "admingui.controller")
   private transient IAdminGuiController controller;
 
-  Map<SingleUser, List<Event>> userEventListMap;
-  Map<Event, List<SingleUser>> eventUserListMap;
-
 
   public ConflictList(List<Event> eventList) {
-    InjectorHolder.getInjector().inject(this);
+    this(eventList, false);
+  }
 
-    userEventListMap = new HashMap<SingleUser, List<Event>>();
-    eventUserListMap = new HashMap<Event, List<SingleUser>>();
+  /**
+   * Creates the list.
+   *
+   * @param eventList       events to list.
+   * @param timeClashesOnly whether only events clashing in time are listed as conflicts.
+   */
+  public ConflictList(List<Event> eventList, boolean timeClashesOnly) {
+    InjectorHolder.getInjector().inject(this);
 
-    fillMaps(eventList);
+    List<Long> eventIds = new ArrayList<Long>(eventList.size());
+    for (Event event : eventList) {
+      eventIds.add(event.getId());
+    }
 
-    if (userEventListMap.size() == 0 || eventUserListMap.size() == 0) {
+    List<Object[]> participants = controller.getRegisteredParticipantsByEvents(eventIds);
+    if (participants.isEmpty()) {
       return;
     }
 
-    fillRows(eventList);
+    rows.addAll(createRows(eventList, participants, timeClashesOnly ? findTimeClashes(eventList) : null));
   }
 
-  private void fillMaps(List<Event> events) {
-    for (Event event : events) {
-      event = controller.getEventById(event.getId());
-      for (SingleUser user : getUsersFromEvent(event)) {
-        List<SingleUser> userList = eventUserListMap.get(event);
-        List<Event> eventList = userEventListMap.get(user);
+  /**
+   * Looks for the given events clashing in time with each event, using one {@link OccurrenceIndex} per term.
+   *
+   * @param eventList events to check.
+   * @return ids of the clashing events by event id.
+   */
+  private Map<Long, Set<Long>> findTimeClashes(List<Event> eventList) {
 
-        if (userList == null) {
-          userList = new ArrayList<SingleUser>();
-          eventUserListMap.put(event, userList);
-        }
-        if (eventList == null) {
-          eventList = new ArrayList<Event>();
-          userEventListMap.put(user, eventList);
+    Map<Long, OccurrenceIndex> indexes = new HashMap<Long, OccurrenceIndex>();
+    Map<Long, Set<Long>> clashes = new HashMap<Long, Set<Long>>(eventList.size() * 2);
+    for (Event event : eventList) {
+      Set<Long> clashing = Collections.emptySet();
+      if (event.getTerm() != null) {
+        OccurrenceIndex index = indexes.get(event.getTerm().getId());
+        if (index == null) {
+          index = controller.getOccurrenceIndexByTerm(event.getTerm().getId());
+          indexes.put(event.getTerm().getId(), index);
         }
-
-        userList.add(user);
-        eventList.add(event);
+        clashing = index.findClashingEventIds(Collections.singleton(event.getId()));
       }
+      clashes.put(event.getId(), clashing);
     }
+    return clashes;
   }
 
+  /**
+   * Creates the rows of the list. Events are numbered in the order of their event ids, every participant gets a {@link BitSet}
+   * of the events they are registered with, and the conflicts of an event are the union of the sets of its participants.
+   *
+   * @param eventList    events to list.
+   * @param participants rows of <code>[eventId, participant]</code> as returned by
+   *                     {@link IAdminGuiController#getRegisteredParticipantsByEvents(Collection)}.
+   * @return one row per given event.
+   */
+  static List<Row> createRows(List<Event> eventList, List<Object[]> participants) {
 
-  private List<SingleUser> getUsersFromEvent(Event event) {
-    List<SingleUser> users = new ArrayList<SingleUser>();
+    return createRows(eventList, participants, null);
+  }
 
-    for (Long regId : event.getConfirmedRegistrations()) {
-      ConfirmedRegistration registration = controller.getConfirmedRegistrationById(regId);
-      users.add(controller.getUserById(registration.getParticipant()));
+  /**
+   * Creates the rows of the list, keeping only the conflicts which also clash in time.
+   *
+   * @param eventList    events to list.
+   * @param participants rows of <code>[eventId, participant]</code>.
+   * @param timeClashes  ids of the events clashing in time by event id, or <code>null</code> to keep all conflicts.
+   * @return one row per given event.
+   */
+  static List<Row> createRows(List<Event> eventList, List<Object[]> participants, Map<Long, Set<Long>> timeClashes) {
+
+    List<Event> sorted = new ArrayList<Event>(eventList);
+    Collections.sort(sorted, new Comparator<Event>() {
+      @Override
+      public int compare(Event o1, Event o2) {
+
+        return o1.getEventId() < o2.getEventId() ? -1 : (o1.getEventId() == o2.getEventId() ? 0 : 1);
+      }
+    });
+
+    Map<Long, Integer> indexById = new HashMap<Long, Integer>(sorted.size() * 2);
+    int[] eventIdByIndex = new int[sorted.size()];
+    long[] idByIndex = new long[sorted.size()];
+    int count = 0;
+    for (Event event : sorted) {
+      if (!indexById.containsKey(event.getId())) {
+        indexById.put(event.getId(), count);
+        idByIndex[count] = event.getId();
+        eventIdByIndex[count++] = event.getEventId();
+      }
     }
-    return users;
-  }
 
+    Map<Long, BitSet> eventsByParticipant = new HashMap<Long, BitSet>();
+    for (Object[] row : participants) {
+      Integer index = indexById.get((Long) row[0]);
+      if (index == null) {
+        continue;
+      }
+      BitSet events = eventsByParticipant.get((Long) row[1]);
+      if (events == null) {
+        events = new BitSet(count);
+        eventsByParticipant.put((Long) row[1], events);
+      }
+      events.set(index);
+    }
 
-  private void fillRows(List<Event> eventList) {
+    BitSet[] conflicts = new BitSet[count];
+    for (int i = 0; i < count; i++) {
+      conflicts[i] = new BitSet(count);
+    }
+    for (BitSet events : eventsByParticipant.values()) {
+      for (int i = events.nextSetBit(0); i >= 0; i = events.nextSetBit(i + 1)) {
+        conflicts[i].or(events);
+      }
+    }
 
+    List<Row> result = new ArrayList<Row>(eventList.size());
     for (Event event : eventList) {
       List<String> content = new ArrayList<String>();
-
       content.add(expandInt(event.getEventId(), 4));
-      Set<Integer> ids = new HashSet<Integer>();
-      for (SingleUser user : new HashSet<SingleUser>(eventUserListMap.get(event))) {
-        for (Event e : new HashSet<Event>(userEventListMap.get(user))) {
-          ids.add(e.getEventId());
+
+      int self = indexById.get(event.getId());
+      Set<Long> clashing = timeClashes == null ? null : timeClashes.get(event.getId());
+      BitSet conflicting = conflicts[self];
+      for (int i = conflicting.nextSetBit(0); i >= 0; i = conflicting.nextSetBit(i + 1)) {
+        if (i == self || timeClashes == null || (clashing != null && clashing.contains(idByIndex[i]))) {
+          content.add(expandInt(eventIdByIndex[i], 4));
         }
       }
-      for (Integer i : ids) {
-        content.add(expandInt(i, 4));
-      }
 
-      rows.add(new Row(content));
+      result.add(new Row(content));
     }
-
-
+    return result;
   }
 
-  private String expandInt(int number, int digits) {
+  private static String expandInt(int number, int digits) {
     String s = Integer.toString(number);
 
     while (s.length() < digits) {
@@ -23,8 +23,9 @@ package hsa.awp.admingui.report.lists;
 
 import hsa.awp.admingui.controller.IAdminGuiController;
 import hsa.awp.admingui.report.util.Alignment;
-import hsa.awp.admingui.report.util.ExportList;
+import hsa.awp.admingui.report.util.PagedRowIterator;
 import hsa.awp.admingui.report.util.Row;
+import hsa.awp.admingui.report.util.StreamingExportList;
 import hsa.awp.admingui.report.util.formats.txt.TxtCellProperties;
 import hsa.awp.admingui.report.util.formats.txt.TxtPrintable;
 import hsa.awp.admingui.report.util.formats.txt.TxtProperties;
@@ -35,6 +36,7 @@ import org.apache.wicket.injection.web.InjectorHolder;
 import org.apache.wicket.spring.injection.annot.SpringBean;
 
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 
 import static hsa.awp.event.util.EventFormattingUtils.formatIdSubjectNameAndDetailInformation;
@@ -44,7 +46,7 @@ import static hsa.awp.event.util.EventFormattingUtils.formatIdSubjectNameAndDeta
  *
  * @author basti
  */
-public class CourseParticipationList extends ExportList implements TxtPrintable {
+public class CourseParticipationList extends StreamingExportList implements TxtPrintable {
   /**
    * Controller which feeds the class with data.
    */
@@ -57,13 +59,7 @@ public class CourseParticipationList extends ExportList implements TxtPrintable
   private Campaign campaign;
 
   /**
-   * List of events which are displayed.
-   */
-  private List<Event> events;
-
-
-  /**
-   * Constructor.
+   * Constructor. The events are loaded page by page while the list is printed.
    *
    * @param campaign campaign to look for.
    */
@@ -72,25 +68,37 @@ public class CourseParticipationList extends ExportList implements TxtPrintable
     InjectorHolder.getInjector().inject(this);
 
     this.campaign = campaign;
+  }
 
-    events = new ArrayList<Event>();
+  @Override
+  public Iterator<Row> iterator() {
 
-    for (Long id : this.campaign.getEventIds()) {
-      events.add(controller.getEventById(id));
-    }
+    final List<Long> eventIds = new ArrayList<Long>(campaign.getEventIds());
 
-    fillRows();
-  }
+    return new PagedRowIterator<Long>() {
+      @Override
+      protected List<Long> loadPage(int firstResult, int maxResults) {
+
+        return eventIds.subList(Math.min(firstResult, eventIds.size()), Math.min(firstResult + maxResults, eventIds.size()));
+      }
+
+      @Override
+      protected List<Row> createRows(List<Long> ids) {
 
-  private void fillRows() {
-    for (Event event : events) {
-      List<String> content = new ArrayList<String>();
+        List<Event> events = controller.getEventsById(ids);
+        List<Row> page = new ArrayList<Row>(events.size());
+        for (Event event : events) {
+          List<String> content = new ArrayList<String>();
 
-      content.add(formatIdSubjectNameAndDetailInformation(event));
-      content.add(String.valueOf(controller.countConfirmedRegistrationsByEventId(event.getId())));
+          content.add(formatIdSubjectNameAndDetailInformation(event));
+          content.add(String.valueOf(controller.countConfirmedRegistrationsByEventId(event.getId())));
 
-      rows.add(new Row(content));
-    }
+          page.add(new Row(content));
+        }
+        evict(events);
+        return page;
+      }
+    };
   }
 
   @Override
@@ -22,8 +22,9 @@
 package hsa.awp.admingui.report.lists;
 
 import hsa.awp.admingui.controller.IAdminGuiController;
-import hsa.awp.admingui.report.util.ExportList;
+import hsa.awp.admingui.report.util.PagedRowIterator;
 import hsa.awp.admingui.report.util.Row;
+import hsa.awp.admingui.report.util.StreamingExportList;
 import hsa.awp.admingui.report.util.formats.txt.TxtCellProperties;
 import hsa.awp.admingui.report.util.formats.txt.TxtPrintable;
 import hsa.awp.admingui.report.util.formats.txt.TxtProperties;
@@ -31,20 +32,20 @@ import hsa.awp.admingui.report.view.PrintableLists;
 import hsa.awp.campaign.model.Campaign;
 import hsa.awp.campaign.model.ConfirmedRegistration;
 import hsa.awp.event.model.Event;
+import hsa.awp.user.model.SingleUser;
 import hsa.awp.user.model.Student;
-import hsa.awp.user.model.User;
 import org.apache.wicket.injection.web.InjectorHolder;
 import org.apache.wicket.spring.injection.annot.SpringBean;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
-/**
- * List for the examoffice.
- *
- * @author basti
- */
-public class ExamOfficeList extends ExportList implements TxtPrintable {
+public class ExamOfficeList extends StreamingExportList implements TxtPrintable {
 
   /**
    * Controller which feeds the class with data.
@@ -53,12 +54,12 @@ public class ExamOfficeList extends ExportList implements TxtPrintable {
   private transient IAdminGuiController controller;
 
   /**
-   * List of all Registrations.
+   * Campaign whose registrations are listed.
    */
-  private List<ConfirmedRegistration> registrations;
+  private Campaign campaign;
 
   /**
-   * Constructor.
+   * Constructor. The registrations are loaded page by page while the list is printed.
    *
    * @param campaign campaign to look for
    */
@@ -66,30 +67,70 @@ public class ExamOfficeList extends ExportList implements TxtPrintable {
 
     InjectorHolder.getInjector().inject(this);
 
-    registrations = controller.findConfirmedRegistrationsByCampaign(campaign);
+    this.campaign = campaign;
+  }
+
+  @Override
+  public Iterator<Row> iterator() {
+
+    return new PagedRowIterator<ConfirmedRegistration>() {
+      @Override
+      protected List<ConfirmedRegistration> loadPage(int firstResult, int maxResults) {
+
+        return controller.findConfirmedRegistrationsByCampaign(campaign, firstResult, maxResults);
+      }
+
+      @Override
+      protected List<Row> createRows(List<ConfirmedRegistration> registrations) {
+
+        Set<Long> participantIds = new LinkedHashSet<Long>();
+        Set<Long> eventIds = new LinkedHashSet<Long>();
+        for (ConfirmedRegistration reg : registrations) {
+          participantIds.add(reg.getParticipant());
+          eventIds.add(reg.getEventId());
+        }
 
-    fillRows();
+        List<SingleUser> users = controller.getUsersByIds(participantIds);
+        List<Event> events = controller.getEventsById(eventIds);
+        evict(registrations);
+        evict(users);
+        evict(events);
+
+        return createRowsForRegistrations(registrations, users, events);
+      }
+    };
   }
 
-  private void fillRows() {
-    for (ConfirmedRegistration reg : registrations) {
-      List<String> content = new ArrayList<String>();
+  private List<Row> createRowsForRegistrations(List<ConfirmedRegistration> registrations, List<SingleUser> userList,
+                                               List<Event> eventList) {
 
-      Student stud;
-      User participant = controller.getParticipantById(reg.getParticipant());
-      Event event = controller.getEventById(reg.getEventId());
+    Map<Long, SingleUser> users = new HashMap<Long, SingleUser>();
+    for (SingleUser user : userList) {
+      users.put(user.getId(), user);
+    }
+    Map<Long, Event> events = new HashMap<Long, Event>();
+    for (Event event : eventList) {
+      events.put(event.getId(), event);
+    }
+
+    List<Row> page = new ArrayList<Row>(registrations.size());
+    for (ConfirmedRegistration reg : registrations) {
+      SingleUser participant = users.get(reg.getParticipant());
+      Event event = events.get(reg.getEventId());
 
-      if (!(participant instanceof Student)) {
-        continue; // User is not a Student
+      if (!(participant instanceof Student) || event == null) {
+        continue; // User is not a Student or the event is unknown
       }
-      stud = (Student) participant;
+      Student stud = (Student) participant;
 
+      List<String> content = new ArrayList<String>();
       content.add(String.valueOf(stud.getMatriculationNumber()));
       content.add(";");
       content.add(generateEventID(event));
 
-      rows.add(new Row(content));
+      page.add(new Row(content));
     }
+    return page;
   }
 
   private String generateEventID(Event event) {
@@ -22,15 +22,16 @@
 package hsa.awp.admingui.report.lists;
 
 import hsa.awp.admingui.controller.IAdminGuiController;
-import hsa.awp.admingui.report.util.ExportList;
 import hsa.awp.admingui.report.util.HeaderFooter;
+import hsa.awp.admingui.report.util.PagedRowIterator;
 import hsa.awp.admingui.report.util.Row;
+import hsa.awp.admingui.report.util.StreamingExportList;
 import hsa.awp.admingui.report.util.formats.csv.CsvPrintable;
 import hsa.awp.admingui.report.util.formats.csv.CsvProperties;
 import hsa.awp.admingui.report.util.formats.pdf.PdfCellProperties;
 import hsa.awp.admingui.report.util.formats.pdf.PdfPrintable;
 import hsa.awp.admingui.report.util.formats.pdf.PdfProperties;
-import hsa.awp.campaign.model.ConfirmedRegistration;
+import hsa.awp.common.util.EntityManagerUtil;
 import hsa.awp.event.model.Event;
 import hsa.awp.user.model.SingleUser;
 import hsa.awp.user.model.Student;
@@ -41,27 +42,18 @@ import org.apache.wicket.spring.injection.annot.SpringBean;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 
 import static hsa.awp.event.util.EventFormattingUtils.formatIdSubjectNameAndDetailInformation;
 
-public class ParticipantList extends ExportList implements CsvPrintable, PdfPrintable {
+public class ParticipantList extends StreamingExportList implements CsvPrintable, PdfPrintable {
 
   private Event event;
 
-  private Comparator<SingleUser> userComparator = new Comparator<SingleUser>() {
-    @Override
-    public int compare(SingleUser singleUser, SingleUser singleUser1) {
-      String lastName = singleUser.getLastName();
-      String lastName1 = singleUser1.getLastName();
-      if (lastName.compareTo(lastName1) == 0) {
-        return singleUser.getName().compareTo(singleUser1.getName());
-      }
-      return lastName.compareTo(lastName1);
-    }
-  };
-
   @SpringBean(name = "admingui.controller")
   private transient IAdminGuiController controller;
 
@@ -74,48 +66,90 @@ public class ParticipantList extends ExportList implements CsvPrintable, PdfPrin
     this.matriculationNumber = matriculationNumber;
     this.mail = mail;
     this.eventDesc = eventDesc;
-    fillRows();
   }
 
   public ParticipantList(Event event, boolean matriculationNumber, boolean mail) {
     this(event, matriculationNumber, mail, false);
   }
 
-  private String getFormattedUserName(SingleUser user) {
-    return String.format("%s, %s", user.getLastName(), user.getFirstName());
-  }
+  /**
+   * Creates the rows when the list is printed. The rows are numbered in the order of the participants' names, so all participants
+   * are read before the first row is returned. The users are loaded page by page and detached again, only the texts of the rows
+   * are kept.
+   */
+  @Override
+  public Iterator<Row> iterator() {
 
-  private void fillRows() {
+    List<Long> participantIds = new ArrayList<Long>();
+    for (Object[] row : controller.getRegisteredParticipantsByEvents(Collections.singleton(event.getId()))) {
+      participantIds.add((Long) row[1]);
+    }
 
-    List<SingleUser> users = getUsersFromEvent();
-    Collections.sort(users, userComparator);
+    final List<ParticipantRow> participantRows = new ArrayList<ParticipantRow>(participantIds.size());
+    for (int from = 0; from < participantIds.size(); from += PagedRowIterator.DEFAULT_PAGE_SIZE) {
+      List<Long> ids = participantIds.subList(from, Math.min(from + PagedRowIterator.DEFAULT_PAGE_SIZE, participantIds.size()));
+      List<Object> loaded = new ArrayList<Object>();
+      for (SingleUser user : getUsers(ids, loaded)) {
+        participantRows.add(new ParticipantRow(user.getLastName(), user.getName(), createContent(user)));
+      }
+      EntityManagerUtil.detach(loaded);
+    }
+    Collections.sort(participantRows);
 
-    int index = 1;
-    for (SingleUser user : users) {
-      List<String> content = new ArrayList<String>();
-      content.add(String.valueOf(index));
+    return new Iterator<Row>() {
+      private int index = 0;
 
-      content.add(getFormattedUserName(user));
+      @Override
+      public boolean hasNext() {
 
-      if (matriculationNumber) {
-        content.add(getMatriculationNumberFromUser(user));
+        return index < participantRows.size();
       }
 
-      if (mail) {
-        content.add(user.getMail());
+      @Override
+      public Row next() {
+
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        List<String> content = participantRows.get(index).content;
+        index++;
+        content.add(0, String.valueOf(index));
+        return new Row(content);
       }
 
-      content.add(getStudyCourseFromUser(user));
-      content.add(getTermFromUser(user));
+      @Override
+      public void remove() {
 
-      if (eventDesc) {
-        content.add(getEventDescription(event));
+        throw new UnsupportedOperationException("rows can not be removed");
       }
+    };
+  }
+
+  private String getFormattedUserName(SingleUser user) {
+    return String.format("%s, %s", user.getLastName(), user.getFirstName());
+  }
+
+  private List<String> createContent(SingleUser user) {
+
+    List<String> content = new ArrayList<String>();
+    content.add(getFormattedUserName(user));
+
+    if (matriculationNumber) {
+      content.add(getMatriculationNumberFromUser(user));
+    }
 
-      rows.add(new Row(content));
-      index++;
+    if (mail) {
+      content.add(user.getMail());
+    }
+
+    content.add(getStudyCourseFromUser(user));
+    content.add(getTermFromUser(user));
+
+    if (eventDesc) {
+      content.add(getEventDescription(event));
     }
 
+    return content;
   }
 
   private String getEventDescription(Event event) {
@@ -146,17 +180,35 @@ public class ParticipantList extends ExportList implements CsvPrintable, PdfPrin
     }
   }
 
-  private List<SingleUser> getUsersFromEvent() {
-
-    List<SingleUser> users = new ArrayList<SingleUser>();
-
-    for (ConfirmedRegistration reg : controller.getConfirmedRegistrationsByEvent(event)) {
-      User usr = controller.getParticipantById(reg.getParticipant());
-      users.addAll(UserUtil.generateSingleUserFromUser(usr));
+  /**
+   * Loads the users of the given participants with one bulk query. Groups are loaded one by one and replaced by their members.
+   *
+   * @param ids    ids of the participants, a participant registered twice is returned twice.
+   * @param loaded receives the loaded users and groups.
+   * @return the participants as {@link SingleUser}s.
+   */
+  private List<SingleUser> getUsers(List<Long> ids, List<Object> loaded) {
+
+    Map<Long, SingleUser> singleUsers = new HashMap<Long, SingleUser>();
+    for (SingleUser user : controller.getUsersByIds(ids)) {
+      singleUsers.put(user.getId(), user);
+    }
+    loaded.addAll(singleUsers.values());
+
+    List<SingleUser> users = new ArrayList<SingleUser>(ids.size());
+    for (Long id : ids) {
+      SingleUser user = singleUsers.get(id);
+      if (user != null) {
+        users.add(user);
+      } else {
+        User usr = controller.getParticipantById(id);
+        List<SingleUser> members = UserUtil.generateSingleUserFromUser(usr);
+        loaded.add(usr);
+        loaded.addAll(members);
+        users.addAll(members);
+      }
     }
-
     return users;
-
   }
 
   @Override
@@ -190,4 +242,31 @@ public class ParticipantList extends ExportList implements CsvPrintable, PdfPrin
   public String toString() {
     return event.getSubject().getName() + "-Teilnehmerliste";
   }
+
+  /**
+   * Texts of a row without its number, sorted by the name of the participant.
+   */
+  private static final class ParticipantRow implements Comparable<ParticipantRow> {
+    private final String lastName;
+
+    private final String name;
+
+    private final List<String> content;
+
+    private ParticipantRow(String lastName, String name, List<String> content) {
+
+      this.lastName = lastName;
+      this.name = name;
+      this.content = content;
+    }
+
+    @Override
+    public int compareTo(ParticipantRow other) {
+
+      if (lastName.compareTo(other.lastName) == 0) {
+        return name.compareTo(other.name);
+      }
+      return lastName.compareTo(other.lastName);
+    }
+  }
 }
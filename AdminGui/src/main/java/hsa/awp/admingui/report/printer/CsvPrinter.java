@@ -25,8 +25,6 @@ import hsa.awp.admingui.report.util.ExportList;
 import hsa.awp.admingui.report.util.Row;
 import hsa.awp.admingui.report.util.formats.csv.CsvPrintable;
 
-import java.util.List;
-
 public class CsvPrinter extends TxtPrinter {
 
   @Override
@@ -49,18 +47,21 @@ public class CsvPrinter extends TxtPrinter {
   private void printList(ExportList list) {
     CsvPrintable printable = (CsvPrintable) list;
     String separator = printable.getCsvProperties().getSeparator();
-    for (Row row : list.getRows()) {
-      StringBuffer line = new StringBuffer();
+    for (Row row : list) {
       for (String s : row.getContent()) {
-        line.append(s + separator);
+        printer.write(String.valueOf(s));
+        printer.write(separator);
       }
-      printer.write(line.toString() + "\r\n");
+      printer.write("\r\n");
     }
   }
 
   @Override
-  public void print(List<ExportList> lists) {
+  public void print(Iterable<? extends ExportList> lists) {
     for (ExportList list : lists) {
+      if (!(list instanceof CsvPrintable)) {
+        throw new IllegalArgumentException("CsvPrinter can only print CsvPrintables");
+      }
       printList(list);
     }
 
@@ -24,15 +24,13 @@ package hsa.awp.admingui.report.printer;
 import com.itextpdf.text.Document;
 import com.itextpdf.text.DocumentException;
 import com.itextpdf.text.pdf.*;
-import hsa.awp.admingui.report.util.ExportList;
 
 import java.io.*;
 import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
 
 /**
- * Class for merging PDF files.
+ * Class for merging PDF files. Lists are printed into one document by {@link PdfPrinter#print(Iterable)} directly.
  *
  * @author basti
  */
@@ -41,31 +39,6 @@ public class MergePDFUtil {
   private PdfContentByte cb;
   private PdfWriter writer;
 
-  /**
-   * Concate pdf from printableList.
-   *
-   * @param pdfFiles     lists to print
-   * @param outputStream outputStream.
-   */
-  public void concatPDFs(List<ExportList> pdfFiles, OutputStream outputStream) {
-    List<InputStream> input = generateInputFromPdfLists(pdfFiles);
-
-    concatPDFs(input, outputStream, false);
-  }
-
-  private List<InputStream> generateInputFromPdfLists(List<ExportList> pdfFiles) {
-    List<InputStream> input = new LinkedList<InputStream>();
-
-    for (final ExportList list : pdfFiles) {
-      ByteArrayOutputStream out = new ByteArrayOutputStream();
-      PdfPrinter printer = new PdfPrinter();
-      printer.setOutputStream(out);
-      printer.print(list);
-      input.add(new ByteArrayInputStream(out.toByteArray()));
-    }
-    return input;
-  }
-
   /**
    * merges PDF's.
    *
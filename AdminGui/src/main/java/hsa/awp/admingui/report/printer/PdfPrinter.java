@@ -24,122 +24,149 @@ package hsa.awp.admingui.report.printer;
 import com.itextpdf.text.*;
 import com.itextpdf.text.pdf.PdfPCell;
 import com.itextpdf.text.pdf.PdfPTable;
+import com.itextpdf.text.pdf.PdfPageEventHelper;
 import com.itextpdf.text.pdf.PdfWriter;
 import hsa.awp.admingui.report.util.ExportList;
 import hsa.awp.admingui.report.util.HeaderFooter;
 import hsa.awp.admingui.report.util.Row;
 import hsa.awp.admingui.report.util.formats.pdf.PdfCellProperties;
 import hsa.awp.admingui.report.util.formats.pdf.PdfPrintable;
+import hsa.awp.admingui.report.util.formats.pdf.PdfProperties;
 
 import java.io.OutputStream;
+import java.util.Collections;
+import java.util.List;
 
+/**
+ * Prints {@link PdfPrintable}s. Several lists are printed into one document, each starting on a new page with its own header.
+ * The rows are written to the output stream in chunks, so the size of a list is not limited by the available memory.
+ */
 public class PdfPrinter implements Printer {
 
+  /**
+   * Number of rows after which the table is written to the document.
+   */
+  private static final int ROWS_PER_CHUNK = 100;
+
   private OutputStream outputStream;
 
   @Override
   public void print(ExportList list) {
 
+    print(Collections.singletonList(list));
+  }
+
+  @Override
+  public void print(Iterable<? extends ExportList> lists) {
+
     if (outputStream == null) {
       throw new IllegalArgumentException("OutputStream undefined, please use setOutputStream()");
     }
 
-    if (!(list instanceof PdfPrintable)) {
-      throw new IllegalArgumentException("PdfPrinter can only print PdfPrintables");
-    }
-
-    PdfPrintable pdfPrintable = (PdfPrintable) list;
-    Document document = setUpDocument(pdfPrintable);
+    Document document = new Document(PageSize.A4, 20, 20, 60, 50); // left,right,top,bottom
+    ListHeaderFooter headerFooter = new ListHeaderFooter();
 
     try {
-      document.open();
-
-      int numberOfColumns = pdfPrintable.getPdfProperties().getCellProperties().size();
-      int numberOfRows = list.getRows().size();
-
-      PdfPTable table = new PdfPTable(numberOfColumns);
+      PdfWriter writer = PdfWriter.getInstance(document, outputStream);
+      writer.setBoxSize("art", new Rectangle(36, 54, 559, 788));
+      writer.setPageEvent(headerFooter);
 
-      float[] widths = new float[numberOfColumns];
+      boolean first = true;
+      for (ExportList list : lists) {
+        if (!(list instanceof PdfPrintable)) {
+          throw new IllegalArgumentException("PdfPrinter can only print PdfPrintables");
+        }
 
+        PdfProperties properties = ((PdfPrintable) list).getPdfProperties();
+        if (first) {
+          headerFooter.current = properties.getHeaderFooter();
+          document.open();
+          first = false;
+        } else {
+          // ends the last page of the previous list with its header
+          document.newPage();
+          headerFooter.current = properties.getHeaderFooter();
+        }
 
-      for (int i = 0; i < widths.length; i++) {
-        widths[i] = pdfPrintable.getPdfProperties().getCellProperties().get(i).getWidth();
+        printList(document, list, properties);
       }
 
-      table.setWidths(widths);
-
-      /* header */
-      for (PdfCellProperties cellProperties : pdfPrintable.getPdfProperties().getCellProperties()) {
-        PdfPCell cell = new PdfPCell(new Phrase(cellProperties.getHeadline(), FontFactory
-            .getFont(FontFactory.HELVETICA_BOLD)));
-        cell.setHorizontalAlignment(Element.ALIGN_CENTER);
-        table.addCell(cell);
+      if (!first) {
+        document.close();
       }
+    } catch (DocumentException e) {
+      // the document is incomplete, so the download is aborted instead of delivering a truncated file
+      throw new IllegalStateException("could not print the lists", e);
+    }
+  }
 
+  private void printList(Document document, ExportList list, PdfProperties properties) throws DocumentException {
 
-      /* content */
-      int rowIndex = 0;
-      for (Row row : list.getRows()) {
-        int columnIndex = 0;
-        for (String content : row.getContent()) {
-          if (content != null) {
-            PdfPCell cell = new PdfPCell(
-                new Phrase(content, FontFactory.getFont(FontFactory.HELVETICA)));
-            cell.setHorizontalAlignment(pdfPrintable.getPdfProperties().getCellProperties().get(columnIndex).getAlignment().getPdfAlign());
-            table.addCell(cell);
-          } else {
-            table.addCell("");
-          }
-          columnIndex++;
-        }
-        rowIndex++;
-      }
+    List<PdfCellProperties> cellProperties = properties.getCellProperties();
+    int numberOfColumns = cellProperties.size();
 
-//      /* footer */
-//      if (footerFound) {
-//        for (PdfTableColumn tableColumn : cols) {
-//          table.addCell(tableColumn.getFooter());
-//        }
-//      }
+    PdfPTable table = new PdfPTable(numberOfColumns);
+    table.setComplete(false);
 
+    float[] widths = new float[numberOfColumns];
+    for (int i = 0; i < widths.length; i++) {
+      widths[i] = cellProperties.get(i).getWidth();
+    }
 
-      document.add(table);
+    table.setWidths(widths);
 
-      document.add(new Phrase(" "));
+    /* header */
+    for (PdfCellProperties cell : cellProperties) {
+      PdfPCell pdfCell = new PdfPCell(new Phrase(cell.getHeadline(), FontFactory.getFont(FontFactory.HELVETICA_BOLD)));
+      pdfCell.setHorizontalAlignment(Element.ALIGN_CENTER);
+      table.addCell(pdfCell);
+    }
 
-      document.close();
-    } catch (DocumentException e) {
-      e.printStackTrace();
+    /* content */
+    int rowIndex = 0;
+    for (Row row : list) {
+      int columnIndex = 0;
+      for (String content : row.getContent()) {
+        if (content != null) {
+          PdfPCell cell = new PdfPCell(new Phrase(content, FontFactory.getFont(FontFactory.HELVETICA)));
+          cell.setHorizontalAlignment(cellProperties.get(columnIndex).getAlignment().getPdfAlign());
+          table.addCell(cell);
+        } else {
+          table.addCell("");
+        }
+        columnIndex++;
+      }
+      rowIndex++;
+
+      // written rows are removed from the table
+      if (rowIndex % ROWS_PER_CHUNK == 0) {
+        document.add(table);
+      }
     }
 
+    table.setComplete(true);
+    document.add(table);
 
+    document.add(new Phrase(" "));
   }
 
   @Override
-  public void print(java.util.List<ExportList> lists) {
-    MergePDFUtil mergePDFUtil = new MergePDFUtil();
-    mergePDFUtil.concatPDFs(lists, outputStream);
+  public void setOutputStream(OutputStream outputStream) {
+    this.outputStream = outputStream;
   }
 
-  private Document setUpDocument(PdfPrintable pdfPrintable) {
-    Document document = new Document(PageSize.A4, 20, 20, 60, 50); // left,right,top,bottom
+  /**
+   * Delegates to the {@link HeaderFooter} of the list currently printed.
+   */
+  private static class ListHeaderFooter extends PdfPageEventHelper {
+    private HeaderFooter current;
 
-    PdfWriter writer = null;
-    try {
-      writer = PdfWriter.getInstance(document, outputStream);
-      writer.setBoxSize("art", new Rectangle(36, 54, 559, 788));
+    @Override
+    public void onEndPage(PdfWriter writer, Document document) {
 
-      HeaderFooter event = pdfPrintable.getPdfProperties().getHeaderFooter();
-      writer.setPageEvent(event);
-    } catch (DocumentException e) {
-      e.printStackTrace();  //To change body of catch statement use File | Settings | File Templates.
+      if (current != null) {
+        current.onEndPage(writer, document);
+      }
     }
-
-    return document;
-  }
-
-  @Override
-  public void setOutputStream(OutputStream outputStream) {
-    this.outputStream = outputStream;
   }
 }
@@ -24,13 +24,18 @@ package hsa.awp.admingui.report.printer;
 import hsa.awp.admingui.report.util.ExportList;
 
 import java.io.OutputStream;
-import java.util.List;
 
 public interface Printer {
 
   void print(ExportList list);
 
-  void print(List<ExportList> lists);
+  /**
+   * Prints several lists into the output stream. The lists are iterated only once, so they may be created while printing.
+   *
+   * @param lists lists to print.
+   * @throws IllegalStateException if the output could not be written. The output is incomplete in this case.
+   */
+  void print(Iterable<? extends ExportList> lists);
 
   void setOutputStream(OutputStream outputStream);
 
@@ -26,6 +26,7 @@ import hsa.awp.admingui.report.util.ExportList;
 import hsa.awp.admingui.report.util.Row;
 import hsa.awp.admingui.report.util.formats.txt.TxtCellProperties;
 import hsa.awp.admingui.report.util.formats.txt.TxtPrintable;
+import hsa.awp.admingui.report.util.formats.txt.TxtProperties;
 
 import java.io.OutputStream;
 import java.io.PrintWriter;
@@ -54,25 +55,29 @@ public class TxtPrinter implements Printer {
   }
 
   private void printList(ExportList list) {
-    TxtPrintable txtPrintable = (TxtPrintable) list;
+    TxtProperties txtProperties = ((TxtPrintable) list).getTxtProperties();
+    List<TxtCellProperties> cellProperties = txtProperties.getCellProperties();
 
-    for (Row row : list.getRows()) {
-      StringBuffer line = new StringBuffer();
+    for (Row row : list) {
       int i = 0;
       for (String s : row.getContent()) {
 
-        TxtCellProperties properties = txtPrintable.getTxtProperties().getCellProperties().get(i);
-        line.append(fillStringToSize(s, properties.getWidth(), properties.getAlignment()) + txtPrintable.getTxtProperties().getSeperator());
+        TxtCellProperties properties = cellProperties.get(i);
+        printer.write(fillStringToSize(s, properties.getWidth(), properties.getAlignment()));
+        printer.write(txtProperties.getSeperator());
         i++;
       }
-      printer.write(line.toString() + "\r\n");
+      printer.write("\r\n");
     }
   }
 
   @Override
-  public void print(List<ExportList> lists) {
+  public void print(Iterable<? extends ExportList> lists) {
 
-    for (ExportList list: lists) {
+    for (ExportList list : lists) {
+      if (!(list instanceof TxtPrintable)) {
+        throw new IllegalArgumentException("TxtPrinter can only print TxtPrintables");
+      }
       printList(list);
     }
 
@@ -23,9 +23,15 @@ package hsa.awp.admingui.report.util;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 
-public abstract class ExportList implements Serializable {
+/**
+ * A list which can be printed by a {@link hsa.awp.admingui.report.printer.Printer}. Printers only iterate over the rows, so
+ * large lists can override {@link #iterator()} to create their rows while they are printed instead of holding all of them in
+ * {@link #rows}.
+ */
+public abstract class ExportList implements Serializable, Iterable<Row> {
 
   protected List<Row> rows = new ArrayList<Row>();
 
@@ -39,6 +45,11 @@ public abstract class ExportList implements Serializable {
     this.rows = rows;
   }
 
+  @Override
+  public Iterator<Row> iterator() {
+    return getRows().iterator();
+  }
+
   public abstract String toString();
 
 }
@@ -40,6 +40,11 @@ public class HeaderFooter extends PdfPageEventHelper {
    */
   private String title, subtitle;
 
+  /**
+   * Number of the first page with this header, as several lists can be printed into one document.
+   */
+  private int firstPage = 0;
+
   /**
    * Constructor without subtitle.
    *
@@ -70,6 +75,10 @@ public class HeaderFooter extends PdfPageEventHelper {
    */
   public void onEndPage(PdfWriter writer, Document document) {
 
+    if (firstPage == 0) {
+      firstPage = writer.getPageNumber();
+    }
+
     Rectangle rect = writer.getBoxSize("art");
     /* title */
     ColumnText.showTextAligned(writer.getDirectContent(), Element.ALIGN_LEFT, new Phrase(title, FontFactory.getFont(
@@ -86,6 +95,6 @@ public class HeaderFooter extends PdfPageEventHelper {
         .getRight(), rect.getTop() + 15, 0);
     /* pagenumber */
     ColumnText.showTextAligned(writer.getDirectContent(), Element.ALIGN_CENTER, new Phrase(String.format("Seite %d", writer
-        .getPageNumber())), (rect.getLeft() + rect.getRight()) / 2, rect.getBottom() - 25, 0);
+        .getPageNumber() - firstPage + 1)), (rect.getLeft() + rect.getRight()) / 2, rect.getBottom() - 25, 0);
   }
 }
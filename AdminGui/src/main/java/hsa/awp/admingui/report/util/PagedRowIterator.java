@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2010-2012 Matthias Klass, Johannes Leimer,
+ *               Rico Lieback, Sebastian Gabriel, Lothar Gesslein,
+ *               Alexander Rampp, Kai Weidner
+ *
+ * This file is part of the Physalix Enrollment System
+ *
+ * Foobar is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Foobar is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Foobar.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package hsa.awp.admingui.report.util;
+
+import hsa.awp.common.util.EntityManagerUtil;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterator creating the {@link Row}s of an {@link ExportList} page by page. Only the current page is held in memory, so the rows
+ * of large lists can be printed without loading all of them first. Entities passed to {@link #evict(Collection)} are detached
+ * as soon as the rows of their page are created, so the persistence context of the request does not grow with the list.
+ *
+ * @param <T> type of the items the rows are created from.
+ */
+public abstract class PagedRowIterator<T> implements Iterator<Row> {
+  /**
+   * Default number of items loaded at once.
+   */
+  public static final int DEFAULT_PAGE_SIZE = 200;
+
+  private final int pageSize;
+
+  private int firstResult = 0;
+
+  private boolean lastPage = false;
+
+  private Iterator<Row> page = Collections.<Row>emptyList().iterator();
+
+  /**
+   * Entities loaded for the current page.
+   */
+  private final List<Object> pageEntities = new ArrayList<Object>();
+
+  public PagedRowIterator() {
+
+    this(DEFAULT_PAGE_SIZE);
+  }
+
+  public PagedRowIterator(int pageSize) {
+
+    if (pageSize <= 0) {
+      throw new IllegalArgumentException("page size has to be positive");
+    }
+    this.pageSize = pageSize;
+  }
+
+  /**
+   * Loads one page of items.
+   *
+   * @param firstResult index of the first item.
+   * @param maxResults  maximum number of items.
+   * @return the items, less than maxResults if it is the last page.
+   */
+  protected abstract List<T> loadPage(int firstResult, int maxResults);
+
+  /**
+   * Creates the rows for one page of items. Items may be skipped.
+   *
+   * @param items items of the page.
+   * @return the rows.
+   */
+  protected abstract List<Row> createRows(List<T> items);
+
+  @Override
+  public boolean hasNext() {
+
+    while (!page.hasNext() && !lastPage) {
+      List<T> items = loadPage(firstResult, pageSize);
+      firstResult += items.size();
+      lastPage = items.size() < pageSize;
+      page = createRows(items).iterator();
+
+      detach(pageEntities);
+      pageEntities.clear();
+    }
+    return page.hasNext();
+  }
+
+  /**
+   * Marks entities loaded for the current page. They are detached once the rows of the page have been created, the rows must
+   * therefore not reference them.
+   *
+   * @param entities entities loaded for the page.
+   */
+  protected void evict(Collection<?> entities) {
+
+    pageEntities.addAll(entities);
+  }
+
+  /**
+   * Detaches the entities of a page from the persistence context of the current request.
+   *
+   * @param entities entities to detach.
+   */
+  protected void detach(List<Object> entities) {
+
+    EntityManagerUtil.detach(entities);
+  }
+
+  @Override
+  public Row next() {
+
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    return page.next();
+  }
+
+  @Override
+  public void remove() {
+
+    throw new UnsupportedOperationException("rows can not be removed");
+  }
+}
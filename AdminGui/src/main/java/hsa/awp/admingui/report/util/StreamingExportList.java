@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2010-2012 Matthias Klass, Johannes Leimer,
+ *               Rico Lieback, Sebastian Gabriel, Lothar Gesslein,
+ *               Alexander Rampp, Kai Weidner
+ *
+ * This file is part of the Physalix Enrollment System
+ *
+ * Foobar is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Foobar is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Foobar.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package hsa.awp.admingui.report.util;
+
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * {@link ExportList} whose rows are created while iterating, usually with a {@link PagedRowIterator}. The rows are only kept if
+ * {@link #getRows()} is called, printers just iterate over the list.
+ */
+public abstract class StreamingExportList extends ExportList {
+
+  @Override
+  public abstract Iterator<Row> iterator();
+
+  /**
+   * Creates and keeps all rows of the list. Should only be used for small lists.
+   *
+   * @return all rows.
+   */
+  @Override
+  public List<Row> getRows() {
+
+    if (rows.isEmpty()) {
+      for (Iterator<Row> it = iterator(); it.hasNext();) {
+        rows.add(it.next());
+      }
+    }
+    return rows;
+  }
+}
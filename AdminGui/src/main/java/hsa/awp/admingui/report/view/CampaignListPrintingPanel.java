@@ -34,6 +34,7 @@ import hsa.awp.campaign.model.Campaign;
 import hsa.awp.event.model.Event;
 import org.apache.wicket.markup.html.basic.Label;
 import org.apache.wicket.markup.html.form.Button;
+import org.apache.wicket.markup.html.form.CheckBox;
 import org.apache.wicket.markup.html.form.ChoiceRenderer;
 import org.apache.wicket.markup.html.form.DropDownChoice;
 import org.apache.wicket.markup.html.form.Form;
@@ -93,11 +94,12 @@ public class CampaignListPrintingPanel extends Panel {
         new LinkedList<Event>());
     listSelector.setOutputMarkupId(true);
 
+    final CheckBox timeClashesOnly = new CheckBox("conflict.timeClashesOnly", new Model<Boolean>(Boolean.FALSE));
 
     Button downloadButton = new Button("conflict.txtDownload") {
       public void onSubmit() {
 
-        final ConflictList list = new ConflictList(listSelector.getSelected());
+        final ConflictList list = new ConflictList(listSelector.getSelected(), timeClashesOnly.getModelObject());
 
         IResourceStream resourceStream = new AbstractResourceStreamWriter() {
           /**
@@ -124,6 +126,7 @@ public class CampaignListPrintingPanel extends Panel {
     };
 
     form.add(listSelector);
+    form.add(timeClashesOnly);
     form.add(createListInfoLabel("conflict.listInfo", PrintableLists.COURSECONFLICTLIST));
     form.add(downloadButton);
     return form;
@@ -26,9 +26,7 @@ import hsa.awp.admingui.report.lists.ParticipantList;
 import hsa.awp.admingui.report.printer.CsvPrinter;
 import hsa.awp.admingui.report.printer.PdfPrinter;
 import hsa.awp.admingui.report.printer.Printer;
-import hsa.awp.admingui.report.util.ExportList;
 import hsa.awp.admingui.report.util.formats.csv.CsvProperties;
-import hsa.awp.admingui.report.util.formats.pdf.PdfPrintable;
 import hsa.awp.admingui.util.AccessUtil;
 import hsa.awp.campaign.model.Campaign;
 import hsa.awp.event.model.Event;
@@ -45,7 +43,9 @@ import org.apache.wicket.util.resource.IResourceStream;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.io.OutputStream;
+import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -125,10 +125,9 @@ public class EventListPrintingPanel extends Panel {
           return;
         }
 
-        final List<ExportList> lists = new ArrayList<ExportList>();
-        for (Event event : listSelector.getSelected()) {
-          lists.add(new ParticipantList(event, matNumber.getModelObject(), email.getModelObject()));
-        }
+        final ParticipantLists lists = new ParticipantLists(listSelector.getSelected(), matNumber.getModelObject(),
+            email.getModelObject(), false);
+        final ParticipantList first = lists.iterator().next();
 
         IResourceStream resourceStream = new AbstractResourceStreamWriter() {
           /**
@@ -139,7 +138,7 @@ public class EventListPrintingPanel extends Panel {
           @Override
           public String getContentType() {
 
-            return ((PdfPrintable) lists.get(0)).getPdfProperties().getMimeType();
+            return first.getPdfProperties().getMimeType();
           }
 
           public void write(OutputStream output) {
@@ -150,7 +149,7 @@ public class EventListPrintingPanel extends Panel {
         };
 
         getRequestCycle().setRequestTarget(
-            new ResourceStreamRequestTarget(resourceStream).setFileName("Teilnehmerliste" + ((PdfPrintable) lists.get(0)).getPdfProperties().getFileExtension()));
+            new ResourceStreamRequestTarget(resourceStream).setFileName("Teilnehmerliste" + first.getPdfProperties().getFileExtension()));
         return;
       }
     };
@@ -164,10 +163,8 @@ public class EventListPrintingPanel extends Panel {
           return;
         }
 
-        final List<ExportList> lists = new ArrayList<ExportList>();
-        for (Event event : listSelector.getSelected()) {
-          lists.add(new ParticipantList(event, matNumber.getModelObject(), email.getModelObject(), true));
-        }
+        final ParticipantLists lists = new ParticipantLists(listSelector.getSelected(), matNumber.getModelObject(),
+            email.getModelObject(), true);
 
         IResourceStream resourceStream = new AbstractResourceStreamWriter() {
           /**
@@ -214,4 +211,50 @@ public class EventListPrintingPanel extends Panel {
     return controller.getEventsByTeacher(SecurityContextHolder.getContext().getAuthentication().getName());
   }
 
+  /**
+   * Creates the participant lists of the given events one after another while they are printed, so only the list currently
+   * printed is held in memory.
+   */
+  private static class ParticipantLists implements Iterable<ParticipantList>, Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final List<Event> events;
+
+    private final boolean matriculationNumber, mail, eventDesc;
+
+    public ParticipantLists(List<Event> events, boolean matriculationNumber, boolean mail, boolean eventDesc) {
+
+      this.events = new ArrayList<Event>(events);
+      this.matriculationNumber = matriculationNumber;
+      this.mail = mail;
+      this.eventDesc = eventDesc;
+    }
+
+    @Override
+    public Iterator<ParticipantList> iterator() {
+
+      final Iterator<Event> it = events.iterator();
+
+      return new Iterator<ParticipantList>() {
+        @Override
+        public boolean hasNext() {
+
+          return it.hasNext();
+        }
+
+        @Override
+        public ParticipantList next() {
+
+          return new ParticipantList(it.next(), matriculationNumber, mail, eventDesc);
+        }
+
+        @Override
+        public void remove() {
+
+          throw new UnsupportedOperationException();
+        }
+      };
+    }
+  }
+
 }
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2010-2012 Matthias Klass, Johannes Leimer,
+ *               Rico Lieback, Sebastian Gabriel, Lothar Gesslein,
+ *               Alexander Rampp, Kai Weidner
+ *
+ * This file is part of the Physalix Enrollment System
+ *
+ * Foobar is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Foobar is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Foobar.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package hsa.awp.admingui.util;
+
+import hsa.awp.common.IGenericDomainModel;
+import hsa.awp.gui.util.LoadableDetachedModel;
+import org.apache.wicket.extensions.markup.html.repeater.util.SortParam;
+import org.apache.wicket.extensions.markup.html.repeater.util.SortableDataProvider;
+import org.apache.wicket.model.IModel;
+
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Sortable data provider which lets the database do the paging and sorting. Only the elements of the current page are loaded,
+ * the rows only keep the id of their element and reload it after being detached.
+ *
+ * @param <T> type of the listed domain objects.
+ */
+public abstract class AbstractPagedDataProvider<T extends IGenericDomainModel<Long>> extends SortableDataProvider<T> {
+  /**
+   * unique serialization id.
+   */
+  private static final long serialVersionUID = -3461835546097302655L;
+
+  /**
+   * Number of elements, cached until the provider is detached.
+   */
+  private transient Integer size;
+
+  /**
+   * Creates a new provider.
+   *
+   * @param sortProperty property path to sort by initially.
+   * @param ascending    initial sort direction.
+   */
+  public AbstractPagedDataProvider(String sortProperty, boolean ascending) {
+
+    setSort(sortProperty, ascending);
+  }
+
+  @Override
+  public Iterator<? extends T> iterator(int first, int count) {
+
+    SortParam sort = getSort();
+    if (sort == null) {
+      return load(first, count, null, true).iterator();
+    }
+    return load(first, count, sort.getProperty(), sort.isAscending()).iterator();
+  }
+
+  @Override
+  public int size() {
+
+    if (size == null) {
+      size = (int) count();
+    }
+    return size;
+  }
+
+  @Override
+  public IModel<T> model(final T object) {
+
+    final Long id = object.getId();
+    LoadableDetachedModel<T> model = new LoadableDetachedModel<T>() {
+      /**
+       * unique serialization id.
+       */
+      private static final long serialVersionUID = 4238860127520446213L;
+
+      @Override
+      protected T load() {
+
+        return loadById(id);
+      }
+    };
+    model.setObject(object);
+    return model;
+  }
+
+  @Override
+  public void detach() {
+
+    size = null;
+  }
+
+  /**
+   * Counts all elements of the list.
+   *
+   * @return number of elements.
+   */
+  protected abstract long count();
+
+  /**
+   * Loads one page of elements.
+   *
+   * @param first        index of the first element.
+   * @param count        maximum number of elements.
+   * @param sortProperty property path to sort by, may be null.
+   * @param ascending    sort direction.
+   * @return the elements of the page.
+   */
+  protected abstract List<T> load(int first, int count, String sortProperty, boolean ascending);
+
+  /**
+   * Reloads a single element of the list.
+   *
+   * @param id id of the element.
+   * @return the element.
+   */
+  protected abstract T loadById(Long id);
+}
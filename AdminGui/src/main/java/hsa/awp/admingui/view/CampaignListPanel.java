@@ -25,6 +25,7 @@ import hsa.awp.admingui.OnePanelPage;
 import hsa.awp.admingui.controller.IAdminGuiController;
 import hsa.awp.admingui.edit.AlterCampaignPanel;
 import hsa.awp.admingui.util.AbstractDeleteLink;
+import hsa.awp.admingui.util.AbstractPagedDataProvider;
 import hsa.awp.admingui.util.AccessUtil;
 import hsa.awp.campaign.model.Campaign;
 import org.apache.wicket.ajax.AjaxRequestTarget;
@@ -36,20 +37,17 @@ import org.apache.wicket.markup.html.basic.Label;
 import org.apache.wicket.markup.html.form.DropDownChoice;
 import org.apache.wicket.markup.html.form.Form;
 import org.apache.wicket.markup.html.link.Link;
-import org.apache.wicket.markup.html.list.ListItem;
-import org.apache.wicket.markup.html.list.ListView;
-import org.apache.wicket.markup.html.list.PageableListView;
 import org.apache.wicket.markup.html.navigation.paging.PagingNavigation;
 import org.apache.wicket.markup.html.panel.FeedbackPanel;
 import org.apache.wicket.markup.html.panel.Panel;
+import org.apache.wicket.markup.repeater.Item;
+import org.apache.wicket.markup.repeater.data.DataView;
 import org.apache.wicket.model.Model;
 import org.apache.wicket.model.PropertyModel;
 import org.apache.wicket.spring.injection.annot.SpringBean;
 import org.apache.wicket.util.time.Duration;
 
 import java.text.SimpleDateFormat;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -70,9 +68,9 @@ public class CampaignListPanel extends Panel {
   private String ascending = "aufsteigend";
 
   /**
-   * {@link ListView} for viewing all {@link Campaign}s.
+   * {@link DataView} for viewing all {@link Campaign}s.
    */
-  private PageableListView<Campaign> campaignList;
+  private DataView<Campaign> campaignList;
 
   /**
    * Container for holding the PageNavigation and the campaignList.
@@ -80,9 +78,9 @@ public class CampaignListPanel extends Panel {
   private WebMarkupContainer campaignListMarkupContainer;
 
   /**
-   * Holder for all existing {@link Campaign}s.
+   * Provider loading one page of {@link Campaign}s at a time.
    */
-  private List<Campaign> campaigns;
+  private CampaignDataProvider campaigns = new CampaignDataProvider();
 
   /**
    * FeedbackPanel
@@ -126,12 +124,12 @@ public class CampaignListPanel extends Panel {
     sortDirectionChoices.add(descending);
 
     final DropDownChoice<String> sortFields = new DropDownChoice<String>("campaignList.sortFields",
-        new Model<String>(ascending), sortFieldChoices);
+        new Model<String>(SortChoice.NAME.name), sortFieldChoices);
     sortFields.setOutputMarkupId(true);
     sortChoiceForm.add(sortFields);
 
     final DropDownChoice<String> sortDirections = new DropDownChoice<String>("CampaignList.sortDirections", new Model<String>(
-        SortChoice.NAME.name), sortDirectionChoices);
+        ascending), sortDirectionChoices);
     sortDirections.setOutputMarkupId(true);
     sortChoiceForm.add(sortDirections);
 
@@ -144,10 +142,7 @@ public class CampaignListPanel extends Panel {
       @Override
       protected void onUpdate(AjaxRequestTarget target) {
 
-        boolean asc = false;
-        if (sortDirections.getModelObject() != null && sortDirections.getModelObject().equals(ascending)) {
-          asc = false;
-        }
+        boolean asc = !descending.equals(sortDirections.getModelObject());
         sort(SortChoice.choiceByName(sortFields.getModelObject()), asc);
         target.addComponent(campaignListMarkupContainer);
       }
@@ -162,31 +157,26 @@ public class CampaignListPanel extends Panel {
       @Override
       protected void onUpdate(AjaxRequestTarget target) {
 
-        boolean asc = false;
-        if (sortDirections.getModelObject() != null && sortDirections.getModelObject().equals(ascending)) {
-          asc = false;
-        }
+        boolean asc = !descending.equals(sortDirections.getModelObject());
         sort(SortChoice.choiceByName(sortFields.getModelObject()), asc);
         target.addComponent(campaignListMarkupContainer);
       }
     });
 
-    campaigns = controller.getCampaignsByMandator(getSession());
-
     ListActiveCampaignsPanel activeCampaigns = new ListActiveCampaignsPanel("campaignList.activeCampaigns");
     activeCampaigns.add(new AjaxSelfUpdatingTimerBehavior(Duration.minutes(5d)));
     add(activeCampaigns);
 
     final SimpleDateFormat format = new SimpleDateFormat("dd.MM.yyyy HH:mm");
 
-    campaignList = new PageableListView<Campaign>("campaignList", campaigns, pagesize) {
+    campaignList = new DataView<Campaign>("campaignList", campaigns, pagesize) {
       /**
        * unique identifier.
        */
       private static final long serialVersionUID = 5446468946546848946L;
 
       @Override
-      protected void populateItem(final ListItem<Campaign> item) {
+      protected void populateItem(final Item<Campaign> item) {
 
         Campaign campaign = item.getModelObject();
 
@@ -220,7 +210,7 @@ public class CampaignListPanel extends Panel {
         item.add(deleteLink);
       }
 
-      private Link<AlterCampaignPanel> createEditLink(final ListItem<Campaign> item) {
+      private Link<AlterCampaignPanel> createEditLink(final Item<Campaign> item) {
         Link<AlterCampaignPanel> alterCampaign = new Link<AlterCampaignPanel>("campaignLink", new PropertyModel<AlterCampaignPanel>(
             AlterCampaignPanel.class, "alterCampaign")) {
           /**
@@ -241,7 +231,7 @@ public class CampaignListPanel extends Panel {
         return alterCampaign;
       }
 
-      private Link<CampaignDetailPanel> createDetailLink(final ListItem<Campaign> item) {
+      private Link<CampaignDetailPanel> createDetailLink(final Item<Campaign> item) {
         Link<CampaignDetailPanel> campDetail;
         campDetail = new Link<CampaignDetailPanel>("eventList", new PropertyModel<CampaignDetailPanel>(
             CampaignDetailPanel.class, "eventList")) {
@@ -271,7 +261,7 @@ public class CampaignListPanel extends Panel {
     navigation.setOutputMarkupId(true);
     campaignListMarkupContainer.add(navigation);
 
-    if (campaignList.getModelObject().size() < pagesize) {
+    if (campaignList.getPageCount() < 2) {
       navigation.setVisible(false);
     }
 
@@ -280,43 +270,55 @@ public class CampaignListPanel extends Panel {
   }
 
   /**
-   * Sorts the campaign list by a given choice.
+   * Sorts the campaign list by a given choice. The sorting is done by the database when the current page is loaded.
    *
    * @param choice    chosen sort choice.
    * @param ascending order to sort.
    */
-  private void sort(SortChoice choice, final boolean ascending) {
+  private void sort(SortChoice choice, boolean ascending) {
 
     if (choice == null) {
       choice = SortChoice.NAME;
     }
-    final SortChoice renderChoice = choice;
-
-    Collections.sort(campaigns, new Comparator<Campaign>() {
-      @Override
-      public int compare(Campaign o1, Campaign o2) {
-
-        int val;
-        switch (renderChoice) {
-          case STARTDATE:
-            val = o1.getStartShow().compareTo(o2.getStartShow());
-            break;
-          case ENDDATE:
-            val = o1.getEndShow().compareTo(o2.getEndShow());
-            break;
-          case NAME:
-          default:
-            val = o1.getName().compareTo(o2.getName());
-        }
-        if (!ascending) {
-          val *= -1;
-        }
-        return val;
-      }
-    });
 
+    campaigns.setSort(choice.property, ascending);
     campaignList.setCurrentPage(0);
-    campaignList.setList(campaigns);
+  }
+
+  /**
+   * Provides the {@link Campaign}s of the active mandator.
+   */
+  private class CampaignDataProvider extends AbstractPagedDataProvider<Campaign> {
+    /**
+     * unique serialization id.
+     */
+    private static final long serialVersionUID = -6109543376187622163L;
+
+    /**
+     * Creates a provider sorted by the campaign name.
+     */
+    public CampaignDataProvider() {
+
+      super(SortChoice.NAME.property, true);
+    }
+
+    @Override
+    protected long count() {
+
+      return controller.countCampaignsByMandator(getSession());
+    }
+
+    @Override
+    protected List<Campaign> load(int first, int count, String sortProperty, boolean ascending) {
+
+      return controller.getCampaignsByMandator(first, count, sortProperty, ascending, getSession());
+    }
+
+    @Override
+    protected Campaign loadById(Long id) {
+
+      return controller.getCampaignById(id);
+    }
   }
 
   /**
@@ -328,15 +330,15 @@ public class CampaignListPanel extends Panel {
     /**
      * End of a {@link Campaign}.
      */
-    ENDDATE("Enddatum"),
+    ENDDATE("Enddatum", "endShow"),
     /**
      * Name of a {@link Campaign}.
      */
-    NAME("Name"),
+    NAME("Name", "name"),
     /**
      * StartDate of a {@link Campaign}.
      */
-    STARTDATE("Startdatum");
+    STARTDATE("Startdatum", "startShow");
 
     /**
      * Looks for a choice by its name.
@@ -373,14 +375,21 @@ public class CampaignListPanel extends Panel {
      */
     private String name;
 
+    /**
+     * Property of the {@link Campaign} the database sorts by.
+     */
+    private String property;
+
     /**
      * Creates a new {@link SortChoice}.
      *
-     * @param name name of the {@link SortChoice}.
+     * @param name     name of the {@link SortChoice}.
+     * @param property property of the {@link Campaign} to sort by.
      */
-    private SortChoice(String name) {
+    private SortChoice(String name, String property) {
 
       this.name = name;
+      this.property = property;
     }
   }
 }
@@ -27,14 +27,11 @@ import hsa.awp.admingui.util.AccessUtil;
 import hsa.awp.admingui.util.JavascriptEventConfirmation;
 import hsa.awp.admingui.util.UserSelectPanel;
 import hsa.awp.campaign.model.ConfirmedRegistration;
+import hsa.awp.campaign.model.EventRegistrationRow;
 import hsa.awp.campaign.model.PriorityList;
-import hsa.awp.campaign.model.PriorityListItem;
-import hsa.awp.campaign.model.Procedure;
 import hsa.awp.common.exception.NoMatchingElementException;
 import hsa.awp.event.model.Event;
 import hsa.awp.user.model.SingleUser;
-import hsa.awp.user.model.Student;
-import hsa.awp.user.model.User;
 import org.apache.wicket.Session;
 import org.apache.wicket.ajax.AjaxSelfUpdatingTimerBehavior;
 import org.apache.wicket.extensions.ajax.markup.html.tabs.AjaxTabbedPanel;
@@ -49,9 +46,7 @@ import org.apache.wicket.model.Model;
 import org.apache.wicket.spring.injection.annot.SpringBean;
 import org.apache.wicket.util.time.Duration;
 
-import java.io.Serializable;
 import java.text.SimpleDateFormat;
-import java.util.Calendar;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -217,209 +212,28 @@ public class EventDetailPanel extends Panel {
   }
 
 
-  /**
-   * Abstract Mapping table for storing read objects from the database that would only be long values in the normal model objects.
-   *
-   * @author klassm
-   */
-  private abstract class AbstractMapping implements Serializable {
-    /**
-     * unique serialization id.
-     */
-    private static final long serialVersionUID = -3654654626862151952L;
+  private static String participantName(EventRegistrationRow row) {
 
-    /**
-     * When was the mapping model object created.
-     */
-    private Calendar date;
-
-    /**
-     * unique key.
-     */
-    private Long id;
-
-    /**
-     * Who created the model object.
-     */
-    private SingleUser initiator;
-
-    /**
-     * Who will be the participant in the Event.
-     */
-    private User participant;
-
-    /**
-     * What way did the initiator use to make the Participant join the Event.
-     */
-    private Procedure procedure;
-
-    /**
-     * Creates a new {@link AbstractMapping}.
-     *
-     * @param id          unique id.
-     * @param participant Who will be the participant in the Event.
-     * @param initiator   Who created the model object.
-     * @param date        When was the mapping model object created.
-     * @param procedure   What way did the initiator use to make the Participant join the Event.
-     */
-    public AbstractMapping(Long id, User participant, SingleUser initiator, Calendar date, Procedure procedure) {
-
-      super();
-      this.id = id;
-      this.participant = participant;
-      this.initiator = initiator;
-      this.date = date;
-      this.procedure = procedure;
-    }
-
-    /**
-     * Getter for date.
-     *
-     * @return the date
-     */
-    public Calendar getDate() {
-
-      return date;
-    }
-
-    /**
-     * @return the id
-     */
-    public Long getId() {
-
-      return id;
-    }
-
-    /**
-     * Getter for initiator.
-     *
-     * @return the initiator
-     */
-    public SingleUser getInitiator() {
-
-      return initiator;
-    }
-
-    /**
-     * Getter for participant.
-     *
-     * @return the participant
-     */
-    public User getParticipant() {
-
-      return participant;
-    }
-
-    /**
-     * Getter for procedure.
-     *
-     * @return the procedure
-     */
-    public Procedure getProcedure() {
-
-      return procedure;
+    if (row.getParticipantName() == null) {
+      return "group";
     }
+    return row.getParticipantName();
   }
 
-  /**
-   * Mapping for {@link ConfirmedRegistration}s.
-   *
-   * @author klassm
-   */
-  private class ConfirmedRegistrationMapping extends AbstractMapping implements Comparable<ConfirmedRegistrationMapping> {
-    /**
-     * unique serialization id.
-     */
-    private static final long serialVersionUID = -3123628794698446262L;
-
-    /**
-     * Creates a new {@link ConfirmedRegistrationMapping}.
-     *
-     * @param id          unique id.
-     * @param participant Who will be the participant in the Event.
-     * @param initiator   Who created the model object.
-     * @param date        When was the mapping model object created.
-     * @param procedure   What way did the initiator use to make the Participant join the Event.
-     */
-    public ConfirmedRegistrationMapping(Long id, User participant, SingleUser initiator, Calendar date, Procedure procedure) {
+  private static String matriculationNumber(EventRegistrationRow row) {
 
-      super(id, participant, initiator, date, procedure);
-    }
-
-    @Override
-    public int compareTo(ConfirmedRegistrationMapping arg0) {
-
-      if (getParticipant() instanceof SingleUser && arg0.getParticipant() instanceof SingleUser) {
-        return ((SingleUser) getParticipant()).getName().compareTo(((SingleUser) arg0.getParticipant()).getName());
-      } else {
-        return getParticipant().getId().compareTo(arg0.getParticipant().getId());
-      }
+    if (row.getMatriculationNumber() == null) {
+      return "";
     }
+    return String.valueOf(row.getMatriculationNumber());
   }
 
-  /**
-   * Mapping for {@link PriorityList}s.
-   *
-   * @author klassm
-   */
-  private class PriorityListItemMapping extends AbstractMapping implements Comparable<PriorityListItemMapping> {
-    /**
-     * unique serialization id.
-     */
-    private static final long serialVersionUID = -6536023353808221034L;
-
-    /**
-     * Priority of the item.
-     */
-    private int priority;
-
-    private PriorityList priorityList;
-
-
-    public PriorityList getPriorityList() {
-
-      return priorityList;
-    }
-
-    /**
-     * Creates a new {@link ConfirmedRegistrationMapping}.
-     *
-     * @param id          unique id.
-     * @param participant Who will be the participant in the Event.
-     * @param initiator   Who created the model object.
-     * @param date        When was the mapping model object created.
-     * @param procedure   What way did the initiator use to make the Participant join the Event.
-     * @param priority    Priority of the item.
-     */
-    public PriorityListItemMapping(Long id, User participant, SingleUser initiator, int priority, Calendar date,
-                                   Procedure procedure, PriorityList priorityList) {
-
-      super(id, participant, initiator, date, procedure);
-      this.priority = priority;
-      this.priorityList = priorityList;
-    }
-
-    @Override
-    public int compareTo(PriorityListItemMapping o) {
-
-      if (o.priority != priority) {
-        return ((Integer) o.priority).compareTo(priority) * (-1);
-      } else if (getParticipant() instanceof SingleUser && o.getParticipant() instanceof SingleUser) {
-        return ((SingleUser) getParticipant()).getName().compareTo(((SingleUser) o.getParticipant()).getName());
-      } else {
-        return getParticipant().getId().compareTo(o.getParticipant().getId());
-      }
-    }
+  private static String procedureName(EventRegistrationRow row) {
 
-    /**
-     * Getter for priority.
-     *
-     * @return the priority
-     */
-    public int getPriority() {
-
-      return priority;
+    if (row.getProcedureName() == null) {
+      return "direkt";
     }
+    return row.getProcedureName();
   }
 
   /**
@@ -443,46 +257,27 @@ public class EventDetailPanel extends Panel {
 
       super(id);
 
-      List<ConfirmedRegistration> confirmedRegistrations = controller.getConfirmedRegistrationsByEvent(event);
-      List<ConfirmedRegistrationMapping> confirmedRegistrationsMapped = new LinkedList<ConfirmedRegistrationMapping>();
-
-      for (ConfirmedRegistration cr : confirmedRegistrations) {
-        confirmedRegistrationsMapped.add(new ConfirmedRegistrationMapping(cr.getId(), controller.getParticipantById(cr
-            .getParticipant()), controller.getUserById(cr.getInitiator()), cr.getDate(), cr.getProcedure()));
-      }
+      List<EventRegistrationRow> confirmedRegistrations = controller.getConfirmedRegistrationRowsByEvent(event.getId());
 
-      add(new ListView<ConfirmedRegistrationMapping>("eventDetail.confirmedRegistrations.list", confirmedRegistrationsMapped) {
+      add(new ListView<EventRegistrationRow>("eventDetail.confirmedRegistrations.list", confirmedRegistrations) {
         /**
          * unique serialization id.
          */
         private static final long serialVersionUID = 3859150397498901051L;
 
         @Override
-        protected void populateItem(ListItem<ConfirmedRegistrationMapping> item) {
-
-          final ConfirmedRegistrationMapping cr = item.getModelObject();
+        protected void populateItem(ListItem<EventRegistrationRow> item) {
 
-          String participant = "group";
-          if (cr.getParticipant() instanceof SingleUser) {
-            participant = ((SingleUser) cr.getParticipant()).getName();
-          }
-          item.add(new Label("eventDetail.confirmedRegistrations.list.participant", participant));
+          final EventRegistrationRow cr = item.getModelObject();
 
-          String matriculationNumber = "";
-          if (cr.getParticipant() instanceof Student) {
-            matriculationNumber = String.valueOf(((Student) cr.getParticipant()).getMatriculationNumber());
-          }
-          item.add(new Label("eventDetail.confirmedRegistrations.list.matriculationNumber", matriculationNumber));
+          item.add(new Label("eventDetail.confirmedRegistrations.list.participant", participantName(cr)));
+          item.add(new Label("eventDetail.confirmedRegistrations.list.matriculationNumber", matriculationNumber(cr)));
 
           item.add(new Label("eventDetail.confirmedRegistrations.list.date", dateFormat.format(cr.getDate().getTime())));
 
-          item.add(new Label("eventDetail.confirmedRegistrations.list.initiator", cr.getInitiator().getName()));
+          item.add(new Label("eventDetail.confirmedRegistrations.list.initiator", cr.getInitiatorName()));
 
-          String procedure = "direkt";
-          if (cr.getProcedure() != null) {
-            procedure = cr.getProcedure().getName();
-          }
-          item.add(new Label("eventDetail.confirmedRegistrations.list.procedure", procedure));
+          item.add(new Label("eventDetail.confirmedRegistrations.list.procedure", procedureName(cr)));
 
           Link<ConfirmedRegistration> delLink = new Link<ConfirmedRegistration>("delete") {
             /**
@@ -534,8 +329,8 @@ public class EventDetailPanel extends Panel {
       add(new Label("eventDetail.eventId", String.valueOf(event.getEventId())));
       add(new Label("eventDetail.eventInfoText", event.getDetailInformation()));
       add(new Label("eventDetail.maxParticipants", String.valueOf(event.getMaxParticipants())));
-      add(new Label("eventDetail.prioLists", String.valueOf(controller.getPriorityListItemsByEvent(event).size())));
-      add(new Label("eventDetail.registrations", String.valueOf(controller.getConfirmedRegistrationsByEvent(event).size())));
+      add(new Label("eventDetail.prioLists", String.valueOf(controller.countPriorityListItemsByEvent(event.getId()))));
+      add(new Label("eventDetail.registrations", String.valueOf(controller.countConfirmedRegistrationsByEventId(event.getId()))));
     }
   }
 
@@ -559,50 +354,29 @@ public class EventDetailPanel extends Panel {
 
       super(id);
 
-      List<PriorityListItem> prioItems = controller.getPriorityListItemsByEvent(event);
-      List<PriorityListItemMapping> mapped = new LinkedList<PriorityListItemMapping>();
-
-      for (PriorityListItem prioItem : prioItems) {
-        mapped.add(new PriorityListItemMapping(prioItem.getId(), controller.getParticipantById(prioItem.getPriorityList()
-            .getParticipant()), controller.getUserById(prioItem.getPriorityList().getInitiator()), prioItem
-            .getPriority(), prioItem.getPriorityList().getDate(), prioItem.getPriorityList().getProcedure(), prioItem.getPriorityList()));
-      }
+      List<EventRegistrationRow> prioItems = controller.getPriorityListItemRowsByEvent(event.getId());
 
-      add(new ListView<PriorityListItemMapping>("eventDetail.priorityList.list", mapped) {
+      add(new ListView<EventRegistrationRow>("eventDetail.priorityList.list", prioItems) {
         /**
          * unique serialization id.
          */
         private static final long serialVersionUID = 1186966986878386320L;
 
         @Override
-        protected void populateItem(ListItem<PriorityListItemMapping> item) {
+        protected void populateItem(ListItem<EventRegistrationRow> item) {
 
-          final PriorityListItemMapping pr = item.getModelObject();
+          final EventRegistrationRow pr = item.getModelObject();
 
           item.add(new Label("eventDetail.priorityList.list.priority", String.valueOf(pr.getPriority())));
 
-          String participant = "group";
-          if (pr.getParticipant() instanceof SingleUser) {
-            participant = ((SingleUser) pr.getParticipant()).getName();
-          }
-          item.add(new Label("eventDetail.priorityList.list.participant", participant));
-
-          String matriculationNumber = "";
-          if (pr.getParticipant() instanceof SingleUser && ((SingleUser) pr.getParticipant()) instanceof Student) {
-            matriculationNumber = String.valueOf(((Student) pr.getParticipant()).getMatriculationNumber());
-          }
-          item.add(new Label("eventDetail.confirmedRegistrations.list.matriculationNumber", matriculationNumber));
+          item.add(new Label("eventDetail.priorityList.list.participant", participantName(pr)));
+          item.add(new Label("eventDetail.confirmedRegistrations.list.matriculationNumber", matriculationNumber(pr)));
 
           item.add(new Label("eventDetail.confirmedRegistrations.list.date", dateFormat.format(pr.getDate().getTime())));
 
-          item.add(new Label("eventDetail.confirmedRegistrations.list.initiator", pr.getInitiator().getName()));
+          item.add(new Label("eventDetail.confirmedRegistrations.list.initiator", pr.getInitiatorName()));
 
-          String procedure = "direkt";
-          if (pr.getProcedure() != null) {
-            procedure = pr.getProcedure().getName();
-          }
-
-          item.add(new Label("eventDetail.confirmedRegistrations.list.procedure", procedure));
+          item.add(new Label("eventDetail.confirmedRegistrations.list.procedure", procedureName(pr)));
 
           Link<ConfirmedRegistration> delLink = new Link<ConfirmedRegistration>("delete") {
             /**
@@ -613,10 +387,9 @@ public class EventDetailPanel extends Panel {
             @Override
             public void onClick() {
 
-              try {
-                controller.removePriolist(pr.getPriorityList());
-              } catch (NoMatchingElementException e) {
-                ;
+              PriorityList priorityList = controller.getPriorityListById(pr.getPriorityListId());
+              if (priorityList != null) {
+                controller.removePriolist(priorityList);
               }
               setResponsePage(new OnePanelPage(new EventDetailPanel(OnePanelPage.getPanelIdOne(), event.getId())));
             }
@@ -27,29 +27,28 @@ import hsa.awp.admingui.edit.event.EventPanel;
 import hsa.awp.admingui.util.AbstractDeleteLink;
 import hsa.awp.admingui.util.AbstractDetailLink;
 import hsa.awp.admingui.util.AbstractEditLink;
+import hsa.awp.admingui.util.AbstractPagedDataProvider;
 import hsa.awp.admingui.util.AccessUtil;
 import hsa.awp.event.model.Event;
 import hsa.awp.event.model.Term;
 import org.apache.wicket.Component;
 import org.apache.wicket.ajax.AjaxRequestTarget;
 import org.apache.wicket.ajax.form.AjaxFormComponentUpdatingBehavior;
+import org.apache.wicket.extensions.markup.html.repeater.data.sort.OrderByBorder;
 import org.apache.wicket.markup.html.WebMarkupContainer;
 import org.apache.wicket.markup.html.basic.Label;
 import org.apache.wicket.markup.html.form.DropDownChoice;
 import org.apache.wicket.markup.html.form.IChoiceRenderer;
-import org.apache.wicket.markup.html.list.ListItem;
-import org.apache.wicket.markup.html.list.ListView;
+import org.apache.wicket.markup.html.navigation.paging.PagingNavigator;
 import org.apache.wicket.markup.html.panel.FeedbackPanel;
 import org.apache.wicket.markup.html.panel.Panel;
+import org.apache.wicket.markup.repeater.Item;
+import org.apache.wicket.markup.repeater.data.DataView;
 import org.apache.wicket.model.IModel;
-import org.apache.wicket.model.LoadableDetachableModel;
 import org.apache.wicket.model.Model;
 import org.apache.wicket.spring.injection.annot.SpringBean;
 import org.springframework.security.core.context.SecurityContextHolder;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
 
 import static hsa.awp.event.util.EventFormattingUtils.formatDetailInformation;
@@ -67,6 +66,11 @@ public class EventListPanel extends Panel {
 
   private static final long serialVersionUID = 6197456865823351891L;
 
+  /**
+   * Number of events to show on one page.
+   */
+  private static final int PAGE_SIZE = 25;
+
   /**
    * GuiController which feeds the Gui with Data.
    */
@@ -78,41 +82,10 @@ public class EventListPanel extends Panel {
 
   private IModel<Term> termModel = new Model<Term>();
 
-  public List<Event> getSelectableEvents() {
-    if (AccessUtil.hasAdministrativeAccess()) {
-      if (isTermSelected()) {
-        return controller.getEventsByTermAndMandator(termModel.getObject().getTermDesc(), getSession());
-      } else {
-        return controller.getEventsByMandator(getSession());
-      }
-    } else {
-      String userName = SecurityContextHolder.getContext().getAuthentication().getName();
-      selectedEvents = controller.getEventsByTeacher(userName);
-      if (isTermSelected()) {
-        return filterForTerm();
-      }
-      return selectedEvents;
-    }
-  }
-
-  private boolean isTermSelected() {
-    return termModel.getObject() != null;
-  }
-
-  private List<Event> filterForTerm() {
-    List<Event> filteredEvents = new ArrayList<Event>();
-    for (Event e : selectedEvents) {
-      if (e.getTerm().equals(termModel.getObject())) {
-        filteredEvents.add(e);
-      }
-    }
-    return filteredEvents;
-  }
-
-
-  private List<Event> selectedEvents;
   private WebMarkupContainer listContainer = new WebMarkupContainer("eventList.box");
 
+  private DataView<Event> eventListView;
+
   /**
    * default constuctor. create a list of all existing procedures and adds a edit link.
    *
@@ -122,44 +95,17 @@ public class EventListPanel extends Panel {
 
     super(id);
 
-    selectedEvents = getSelectableEvents();
-
-    // create a model which holds the events
-    IModel<List<Event>> eventModel = new LoadableDetachableModel<List<Event>>() {
-      /**
-       *
-       */
-      private static final long serialVersionUID = 4463199687890366067L;
-
-      @Override
-      protected List<Event> load() {
-
+    final EventDataProvider provider = new EventDataProvider();
 
-        List<Event> list = getSelectableEvents(); // get the existing events
-        Collections.sort(list, new Comparator<Event>() {
-          @Override
-          public int compare(Event o1, Event o2) {
-
-            int val = o1.getSubject().getName().compareTo(o2.getSubject().getName());
-            if (val == 0) {
-              return ((Integer) o1.getEventId()).compareTo(o2.getEventId());
-            }
-            return val;
-          }
-        });
-        return list;
-      }
-    };
-
-    // create a wicket ListView
-    ListView<Event> eventListView = new ListView<Event>("evtView", eventModel) {
+    // create a wicket DataView, it only loads the events of the current page
+    eventListView = new DataView<Event>("evtView", provider, PAGE_SIZE) {
       /**
        * generated UID
        */
       private static final long serialVersionUID = 1049749247094208402L;
 
       @Override
-      protected void populateItem(final ListItem<Event> item) {
+      protected void populateItem(final Item<Event> item) {
 
         Event event = item.getModelObject();
 
@@ -172,7 +118,7 @@ public class EventListPanel extends Panel {
         item.add(createDetailLink(item));
       }
 
-      private Component createEditLink(final ListItem<Event> item) {
+      private Component createEditLink(final Item<Event> item) {
 
         AbstractEditLink<Event> editLink = new AbstractEditLink<Event>("evtLink", item.getModelObject()) {
           @Override
@@ -187,7 +133,7 @@ public class EventListPanel extends Panel {
         return editLink;
       }
 
-      private Component createDeleteLink(final ListItem<Event> item) {
+      private Component createDeleteLink(final Item<Event> item) {
 
         AbstractDeleteLink<Event> delLink = new AbstractDeleteLink<Event>("evtDeleteLink", item.getModelObject()) {
 
@@ -205,7 +151,7 @@ public class EventListPanel extends Panel {
         return delLink;
       }
 
-      private Component createDetailLink(final ListItem<Event> item) {
+      private Component createDetailLink(final Item<Event> item) {
 
         AbstractDetailLink<Event> detailLink = new AbstractDetailLink<Event>("evtDetailLink", item.getModelObject()) {
           @Override
@@ -220,14 +166,44 @@ public class EventListPanel extends Panel {
     };
 
 
-    // adding the ListView to the panel
+    // adding the DataView to the panel
     listContainer.setOutputMarkupId(true);
+    listContainer.add(createOrderByBorder("eventList.orderByEventId", "eventId", provider));
+    listContainer.add(createOrderByBorder("eventList.orderBySubject", "subject.name", provider));
     listContainer.add(eventListView);
+    listContainer.add(new PagingNavigator("eventList.navigator", eventListView));
     add(configureTermDropDown());
     add(listContainer);
     add(feedbackPanel);
   }
 
+  private Component createOrderByBorder(String id, String property, EventDataProvider provider) {
+
+    return new OrderByBorder(id, property, provider) {
+      /**
+       * unique serialization id.
+       */
+      private static final long serialVersionUID = -2830411583623432405L;
+
+      @Override
+      protected void onSortChanged() {
+
+        eventListView.setCurrentPage(0);
+      }
+    };
+  }
+
+  private String getSelectedTermDesc() {
+
+    Term term = termModel.getObject();
+    return term == null ? null : term.getTermDesc();
+  }
+
+  private String getUserName() {
+
+    return SecurityContextHolder.getContext().getAuthentication().getName();
+  }
+
   private Component configureTermDropDown() {
 
     List<Term> termChoices = controller.getTermsByMandator(getSession());
@@ -259,7 +235,7 @@ public class EventListPanel extends Panel {
       @Override
       protected void onUpdate(AjaxRequestTarget target) {
 
-        getSelectableEvents();
+        eventListView.setCurrentPage(0);
         target.addComponent(listContainer);
       }
     });
@@ -267,5 +243,46 @@ public class EventListPanel extends Panel {
     return termDropDown;
   }
 
+  /**
+   * Provides the events of the active mandator, or of the logged in teacher without administrative access, restricted
+   * to the selected term.
+   */
+  private class EventDataProvider extends AbstractPagedDataProvider<Event> {
+    /**
+     * unique serialization id.
+     */
+    private static final long serialVersionUID = 7366153880281546271L;
+
+    /**
+     * Creates a provider sorted by the subject name.
+     */
+    public EventDataProvider() {
+
+      super("subject.name", true);
+    }
+
+    @Override
+    protected long count() {
+
+      if (AccessUtil.hasAdministrativeAccess()) {
+        return controller.countEventsByMandator(getSelectedTermDesc(), getSession());
+      }
+      return controller.countEventsByTeacher(getUserName(), getSelectedTermDesc());
+    }
 
+    @Override
+    protected List<Event> load(int first, int count, String sortProperty, boolean ascending) {
+
+      if (AccessUtil.hasAdministrativeAccess()) {
+        return controller.getEventsByMandator(first, count, getSelectedTermDesc(), sortProperty, ascending, getSession());
+      }
+      return controller.getEventsByTeacher(first, count, getUserName(), getSelectedTermDesc(), sortProperty, ascending);
+    }
+
+    @Override
+    protected Event loadById(Long id) {
+
+      return controller.getEventById(id);
+    }
+  }
 }
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2010-2012 Matthias Klass, Johannes Leimer,
+ *               Rico Lieback, Sebastian Gabriel, Lothar Gesslein,
+ *               Alexander Rampp, Kai Weidner
+ *
+ * This file is part of the Physalix Enrollment System
+ *
+ * Foobar is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Foobar is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Foobar.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package hsa.awp.admingui.report;
+
+import hsa.awp.admingui.report.util.PagedRowIterator;
+import hsa.awp.admingui.report.util.Row;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.Assert.*;
+
+public class PagedRowIteratorTest {
+  /**
+   * Iterator over the numbers 0 to count - 1, skipping odd numbers. Records the requested pages.
+   */
+  private static class NumberIterator extends PagedRowIterator<Integer> {
+    private final int count;
+
+    private final List<Integer> requestedPages = new ArrayList<Integer>();
+
+    private final List<List<Object>> detachedPages = new ArrayList<List<Object>>();
+
+    NumberIterator(int count, int pageSize) {
+
+      super(pageSize);
+      this.count = count;
+    }
+
+    @Override
+    protected List<Integer> loadPage(int firstResult, int maxResults) {
+
+      requestedPages.add(firstResult);
+      List<Integer> page = new ArrayList<Integer>();
+      for (int i = firstResult; i < Math.min(count, firstResult + maxResults); i++) {
+        page.add(i);
+      }
+      return page;
+    }
+
+    @Override
+    protected List<Row> createRows(List<Integer> items) {
+
+      evict(items);
+      List<Row> rows = new ArrayList<Row>();
+      for (Integer i : items) {
+        if (i % 2 == 0) {
+          rows.add(new Row(Arrays.asList(String.valueOf(i))));
+        }
+      }
+      return rows;
+    }
+
+    @Override
+    protected void detach(List<Object> entities) {
+
+      detachedPages.add(new ArrayList<Object>(entities));
+    }
+  }
+
+  @Test
+  public void testIteratesAllPages() {
+
+    NumberIterator it = new NumberIterator(25, 10);
+
+    List<String> values = new ArrayList<String>();
+    while (it.hasNext()) {
+      values.add(it.next().getContent().get(0));
+    }
+
+    assertEquals(13, values.size());
+    assertEquals("0", values.get(0));
+    assertEquals("24", values.get(12));
+    assertEquals(Arrays.asList(0, 10, 20), it.requestedPages);
+  }
+
+  @Test
+  public void testSkipsPagesWithoutRows() {
+
+    // every second page contains only an odd number and creates no row
+    NumberIterator it = new NumberIterator(12, 1);
+
+    assertEquals("0", it.next().getContent().get(0));
+    assertEquals("2", it.next().getContent().get(0));
+  }
+
+  @Test
+  public void testLoadsFullLastPageOnce() {
+
+    NumberIterator it = new NumberIterator(20, 10);
+    while (it.hasNext()) {
+      it.next();
+    }
+
+    assertFalse(it.hasNext());
+    assertEquals(Arrays.asList(0, 10, 20), it.requestedPages);
+  }
+
+  @Test
+  public void testDetachesEvictedItemsPerPage() {
+
+    NumberIterator it = new NumberIterator(15, 10);
+
+    assertEquals("0", it.next().getContent().get(0));
+    assertEquals(1, it.detachedPages.size());
+    assertEquals(10, it.detachedPages.get(0).size());
+
+    while (it.hasNext()) {
+      it.next();
+    }
+    assertEquals(2, it.detachedPages.size());
+    assertEquals(Arrays.<Object>asList(10, 11, 12, 13, 14), it.detachedPages.get(1));
+  }
+
+  @Test(expected = NoSuchElementException.class)
+  public void testEmpty() {
+
+    NumberIterator it = new NumberIterator(0, 10);
+    assertFalse(it.hasNext());
+    it.next();
+  }
+}
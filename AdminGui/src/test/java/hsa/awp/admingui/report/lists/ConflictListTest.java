@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2010-2012 Matthias Klass, Johannes Leimer,
+ *               Rico Lieback, Sebastian Gabriel, Lothar Gesslein,
+ *               Alexander Rampp, Kai Weidner
+ *
+ * This file is part of the Physalix Enrollment System
+ *
+ * Foobar is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Foobar is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Foobar.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package hsa.awp.admingui.report.lists;
+
+import hsa.awp.admingui.report.util.Row;
+import hsa.awp.event.model.Event;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+
+public class ConflictListTest {
+  private static Event event(long id, int eventId) {
+
+    Event event = Event.getInstance(eventId, 0L);
+    event.setId(id);
+    return event;
+  }
+
+  private static Object[] registration(long eventId, long participant) {
+
+    return new Object[]{eventId, participant};
+  }
+
+  @Test
+  public void testCreateRows() {
+
+    Event a = event(1L, 30);
+    Event b = event(2L, 10);
+    Event c = event(3L, 20);
+    Event d = event(4L, 5);
+
+    List<Object[]> participants = new ArrayList<Object[]>();
+    participants.add(registration(1L, 100L));
+    participants.add(registration(2L, 100L));
+    participants.add(registration(2L, 101L));
+    participants.add(registration(3L, 101L));
+    // registrations of events not being listed are ignored
+    participants.add(registration(99L, 100L));
+
+    List<Row> rows = ConflictList.createRows(Arrays.asList(a, b, c, d), participants);
+
+    assertEquals(4, rows.size());
+    assertEquals(Arrays.asList("0030", "0010", "0030"), rows.get(0).getContent());
+    assertEquals(Arrays.asList("0010", "0010", "0020", "0030"), rows.get(1).getContent());
+    assertEquals(Arrays.asList("0020", "0010", "0020"), rows.get(2).getContent());
+    assertEquals(Arrays.asList("0005"), rows.get(3).getContent());
+  }
+
+  @Test
+  public void testCreateRowsWithTimeClashes() {
+
+    Event a = event(1L, 30);
+    Event b = event(2L, 10);
+    Event c = event(3L, 20);
+
+    List<Object[]> participants = new ArrayList<Object[]>();
+    participants.add(registration(1L, 100L));
+    participants.add(registration(2L, 100L));
+    participants.add(registration(2L, 101L));
+    participants.add(registration(3L, 101L));
+
+    Map<Long, Set<Long>> timeClashes = new HashMap<Long, Set<Long>>();
+    timeClashes.put(1L, Collections.<Long>emptySet());
+    timeClashes.put(2L, Collections.singleton(3L));
+    timeClashes.put(3L, Collections.singleton(2L));
+
+    List<Row> rows = ConflictList.createRows(Arrays.asList(a, b, c), participants, timeClashes);
+
+    assertEquals(Arrays.asList("0030", "0030"), rows.get(0).getContent());
+    assertEquals(Arrays.asList("0010", "0010", "0020"), rows.get(1).getContent());
+    assertEquals(Arrays.asList("0020", "0010", "0020"), rows.get(2).getContent());
+  }
+}
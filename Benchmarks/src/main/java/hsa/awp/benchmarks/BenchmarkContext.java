@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2010-2012 Matthias Klass, Johannes Leimer,
+ *               Rico Lieback, Sebastian Gabriel, Lothar Gesslein,
+ *               Alexander Rampp, Kai Weidner
+ *
+ * This file is part of the Physalix Enrollment System
+ *
+ * Foobar is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Foobar is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Foobar.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package hsa.awp.benchmarks;
+
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Spring context shared by all benchmarks of a JMH fork. It wires the production beans against the in-memory
+ * <code>Benchmark</code> persistence unit.
+ */
+public final class BenchmarkContext {
+  /**
+   * Location of the benchmark context configuration.
+   */
+  private static final String CONFIG = "classpath:config/spring/benchmark.xml";
+
+  /**
+   * Lazily created context.
+   */
+  private static ApplicationContext context;
+
+  /**
+   * Utility class.
+   */
+  private BenchmarkContext() {
+
+  }
+
+  /**
+   * Returns the shared context, creating it on first use. The admin authentication is made visible to all threads, as JMH
+   * calls setup and benchmark methods from its own worker threads.
+   *
+   * @return the shared {@link ApplicationContext}.
+   */
+  public static synchronized ApplicationContext get() {
+
+    if (context == null) {
+      SecurityContextHolder.setStrategyName(SecurityContextHolder.MODE_GLOBAL);
+      SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("admin", "password"));
+
+      context = new ClassPathXmlApplicationContext(CONFIG);
+    }
+    return context;
+  }
+
+  /**
+   * Looks up a bean of the shared context.
+   *
+   * @param name name of the bean.
+   * @param type expected type of the bean.
+   * @param <T>  expected type of the bean.
+   * @return the bean.
+   */
+  public static <T> T getBean(String name, Class<T> type) {
+
+    return get().getBean(name, type);
+  }
+
+  /**
+   * Runs the given callback in a new transaction.
+   *
+   * @param callback code to run.
+   * @param <T>      result type of the callback.
+   * @return result of the callback.
+   */
+  public static <T> T inTransaction(TransactionCallback<T> callback) {
+
+    return new TransactionTemplate(getBean("transactionManager", PlatformTransactionManager.class)).execute(callback);
+  }
+}
@@ -0,0 +1,331 @@
+/*
+ * Copyright (c) 2010-2012 Matthias Klass, Johannes Leimer,
+ *               Rico Lieback, Sebastian Gabriel, Lothar Gesslein,
+ *               Alexander Rampp, Kai Weidner
+ *
+ * This file is part of the Physalix Enrollment System
+ *
+ * Foobar is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Foobar is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Foobar.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package hsa.awp.benchmarks;
+
+import hsa.awp.campaign.facade.ICampaignFacade;
+import hsa.awp.campaign.model.Campaign;
+import hsa.awp.campaign.model.ConfirmedRegistration;
+import hsa.awp.campaign.model.DrawProcedure;
+import hsa.awp.campaign.model.FifoProcedure;
+import hsa.awp.campaign.model.PriorityList;
+import hsa.awp.campaign.model.Procedure;
+import hsa.awp.common.entityBuilder.EntityBuilderContext;
+import hsa.awp.event.facade.IEventFacade;
+import hsa.awp.event.model.Event;
+import hsa.awp.event.model.EventBuilder;
+import hsa.awp.event.model.Subject;
+import hsa.awp.event.model.SubjectBuilder;
+import hsa.awp.rule.facade.IRuleFacade;
+import hsa.awp.rule.model.TermRule;
+import hsa.awp.user.facade.IUserFacade;
+import hsa.awp.user.model.SingleUser;
+import hsa.awp.user.model.Student;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Seeds the benchmark database. Events and subjects are created by the persisting {@link EntityBuilderContext}, all other
+ * entities through the facades. Every method runs in its own transaction and returns detached entities.
+ */
+public class BenchmarkData {
+  /**
+   * Mandator of all created entities.
+   */
+  public static final Long MANDATOR = 0L;
+
+  /**
+   * Source of unique names and numbers, as several benchmarks share one database.
+   */
+  private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+  private final ICampaignFacade campaignFacade = BenchmarkContext.getBean("campaign.facade", ICampaignFacade.class);
+
+  private final IEventFacade eventFacade = BenchmarkContext.getBean("event.facade", IEventFacade.class);
+
+  private final IUserFacade userFacade = BenchmarkContext.getBean("user.facade", IUserFacade.class);
+
+  private final IRuleFacade ruleFacade = BenchmarkContext.getBean("rule.facade", IRuleFacade.class);
+
+  private final EntityBuilderContext builders = BenchmarkContext.getBean(
+      "hsa.awp.common.entityBuilder.EntityBuilderContext", EntityBuilderContext.class);
+
+  /**
+   * Creates students spread over eight terms.
+   *
+   * @param count number of students.
+   * @return the persisted students.
+   */
+  public List<SingleUser> createStudents(final int count) {
+
+    return BenchmarkContext.inTransaction(new TransactionCallback<List<SingleUser>>() {
+      @Override
+      public List<SingleUser> doInTransaction(TransactionStatus status) {
+
+        List<SingleUser> students = new ArrayList<SingleUser>(count);
+        for (int i = 0; i < count; i++) {
+          int number = SEQUENCE.incrementAndGet();
+
+          Student student = Student.getInstance("student" + number, number);
+          student.setUuid((long) number);
+          student.setName("Student " + number);
+          student.setMail("student" + number + "@benchmark.invalid");
+          student.setTerm(1 + i % 8);
+
+          students.add(userFacade.saveSingleUser(student));
+        }
+        return students;
+      }
+    });
+  }
+
+  /**
+   * Creates a {@link Campaign} shown from yesterday on for one year.
+   *
+   * @return the persisted {@link Campaign}.
+   */
+  public Campaign createCampaign() {
+
+    return BenchmarkContext.inTransaction(new TransactionCallback<Campaign>() {
+      @Override
+      public Campaign doInTransaction(TransactionStatus status) {
+
+        Calendar startShow = Calendar.getInstance();
+        startShow.add(Calendar.DAY_OF_MONTH, -1);
+        Calendar endShow = Calendar.getInstance();
+        endShow.add(Calendar.YEAR, 1);
+
+        Campaign campaign = Campaign.getInstance(MANDATOR);
+        campaign.setName("campaign" + SEQUENCE.incrementAndGet());
+        campaign.setStartShow(startShow);
+        campaign.setEndShow(endShow);
+        campaign.setCorrespondentEMail("office@benchmark.invalid");
+
+        return campaignFacade.saveCampaign(campaign);
+      }
+    });
+  }
+
+  /**
+   * Creates {@link Event}s of one new {@link Subject} and assigns them to the given {@link Campaign}.
+   *
+   * @param campaign        {@link Campaign} offering the events.
+   * @param count           number of events.
+   * @param maxParticipants capacity of every event.
+   * @return the persisted events.
+   */
+  public List<Event> createEvents(final Campaign campaign, final int count, final int maxParticipants) {
+
+    return BenchmarkContext.inTransaction(new TransactionCallback<List<Event>>() {
+      @Override
+      public List<Event> doInTransaction(TransactionStatus status) {
+
+        Subject subject = builders.get(SubjectBuilder.class).withName("subject" + SEQUENCE.incrementAndGet()).build();
+
+        List<Event> events = new ArrayList<Event>(count);
+        for (int i = 0; i < count; i++) {
+          Event event = builders.get(EventBuilder.class)
+              .withEventId(SEQUENCE.incrementAndGet())
+              .withSubject(subject)
+              .build();
+          event.setMaxParticipants(maxParticipants);
+          subject.getEvents().add(event);
+
+          events.add(event);
+          campaign.getEventIds().add(event.getId());
+        }
+        campaignFacade.updateCampaign(campaign);
+
+        return events;
+      }
+    });
+  }
+
+  /**
+   * Creates a running {@link FifoProcedure} of the given {@link Campaign}.
+   *
+   * @param campaign owning {@link Campaign}.
+   * @return the persisted {@link FifoProcedure}.
+   */
+  public FifoProcedure createFifoProcedure(final Campaign campaign) {
+
+    return BenchmarkContext.inTransaction(new TransactionCallback<FifoProcedure>() {
+      @Override
+      public FifoProcedure doInTransaction(TransactionStatus status) {
+
+        FifoProcedure procedure = FifoProcedure.getInstance(MANDATOR);
+        procedure.setName("fifo" + SEQUENCE.incrementAndGet());
+        procedure.setInterval(yesterday(), nextYear());
+        procedure = campaignFacade.saveFifoProcedure(procedure);
+
+        campaign.addProcedure(procedure);
+        campaignFacade.updateCampaign(campaign);
+
+        return procedure;
+      }
+    });
+  }
+
+  /**
+   * Creates a running {@link DrawProcedure} of the given {@link Campaign} which is due to be drawn. Every participant submits
+   * <code>lists</code> priority lists of <code>items</code> distinct events each.
+   *
+   * @param campaign     owning {@link Campaign}.
+   * @param participants users submitting priority lists.
+   * @param events       events to choose from, at least <code>lists * items</code>.
+   * @param lists        priority lists per participant.
+   * @param items        items per priority list.
+   * @return the persisted {@link DrawProcedure}.
+   */
+  public DrawProcedure createDrawProcedure(final Campaign campaign, final List<SingleUser> participants,
+                                           final List<Event> events, final int lists, final int items) {
+
+    if (events.size() < lists * items) {
+      throw new IllegalArgumentException("not enough events for " + lists + " lists of " + items + " items");
+    }
+
+    return BenchmarkContext.inTransaction(new TransactionCallback<DrawProcedure>() {
+      @Override
+      public DrawProcedure doInTransaction(TransactionStatus status) {
+
+        DrawProcedure procedure = DrawProcedure.getInstance(MANDATOR);
+        procedure.setName("draw" + SEQUENCE.incrementAndGet());
+        procedure.setInterval(yesterday(), nextYear());
+        procedure.setDrawDate(yesterday());
+        procedure.setMaximumPriorityLists(lists);
+        procedure.setMaximumPriorityListItems(items);
+        procedure = campaignFacade.saveDrawProcedure(procedure);
+
+        campaign.addProcedure(procedure);
+        campaignFacade.updateCampaign(campaign);
+
+        for (int p = 0; p < participants.size(); p++) {
+          Long participant = participants.get(p).getId();
+          // a participant specific offset spreads the demand over all events
+          int offset = p * 7;
+
+          for (int l = 0; l < lists; l++) {
+            List<Long> choice = new ArrayList<Long>(items);
+            for (int i = 0; i < items; i++) {
+              choice.add(events.get((offset + l * items + i) % events.size()).getId());
+            }
+
+            PriorityList list = PriorityList.getInstance(participant, participant, choice, MANDATOR);
+            campaignFacade.savePriorityList(list);
+            procedure.addPriorityList(list);
+          }
+        }
+
+        return campaignFacade.updateDrawProcedure(procedure);
+      }
+    });
+  }
+
+  /**
+   * Registers every participant with <code>perParticipant</code> consecutive events.
+   *
+   * @param procedure      {@link Procedure} the registrations belong to.
+   * @param participants   users to register.
+   * @param events         events to register with.
+   * @param perParticipant registrations per participant.
+   * @return the events with their registrations.
+   */
+  public List<Event> register(final Procedure procedure, final List<SingleUser> participants, final List<Event> events,
+                              final int perParticipant) {
+
+    return BenchmarkContext.inTransaction(new TransactionCallback<List<Event>>() {
+      @Override
+      public List<Event> doInTransaction(TransactionStatus status) {
+
+        List<Event> managed = new ArrayList<Event>(events.size());
+        for (Event event : events) {
+          managed.add(eventFacade.getEventById(event.getId()));
+        }
+
+        for (int p = 0; p < participants.size(); p++) {
+          SingleUser participant = participants.get(p);
+
+          for (int i = 0; i < perParticipant; i++) {
+            Event event = managed.get((p + i) % managed.size());
+
+            ConfirmedRegistration registration = ConfirmedRegistration.getInstance(event.getId(), MANDATOR);
+            registration.setParticipant(participant.getId());
+            registration.setInitiator(participant.getId());
+            registration.setProcedure(procedure);
+            campaignFacade.saveConfirmedRegistration(registration);
+
+            event.getConfirmedRegistrations().add(registration.getId());
+          }
+        }
+
+        return managed;
+      }
+    });
+  }
+
+  /**
+   * Restricts every event of the given {@link Campaign} by <code>perEvent</code> {@link TermRule}s. The minimal terms differ, so
+   * some students are rejected.
+   *
+   * @param campaign {@link Campaign} the rules apply to.
+   * @param events   events to restrict.
+   * @param perEvent rules per event.
+   */
+  public void createTermRules(final Campaign campaign, final List<Event> events, final int perEvent) {
+
+    BenchmarkContext.inTransaction(new TransactionCallback<Object>() {
+      @Override
+      public Object doInTransaction(TransactionStatus status) {
+
+        for (Event event : events) {
+          for (int r = 0; r < perEvent; r++) {
+            TermRule rule = TermRule.getInstance(MANDATOR);
+            rule.setName("termRule" + SEQUENCE.incrementAndGet());
+            rule.setMinTerm(1 + r % 4);
+            rule = ruleFacade.saveRule(rule);
+
+            ruleFacade.addRuleToRegistrationRuleSet(campaign.getId(), event.getId(), MANDATOR, rule);
+          }
+        }
+        return null;
+      }
+    });
+  }
+
+  private static Calendar yesterday() {
+
+    Calendar calendar = Calendar.getInstance();
+    calendar.add(Calendar.DAY_OF_MONTH, -1);
+    return calendar;
+  }
+
+  private static Calendar nextYear() {
+
+    Calendar calendar = Calendar.getInstance();
+    calendar.add(Calendar.YEAR, 1);
+    return calendar;
+  }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2010-2012 Matthias Klass, Johannes Leimer,
+ *               Rico Lieback, Sebastian Gabriel, Lothar Gesslein,
+ *               Alexander Rampp, Kai Weidner
+ *
+ * This file is part of the Physalix Enrollment System
+ *
+ * Foobar is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Foobar is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Foobar.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package hsa.awp.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmarks. Accepts the usual JMH command line options and always writes the results as JSON, by default
+ * to <code>jmh-result.json</code> in the working directory.
+ */
+public final class BenchmarkRunner {
+  /**
+   * Utility class.
+   */
+  private BenchmarkRunner() {
+
+  }
+
+  /**
+   * Runs the benchmarks.
+   *
+   * @param args JMH command line options, e.g. a benchmark name pattern or <code>-rff result.json</code>.
+   * @throws Exception if the options are invalid or a benchmark could not be run.
+   */
+  public static void main(String[] args) throws Exception {
+
+    Options options = new OptionsBuilder()
+        .parent(new CommandLineOptions(args))
+        .resultFormat(ResultFormatType.JSON)
+        .build();
+
+    new Runner(options).run();
+  }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2010-2012 Matthias Klass, Johannes Leimer,
+ *               Rico Lieback, Sebastian Gabriel, Lothar Gesslein,
+ *               Alexander Rampp, Kai Weidner
+ *
+ * This file is part of the Physalix Enrollment System
+ *
+ * Foobar is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Foobar is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Foobar.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package hsa.awp.benchmarks;
+
+import hsa.awp.admingui.report.lists.ConflictList;
+import hsa.awp.campaign.model.Campaign;
+import hsa.awp.campaign.model.FifoProcedure;
+import hsa.awp.event.model.Event;
+import hsa.awp.user.model.SingleUser;
+import org.apache.wicket.injection.web.InjectorHolder;
+import org.apache.wicket.spring.ISpringContextLocator;
+import org.apache.wicket.spring.injection.annot.AnnotSpringInjector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the construction of a {@link ConflictList}, which resolves all registrations and participants of the given events.
+ * Every participant is registered with three events.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ConflictListBenchmark {
+  private static final int EVENTS = 30;
+
+  @Param({"100", "1000"})
+  private int participants;
+
+  private List<Event> events;
+
+  @Setup
+  public void createRegistrations() {
+
+    // the lists get their controller injected by Wicket, which is bound to the benchmark context here
+    InjectorHolder.setInjector(new AnnotSpringInjector(new ISpringContextLocator() {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      public ApplicationContext getSpringContext() {
+
+        return BenchmarkContext.get();
+      }
+    }));
+
+    BenchmarkData data = new BenchmarkData();
+    Campaign campaign = data.createCampaign();
+    FifoProcedure procedure = data.createFifoProcedure(campaign);
+    List<SingleUser> users = data.createStudents(participants);
+
+    events = data.createEvents(campaign, EVENTS, participants);
+    events = data.register(procedure, users, events, 3);
+  }
+
+  @Benchmark
+  public int createConflictList() {
+
+    return new ConflictList(events).getRows().size();
+  }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2010-2012 Matthias Klass, Johannes Leimer,
+ *               Rico Lieback, Sebastian Gabriel, Lothar Gesslein,
+ *               Alexander Rampp, Kai Weidner
+ *
+ * This file is part of the Physalix Enrollment System
+ *
+ * Foobar is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Foobar is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Foobar.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package hsa.awp.benchmarks;
+
+import hsa.awp.common.mail.IMailHandle;
+import hsa.awp.common.mail.Mail;
+import hsa.awp.common.mail.MailFactory;
+import hsa.awp.common.mail.MailHandle;
+
+/**
+ * {@link MailFactory} whose mails are rendered like real ones but dropped on sending, so that no benchmark depends on a mail
+ * server.
+ */
+public class DiscardingMailFactory extends MailFactory {
+  @Override
+  protected Mail createMail(String recipient, String subject, String message, String sender) {
+
+    return new Mail(recipient, subject, message, sender) {
+      @Override
+      public IMailHandle send() {
+
+        return new MailHandle();
+      }
+    };
+  }
+}
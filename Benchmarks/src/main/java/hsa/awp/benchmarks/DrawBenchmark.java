@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2010-2012 Matthias Klass, Johannes Leimer,
+ *               Rico Lieback, Sebastian Gabriel, Lothar Gesslein,
+ *               Alexander Rampp, Kai Weidner
+ *
+ * This file is part of the Physalix Enrollment System
+ *
+ * Foobar is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Foobar is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Foobar.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package hsa.awp.benchmarks;
+
+import hsa.awp.campaign.model.Campaign;
+import hsa.awp.campaign.model.DrawProcedure;
+import hsa.awp.event.model.Event;
+import hsa.awp.scire.procedureLogic.DrawProcedureLogic;
+import hsa.awp.scire.procedureLogic.IProcedureLogicFactory;
+import hsa.awp.user.model.SingleUser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link DrawProcedureLogic#draw()}. Every invocation draws a fresh {@link DrawProcedure} with three priority lists of
+ * three items per participant, the events offer seats for about half of the demand.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class DrawBenchmark {
+  private static final int LISTS = 3;
+
+  private static final int ITEMS = 3;
+
+  @Param({"200", "2000"})
+  private int participants;
+
+  @Param({"20", "60"})
+  private int eventCount;
+
+  private BenchmarkData data;
+
+  private IProcedureLogicFactory logicFactory;
+
+  private List<SingleUser> users;
+
+  private DrawProcedureLogic logic;
+
+  @Setup(Level.Trial)
+  public void createParticipants() {
+
+    data = new BenchmarkData();
+    logicFactory = BenchmarkContext.getBean("scire.procedureLogicFactory", IProcedureLogicFactory.class);
+    users = data.createStudents(participants);
+  }
+
+  @Setup(Level.Invocation)
+  public void createProcedure() {
+
+    Campaign campaign = data.createCampaign();
+    int capacity = Math.max(1, participants * LISTS / eventCount / 2);
+    List<Event> events = data.createEvents(campaign, eventCount, capacity);
+    DrawProcedure procedure = data.createDrawProcedure(campaign, users, events, LISTS, ITEMS);
+
+    logic = (DrawProcedureLogic) logicFactory.getInstance(DrawProcedureLogic.class);
+    logic.setProcedure(procedure);
+  }
+
+  @Benchmark
+  public boolean draw() {
+
+    logic.draw();
+    return logic.isDrawn();
+  }
+}
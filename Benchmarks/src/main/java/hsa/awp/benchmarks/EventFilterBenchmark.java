@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2010-2012 Matthias Klass, Johannes Leimer,
+ *               Rico Lieback, Sebastian Gabriel, Lothar Gesslein,
+ *               Alexander Rampp, Kai Weidner
+ *
+ * This file is part of the Physalix Enrollment System
+ *
+ * Foobar is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Foobar is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Foobar.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package hsa.awp.benchmarks;
+
+import hsa.awp.campaign.model.Campaign;
+import hsa.awp.campaign.model.DrawProcedure;
+import hsa.awp.event.model.Event;
+import hsa.awp.scire.services.EventCheckService;
+import hsa.awp.user.model.SingleUser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link EventCheckService#filterEventList}, which decides the events offered to a student while filling in priority
+ * lists. The student already has three priority lists and a few registrations, every event carries two rules.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class EventFilterBenchmark {
+  @Param({"50", "500"})
+  private int eventCount;
+
+  private EventCheckService eventCheckService;
+
+  private List<Event> events;
+
+  private List<Event> blackList;
+
+  private SingleUser student;
+
+  private DrawProcedure procedure;
+
+  @Setup
+  public void createProcedure() {
+
+    BenchmarkData data = new BenchmarkData();
+    Campaign campaign = data.createCampaign();
+    List<SingleUser> students = data.createStudents(1);
+    student = students.get(0);
+
+    events = data.createEvents(campaign, eventCount, 30);
+    procedure = data.createDrawProcedure(campaign, students, events, 3, 3);
+    events = data.register(procedure, students, events, 5);
+    data.createTermRules(campaign, events, 2);
+
+    blackList = events.subList(events.size() - 5, events.size());
+    eventCheckService = BenchmarkContext.getBean("scire.eventCheckService", EventCheckService.class);
+  }
+
+  @Benchmark
+  public List<Event> filterEventList() {
+
+    return eventCheckService.filterEventList(events, student, procedure, blackList);
+  }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2010-2012 Matthias Klass, Johannes Leimer,
+ *               Rico Lieback, Sebastian Gabriel, Lothar Gesslein,
+ *               Alexander Rampp, Kai Weidner
+ *
+ * This file is part of the Physalix Enrollment System
+ *
+ * Foobar is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Foobar is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Foobar.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package hsa.awp.benchmarks;
+
+import hsa.awp.campaign.model.Campaign;
+import hsa.awp.campaign.model.FifoProcedure;
+import hsa.awp.event.facade.IEventFacade;
+import hsa.awp.event.model.Event;
+import hsa.awp.scire.procedureLogic.FifoProcedureLogic;
+import hsa.awp.scire.procedureLogic.IProcedureLogicFactory;
+import hsa.awp.user.model.SingleUser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measures {@link FifoProcedureLogic#register}, including the rule check, the seat reservation and the confirmation mail.
+ * Several threads register concurrently, as they do when a first-come-first-served campaign opens. Like a request of the user
+ * interface, every registration loads its event first.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Threads(4)
+@Fork(1)
+public class FifoRegistrationBenchmark {
+  @Param({"20", "200"})
+  private int eventCount;
+
+  @Param({"500"})
+  private int participants;
+
+  private List<SingleUser> users;
+
+  private long[] eventIds;
+
+  private IEventFacade eventFacade;
+
+  private FifoProcedureLogic logic;
+
+  private final AtomicInteger next = new AtomicInteger();
+
+  @Setup
+  public void createProcedure() {
+
+    BenchmarkData data = new BenchmarkData();
+    Campaign campaign = data.createCampaign();
+    FifoProcedure procedure = data.createFifoProcedure(campaign);
+
+    users = data.createStudents(participants);
+    // the events never fill up, so every registration takes the complete path
+    List<Event> events = data.createEvents(campaign, eventCount, Integer.MAX_VALUE / 2);
+    eventIds = new long[events.size()];
+    for (int i = 0; i < eventIds.length; i++) {
+      eventIds[i] = events.get(i).getId();
+    }
+
+    eventFacade = BenchmarkContext.getBean("event.facade", IEventFacade.class);
+
+    logic = (FifoProcedureLogic) BenchmarkContext.getBean("scire.procedureLogicFactory", IProcedureLogicFactory.class)
+        .getInstance(FifoProcedureLogic.class);
+    logic.setProcedure(procedure);
+  }
+
+  @Benchmark
+  public void register() {
+
+    int i = next.getAndIncrement() & Integer.MAX_VALUE;
+    SingleUser user = users.get(i % users.size());
+
+    Event event = eventFacade.getEventById(eventIds[i % eventIds.length]);
+
+    logic.register(event, user, user, false);
+  }
+}
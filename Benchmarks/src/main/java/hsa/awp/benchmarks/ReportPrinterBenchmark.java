@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2010-2012 Matthias Klass, Johannes Leimer,
+ *               Rico Lieback, Sebastian Gabriel, Lothar Gesslein,
+ *               Alexander Rampp, Kai Weidner
+ *
+ * This file is part of the Physalix Enrollment System
+ *
+ * Foobar is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Foobar is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Foobar.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package hsa.awp.benchmarks;
+
+import hsa.awp.admingui.report.printer.CsvPrinter;
+import hsa.awp.admingui.report.printer.PdfPrinter;
+import hsa.awp.admingui.report.util.ExportList;
+import hsa.awp.admingui.report.util.HeaderFooter;
+import hsa.awp.admingui.report.util.Row;
+import hsa.awp.admingui.report.util.formats.csv.CsvPrintable;
+import hsa.awp.admingui.report.util.formats.csv.CsvProperties;
+import hsa.awp.admingui.report.util.formats.pdf.PdfCellProperties;
+import hsa.awp.admingui.report.util.formats.pdf.PdfPrintable;
+import hsa.awp.admingui.report.util.formats.pdf.PdfProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the report output of {@link PdfPrinter} and {@link CsvPrinter} for a participant list shaped export. The printers
+ * need no database, so this benchmark does not start the Spring context.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ReportPrinterBenchmark {
+  @Param({"100", "10000"})
+  private int rows;
+
+  private ParticipantExport export;
+
+  @Setup
+  public void createExport() {
+
+    export = new ParticipantExport();
+    for (int i = 0; i < rows; i++) {
+      export.getRows().add(new Row(Arrays.asList(String.valueOf(100000 + i), "Lastname " + i, "Firstname " + i,
+          "student" + i + "@benchmark.invalid", String.valueOf(1 + i % 8))));
+    }
+  }
+
+  @Benchmark
+  public long printPdf() {
+
+    CountingOutputStream out = new CountingOutputStream();
+    PdfPrinter printer = new PdfPrinter();
+    printer.setOutputStream(out);
+    printer.print(export);
+    return out.count;
+  }
+
+  @Benchmark
+  public long printCsv() {
+
+    CountingOutputStream out = new CountingOutputStream();
+    CsvPrinter printer = new CsvPrinter();
+    printer.setOutputStream(out);
+    printer.print(export);
+    return out.count;
+  }
+
+  /**
+   * Export printable as PDF and CSV.
+   */
+  private static class ParticipantExport extends ExportList implements PdfPrintable, CsvPrintable {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public PdfProperties getPdfProperties() {
+
+      List<PdfCellProperties> cells = new ArrayList<PdfCellProperties>();
+      cells.add(new PdfCellProperties(1f, "Matrikelnummer"));
+      cells.add(new PdfCellProperties(2f, "Nachname"));
+      cells.add(new PdfCellProperties(2f, "Vorname"));
+      cells.add(new PdfCellProperties(3f, "E-Mail"));
+      cells.add(new PdfCellProperties(1f, "Semester"));
+
+      return new PdfProperties(new HeaderFooter("Teilnehmerliste", "Benchmark"), cells);
+    }
+
+    @Override
+    public CsvProperties getCsvProperties() {
+
+      return new CsvProperties();
+    }
+
+    @Override
+    public String toString() {
+
+      return "Teilnehmerliste";
+    }
+  }
+
+  /**
+   * Discards the output and only counts its size, so that the printers and not the sink are measured.
+   */
+  private static class CountingOutputStream extends OutputStream {
+    private long count;
+
+    @Override
+    public void write(int b) {
+
+      count++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+
+      count += len;
+    }
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2010-2012 Matthias Klass, Johannes Leimer,
+ *               Rico Lieback, Sebastian Gabriel, Lothar Gesslein,
+ *               Alexander Rampp, Kai Weidner
+ *
+ * This file is part of the Physalix Enrollment System
+ *
+ * Foobar is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Foobar is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Foobar.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package hsa.awp.benchmarks;
+
+import hsa.awp.campaign.model.Campaign;
+import hsa.awp.campaign.rule.ICampaignRuleChecker;
+import hsa.awp.event.model.Event;
+import hsa.awp.user.model.SingleUser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the rule check of the rule facade for a student and an event, as done for every event shown to a user and for every
+ * registration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RuleCheckBenchmark {
+  private static final int EVENTS = 50;
+
+  private static final int STUDENTS = 16;
+
+  @Param({"0", "4", "16"})
+  private int rulesPerEvent;
+
+  private ICampaignRuleChecker ruleChecker;
+
+  private Campaign campaign;
+
+  private List<Event> events;
+
+  private List<SingleUser> students;
+
+  private int next;
+
+  @Setup
+  public void createRules() {
+
+    BenchmarkData data = new BenchmarkData();
+    campaign = data.createCampaign();
+    events = data.createEvents(campaign, EVENTS, 100);
+    students = data.createStudents(STUDENTS);
+    data.createTermRules(campaign, events, rulesPerEvent);
+
+    ruleChecker = BenchmarkContext.getBean("rule.facade", ICampaignRuleChecker.class);
+  }
+
+  @Benchmark
+  public boolean isRegistrationAllowed() {
+
+    int i = next++;
+    return ruleChecker.isRegistrationAllowed(students.get(i % STUDENTS), campaign, events.get(i % EVENTS));
+  }
+}
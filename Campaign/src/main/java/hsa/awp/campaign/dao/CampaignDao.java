@@ -89,6 +89,16 @@ public class CampaignDao extends AbstractMandatorableDao<Campaign, Long> impleme
     return query.getResultList();
   }
 
+  @Override
+  public Calendar findNextStartShow(Calendar after) {
+
+    Query query = getEntityManager().createQuery(
+        "select min(o.startShow) from " + Campaign.class.getSimpleName() + " o where o.startShow > :after");
+    query.setParameter("after", after);
+
+    return (Calendar) query.getSingleResult();
+  }
+
   @Override
   public Campaign findByName(String name) {
 
@@ -23,11 +23,22 @@ package hsa.awp.campaign.dao;
 
 import hsa.awp.campaign.model.Campaign;
 import hsa.awp.campaign.model.ConfirmedRegistration;
+import hsa.awp.campaign.model.EventRegistrationRow;
 import hsa.awp.campaign.model.Procedure;
 import hsa.awp.common.dao.AbstractMandatorableDao;
+import hsa.awp.user.model.SingleUser;
+import hsa.awp.user.model.Student;
 
 import javax.persistence.Query;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Class used for accessing all {@link ConfirmedRegistration} objects.
@@ -53,6 +64,54 @@ public class ConfirmedRegistrationDao extends AbstractMandatorableDao<ConfirmedR
     return (Long) query.getSingleResult();
   }
 
+  @Override
+  @SuppressWarnings("unchecked")
+  public Map<Long, Long> countItemsByEventIds(Collection<Long> eventIds) {
+
+    if (eventIds == null) {
+      throw new IllegalArgumentException("no eventIds given");
+    }
+
+    List<Long> distinct = distinctIds(eventIds);
+    Map<Long, Long> counts = new HashMap<Long, Long>(distinct.size() * 2);
+    for (Long eventId : distinct) {
+      counts.put(eventId, 0L);
+    }
+
+    for (int from = 0; from < distinct.size(); from += ID_CHUNK_SIZE) {
+      Query query = getEntityManager().createQuery(
+          "select o.eventId, count(o) from " + ConfirmedRegistration.class.getSimpleName()
+              + " o where o.eventId in (:ids) group by o.eventId");
+      query.setParameter("ids", distinct.subList(from, Math.min(from + ID_CHUNK_SIZE, distinct.size())));
+      for (Object[] row : (List<Object[]>) query.getResultList()) {
+        counts.put((Long) row[0], (Long) row[1]);
+      }
+    }
+
+    return counts;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public List<Object[]> findParticipantRowsByEventIds(Collection<Long> eventIds) {
+
+    if (eventIds == null) {
+      throw new IllegalArgumentException("no eventIds given");
+    }
+
+    List<Long> distinct = distinctIds(eventIds);
+    List<Object[]> rows = new ArrayList<Object[]>();
+    for (int from = 0; from < distinct.size(); from += ID_CHUNK_SIZE) {
+      Query query = getEntityManager().createQuery(
+          "select o.eventId, o.participant from " + ConfirmedRegistration.class.getSimpleName()
+              + " o where o.eventId in (:ids)");
+      query.setParameter("ids", distinct.subList(from, Math.min(from + ID_CHUNK_SIZE, distinct.size())));
+      rows.addAll(query.getResultList());
+    }
+
+    return rows;
+  }
+
   @Override
   public long countItemsByEventIdAndMandator(Long eventId, Long mandatorId) {
 
@@ -122,6 +181,29 @@ public class ConfirmedRegistrationDao extends AbstractMandatorableDao<ConfirmedR
     return query.getResultList();
   }
 
+  @Override
+  @SuppressWarnings("unchecked")
+  public List<EventRegistrationRow> findRowsByEventId(Long eventId) {
+
+    // participants and initiators are only referenced by id, so their names are read by correlated subselects
+    Query query = getEntityManager().createQuery(
+        "select o.id, o.date, o.participant, "
+            + "(select u.name from " + SingleUser.class.getSimpleName() + " u where u.id = o.participant), "
+            + "(select s.matriculationNumber from " + Student.class.getSimpleName() + " s where s.id = o.participant), "
+            + "(select i.name from " + SingleUser.class.getSimpleName() + " i where i.id = o.initiator), "
+            + "p.name from " + ConfirmedRegistration.class.getSimpleName()
+            + " o left join o.procedure p where o.eventId = :eventId");
+    query.setParameter("eventId", eventId);
+
+    List<Object[]> result = query.getResultList();
+    List<EventRegistrationRow> rows = new ArrayList<EventRegistrationRow>(result.size());
+    for (Object[] row : result) {
+      rows.add(new EventRegistrationRow((Long) row[0], null, 0, (Calendar) row[1], (Long) row[2], (String) row[3],
+          (Integer) row[4], (String) row[5], (String) row[6]));
+    }
+    return rows;
+  }
+
   @Override
   @SuppressWarnings("unchecked")
   public List<ConfirmedRegistration> findItemsByParticipantId(Long participantId) {
@@ -146,6 +228,28 @@ public class ConfirmedRegistrationDao extends AbstractMandatorableDao<ConfirmedR
     return count > 0;
   }
 
+  @Override
+  @SuppressWarnings("unchecked")
+  public Set<Long> findEventIdsByParticipantId(Long participantId, Collection<Long> eventIds) {
+
+    if (eventIds == null) {
+      throw new IllegalArgumentException("no eventIds given");
+    }
+
+    List<Long> distinct = distinctIds(eventIds);
+    Set<Long> result = new HashSet<Long>();
+    for (int from = 0; from < distinct.size(); from += ID_CHUNK_SIZE) {
+      Query query = getEntityManager().createQuery(
+          "select distinct o.eventId from " + ConfirmedRegistration.class.getSimpleName()
+              + " o where o.participant=:participant and o.eventId in (:ids)");
+      query.setParameter("participant", participantId);
+      query.setParameter("ids", distinct.subList(from, Math.min(from + ID_CHUNK_SIZE, distinct.size())));
+      result.addAll((List<Long>) query.getResultList());
+    }
+
+    return result;
+  }
+
   @Override
   public List<ConfirmedRegistration> findItemsByParticipantIdAndMandator(Long participantId, Long mandatorId) {
 
@@ -173,6 +277,22 @@ public class ConfirmedRegistrationDao extends AbstractMandatorableDao<ConfirmedR
     return query.getResultList();
   }
 
+  @SuppressWarnings("unchecked")
+  @Override
+  public List<ConfirmedRegistration> findByCampaign(Campaign campaign, int firstResult, int maxResults) {
+
+    if (campaign == null) {
+      throw new IllegalArgumentException("no campaign given");
+    }
+
+    Query query = getEntityManager().createQuery(
+        "select o from " + ConfirmedRegistration.class.getSimpleName() + " o where o.eventId IN (select e from "
+            + Campaign.class.getSimpleName() + " c join c.eventIds e where c.id = :id) order by o.id");
+    query.setParameter("id", campaign.getId());
+
+    return query.setFirstResult(firstResult).setMaxResults(maxResults).getResultList();
+  }
+
   @Override
   @SuppressWarnings("unchecked")
   public List<ConfirmedRegistration> findItemsByParticipantIdAndProcedure(Long participantId, Procedure procedure) {
@@ -196,4 +316,17 @@ public class ConfirmedRegistrationDao extends AbstractMandatorableDao<ConfirmedR
 
     return query.getResultList();
   }
+
+  /**
+   * Removes duplicates and <code>null</code> from the given ids, keeping their order.
+   *
+   * @param ids ids to clean up.
+   * @return list of distinct ids.
+   */
+  private static List<Long> distinctIds(Collection<Long> ids) {
+
+    List<Long> distinct = new ArrayList<Long>(new LinkedHashSet<Long>(ids));
+    distinct.remove(null);
+    return distinct;
+  }
 }
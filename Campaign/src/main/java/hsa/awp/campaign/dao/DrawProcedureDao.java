@@ -24,6 +24,10 @@ package hsa.awp.campaign.dao;
 import hsa.awp.campaign.model.DrawProcedure;
 import hsa.awp.common.dao.AbstractMandatorableDao;
 
+import javax.persistence.Query;
+import java.util.Calendar;
+import java.util.List;
+
 /**
  * Class used for accessing all {@link DrawProcedure} objects.
  *
@@ -37,4 +41,19 @@ public class DrawProcedureDao extends AbstractMandatorableDao<DrawProcedure, Lon
 
     super(DrawProcedure.class);
   }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public List<DrawProcedure> findEndedWithPriorityLists(Calendar now) {
+
+    if (now == null) {
+      throw new IllegalArgumentException("no instant given");
+    }
+
+    Query query = getEntityManager().createQuery(
+        "select distinct o from " + DrawProcedure.class.getSimpleName() + " o join o.priorityLists l where o.endDate <= :now");
+    query.setParameter("now", now);
+
+    return query.getResultList();
+  }
 }
@@ -48,6 +48,14 @@ public interface ICampaignDao extends IAbstractMandatorableDao<Campaign, Long> {
    */
   List<Campaign> findActiveSince(Calendar since);
 
+  /**
+   * Looks for the earliest startShow after a given instant of all {@link Campaign}s.
+   *
+   * @param after instant to look after.
+   * @return earliest startShow or null if no {@link Campaign} starts after the given instant.
+   */
+  Calendar findNextStartShow(Calendar after);
+
   /**
    * Looks for a {@link Campaign} using its unique name.
    *
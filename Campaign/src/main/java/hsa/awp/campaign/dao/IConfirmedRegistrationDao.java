@@ -24,10 +24,14 @@ package hsa.awp.campaign.dao;
 import antlr.debug.Event;
 import hsa.awp.campaign.model.Campaign;
 import hsa.awp.campaign.model.ConfirmedRegistration;
+import hsa.awp.campaign.model.EventRegistrationRow;
 import hsa.awp.campaign.model.Procedure;
 import hsa.awp.common.dao.IAbstractMandatorableDao;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Interface for accessing all {@link ConfirmedRegistration} model objects.
@@ -45,6 +49,24 @@ public interface IConfirmedRegistrationDao extends IAbstractMandatorableDao<Conf
 
   long countItemsByEventIdAndMandator(Long eventId, Long mandatorId);
 
+  /**
+   * Counts the {@link ConfirmedRegistration}s of several {@link Event}s with a single grouped query.
+   *
+   * @param eventIds ids of the events.
+   * @return amount of {@link ConfirmedRegistration}s per event id, including 0 for events without registrations.
+   * @throws IllegalArgumentException if eventIds was null.
+   */
+  Map<Long, Long> countItemsByEventIds(Collection<Long> eventIds);
+
+  /**
+   * Reads which participants are registered with several {@link Event}s without loading the {@link ConfirmedRegistration}s.
+   *
+   * @param eventIds ids of the events.
+   * @return rows of <code>[eventId, participant]</code>.
+   * @throws IllegalArgumentException if eventIds was null.
+   */
+  List<Object[]> findParticipantRowsByEventIds(Collection<Long> eventIds);
+
   /**
    * Looks for all {@link ConfirmedRegistration}s associated with a given {@link Procedure} and counts them.
    *
@@ -64,6 +86,17 @@ public interface IConfirmedRegistrationDao extends IAbstractMandatorableDao<Conf
    */
   List<ConfirmedRegistration> findByCampaign(Campaign campaign);
 
+  /**
+   * Looks for one page of the {@link ConfirmedRegistration}s associated with an event in {@link Campaign}. The registrations are
+   * ordered by their id, so consecutive pages do not overlap.
+   *
+   * @param campaign    {@link Campaign} to look for.
+   * @param firstResult index of the first registration.
+   * @param maxResults  maximum number of registrations.
+   * @return List of {@link ConfirmedRegistration}s.
+   */
+  List<ConfirmedRegistration> findByCampaign(Campaign campaign, int firstResult, int maxResults);
+
   /**
    * Looks for all {@link ConfirmedRegistration}s which are created by the given {@link Procedure}.
    *
@@ -82,6 +115,15 @@ public interface IConfirmedRegistrationDao extends IAbstractMandatorableDao<Conf
 
   List<ConfirmedRegistration> findItemsByEventIdAndMandator(Long eventId, Long mandatorId);
 
+  /**
+   * Reads all {@link ConfirmedRegistration}s of an {@link Event} together with the names of their participants, initiators and
+   * procedures in one query, without loading any entity.
+   *
+   * @param eventId event to look for.
+   * @return unsorted rows, one per {@link ConfirmedRegistration}.
+   */
+  List<EventRegistrationRow> findRowsByEventId(Long eventId);
+
   /**
    * Looks for all {@link ConfirmedRegistration}s associated with a participant.
    *
@@ -92,6 +134,16 @@ public interface IConfirmedRegistrationDao extends IAbstractMandatorableDao<Conf
 
   boolean hasParticipantConfirmedRegistrationInEvent(Long participantId, Long eventId);
 
+  /**
+   * Looks for those of the given {@link Event}s in which a participant has a {@link ConfirmedRegistration}.
+   *
+   * @param participantId participantId to look for.
+   * @param eventIds      ids of the events to check.
+   * @return ids of the events the participant is registered in.
+   * @throws IllegalArgumentException if eventIds was null.
+   */
+  Set<Long> findEventIdsByParticipantId(Long participantId, Collection<Long> eventIds);
+
   List<ConfirmedRegistration> findItemsByParticipantIdAndMandator(Long participantId, Long mandatorId);
 
   List<ConfirmedRegistration> findItemsByParticipantIdAndProcedure(Long participantId, Procedure procedure);
@@ -24,10 +24,20 @@ package hsa.awp.campaign.dao;
 import hsa.awp.campaign.model.DrawProcedure;
 import hsa.awp.common.dao.IAbstractMandatorableDao;
 
+import java.util.Calendar;
+import java.util.List;
+
 /**
  * Interface for accessing all {@link DrawProcedure} model objects.
  *
  * @author klassm
  */
 public interface IDrawProcedureDao extends IAbstractMandatorableDao<DrawProcedure, Long> {
+  /**
+   * Looks for all {@link DrawProcedure}s which have ended before a given instant but still hold priority lists.
+   *
+   * @param now instant to compare the endDate with.
+   * @return {@link List} of {@link DrawProcedure}s.
+   */
+  List<DrawProcedure> findEndedWithPriorityLists(Calendar now);
 }
@@ -22,6 +22,9 @@
 package hsa.awp.campaign.dao;
 
 import hsa.awp.campaign.model.Campaign;
+import hsa.awp.campaign.model.DrawProcedure;
+import hsa.awp.campaign.model.EventRegistrationRow;
+import hsa.awp.campaign.model.PriorityList;
 import hsa.awp.campaign.model.PriorityListItem;
 import hsa.awp.common.dao.IAbstractMandatorableDao;
 
@@ -42,4 +45,31 @@ public interface IPriorityListItemDao extends IAbstractMandatorableDao<PriorityL
   List<PriorityListItem> findItemsByEventId(Long eventId);
 
   List<PriorityListItem> findItemsByEventIdAndMandatorId(Long eventId, Long mandatorId);
+
+  /**
+   * Counts the {@link PriorityListItem}s of an event.
+   *
+   * @param eventId event to look for.
+   * @return number of {@link PriorityListItem}s.
+   */
+  long countItemsByEventId(Long eventId);
+
+  /**
+   * Reads all {@link PriorityListItem}s of an event together with their {@link PriorityList} data and the names of
+   * participants, initiators and procedures in one query, without loading any entity.
+   *
+   * @param eventId event to look for.
+   * @return unsorted rows, one per {@link PriorityListItem}.
+   */
+  List<EventRegistrationRow> findRowsByEventId(Long eventId);
+
+  /**
+   * Looks for all {@link PriorityListItem}s of all {@link PriorityList}s of a {@link DrawProcedure} without loading the entities.
+   * Each row consists of the {@link PriorityList} id, participant and initiator, followed by the event id and the priority of
+   * the item. Rows are ordered by {@link PriorityList} id and priority.
+   *
+   * @param procedure {@link DrawProcedure} to look for.
+   * @return rows of <code>[listId, participant, initiator, event, priority]</code>.
+   */
+  List<Object[]> findItemRowsByDrawProcedure(DrawProcedure procedure);
 }
@@ -55,5 +55,13 @@ public interface IProcedureDao extends IAbstractMandatorableDao<Procedure, Long>
    */
   List<Procedure> findUnused();
 
+  /**
+   * Looks for the earliest startDate after a given instant of all {@link Procedure}s assigned to a {@link Campaign}.
+   *
+   * @param after instant to look after.
+   * @return earliest startDate or null if no {@link Procedure} starts after the given instant.
+   */
+  Calendar findNextStartDate(Calendar after);
+
   List<Procedure> findUnusedByMandator(Long mandator);
 }
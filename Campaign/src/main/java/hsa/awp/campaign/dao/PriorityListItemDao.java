@@ -22,10 +22,16 @@
 package hsa.awp.campaign.dao;
 
 import hsa.awp.campaign.model.ConfirmedRegistration;
+import hsa.awp.campaign.model.DrawProcedure;
+import hsa.awp.campaign.model.EventRegistrationRow;
 import hsa.awp.campaign.model.PriorityListItem;
 import hsa.awp.common.dao.AbstractMandatorableDao;
+import hsa.awp.user.model.SingleUser;
+import hsa.awp.user.model.Student;
 
 import javax.persistence.Query;
+import java.util.ArrayList;
+import java.util.Calendar;
 import java.util.List;
 
 /**
@@ -63,4 +69,52 @@ public class PriorityListItemDao extends AbstractMandatorableDao<PriorityListIte
 
     return query.getResultList();
   }
+
+  @Override
+  public long countItemsByEventId(Long eventId) {
+
+    Query query = getEntityManager().createQuery(
+        "select count(o) from " + PriorityListItem.class.getSimpleName() + " o where o.event=:eventId");
+    query.setParameter("eventId", eventId);
+
+    return (Long) query.getSingleResult();
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public List<EventRegistrationRow> findRowsByEventId(Long eventId) {
+
+    Query query = getEntityManager().createQuery(
+        "select o.id, l.id, o.priority, l.date, l.participant, "
+            + "(select u.name from " + SingleUser.class.getSimpleName() + " u where u.id = l.participant), "
+            + "(select s.matriculationNumber from " + Student.class.getSimpleName() + " s where s.id = l.participant), "
+            + "(select i.name from " + SingleUser.class.getSimpleName() + " i where i.id = l.initiator), "
+            + "p.name from " + PriorityListItem.class.getSimpleName()
+            + " o join o.priorityList l left join l.procedure p where o.event = :eventId");
+    query.setParameter("eventId", eventId);
+
+    List<Object[]> result = query.getResultList();
+    List<EventRegistrationRow> rows = new ArrayList<EventRegistrationRow>(result.size());
+    for (Object[] row : result) {
+      rows.add(new EventRegistrationRow((Long) row[0], (Long) row[1], (Integer) row[2], (Calendar) row[3], (Long) row[4],
+          (String) row[5], (Integer) row[6], (String) row[7], (String) row[8]));
+    }
+    return rows;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public List<Object[]> findItemRowsByDrawProcedure(DrawProcedure procedure) {
+
+    if (procedure == null) {
+      throw new IllegalArgumentException("no procedure given");
+    }
+
+    Query query = getEntityManager().createQuery(
+        "select l.id, l.participant, l.initiator, i.event, i.priority from " + DrawProcedure.class.getSimpleName()
+            + " d join d.priorityLists l join l.items i where d.id = :id order by l.id, i.priority");
+    query.setParameter("id", procedure.getId());
+
+    return query.getResultList();
+  }
 }
@@ -78,6 +78,17 @@ public class ProcedureDao extends AbstractMandatorableDao<Procedure, Long> imple
     return query.getResultList();
   }
 
+  @Override
+  public Calendar findNextStartDate(Calendar after) {
+
+    Query query = getEntityManager().createQuery(
+        "select min(o.startDate) from " + Procedure.class.getSimpleName()
+            + " o where o.startDate > :after and o.campaign IS NOT NULL");
+    query.setParameter("after", after);
+
+    return (Calendar) query.getSingleResult();
+  }
+
   @Override
   @SuppressWarnings("unchecked")
   public List<Procedure> findUnused() {
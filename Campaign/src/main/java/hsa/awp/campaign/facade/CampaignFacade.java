@@ -23,12 +23,23 @@ package hsa.awp.campaign.facade;
 
 import hsa.awp.campaign.dao.*;
 import hsa.awp.campaign.model.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import javax.persistence.Persistence;
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Facade for accessing all domain objects in the Campaign Context.
@@ -76,6 +87,52 @@ public final class CampaignFacade implements ICampaignFacade {
    */
   private IProcedureDao procedureDao;
 
+  /**
+   * Listeners notified after {@link Campaign}s or {@link Procedure}s have been changed.
+   */
+  private final List<ICampaignChangeListener> changeListeners = new CopyOnWriteArrayList<ICampaignChangeListener>();
+
+  /**
+   * Listeners notified after {@link ConfirmedRegistration}s have been removed.
+   */
+  private final List<IConfirmedRegistrationListener> registrationListeners =
+      new CopyOnWriteArrayList<IConfirmedRegistrationListener>();
+
+  /**
+   * Default logger.
+   */
+  private final Logger logger = LoggerFactory.getLogger(getClass());
+
+  @Override
+  public void addChangeListener(ICampaignChangeListener listener) {
+
+    if (listener == null) {
+      throw new IllegalArgumentException("no listener given");
+    }
+    changeListeners.add(listener);
+  }
+
+  @Override
+  public void removeChangeListener(ICampaignChangeListener listener) {
+
+    changeListeners.remove(listener);
+  }
+
+  @Override
+  public void addConfirmedRegistrationListener(IConfirmedRegistrationListener listener) {
+
+    if (listener == null) {
+      throw new IllegalArgumentException("no listener given");
+    }
+    registrationListeners.add(listener);
+  }
+
+  @Override
+  public void removeConfirmedRegistrationListener(IConfirmedRegistrationListener listener) {
+
+    registrationListeners.remove(listener);
+  }
+
   @Transactional
   @Override
   public long countConfirmedRegistrationsByEventId(long eventId) {
@@ -83,6 +140,20 @@ public final class CampaignFacade implements ICampaignFacade {
     return confirmedRegistrationDao.countItemsByEventId(eventId);
   }
 
+  @Transactional
+  @Override
+  public Map<Long, Long> countConfirmedRegistrationsByEventIds(Collection<Long> eventIds) {
+
+    return confirmedRegistrationDao.countItemsByEventIds(eventIds);
+  }
+
+  @Transactional
+  @Override
+  public List<Object[]> findConfirmedRegistrationParticipantsByEventIds(Collection<Long> eventIds) {
+
+    return confirmedRegistrationDao.findParticipantRowsByEventIds(eventIds);
+  }
+
   @Transactional
   @Override
   public long countConfirmedRegistrationsByProcedure(Procedure procedure) {
@@ -97,6 +168,30 @@ public final class CampaignFacade implements ICampaignFacade {
     return campaignDao.findActive();
   }
 
+  @Transactional
+  @Override
+  public Calendar findNextProcedureActivation(Calendar after) {
+
+    if (after == null) {
+      throw new IllegalArgumentException("no instant given");
+    }
+
+    Calendar nextStart = procedureDao.findNextStartDate(after);
+    Calendar nextShow = campaignDao.findNextStartShow(after);
+
+    if (nextStart == null || (nextShow != null && nextShow.before(nextStart))) {
+      return nextShow;
+    }
+    return nextStart;
+  }
+
+  @Transactional
+  @Override
+  public List<DrawProcedure> findEndedDrawProceduresWithPriorityLists(Calendar now) {
+
+    return drawProcedureDao.findEndedWithPriorityLists(now);
+  }
+
   @Transactional
   @Override
   public List<Campaign> findActiveCampaignSince(Calendar since) {
@@ -132,6 +227,13 @@ public final class CampaignFacade implements ICampaignFacade {
     return confirmedRegistrationDao.findByCampaign(campaign);
   }
 
+  @Transactional
+  @Override
+  public List<ConfirmedRegistration> findConfirmedRegistrationsByCampaign(Campaign campaign, int firstResult, int maxResults) {
+
+    return confirmedRegistrationDao.findByCampaign(campaign, firstResult, maxResults);
+  }
+
   @Transactional
   @Override
   public List<ConfirmedRegistration> findConfirmedRegistrationsByEvent(Long eventId) {
@@ -152,6 +254,13 @@ public final class CampaignFacade implements ICampaignFacade {
     return confirmedRegistrationDao.hasParticipantConfirmedRegistrationInEvent(participantId, eventId);
   }
 
+  @Transactional
+  @Override
+  public Set<Long> findEventIdsWithConfirmedRegistration(Long participantId, Collection<Long> eventIds) {
+
+    return confirmedRegistrationDao.findEventIdsByParticipantId(participantId, eventIds);
+  }
+
   @Transactional
   @Override
   public List<PriorityListItem> findPriorityListItemsByEventId(Long eventId) {
@@ -159,6 +268,38 @@ public final class CampaignFacade implements ICampaignFacade {
     return priorityListItemDao.findItemsByEventId(eventId);
   }
 
+  @Transactional
+  @Override
+  public long countPriorityListItemsByEventId(Long eventId) {
+
+    return priorityListItemDao.countItemsByEventId(eventId);
+  }
+
+  @Transactional
+  @Override
+  public List<EventRegistrationRow> findConfirmedRegistrationRowsByEventId(Long eventId) {
+
+    List<EventRegistrationRow> rows = confirmedRegistrationDao.findRowsByEventId(eventId);
+    Collections.sort(rows);
+    return rows;
+  }
+
+  @Transactional
+  @Override
+  public List<EventRegistrationRow> findPriorityListItemRowsByEventId(Long eventId) {
+
+    List<EventRegistrationRow> rows = priorityListItemDao.findRowsByEventId(eventId);
+    Collections.sort(rows);
+    return rows;
+  }
+
+  @Transactional
+  @Override
+  public List<Object[]> findPriorityListItemRowsByDrawProcedure(DrawProcedure procedure) {
+
+    return priorityListItemDao.findItemRowsByDrawProcedure(procedure);
+  }
+
   @Transactional
   @Override
   public List<PriorityList> findPriorityListsByUserAndProcedure(Long userId, Procedure procedure) {
@@ -215,6 +356,13 @@ public final class CampaignFacade implements ICampaignFacade {
     return campaignDao.findById(id);
   }
 
+  @Transactional
+  @Override
+  public List<Campaign> getCampaignsByIds(Collection<Long> ids) {
+
+    return campaignDao.findByIds(ids);
+  }
+
   @Transactional
   @Override
   public Campaign getCampaignByNameAndMandator(String name, Long mandatorId) {
@@ -236,6 +384,13 @@ public final class CampaignFacade implements ICampaignFacade {
     return confirmedRegistrationDao.findById(id);
   }
 
+  @Transactional
+  @Override
+  public List<ConfirmedRegistration> getConfirmedRegistrationsByIds(Collection<Long> ids) {
+
+    return confirmedRegistrationDao.findByIds(ids);
+  }
+
   @Transactional
   @Override
   public List<ConfirmedRegistration> getConfirmedRegistrationsByProcedure(Procedure p) {
@@ -276,6 +431,7 @@ public final class CampaignFacade implements ICampaignFacade {
   public void removeCampaign(Campaign campaign) {
 
     campaignDao.remove(campaign);
+    fireCampaignsChanged();
   }
 
   @Transactional
@@ -283,6 +439,7 @@ public final class CampaignFacade implements ICampaignFacade {
   public void removeConfirmedRegistration(ConfirmedRegistration confirmedRegistration) {
 
     confirmedRegistrationDao.remove(confirmedRegistration);
+    fireConfirmedRegistrationRemoved(confirmedRegistration);
   }
 
   @Transactional
@@ -290,6 +447,7 @@ public final class CampaignFacade implements ICampaignFacade {
   public void removeConfirmProcedure(ConfirmProcedure c) {
 
     confirmProcedureDao.remove(c);
+    fireCampaignsChanged();
   }
 
   @Transactional
@@ -320,6 +478,7 @@ public final class CampaignFacade implements ICampaignFacade {
     }
 
     drawProcedureDao.remove(d);
+    fireCampaignsChanged();
   }
 
   @Transactional
@@ -344,6 +503,7 @@ public final class CampaignFacade implements ICampaignFacade {
     }
 
     fifoProcedureDao.remove(f);
+    fireCampaignsChanged();
   }
 
   @Transactional
@@ -354,18 +514,9 @@ public final class CampaignFacade implements ICampaignFacade {
       throw new IllegalArgumentException("no PriorityList given");
     }
 
-    DrawProcedure proc = updateDrawProcedure(item.getProcedure());
-
-
-    if (proc != null) {
-      int size = proc.getPriorityLists().size();
-
+    DrawProcedure proc = item.getProcedure();
+    if (proc != null && isPriorityListsLoaded(proc)) {
       proc.getPriorityLists().remove(item);
-
-      if (size - 1 != proc.getPriorityLists().size()) {
-        throw new IllegalStateException("could not remove priority list from procedure");
-      }
-      drawProcedureDao.merge(proc);
     }
 
     priorityListDao.remove(item);
@@ -382,6 +533,7 @@ public final class CampaignFacade implements ICampaignFacade {
   @Override
   public Campaign saveCampaign(Campaign c) {
 
+    fireCampaignsChanged();
     return campaignDao.persist(c);
   }
 
@@ -392,10 +544,18 @@ public final class CampaignFacade implements ICampaignFacade {
     return confirmedRegistrationDao.persist(c);
   }
 
+  @Transactional
+  @Override
+  public List<ConfirmedRegistration> saveConfirmedRegistrations(Collection<ConfirmedRegistration> registrations) {
+
+    return confirmedRegistrationDao.persistAll(registrations);
+  }
+
   @Transactional
   @Override
   public ConfirmProcedure saveConfirmProcedure(ConfirmProcedure c) {
 
+    fireCampaignsChanged();
     return confirmProcedureDao.persist(c);
   }
 
@@ -403,6 +563,7 @@ public final class CampaignFacade implements ICampaignFacade {
   @Override
   public DrawProcedure saveDrawProcedure(DrawProcedure d) {
 
+    fireCampaignsChanged();
     return drawProcedureDao.persist(d);
   }
 
@@ -410,6 +571,7 @@ public final class CampaignFacade implements ICampaignFacade {
   @Override
   public FifoProcedure saveFifoProcedure(FifoProcedure f) {
 
+    fireCampaignsChanged();
     return fifoProcedureDao.persist(f);
   }
 
@@ -420,6 +582,62 @@ public final class CampaignFacade implements ICampaignFacade {
     return priorityListDao.persist(prioList);
   }
 
+  @Transactional
+  @Override
+  public PriorityList appendPriorityList(Long drawProcedureId, PriorityList prioList) {
+
+    if (drawProcedureId == null) {
+      throw new IllegalArgumentException("no drawProcedureId given");
+    } else if (prioList == null) {
+      throw new IllegalArgumentException("no PriorityList given");
+    }
+
+    DrawProcedure procedure = drawProcedureDao.findById(drawProcedureId);
+    return appendPriorityList(procedure, prioList, isPriorityListsLoaded(procedure));
+  }
+
+  @Transactional
+  @Override
+  public List<PriorityList> appendPriorityLists(Long drawProcedureId, Collection<PriorityList> prioLists) {
+
+    if (drawProcedureId == null) {
+      throw new IllegalArgumentException("no drawProcedureId given");
+    } else if (prioLists == null) {
+      throw new IllegalArgumentException("no PriorityLists given");
+    }
+
+    DrawProcedure procedure = drawProcedureDao.findById(drawProcedureId);
+    boolean loaded = isPriorityListsLoaded(procedure);
+
+    List<PriorityList> persisted = new ArrayList<PriorityList>(prioLists.size());
+    for (PriorityList prioList : prioLists) {
+      if (prioList == null) {
+        throw new IllegalArgumentException("no PriorityList given");
+      }
+      persisted.add(appendPriorityList(procedure, prioList, loaded));
+    }
+    return persisted;
+  }
+
+  /**
+   * Makes a new {@link PriorityList} of a {@link DrawProcedure} persistent.
+   *
+   * @param procedure the {@link DrawProcedure} the list is submitted to.
+   * @param prioList  new {@link PriorityList}.
+   * @param loaded    whether the {@link PriorityList}s of the procedure are loaded and have to be kept in sync.
+   * @return persistent {@link PriorityList}
+   */
+  private PriorityList appendPriorityList(DrawProcedure procedure, PriorityList prioList, boolean loaded) {
+
+    procedure.assignPriorityList(prioList);
+    prioList = priorityListDao.persist(prioList);
+
+    if (loaded) {
+      procedure.getPriorityLists().add(prioList);
+    }
+    return prioList;
+  }
+
   @Transactional
   @Override
   public PriorityListItem savePriorityListItem(PriorityListItem item) {
@@ -431,6 +649,7 @@ public final class CampaignFacade implements ICampaignFacade {
   @Override
   public Procedure saveProcedure(Procedure proc) {
 
+    fireCampaignsChanged();
     return procedureDao.persist(proc);
   }
 
@@ -438,6 +657,7 @@ public final class CampaignFacade implements ICampaignFacade {
   @Override
   public Campaign updateCampaign(Campaign campaign) {
 
+    fireCampaignsChanged();
     return campaignDao.merge(campaign);
   }
 
@@ -452,6 +672,7 @@ public final class CampaignFacade implements ICampaignFacade {
   @Override
   public ConfirmProcedure updateConfirmProcedure(ConfirmProcedure c) {
 
+    fireCampaignsChanged();
     return confirmProcedureDao.merge(c);
   }
 
@@ -459,6 +680,7 @@ public final class CampaignFacade implements ICampaignFacade {
   @Override
   public DrawProcedure updateDrawProcedure(DrawProcedure d) {
 
+    fireCampaignsChanged();
     return drawProcedureDao.merge(d);
   }
 
@@ -466,6 +688,7 @@ public final class CampaignFacade implements ICampaignFacade {
   @Override
   public FifoProcedure updateFifoProcedure(FifoProcedure f) {
 
+    fireCampaignsChanged();
     return fifoProcedureDao.merge(f);
   }
 
@@ -487,6 +710,7 @@ public final class CampaignFacade implements ICampaignFacade {
   @Override
   public Procedure updateProcedure(Procedure procedure) {
 
+    fireCampaignsChanged();
     return procedureDao.merge(procedure);
   }
 
@@ -509,6 +733,122 @@ public final class CampaignFacade implements ICampaignFacade {
     }
   }
 
+  @Transactional
+  @Override
+  public void removePriorityLists(DrawProcedure procedure, Collection<Long> priorityListIds) {
+
+    if (procedure == null) {
+      throw new IllegalArgumentException("no procedure given");
+    } else if (priorityListIds == null) {
+      throw new IllegalArgumentException("no priorityListIds given");
+    }
+
+    List<PriorityList> lists = new LinkedList<PriorityList>();
+    for (PriorityList list : priorityListDao.findByIds(priorityListIds)) {
+      if (list.getProcedure() != null && list.getProcedure().getId().equals(procedure.getId())) {
+        lists.add(list);
+      }
+    }
+
+    for (PriorityList list : lists) {
+      removePriorityList(list);
+    }
+  }
+
+  /**
+   * Checks whether the {@link PriorityList}s of a {@link DrawProcedure} have already been loaded. The collection is not
+   * the owning side of the association, so it only has to be kept in sync if it is held in memory anyway.
+   *
+   * @param procedure the {@link DrawProcedure} to check.
+   * @return true if the collection of {@link PriorityList}s is loaded.
+   */
+  private static boolean isPriorityListsLoaded(DrawProcedure procedure) {
+
+    return Persistence.getPersistenceUtil().isLoaded(procedure, "priorityLists");
+  }
+
+  /**
+   * Notifies all registered {@link ICampaignChangeListener}s once the current transaction has been committed, or
+   * immediately if no transaction is active.
+   */
+  private void fireCampaignsChanged() {
+
+    if (changeListeners.isEmpty()) {
+      return;
+    }
+
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+        @Override
+        public void afterCompletion(int status) {
+
+          if (status == TransactionSynchronization.STATUS_COMMITTED) {
+            notifyChangeListeners();
+          }
+        }
+      });
+    } else {
+      notifyChangeListeners();
+    }
+  }
+
+  /**
+   * Calls all registered {@link ICampaignChangeListener}s. A failing listener does not affect the others.
+   */
+  private void notifyChangeListeners() {
+
+    for (ICampaignChangeListener listener : changeListeners) {
+      try {
+        listener.campaignsChanged();
+      } catch (RuntimeException e) {
+        logger.error("campaign change listener failed", e);
+      }
+    }
+  }
+
+  /**
+   * Notifies all registered {@link IConfirmedRegistrationListener}s once the current transaction has been committed, or
+   * immediately if no transaction is active.
+   *
+   * @param confirmedRegistration the removed {@link ConfirmedRegistration}.
+   */
+  private void fireConfirmedRegistrationRemoved(final ConfirmedRegistration confirmedRegistration) {
+
+    if (registrationListeners.isEmpty()) {
+      return;
+    }
+
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+        @Override
+        public void afterCompletion(int status) {
+
+          if (status == TransactionSynchronization.STATUS_COMMITTED) {
+            notifyRegistrationListeners(confirmedRegistration);
+          }
+        }
+      });
+    } else {
+      notifyRegistrationListeners(confirmedRegistration);
+    }
+  }
+
+  /**
+   * Calls all registered {@link IConfirmedRegistrationListener}s. A failing listener does not affect the others.
+   *
+   * @param confirmedRegistration the removed {@link ConfirmedRegistration}.
+   */
+  private void notifyRegistrationListeners(ConfirmedRegistration confirmedRegistration) {
+
+    for (IConfirmedRegistrationListener listener : registrationListeners) {
+      try {
+        listener.confirmedRegistrationRemoved(confirmedRegistration);
+      } catch (RuntimeException e) {
+        logger.error("registration listener failed", e);
+      }
+    }
+  }
+
   /**
    * Sets the CampaignDao.
    *
@@ -616,6 +956,19 @@ public final class CampaignFacade implements ICampaignFacade {
     return campaignDao.findByMandator(mandatorId);
   }
 
+  @Override
+  @Transactional
+  public long countCampaignsByMandatorId(Long mandatorId) {
+    return campaignDao.countByMandator(mandatorId);
+  }
+
+  @Override
+  @Transactional
+  public List<Campaign> findCampaignsByMandatorId(int firstResult, int maxResults, Long mandatorId,
+                                                  String sortProperty, boolean ascending) {
+    return campaignDao.findByMandator(firstResult, maxResults, mandatorId, null, sortProperty, ascending);
+  }
+
   @Override
   @Transactional
   public List<Procedure> findProceduresByMandatorId(Long mandatorId) {
@@ -28,7 +28,10 @@ import hsa.awp.user.model.SingleUser;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Calendar;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Class includes all access methods for the Campaign Context.
@@ -36,6 +39,36 @@ import java.util.List;
  * @author klassm
  */
 public interface ICampaignFacade {
+  /**
+   * Registers a listener being notified after {@link Campaign}s or {@link Procedure}s have been changed.
+   *
+   * @param listener listener to register.
+   * @throws IllegalArgumentException if no listener was given.
+   */
+  void addChangeListener(ICampaignChangeListener listener);
+
+  /**
+   * Removes a previously registered change listener.
+   *
+   * @param listener listener to remove.
+   */
+  void removeChangeListener(ICampaignChangeListener listener);
+
+  /**
+   * Registers a listener being notified after {@link ConfirmedRegistration}s have been removed.
+   *
+   * @param listener listener to register.
+   * @throws IllegalArgumentException if no listener was given.
+   */
+  void addConfirmedRegistrationListener(IConfirmedRegistrationListener listener);
+
+  /**
+   * Removes a previously registered registration listener.
+   *
+   * @param listener listener to remove.
+   */
+  void removeConfirmedRegistrationListener(IConfirmedRegistrationListener listener);
+
   /**
    * Looks for all {@link ConfirmedRegistration}s associated with a given id of an {@link Event} and counts them.
    *
@@ -44,6 +77,22 @@ public interface ICampaignFacade {
    */
   long countConfirmedRegistrationsByEventId(long eventId);
 
+  /**
+   * Counts the {@link ConfirmedRegistration}s of several {@link Event}s in one round trip.
+   *
+   * @param eventIds ids of the events.
+   * @return amount of {@link ConfirmedRegistration}s per event id, including 0 for events without registrations.
+   */
+  Map<Long, Long> countConfirmedRegistrationsByEventIds(Collection<Long> eventIds);
+
+  /**
+   * Reads which participants hold a {@link ConfirmedRegistration} in several {@link Event}s with as few queries as possible.
+   *
+   * @param eventIds ids of the events.
+   * @return rows of <code>[eventId, participant]</code>.
+   */
+  List<Object[]> findConfirmedRegistrationParticipantsByEventIds(Collection<Long> eventIds);
+
   /**
    * Looks for all {@link ConfirmedRegistration}s associated with a given {@link Procedure} and counts them.
    *
@@ -70,6 +119,26 @@ public interface ICampaignFacade {
    */
   List<Campaign> findActiveCampaigns();
 
+  /**
+   * Looks for the next instant after a given one at which a {@link Procedure} may become active. This is the earliest
+   * startDate of a {@link Procedure} or startShow of a {@link Campaign} after the given instant.
+   *
+   * @param after instant to look after.
+   * @return next activation instant or null if nothing is scheduled after the given instant.
+   * @throws IllegalArgumentException if no instant was given.
+   */
+  Calendar findNextProcedureActivation(Calendar after);
+
+  /**
+   * Looks for {@link DrawProcedure}s which have ended before a given instant but still hold {@link PriorityList}s, i.e. whose
+   * participants have not all been notified yet.
+   *
+   * @param now instant to compare the endDate with.
+   * @return {@link List} of {@link DrawProcedure}s.
+   * @throws IllegalArgumentException if no instant was given.
+   */
+  List<DrawProcedure> findEndedDrawProceduresWithPriorityLists(Calendar now);
+
   /**
    * Looks for newly active {@link Procedure}s where the startDate of the {@link Procedure} is between a given since data and now.
    *
@@ -87,6 +156,16 @@ public interface ICampaignFacade {
    */
   List<ConfirmedRegistration> findConfirmedRegistrationsByCampaign(Campaign campaign);
 
+  /**
+   * Looks for one page of the {@link ConfirmedRegistration}s associated with an event in {@link Campaign}, ordered by their id.
+   *
+   * @param campaign    {@link Campaign} to look for.
+   * @param firstResult index of the first registration.
+   * @param maxResults  maximum number of registrations.
+   * @return List of {@link ConfirmedRegistration}s.
+   */
+  List<ConfirmedRegistration> findConfirmedRegistrationsByCampaign(Campaign campaign, int firstResult, int maxResults);
+
   /**
    * Looks for all {@link ConfirmedRegistration}s associated with an {@link Event}.
    *
@@ -105,6 +184,15 @@ public interface ICampaignFacade {
 
   boolean hasParticipantConfirmedRegistrationInEvent(Long participantId, Long eventId);
 
+  /**
+   * Looks for those of the given {@link Event}s in which a participant has a {@link ConfirmedRegistration}.
+   *
+   * @param participantId participantId to look for.
+   * @param eventIds      ids of the events to check.
+   * @return ids of the events the participant is registered in.
+   */
+  Set<Long> findEventIdsWithConfirmedRegistration(Long participantId, Collection<Long> eventIds);
+
   List<ConfirmedRegistration> findConfirmedRegistrationsByParticipantIdAndProcedure(Long participantId, Procedure procedure);
 
   /**
@@ -115,6 +203,38 @@ public interface ICampaignFacade {
    */
   List<PriorityListItem> findPriorityListItemsByEventId(Long eventId);
 
+  /**
+   * Counts the {@link PriorityListItem}s being applied to a given event.
+   *
+   * @param eventId id of a given Event.
+   * @return number of {@link PriorityListItem}s.
+   */
+  long countPriorityListItemsByEventId(Long eventId);
+
+  /**
+   * Reads the {@link ConfirmedRegistration}s of an event as read-only rows, see {@link EventRegistrationRow}.
+   *
+   * @param eventId id of a given Event.
+   * @return sorted rows.
+   */
+  List<EventRegistrationRow> findConfirmedRegistrationRowsByEventId(Long eventId);
+
+  /**
+   * Reads the {@link PriorityListItem}s of an event as read-only rows, see {@link EventRegistrationRow}.
+   *
+   * @param eventId id of a given Event.
+   * @return rows sorted by priority and participant.
+   */
+  List<EventRegistrationRow> findPriorityListItemRowsByEventId(Long eventId);
+
+  /**
+   * Looks for all {@link PriorityListItem}s of a {@link DrawProcedure} without loading the entities.
+   *
+   * @param procedure {@link DrawProcedure} to look for.
+   * @return rows of <code>[listId, participant, initiator, event, priority]</code>, ordered by list id and priority.
+   */
+  List<Object[]> findPriorityListItemRowsByDrawProcedure(DrawProcedure procedure);
+
   /**
    * Looks for {@link PriorityList}s associated with a given {@link SingleUser} and a given {@link Procedure}.
    *
@@ -175,6 +295,14 @@ public interface ICampaignFacade {
    */
   Campaign getCampaignById(Long id);
 
+  /**
+   * Looks for all {@link Campaign}s with the given ids using as few queries as possible.
+   *
+   * @param ids identifiers
+   * @return found Campaigns in the order of the given ids, unknown ids are skipped.
+   */
+  List<Campaign> getCampaignsByIds(Collection<Long> ids);
+
   /**
    * Looks for a {@link Campaign} using its unique name.
    *
@@ -208,6 +336,14 @@ public interface ICampaignFacade {
    */
   ConfirmedRegistration getConfirmedRegistrationById(Long id);
 
+  /**
+   * Looks for all {@link ConfirmedRegistration}s with the given ids using as few queries as possible.
+   *
+   * @param ids identifiers
+   * @return found objects in the order of the given ids, unknown ids are skipped.
+   */
+  List<ConfirmedRegistration> getConfirmedRegistrationsByIds(Collection<Long> ids);
+
   /**
    * Looks for all {@link ConfirmedRegistration}s which are created by the given {@link Procedure}.
    *
@@ -294,6 +430,15 @@ public interface ICampaignFacade {
    */
   void removePriorityListsAssociatedWithDrawProcedure(DrawProcedure procedure);
 
+  /**
+   * Removes the given {@link PriorityList}s of a {@link DrawProcedure} in a single transaction. Ids of lists which do not belong to
+   * the procedure (anymore) are ignored.
+   *
+   * @param procedure       {@link DrawProcedure} holding the lists.
+   * @param priorityListIds ids of the {@link PriorityList}s to remove.
+   */
+  void removePriorityLists(DrawProcedure procedure, Collection<Long> priorityListIds);
+
   /**
    * Makes a {@link Campaign} persistent.
    *
@@ -318,6 +463,15 @@ public interface ICampaignFacade {
    */
   ConfirmedRegistration saveConfirmedRegistration(ConfirmedRegistration c);
 
+  /**
+   * Makes all given {@link ConfirmedRegistration}s persistent. The registrations are written in JDBC batches, previously loaded
+   * objects of the current transaction are detached afterwards.
+   *
+   * @param registrations {@link ConfirmedRegistration}s to make persistent
+   * @return persistent {@link ConfirmedRegistration}s or {@link DataAccessException}
+   */
+  List<ConfirmedRegistration> saveConfirmedRegistrations(Collection<ConfirmedRegistration> registrations);
+
   /**
    * Makes a {@link DrawProcedure} persistent.
    *
@@ -342,6 +496,26 @@ public interface ICampaignFacade {
    */
   PriorityList savePriorityList(PriorityList prioList);
 
+  /**
+   * Appends a new {@link PriorityList} to a {@link DrawProcedure}. The list is inserted with a reference to its procedure,
+   * the {@link PriorityList}s submitted before are neither loaded nor rewritten.
+   *
+   * @param drawProcedureId id of the {@link DrawProcedure} the list is submitted to.
+   * @param prioList        new {@link PriorityList} to make persistent.
+   * @return persistent {@link PriorityList}
+   */
+  PriorityList appendPriorityList(Long drawProcedureId, PriorityList prioList);
+
+  /**
+   * Appends several new {@link PriorityList}s to a {@link DrawProcedure} in one transaction. Either all lists are made
+   * persistent or none of them.
+   *
+   * @param drawProcedureId id of the {@link DrawProcedure} the lists are submitted to.
+   * @param prioLists       new {@link PriorityList}s to make persistent.
+   * @return persistent {@link PriorityList}s in the order of the given collection.
+   */
+  List<PriorityList> appendPriorityLists(Long drawProcedureId, Collection<PriorityList> prioLists);
+
   /**
    * Makes a {@link PriorityListItem} persistent.
    *
@@ -424,6 +598,27 @@ public interface ICampaignFacade {
 
   List<Campaign> findCampaignsByMandatorId(Long mandatorId);
 
+  /**
+   * Counts the {@link Campaign}s of a mandator.
+   *
+   * @param mandatorId id of the mandator.
+   * @return number of campaigns.
+   */
+  long countCampaignsByMandatorId(Long mandatorId);
+
+  /**
+   * Loads one page of the {@link Campaign}s of a mandator, sorted by the database.
+   *
+   * @param firstResult  index of the first campaign.
+   * @param maxResults   maximum number of campaigns.
+   * @param mandatorId   id of the mandator.
+   * @param sortProperty property to sort by, e.g. <code>name</code> or <code>endShow</code>.
+   * @param ascending    sort direction.
+   * @return the campaigns of the page.
+   */
+  List<Campaign> findCampaignsByMandatorId(int firstResult, int maxResults, Long mandatorId, String sortProperty,
+                                           boolean ascending);
+
   List<Procedure> findProceduresByMandatorId(Long mandatorId);
 
   List<Campaign> getActiveCampaignsByMandatorId(Long mandator);
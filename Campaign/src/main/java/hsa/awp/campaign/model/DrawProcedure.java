@@ -59,9 +59,10 @@ public class DrawProcedure extends Procedure {
   private int maximumPriorityLists = 0;
 
   /**
-   * Associated {@link PriorityList}s.
+   * Associated {@link PriorityList}s. The association is owned by {@link Ticket#getProcedure()}, so this collection is
+   * never written itself.
    */
-  @OneToMany(targetEntity = PriorityList.class)
+  @OneToMany(targetEntity = PriorityList.class, mappedBy = "procedure")
   private Set<PriorityList> priorityLists;
 
   /**
@@ -150,6 +151,18 @@ public class DrawProcedure extends Procedure {
     priorityLists.add(list);
   }
 
+  /**
+   * Assigns the given {@link PriorityList} to this {@link DrawProcedure} without touching the collection of
+   * {@link PriorityList}s. This is enough to persist the association, as it is owned by the {@link PriorityList}, and
+   * avoids loading all lists that were submitted before.
+   *
+   * @param list the {@link PriorityList} to assign.
+   */
+  public void assignPriorityList(PriorityList list) {
+
+    list.setDrawProcedure(this);
+  }
+
   /**
    * Getter for the draw date.
    *
@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2010-2012 Matthias Klass, Johannes Leimer,
+ *               Rico Lieback, Sebastian Gabriel, Lothar Gesslein,
+ *               Alexander Rampp, Kai Weidner
+ *
+ * This file is part of the Physalix Enrollment System
+ *
+ * Foobar is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Foobar is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Foobar.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package hsa.awp.campaign.model;
+
+import java.io.Serializable;
+import java.util.Calendar;
+
+/**
+ * Read-only row describing a {@link ConfirmedRegistration} or a {@link PriorityListItem} of an event. It already contains the
+ * names of the participant, the initiator and the {@link Procedure}, so a list of rows can be rendered without loading any
+ * entity. Rows are ordered by priority, then by participant name, then by participant id.
+ */
+public class EventRegistrationRow implements Serializable, Comparable<EventRegistrationRow> {
+  /**
+   * unique serialization id.
+   */
+  private static final long serialVersionUID = 3128467350721164950L;
+
+  /**
+   * Id of the {@link ConfirmedRegistration} or {@link PriorityListItem}.
+   */
+  private Long id;
+
+  /**
+   * Id of the {@link PriorityList}, null for {@link ConfirmedRegistration}s.
+   */
+  private Long priorityListId;
+
+  /**
+   * Priority of the {@link PriorityListItem}, 0 for {@link ConfirmedRegistration}s.
+   */
+  private int priority;
+
+  /**
+   * When the registration was created.
+   */
+  private Calendar date;
+
+  /**
+   * Id of the participant.
+   */
+  private Long participantId;
+
+  /**
+   * Name of the participant, null if the participant is a group.
+   */
+  private String participantName;
+
+  /**
+   * Matriculation number of the participant, null if the participant is no student.
+   */
+  private Integer matriculationNumber;
+
+  /**
+   * Name of the initiator.
+   */
+  private String initiatorName;
+
+  /**
+   * Name of the {@link Procedure}, null for direct registrations.
+   */
+  private String procedureName;
+
+  /**
+   * Creates a new {@link EventRegistrationRow}.
+   *
+   * @param id                  id of the {@link ConfirmedRegistration} or {@link PriorityListItem}.
+   * @param priorityListId      id of the {@link PriorityList} or null.
+   * @param priority            priority of the item or 0.
+   * @param date                creation date.
+   * @param participantId       id of the participant.
+   * @param participantName     name of the participant or null.
+   * @param matriculationNumber matriculation number of the participant or null.
+   * @param initiatorName       name of the initiator.
+   * @param procedureName       name of the {@link Procedure} or null.
+   */
+  public EventRegistrationRow(Long id, Long priorityListId, int priority, Calendar date, Long participantId,
+                              String participantName, Integer matriculationNumber, String initiatorName,
+                              String procedureName) {
+
+    this.id = id;
+    this.priorityListId = priorityListId;
+    this.priority = priority;
+    this.date = date;
+    this.participantId = participantId;
+    this.participantName = participantName;
+    this.matriculationNumber = matriculationNumber;
+    this.initiatorName = initiatorName;
+    this.procedureName = procedureName;
+  }
+
+  @Override
+  public int compareTo(EventRegistrationRow o) {
+
+    if (priority != o.priority) {
+      return priority < o.priority ? -1 : 1;
+    } else if (participantName != null && o.participantName != null) {
+      return participantName.compareTo(o.participantName);
+    } else {
+      return participantId.compareTo(o.participantId);
+    }
+  }
+
+  public Calendar getDate() {
+
+    return date;
+  }
+
+  public Long getId() {
+
+    return id;
+  }
+
+  public String getInitiatorName() {
+
+    return initiatorName;
+  }
+
+  public Integer getMatriculationNumber() {
+
+    return matriculationNumber;
+  }
+
+  public Long getParticipantId() {
+
+    return participantId;
+  }
+
+  public String getParticipantName() {
+
+    return participantName;
+  }
+
+  public int getPriority() {
+
+    return priority;
+  }
+
+  public Long getPriorityListId() {
+
+    return priorityListId;
+  }
+
+  public String getProcedureName() {
+
+    return procedureName;
+  }
+}
@@ -66,9 +66,10 @@ public class Ticket extends AbstractMandatorableDomainObject<Long> {
   private Long participant;
 
   /**
-   * {@link Ticket} was created by a distinct {@link Procedure}.
+   * {@link Ticket} was created by a distinct {@link Procedure}. This is the owning side of the association, so a new
+   * {@link Ticket} is linked to its {@link Procedure} by its own row only.
    */
-  @OneToOne(cascade = {CascadeType.MERGE})
+  @ManyToOne(cascade = {CascadeType.MERGE})
   @JoinColumn(name = "PROCEDURE_ID")
   private Procedure procedure;
 
@@ -33,9 +33,12 @@ import hsa.awp.common.test.IObjectFactory;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
@@ -137,6 +140,40 @@ public class ConfirmedRegistrationDaoTest extends GenericDaoTest<ConfirmedRegist
     assertTrue(confList.containsAll(getDao().findAll()));
   }
 
+  @Test
+  public void testCountByEventIdsAndFindEventIdsByParticipant() {
+
+    ConfirmedRegistration cr1 = ConfirmedRegistration.getInstance(111L, 0L);
+    cr1.setInitiator(1L);
+    cr1.setParticipant(1L);
+
+    ConfirmedRegistration cr2 = ConfirmedRegistration.getInstance(111L, 0L);
+    cr2.setInitiator(2L);
+    cr2.setParticipant(2L);
+
+    ConfirmedRegistration cr3 = ConfirmedRegistration.getInstance(222L, 0L);
+    cr3.setInitiator(2L);
+    cr3.setParticipant(2L);
+
+    super.startTransaction();
+    getDao().persist(cr1);
+    getDao().persist(cr2);
+    getDao().persist(cr3);
+    super.commit();
+
+    super.startTransaction();
+    Map<Long, Long> counts = getDao().countItemsByEventIds(Arrays.asList(111L, 222L, 333L));
+    assertEquals(3, counts.size());
+    assertEquals(Long.valueOf(2), counts.get(111L));
+    assertEquals(Long.valueOf(1), counts.get(222L));
+    assertEquals(Long.valueOf(0), counts.get(333L));
+
+    Set<Long> registered = getDao().findEventIdsByParticipantId(2L, Arrays.asList(111L, 222L, 333L));
+    assertEquals(new HashSet<Long>(Arrays.asList(111L, 222L)), registered);
+    assertTrue(getDao().findEventIdsByParticipantId(1L, Arrays.asList(222L)).isEmpty());
+    super.commit();
+  }
+
   @Test
   public void testFindByCampaign() {
 
@@ -198,6 +235,38 @@ public class ConfirmedRegistrationDaoTest extends GenericDaoTest<ConfirmedRegist
     super.commit();
   }
 
+  @Test
+  public void testFindParticipantRowsByEventIds() {
+
+    ConfirmedRegistration first = ConfirmedRegistration.getInstance(200L, 0L);
+    first.setInitiator(1L);
+    first.setParticipant(10L);
+    ConfirmedRegistration second = ConfirmedRegistration.getInstance(201L, 0L);
+    second.setInitiator(1L);
+    second.setParticipant(10L);
+    ConfirmedRegistration other = ConfirmedRegistration.getInstance(202L, 0L);
+    other.setInitiator(1L);
+    other.setParticipant(11L);
+
+    super.startTransaction();
+    getDao().persist(first);
+    getDao().persist(second);
+    getDao().persist(other);
+    super.commit();
+
+    super.startTransaction();
+    List<Object[]> rows = getDao().findParticipantRowsByEventIds(Arrays.asList(200L, 201L, 201L));
+    super.commit();
+
+    assertEquals(2, rows.size());
+    Set<Long> events = new HashSet<Long>();
+    for (Object[] row : rows) {
+      assertEquals(10L, row[1]);
+      events.add((Long) row[0]);
+    }
+    assertEquals(new HashSet<Long>(Arrays.asList(200L, 201L)), events);
+  }
+
   @Override
   public void testMerge() {
 
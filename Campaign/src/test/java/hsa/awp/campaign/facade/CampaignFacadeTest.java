@@ -268,6 +268,59 @@ public class CampaignFacadeTest extends AbstractFacadeTest<CampaignFacade> {
 
   }
 
+  /**
+   * Test method for {@link hsa.awp.campaign.facade.CampaignFacade#appendPriorityList(Long, PriorityList)} .
+   */
+  @Test
+  @Transactional
+  public void testAppendPriorityList() {
+
+    DrawProcedure d = DrawProcedure.getInstance(0L);
+    d = campFac.saveDrawProcedure(d);
+
+    for (int i = 0; i < 3; i++) {
+      PriorityList prioList = PriorityList.getInstance(0L);
+      prioList.setInitiator(5L);
+      prioList.setParticipant(5L);
+
+      prioList = campFac.appendPriorityList(d.getId(), prioList);
+      assertTrue(prioList.getId() != 0L);
+      assertEquals(d, prioList.getProcedure());
+    }
+
+    assertEquals(3, campFac.findPriorityListsByUserAndProcedure(5L, d).size());
+    assertEquals(3, campFac.getDrawProcedureById(d.getId()).getPriorityLists().size());
+  }
+
+  /**
+   * Test method for {@link hsa.awp.campaign.facade.CampaignFacade#appendPriorityLists(Long, java.util.Collection)} .
+   */
+  @Test
+  @Transactional
+  public void testAppendPriorityLists() {
+
+    DrawProcedure d = DrawProcedure.getInstance(0L);
+    d = campFac.saveDrawProcedure(d);
+
+    List<PriorityList> lists = new ArrayList<PriorityList>();
+    for (int i = 0; i < 3; i++) {
+      PriorityList prioList = PriorityList.getInstance(0L);
+      prioList.setInitiator(6L);
+      prioList.setParticipant(6L);
+      lists.add(prioList);
+    }
+
+    List<PriorityList> persisted = campFac.appendPriorityLists(d.getId(), lists);
+    assertEquals(3, persisted.size());
+    for (PriorityList prioList : persisted) {
+      assertTrue(prioList.getId() != 0L);
+      assertEquals(d, prioList.getProcedure());
+    }
+
+    assertEquals(3, campFac.findPriorityListsByUserAndProcedure(6L, d).size());
+    assertEquals(3, campFac.getDrawProcedureById(d.getId()).getPriorityLists().size());
+  }
+
   /**
    * Test method for {@link hsa.awp.campaign.facade.CampaignFacade#getDrawProcedureById(java.lang.Long)} .
    */
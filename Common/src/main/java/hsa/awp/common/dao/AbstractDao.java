@@ -24,15 +24,30 @@ package hsa.awp.common.dao;
 import hsa.awp.common.IGenericDomainModel;
 import hsa.awp.common.exception.*;
 import org.hibernate.PropertyValueException;
+import org.hibernate.SessionFactory;
+import org.hibernate.ejb.HibernateEntityManagerFactory;
 import org.hibernate.exception.ConstraintViolationException;
 import org.hibernate.id.IdentifierGenerationException;
+import org.hibernate.metadata.ClassMetadata;
+import org.hibernate.type.CollectionType;
+import org.hibernate.type.Type;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
 import javax.persistence.PersistenceContext;
 import javax.persistence.PersistenceException;
+import javax.persistence.Query;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Abstract class for Accessing domain objects in the database.
@@ -42,6 +57,18 @@ import java.util.List;
  * @author klassm
  */
 public abstract class AbstractDao<T extends IGenericDomainModel<K>, K> implements IAbstractDao<T, K> {
+  /**
+   * Number of elements written before the persistence context is flushed in {@link #persistAll(Collection)}. Should match
+   * <code>hibernate.jdbc.batch_size</code>.
+   */
+  protected static final int BATCH_SIZE = 50;
+
+  /**
+   * Maximum number of ids bound to a single <code>IN</code> clause in {@link #findByIds(Collection)}. Some databases limit the
+   * number of bind parameters per statement.
+   */
+  protected static final int ID_CHUNK_SIZE = 500;
+
   /**
    * Logger used for logging.
    */
@@ -57,6 +84,11 @@ public abstract class AbstractDao<T extends IGenericDomainModel<K>, K> implement
    */
   private Class<T> structure;
 
+  /**
+   * Whether query results of this dao are put into the second-level query cache.
+   */
+  private boolean cacheable;
+
   /**
    * Creates an {@link AbstractDao}.
    *
@@ -64,19 +96,32 @@ public abstract class AbstractDao<T extends IGenericDomainModel<K>, K> implement
    */
   public AbstractDao(Class<T> structure) {
 
+    this(structure, false);
+  }
+
+  /**
+   * Creates an {@link AbstractDao}.
+   *
+   * @param structure Type of the class that is accessed.
+   * @param cacheable whether the results of queries created by {@link #createQuery(String)} are cached. The entity itself has
+   *                  to be marked as cacheable in its mapping.
+   */
+  public AbstractDao(Class<T> structure, boolean cacheable) {
+
     if (structure == null) {
       logger.info("Cannot create AbstractDao : no structure class given");
       throw new IllegalArgumentException("no structure class given.");
     }
     logger.trace("Dao for '{}' created", structure.getSimpleName());
     this.structure = structure;
+    this.cacheable = cacheable;
   }
 
   @Override
   public long countAll() {
 
     logger.trace("call of countAll()");
-    return (Long) getEntityManager().createQuery("select count(o) from " + structure.getSimpleName() + " o").getSingleResult();
+    return (Long) createQuery("select count(o) from " + structure.getSimpleName() + " o").getSingleResult();
   }
 
   @Override
@@ -84,7 +129,7 @@ public abstract class AbstractDao<T extends IGenericDomainModel<K>, K> implement
   public List<T> findAll() {
 
     logger.trace("call of findAll()");
-    List<T> list = getEntityManager().createQuery("select o from " + structure.getSimpleName() + " o").getResultList();
+    List<T> list = createQuery("select o from " + structure.getSimpleName() + " o").getResultList();
     return list;
   }
 
@@ -93,10 +138,54 @@ public abstract class AbstractDao<T extends IGenericDomainModel<K>, K> implement
   public List<T> findAll(int firstResult, int maxResults) {
 
     logger.trace("call of findAll(firstResult, maxResults");
-    return getEntityManager().createQuery("select o from " + structure.getSimpleName() + " o").setFirstResult(firstResult)
+    return createQuery("select o from " + structure.getSimpleName() + " o").setFirstResult(firstResult)
         .setMaxResults(maxResults).getResultList();
   }
 
+  @Override
+  public void evict(final K id) {
+
+    if (id == null) {
+      // an element without id has never been written and cannot be cached
+      return;
+    }
+    afterCompletion(new Runnable() {
+      @Override
+      public void run() {
+
+        SessionFactory sessionFactory = getSessionFactory();
+        if (sessionFactory != null) {
+          logger.trace("evicting {}#{} from second-level cache", structure.getSimpleName(), id);
+          sessionFactory.evict(structure, (Serializable) id);
+          for (String role : getCollectionRoles(sessionFactory)) {
+            sessionFactory.evictCollection(role, (Serializable) id);
+          }
+          sessionFactory.evictQueries(getQueryCacheRegion());
+        }
+      }
+    });
+  }
+
+  @Override
+  public void evictAll() {
+
+    afterCompletion(new Runnable() {
+      @Override
+      public void run() {
+
+        SessionFactory sessionFactory = getSessionFactory();
+        if (sessionFactory != null) {
+          logger.trace("evicting all {} from second-level cache", structure.getSimpleName());
+          sessionFactory.evict(structure);
+          for (String role : getCollectionRoles(sessionFactory)) {
+            sessionFactory.evictCollection(role);
+          }
+          sessionFactory.evictQueries(getQueryCacheRegion());
+        }
+      }
+    });
+  }
+
   @Override
   public T findById(K id) {
 
@@ -122,6 +211,40 @@ public abstract class AbstractDao<T extends IGenericDomainModel<K>, K> implement
     }
   }
 
+  @Override
+  @SuppressWarnings("unchecked")
+  public List<T> findByIds(Collection<K> ids) {
+
+    logger.trace("call of findByIds()");
+    if (ids == null) {
+      logger.debug("cannot find ids: no ids given");
+      throw new IllegalArgumentException("no ids given");
+    }
+
+    List<K> distinct = new ArrayList<K>(new LinkedHashSet<K>(ids));
+    distinct.remove(null);
+    Map<K, T> found = new HashMap<K, T>(distinct.size() * 2);
+    for (int from = 0; from < distinct.size(); from += ID_CHUNK_SIZE) {
+      List<K> chunk = distinct.subList(from, Math.min(from + ID_CHUNK_SIZE, distinct.size()));
+      Query query = getEntityManager().createQuery("select o from " + structure.getSimpleName() + " o where o.id in (:ids)");
+      query.setParameter("ids", chunk);
+      for (T element : (List<T>) query.getResultList()) {
+        found.put(element.getId(), element);
+      }
+    }
+
+    List<T> result = new ArrayList<T>(ids.size());
+    for (K id : ids) {
+      T element = found.get(id);
+      if (element != null) {
+        result.add(element);
+      } else {
+        logger.debug("no matching element for id {}", id);
+      }
+    }
+    return result;
+  }
+
   @Override
   public T merge(T item) {
 
@@ -171,6 +294,40 @@ public abstract class AbstractDao<T extends IGenericDomainModel<K>, K> implement
     }
   }
 
+  @Override
+  public List<T> persistAll(Collection<T> items) {
+
+    if (items == null) {
+      logger.warn("cannot persist items: no items given");
+      throw new IllegalArgumentException("no items given");
+    }
+
+    logger.trace("persisting {} items", items.size());
+    List<T> persisted = new ArrayList<T>(items.size());
+    try {
+      for (T item : items) {
+        getEntityManager().persist(item);
+        persisted.add(item);
+
+        if (persisted.size() % BATCH_SIZE == 0) {
+          flushAndDetach(persisted.subList(persisted.size() - BATCH_SIZE, persisted.size()));
+        }
+      }
+      flushAndDetach(persisted.subList(persisted.size() - persisted.size() % BATCH_SIZE, persisted.size()));
+      return persisted;
+    } catch (IllegalArgumentException e) {
+      throw new DataAccessException("item is not an entity.", e);
+    } catch (PersistenceException e) {
+      if (e.getCause() instanceof PropertyValueException) {
+        throw new PropertyViolatedException(e);
+      } else if (e.getCause() instanceof ConstraintViolationException) {
+        throw new PropertyViolatedException(e);
+      } else {
+        throw new DataAccessException("error executing database access.", e);
+      }
+    }
+  }
+
   @Override
   public void remove(T item) {
 
@@ -195,6 +352,89 @@ public abstract class AbstractDao<T extends IGenericDomainModel<K>, K> implement
     }
   }
 
+  /**
+   * Creates a query which is put into the query cache region of this dao if the dao is cacheable.
+   *
+   * @param query JPQL query.
+   * @return the created query.
+   */
+  protected Query createQuery(String query) {
+
+    Query q = getEntityManager().createQuery(query);
+    if (cacheable) {
+      q.setHint("org.hibernate.cacheable", Boolean.TRUE);
+      q.setHint("org.hibernate.cacheRegion", getQueryCacheRegion());
+    }
+    return q;
+  }
+
+  /**
+   * Name of the query cache region used by this dao.
+   *
+   * @return region name.
+   */
+  protected String getQueryCacheRegion() {
+
+    return structure.getName() + ".queries";
+  }
+
+  /**
+   * Runs the given task after the current transaction has completed, so that no other transaction can put the old state back into
+   * the cache before the changes are committed. Without a transaction the task is run immediately.
+   *
+   * @param task task to run.
+   */
+  private void afterCompletion(final Runnable task) {
+
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+        @Override
+        public void afterCompletion(int status) {
+
+          task.run();
+        }
+      });
+    } else {
+      task.run();
+    }
+  }
+
+  /**
+   * Returns the roles of all collections mapped by the accessed class. Collections have their own cache regions which are not
+   * evicted together with the owning entity.
+   *
+   * @param sessionFactory the {@link SessionFactory} holding the mapping.
+   * @return collection roles.
+   */
+  private List<String> getCollectionRoles(SessionFactory sessionFactory) {
+
+    List<String> roles = new ArrayList<String>();
+    ClassMetadata metadata = sessionFactory.getClassMetadata(structure);
+    if (metadata != null) {
+      for (Type type : metadata.getPropertyTypes()) {
+        if (type.isCollectionType()) {
+          roles.add(((CollectionType) type).getRole());
+        }
+      }
+    }
+    return roles;
+  }
+
+  /**
+   * Returns the hibernate {@link SessionFactory} behind the {@link EntityManager}.
+   *
+   * @return the {@link SessionFactory} or <code>null</code> if the persistence provider is not hibernate.
+   */
+  private SessionFactory getSessionFactory() {
+
+    EntityManagerFactory factory = getEntityManager().getEntityManagerFactory();
+    if (factory instanceof HibernateEntityManagerFactory) {
+      return ((HibernateEntityManagerFactory) factory).getSessionFactory();
+    }
+    logger.debug("cannot access second-level cache of {}", factory);
+    return null;
+  }
+
   /**
    * Writes all temporary changes to the database.
    */
@@ -204,6 +444,20 @@ public abstract class AbstractDao<T extends IGenericDomainModel<K>, K> implement
     getEntityManager().flush();
   }
 
+  /**
+   * Writes all temporary changes to the database and detaches the given elements. Other objects of the persistence context stay
+   * managed.
+   *
+   * @param items elements to detach.
+   */
+  private void flushAndDetach(List<T> items) {
+
+    flush();
+    for (T item : items) {
+      getEntityManager().detach(item);
+    }
+  }
+
   /**
    * Getter for the {@link EntityManager}.
    *
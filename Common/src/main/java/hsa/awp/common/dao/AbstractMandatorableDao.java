@@ -26,10 +26,18 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.persistence.Query;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
 
 public class AbstractMandatorableDao<T extends AbstractMandatorableDomainObject<K>, K> extends AbstractDao<T, K> implements IAbstractMandatorableDao<T, K> {
 
+  /**
+   * Allowed property paths for filtering and sorting, they are written into the query.
+   */
+  private static final Pattern PROPERTY_PATH = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*(\\.[A-Za-z_][A-Za-z0-9_]*)*");
+
   /**
    * Logger used for logging.
    */
@@ -47,11 +55,22 @@ public class AbstractMandatorableDao<T extends AbstractMandatorableDomainObject<
     this.structure = structure;
   }
 
+  /**
+   * Creates an {@link AbstractDao}.
+   *
+   * @param structure Type of the class that is accessed.
+   * @param cacheable whether query results are cached.
+   */
+  public AbstractMandatorableDao(Class<T> structure, boolean cacheable) {
+    super(structure, cacheable);
+    this.structure = structure;
+  }
+
   @Override
   public long countByMandator(Long mandatorId) {
 
     logger.trace("call of countAll()");
-    Query query = getEntityManager().createQuery("select count(o) from " + structure.getSimpleName() + " o where o.mandatorId = :mandatorId");
+    Query query = createQuery("select count(o) from " + structure.getSimpleName() + " o where o.mandatorId = :mandatorId");
     query.setParameter("mandatorId", mandatorId);
     return (Long) query.getSingleResult();
   }
@@ -61,7 +80,7 @@ public class AbstractMandatorableDao<T extends AbstractMandatorableDomainObject<
   public List<T> findByMandator(Long mandatorId) {
 
     logger.trace("call of findAll()");
-    Query query = getEntityManager().createQuery("select o from " + structure.getSimpleName() + " o where o.mandatorId = :mandatorId");
+    Query query = createQuery("select o from " + structure.getSimpleName() + " o where o.mandatorId = :mandatorId");
     query.setParameter("mandatorId", mandatorId);
     List<T> list = query.getResultList();
     return list;
@@ -72,9 +91,104 @@ public class AbstractMandatorableDao<T extends AbstractMandatorableDomainObject<
   public List<T> findByMandator(int firstResult, int maxResults, Long mandatorId) {
 
     logger.trace("call of findAll(firstResult, maxResults");
-    Query query = getEntityManager().createQuery("select o from " + structure.getSimpleName() + " o where o.mandatorId = :mandatorId");
+    Query query = createQuery("select o from " + structure.getSimpleName() + " o where o.mandatorId = :mandatorId");
     query.setParameter("mandatorId", mandatorId);
     return query.setFirstResult(firstResult)
         .setMaxResults(maxResults).getResultList();
   }
+
+  @Override
+  public long countByMandator(Long mandatorId, Map<String, ?> filter) {
+
+    Map<String, Object> parameters = new HashMap<String, Object>();
+    String condition = mandatorCondition(mandatorId, filter, parameters);
+    return countWhere(condition, parameters);
+  }
+
+  @Override
+  public List<T> findByMandator(int firstResult, int maxResults, Long mandatorId, Map<String, ?> filter,
+                                String sortProperty, boolean ascending) {
+
+    Map<String, Object> parameters = new HashMap<String, Object>();
+    String condition = mandatorCondition(mandatorId, filter, parameters);
+    return findPage(condition, parameters, firstResult, maxResults, sortProperty, ascending);
+  }
+
+  /**
+   * Counts the elements matching a condition.
+   *
+   * @param condition  JPQL condition on the alias <code>o</code>.
+   * @param parameters named parameters of the condition.
+   * @return number of matching elements.
+   */
+  protected long countWhere(String condition, Map<String, ?> parameters) {
+
+    Query query = createQuery("select count(o) from " + structure.getSimpleName() + " o where " + condition);
+    setParameters(query, parameters);
+    return (Long) query.getSingleResult();
+  }
+
+  /**
+   * Loads one page of the elements matching a condition. The elements are ordered by the given property and then by id, so
+   * the pages are stable.
+   *
+   * @param condition    JPQL condition on the alias <code>o</code>.
+   * @param parameters   named parameters of the condition.
+   * @param firstResult  index of the first element.
+   * @param maxResults   maximum number of elements.
+   * @param sortProperty property path to sort by, null to sort by id only.
+   * @param ascending    sort direction.
+   * @return the elements of the page.
+   */
+  @SuppressWarnings("unchecked")
+  protected List<T> findPage(String condition, Map<String, ?> parameters, int firstResult, int maxResults,
+                             String sortProperty, boolean ascending) {
+
+    StringBuilder jpql = new StringBuilder("select o from ").append(structure.getSimpleName()).append(" o where ")
+        .append(condition).append(" order by ");
+    if (sortProperty != null) {
+      jpql.append("o.").append(checkPropertyPath(sortProperty)).append(ascending ? " asc, " : " desc, ");
+    }
+    jpql.append("o.id asc");
+
+    Query query = createQuery(jpql.toString());
+    setParameters(query, parameters);
+    return query.setFirstResult(firstResult).setMaxResults(maxResults).getResultList();
+  }
+
+  private String mandatorCondition(Long mandatorId, Map<String, ?> filter, Map<String, Object> parameters) {
+
+    StringBuilder condition = new StringBuilder("o.mandatorId = :mandatorId");
+    parameters.put("mandatorId", mandatorId);
+
+    if (filter != null) {
+      int index = 0;
+      for (Map.Entry<String, ?> entry : filter.entrySet()) {
+        if (entry.getValue() == null) {
+          continue;
+        }
+        String parameter = "filter" + index++;
+        condition.append(" and o.").append(checkPropertyPath(entry.getKey())).append(" = :").append(parameter);
+        parameters.put(parameter, entry.getValue());
+      }
+    }
+    return condition.toString();
+  }
+
+  private static String checkPropertyPath(String property) {
+
+    if (property == null || !PROPERTY_PATH.matcher(property).matches()) {
+      throw new IllegalArgumentException("invalid property path: " + property);
+    }
+    return property;
+  }
+
+  private static void setParameters(Query query, Map<String, ?> parameters) {
+
+    if (parameters != null) {
+      for (Map.Entry<String, ?> parameter : parameters.entrySet()) {
+        query.setParameter(parameter.getKey(), parameter.getValue());
+      }
+    }
+  }
 }
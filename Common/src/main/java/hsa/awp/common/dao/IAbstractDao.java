@@ -26,6 +26,7 @@ import hsa.awp.common.exception.DataAccessException;
 import hsa.awp.common.exception.ItemNotSavedException;
 
 import javax.persistence.EntityManager;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -43,6 +44,19 @@ public interface IAbstractDao<T extends IGenericDomainModel<K>, K> {
    */
   long countAll();
 
+  /**
+   * Removes the element with the given id and all cached query results of this type from the second-level cache. If a
+   * transaction is active, the element is evicted after the transaction has completed.
+   *
+   * @param id entity id, nothing is evicted if <code>null</code> is given.
+   */
+  void evict(K id);
+
+  /**
+   * Removes all elements and all cached query results of this type from the second-level cache.
+   */
+  void evictAll();
+
   /**
    * Method will look for all elements.
    *
@@ -68,6 +82,15 @@ public interface IAbstractDao<T extends IGenericDomainModel<K>, K> {
    */
   T findById(K id);
 
+  /**
+   * Looks for all objects identified by the given entity ids. The elements are loaded with a few <code>IN</code> queries instead of
+   * one query per id. The result keeps the order of the given ids, ids without a matching element are skipped.
+   *
+   * @param ids entity ids.
+   * @return found elements.
+   */
+  List<T> findByIds(Collection<K> ids);
+
   /**
    * Merges an element to the database, so that all changes will be made persistent.
    *
@@ -86,6 +109,16 @@ public interface IAbstractDao<T extends IGenericDomainModel<K>, K> {
    */
   T persist(T item);
 
+  /**
+   * Writes all given elements to the database. The elements are flushed in chunks, so that the inserts can be sent as JDBC
+   * batches. The elements of a chunk are detached after it has been flushed, so the returned items are detached. All other
+   * objects of the persistence context stay managed.
+   *
+   * @param items elements to write.
+   * @return persisted items.
+   */
+  List<T> persistAll(Collection<T> items);
+
   /**
    * Removes an element from the database. An {@link DataAccessException} exception will be thrown if the object to remove cannot
    * be found within the database.
@@ -24,6 +24,7 @@ package hsa.awp.common.dao;
 import hsa.awp.common.AbstractMandatorableDomainObject;
 
 import java.util.List;
+import java.util.Map;
 
 public interface IAbstractMandatorableDao<T extends AbstractMandatorableDomainObject<K>, K> extends IAbstractDao<T, K> {
   long countByMandator(Long mandatorId);
@@ -31,4 +32,28 @@ public interface IAbstractMandatorableDao<T extends AbstractMandatorableDomainOb
   List<T> findByMandator(Long mandatorId);
 
   List<T> findByMandator(int firstResult, int maxResults, Long mandatorId);
+
+  /**
+   * Counts the elements of a mandator matching the given filter.
+   *
+   * @param mandatorId mandator of the elements.
+   * @param filter     property paths and the values they must be equal to. Entries with a null value are ignored, the filter
+   *                   itself may be null.
+   * @return number of matching elements.
+   */
+  long countByMandator(Long mandatorId, Map<String, ?> filter);
+
+  /**
+   * Loads one page of the elements of a mandator matching the given filter, ordered by the database.
+   *
+   * @param firstResult  index of the first element.
+   * @param maxResults   maximum number of elements.
+   * @param mandatorId   mandator of the elements.
+   * @param filter       property paths and the values they must be equal to, see {@link #countByMandator(Long, Map)}.
+   * @param sortProperty property path to sort by, null to sort by id only.
+   * @param ascending    sort direction.
+   * @return the elements of the page.
+   */
+  List<T> findByMandator(int firstResult, int maxResults, Long mandatorId, Map<String, ?> filter, String sortProperty,
+                         boolean ascending);
 }
@@ -49,26 +49,29 @@ public class TemplateFileSystemDao implements ITemplateDao {
 
   @Override
   public String loadTemplate(TemplateDetail templateDetail) {
-    StringBuilder stringBuffer = null;
 
+    File file = new File(generatePath(templateDetail));
+    if (!file.isFile()) {
+      return null;
+    }
+
+    StringBuilder content = new StringBuilder((int) file.length());
     try {
-      File file = new File(generatePath(templateDetail));
-      if (file == null || !file.isFile()) {
-        return null;
+      Reader reader = new FileReader(file);
+      try {
+        char[] buffer = new char[4096];
+        int read;
+        while ((read = reader.read(buffer)) != -1) {
+          content.append(buffer, 0, read);
+        }
+      } finally {
+        reader.close();
       }
-      BufferedReader bufferedReader = new BufferedReader(new FileReader(file));
-      stringBuffer = new StringBuilder();
-      String line;
-      while ((line = bufferedReader.readLine()) != null) {
-        stringBuffer.append(line);
-        stringBuffer.append("\n");
-      }
-
-      bufferedReader.close();
     } catch (IOException e) {
       e.printStackTrace();
+      return null;
     }
-    return stringBuffer.toString();
+    return content.toString();
   }
 
   private String generatePath(TemplateDetail templateDetail) {
@@ -74,9 +74,11 @@ public interface IMail {
   String getSubject();
 
   /**
-   * Sends the message.
+   * Sends the message. Depending on the implementation the mail is sent before the method returns or handed over to a queue.
+   *
+   * @return handle telling whether the mail was sent.
    */
-  void send();
+  IMailHandle send();
 
   /**
    * Setter for message.
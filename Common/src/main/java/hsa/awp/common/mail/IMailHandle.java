@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2010-2012 Matthias Klass, Johannes Leimer,
+ *               Rico Lieback, Sebastian Gabriel, Lothar Gesslein,
+ *               Alexander Rampp, Kai Weidner
+ *
+ * This file is part of the Physalix Enrollment System
+ *
+ * Foobar is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Foobar is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Foobar.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package hsa.awp.common.mail;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Handle of a mail that was handed over for sending. Mails may be sent asynchronously, the handle tells whether the mail was
+ * delivered to the mail server yet.
+ */
+public interface IMailHandle {
+  /**
+   * Delivery state of a mail.
+   */
+  enum State {
+    /**
+     * The mail is waiting to be sent.
+     */
+    QUEUED,
+    /**
+     * The mail was delivered to the mail server.
+     */
+    SENT,
+    /**
+     * The mail could not be delivered and will not be retried.
+     */
+    FAILED
+  }
+
+  /**
+   * Returns the unique identifier of the mail.
+   *
+   * @return identifier.
+   */
+  String getId();
+
+  /**
+   * Returns the current delivery state.
+   *
+   * @return state of the mail.
+   */
+  State getState();
+
+  /**
+   * Returns how often sending the mail was tried.
+   *
+   * @return number of attempts.
+   */
+  int getAttempts();
+
+  /**
+   * Waits until the mail was sent or has finally failed.
+   *
+   * @param timeout maximum time to wait.
+   * @param unit    unit of the timeout.
+   * @return true if the mail is not queued anymore.
+   * @throws InterruptedException if the current thread is interrupted while waiting.
+   */
+  boolean await(long timeout, TimeUnit unit) throws InterruptedException;
+}
@@ -217,38 +217,57 @@ public class Mail implements IMail {
   * @see hsa.awp.common.mail.IMail#send()
   */
   @Override
-  public void send() {
+  public IMailHandle send() {
 
+    MailHandle handle = new MailHandle();
+    handle.attempt();
     try {
-      InternetAddress addressFrom = new InternetAddress(sender);
-      InternetAddress addressTo = new InternetAddress(recipient);
-
-      MimeMultipart content = new MimeMultipart();
-
-      MimeBodyPart text = new MimeBodyPart();
-      text.setContent(message, "text/html");
-      content.addBodyPart(text);
-
-      for (MimeBodyPart part : attachments) {
-        content.addBodyPart(part);
-      }
-
-      Session session = mailSource.getSession();
-      Message msg = new MimeMessage(session);
-      msg.setFrom(addressFrom);
-      msg.setSentDate(new Date());
-      msg.setRecipient(Message.RecipientType.TO, addressTo);
-      msg.setSubject(subject);
-      msg.setContent(content);
+      MimeMessage msg = createMessage(mailSource.getSession());
 
       log.debug("Sending mail [{}] to '{}'", msg, recipient);
 
       Transport.send(msg);
+      handle.sent();
+      return handle;
     } catch (MessagingException e) {
+      handle.failed();
       throw new MailSendException("Sending the mail failed", e);
     }
   }
 
+  /**
+   * Creates the {@link MimeMessage} for this mail.
+   *
+   * @param session the {@link Session} the message belongs to.
+   * @return the message, ready for sending.
+   * @throws MessagingException if the message cannot be assembled.
+   */
+  MimeMessage createMessage(Session session) throws MessagingException {
+
+    InternetAddress addressFrom = new InternetAddress(sender);
+    InternetAddress addressTo = new InternetAddress(recipient);
+
+    MimeMultipart content = new MimeMultipart();
+
+    MimeBodyPart text = new MimeBodyPart();
+    text.setContent(message, "text/html");
+    content.addBodyPart(text);
+
+    for (MimeBodyPart part : attachments) {
+      content.addBodyPart(part);
+    }
+
+    MimeMessage msg = new MimeMessage(session);
+    msg.setFrom(addressFrom);
+    msg.setSentDate(new Date());
+    msg.setRecipient(Message.RecipientType.TO, addressTo);
+    msg.setSubject(subject);
+    msg.setContent(content);
+    msg.saveChanges();
+
+    return msg;
+  }
+
   /**
    * Returns mailSource.
    *
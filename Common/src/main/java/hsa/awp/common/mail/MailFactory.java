@@ -47,12 +47,26 @@ public class MailFactory implements IMailFactory {
 
     String sender = senderName.contains("@") ? senderName : senderName + "@" + senderDomain;
 
-    Mail mail = new Mail(recipient, subject, message, sender);
+    Mail mail = createMail(recipient, subject, message, sender);
     mail.setMailSource(mailSource);
 
     return mail;
   }
 
+  /**
+   * Creates the {@link Mail} object returned by {@link #getInstance(String, String, String, String)}.
+   *
+   * @param recipient the recipient of the mail
+   * @param subject   the subject of the mail
+   * @param message   the message of the mail
+   * @param sender    the complete mail address of the sender
+   * @return a new {@link Mail}
+   */
+  protected Mail createMail(String recipient, String subject, String message, String sender) {
+
+    return new Mail(recipient, subject, message, sender);
+  }
+
   /**
    * Setter for mailSource.
    *
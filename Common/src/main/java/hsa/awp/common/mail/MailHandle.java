@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2010-2012 Matthias Klass, Johannes Leimer,
+ *               Rico Lieback, Sebastian Gabriel, Lothar Gesslein,
+ *               Alexander Rampp, Kai Weidner
+ *
+ * This file is part of the Physalix Enrollment System
+ *
+ * Foobar is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Foobar is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Foobar.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package hsa.awp.common.mail;
+
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Default {@link IMailHandle} which is completed by the sender of the mail.
+ */
+public class MailHandle implements IMailHandle {
+  /**
+   * Unique identifier of the mail.
+   */
+  private final String id;
+
+  /**
+   * Current state.
+   */
+  private volatile State state = State.QUEUED;
+
+  /**
+   * Number of attempts.
+   */
+  private volatile int attempts = 0;
+
+  /**
+   * Released as soon as the mail leaves the {@link State#QUEUED} state.
+   */
+  private final CountDownLatch done = new CountDownLatch(1);
+
+  /**
+   * Creates a handle with a random identifier.
+   */
+  public MailHandle() {
+
+    this(UUID.randomUUID().toString());
+  }
+
+  /**
+   * Creates a handle with the given identifier.
+   *
+   * @param id identifier of the mail.
+   */
+  public MailHandle(String id) {
+
+    if (id == null) {
+      throw new IllegalArgumentException("no id given");
+    }
+    this.id = id;
+  }
+
+  @Override
+  public String getId() {
+
+    return id;
+  }
+
+  @Override
+  public State getState() {
+
+    return state;
+  }
+
+  @Override
+  public int getAttempts() {
+
+    return attempts;
+  }
+
+  @Override
+  public boolean await(long timeout, TimeUnit unit) throws InterruptedException {
+
+    return done.await(timeout, unit);
+  }
+
+  /**
+   * Counts an attempt to send the mail.
+   */
+  void attempt() {
+
+    attempts++;
+  }
+
+  /**
+   * Marks the mail as sent.
+   */
+  void sent() {
+
+    state = State.SENT;
+    done.countDown();
+  }
+
+  /**
+   * Marks the mail as finally failed.
+   */
+  void failed() {
+
+    state = State.FAILED;
+    done.countDown();
+  }
+}
@@ -0,0 +1,635 @@
+/*
+ * Copyright (c) 2010-2012 Matthias Klass, Johannes Leimer,
+ *               Rico Lieback, Sebastian Gabriel, Lothar Gesslein,
+ *               Alexander Rampp, Kai Weidner
+ *
+ * This file is part of the Physalix Enrollment System
+ *
+ * Foobar is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Foobar is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Foobar.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package hsa.awp.common.mail;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.mail.MessagingException;
+import javax.mail.SendFailedException;
+import javax.mail.Session;
+import javax.mail.Transport;
+import javax.mail.internet.MimeMessage;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Persistent outbound queue for mails. Every queued mail is written to a spool directory first, so that it survives a restart.
+ * A pool of workers takes the mails off the queue and sends them over SMTP connections that are kept open across many
+ * messages. Failed mails are retried with exponential backoff until {@link #setMaxAttempts(int)} is reached, after which they
+ * are moved to the <code>failed</code> subdirectory of the spool.
+ * <p/>
+ * The queue is only started if it is enabled with {@link #setEnabled(boolean)}, otherwise {@link QueuedMailFactory} sends the
+ * mails directly. Every application needs a spool directory of its own, the directory is locked while the queue is running.
+ */
+public class MailQueue {
+  /**
+   * Suffix of spooled mail files.
+   */
+  private static final String SUFFIX = ".eml";
+
+  /**
+   * Suffix of mail files which are still being written. They are renamed to {@link #SUFFIX} once complete.
+   */
+  private static final String TEMP_SUFFIX = SUFFIX + ".tmp";
+
+  /**
+   * Time in milliseconds a worker waits for new mails before closing its connection.
+   */
+  private static final long IDLE_MILLIS = 2000;
+
+  /**
+   * Name of the file which is locked while a queue uses the spool directory.
+   */
+  private static final String LOCK_FILE = ".lock";
+
+  /**
+   * Logger for this class.
+   */
+  private Logger log = LoggerFactory.getLogger(getClass());
+
+  /**
+   * Source which holds the connection configuration.
+   */
+  private MailSource mailSource;
+
+  /**
+   * Whether mails are sent through the queue.
+   */
+  private boolean enabled = false;
+
+  /**
+   * Directory the queued mails are written to.
+   */
+  private File directory;
+
+  /**
+   * Number of worker threads.
+   */
+  private int workers = 2;
+
+  /**
+   * Maximum number of mails a worker takes off the queue at once.
+   */
+  private int batchSize = 50;
+
+  /**
+   * Number of mails sent over one connection before it is reopened.
+   */
+  private int messagesPerConnection = 100;
+
+  /**
+   * Maximum number of attempts for a single mail.
+   */
+  private int maxAttempts = 8;
+
+  /**
+   * Delay before the first retry in milliseconds. Doubled with every further attempt.
+   */
+  private long initialBackoffMillis = 5000;
+
+  /**
+   * Maximum delay between two attempts in milliseconds.
+   */
+  private long maxBackoffMillis = 600000;
+
+  /**
+   * Mails waiting to be sent.
+   */
+  private final BlockingQueue<Entry> queue = new LinkedBlockingQueue<Entry>();
+
+  /**
+   * Pool running the workers.
+   */
+  private ExecutorService workerPool;
+
+  /**
+   * Timer re-queuing failed mails after their backoff.
+   */
+  private ScheduledExecutorService retryTimer;
+
+  /**
+   * True while the queue accepts and sends mails.
+   */
+  private volatile boolean running = false;
+
+  /**
+   * Lock of the spool directory, held while the queue is running.
+   */
+  private FileLock lock;
+
+  /**
+   * Creates the spool directory, re-queues mails left over from a previous run and starts the workers.
+   */
+  public synchronized void start() {
+
+    if (running) {
+      return;
+    } else if (!enabled) {
+      log.info("mail queue is disabled, mails are sent directly");
+      return;
+    }
+    if (mailSource == null) {
+      throw new IllegalStateException("no mailSource set");
+    } else if (directory == null) {
+      throw new IllegalStateException("no spool directory set");
+    }
+
+    getFailedDirectory().mkdirs();
+    if (!directory.isDirectory()) {
+      throw new IllegalStateException("cannot create spool directory " + directory);
+    }
+
+    lock();
+    recover();
+
+    running = true;
+    retryTimer = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("mail-retry"));
+    workerPool = Executors.newFixedThreadPool(workers, new NamedThreadFactory("mail-worker"));
+    for (int i = 0; i < workers; i++) {
+      workerPool.execute(new Worker());
+    }
+    log.info("mail queue started with {} workers and {} recovered mails", workers, queue.size());
+  }
+
+  /**
+   * Stops the workers. Mails that were not sent yet stay in the spool directory and are sent after the next start.
+   */
+  public synchronized void stop() {
+
+    if (!running) {
+      return;
+    }
+    running = false;
+
+    retryTimer.shutdownNow();
+    workerPool.shutdown();
+    try {
+      if (!workerPool.awaitTermination(IDLE_MILLIS * 5, TimeUnit.MILLISECONDS)) {
+        workerPool.shutdownNow();
+      }
+    } catch (InterruptedException e) {
+      workerPool.shutdownNow();
+      Thread.currentThread().interrupt();
+    }
+    log.info("mail queue stopped, {} mails left in spool", queue.size());
+    queue.clear();
+    unlock();
+  }
+
+  /**
+   * Adds a mail to the queue. The method returns as soon as the mail was written to the spool directory.
+   *
+   * @param mail the mail to send.
+   * @return handle of the queued mail.
+   * @throws MailSendException if the mail cannot be assembled or spooled.
+   */
+  public IMailHandle enqueue(Mail mail) {
+
+    if (mail == null) {
+      throw new IllegalArgumentException("no mail given");
+    } else if (!running) {
+      throw new IllegalStateException("mail queue is not running");
+    }
+
+    MailHandle handle = new MailHandle();
+    try {
+      MimeMessage message = mail.createMessage(mailSource.getSession());
+      File file = new File(directory, handle.getId() + SUFFIX);
+      spool(message, file);
+
+      queue.offer(new Entry(handle, message, file));
+      log.debug("queued mail '{}' to '{}'", handle.getId(), mail.getRecipient());
+
+      return handle;
+    } catch (MessagingException e) {
+      throw new MailSendException("Queuing the mail failed", e);
+    } catch (IOException e) {
+      throw new MailSendException("Queuing the mail failed", e);
+    }
+  }
+
+  /**
+   * Returns whether the queue accepts mails.
+   *
+   * @return true if the queue is started.
+   */
+  public boolean isRunning() {
+
+    return running;
+  }
+
+  /**
+   * Returns the number of mails waiting to be sent, not counting mails waiting for a retry.
+   *
+   * @return size of the queue.
+   */
+  public int getQueueSize() {
+
+    return queue.size();
+  }
+
+  /**
+   * Locks the spool directory, so that no other queue sends or removes the spooled mails.
+   *
+   * @throws IllegalStateException if the directory is used by another queue.
+   */
+  private void lock() {
+
+    File file = new File(directory, LOCK_FILE);
+    RandomAccessFile lockFile = null;
+    try {
+      lockFile = new RandomAccessFile(file, "rw");
+      lock = lockFile.getChannel().tryLock();
+    } catch (OverlappingFileLockException e) {
+      lock = null;
+    } catch (IOException e) {
+      throw new IllegalStateException("cannot lock spool directory " + directory, e);
+    } finally {
+      if (lock == null && lockFile != null) {
+        close(lockFile);
+      }
+    }
+
+    if (lock == null) {
+      throw new IllegalStateException("spool directory " + directory + " is used by another mail queue");
+    }
+  }
+
+  private void unlock() {
+
+    if (lock != null) {
+      try {
+        lock.release();
+      } catch (IOException e) {
+        log.debug("releasing the spool directory lock failed", e);
+      }
+      close(lock.channel());
+      lock = null;
+    }
+  }
+
+  private void close(Closeable closeable) {
+
+    try {
+      closeable.close();
+    } catch (IOException e) {
+      log.debug("closing the spool directory lock failed", e);
+    }
+  }
+
+  /**
+   * Loads all spooled mails into the queue. Files which were not completely written are removed, the mails were never
+   * accepted by {@link #enqueue(Mail)}.
+   */
+  private void recover() {
+
+    File[] incomplete = directory.listFiles(new FilenameFilter() {
+      @Override
+      public boolean accept(File dir, String name) {
+
+        return name.endsWith(TEMP_SUFFIX);
+      }
+    });
+    for (File file : incomplete) {
+      log.warn("removing incomplete spooled mail {}", file);
+      if (!file.delete()) {
+        log.warn("cannot delete incomplete spooled mail {}", file);
+      }
+    }
+
+    File[] files = directory.listFiles(new FilenameFilter() {
+      @Override
+      public boolean accept(File dir, String name) {
+
+        return name.endsWith(SUFFIX);
+      }
+    });
+
+    Session session = mailSource.getSession();
+    for (File file : files) {
+      String id = file.getName().substring(0, file.getName().length() - SUFFIX.length());
+      try {
+        InputStream in = new BufferedInputStream(new FileInputStream(file));
+        try {
+          queue.offer(new Entry(new MailHandle(id), new MimeMessage(session, in), file));
+        } finally {
+          in.close();
+        }
+      } catch (Exception e) {
+        log.error("cannot recover spooled mail " + file, e);
+        moveToFailed(file);
+      }
+    }
+  }
+
+  /**
+   * Writes a message to the spool directory. The message is written to a temporary file first, which is renamed once it is
+   * complete, so that a crash never leaves a truncated mail behind.
+   *
+   * @param message message to write.
+   * @param file    target file.
+   * @throws IOException        if the file cannot be written.
+   * @throws MessagingException if the message cannot be serialized.
+   */
+  private void spool(MimeMessage message, File file) throws IOException, MessagingException {
+
+    File temp = new File(file.getParentFile(), file.getName() + ".tmp");
+    boolean complete = false;
+    try {
+      OutputStream out = new BufferedOutputStream(new FileOutputStream(temp));
+      try {
+        message.writeTo(out);
+      } finally {
+        out.close();
+      }
+
+      if (!temp.renameTo(file)) {
+        throw new IOException("cannot rename " + temp + " to " + file);
+      }
+      complete = true;
+    } finally {
+      if (!complete && temp.exists() && !temp.delete()) {
+        log.warn("cannot delete incomplete spooled mail {}", temp);
+      }
+    }
+  }
+
+  /**
+   * Finishes a successfully sent mail.
+   *
+   * @param entry the sent mail.
+   */
+  private void delivered(Entry entry) {
+
+    if (!entry.file.delete()) {
+      log.warn("cannot delete spooled mail {}", entry.file);
+    }
+    entry.handle.sent();
+  }
+
+  /**
+   * Finishes a mail that will not be retried anymore.
+   *
+   * @param entry the failed mail.
+   */
+  private void failed(Entry entry) {
+
+    log.error("giving up mail '{}' after {} attempts", entry.handle.getId(), entry.handle.getAttempts());
+    moveToFailed(entry.file);
+    entry.handle.failed();
+  }
+
+  /**
+   * Schedules a failed mail for another attempt or gives it up if the maximum number of attempts is reached.
+   *
+   * @param entry the failed mail.
+   */
+  private void retry(final Entry entry) {
+
+    int attempts = entry.handle.getAttempts();
+    if (attempts >= maxAttempts || !running) {
+      if (running) {
+        failed(entry);
+      }
+      return;
+    }
+
+    long delay = Math.min(initialBackoffMillis << Math.min(attempts - 1, 30), maxBackoffMillis);
+    log.debug("retrying mail '{}' in {} ms", entry.handle.getId(), delay);
+    retryTimer.schedule(new Runnable() {
+      @Override
+      public void run() {
+
+        queue.offer(entry);
+      }
+    }, delay, TimeUnit.MILLISECONDS);
+  }
+
+  private void moveToFailed(File file) {
+
+    if (!file.renameTo(new File(getFailedDirectory(), file.getName()))) {
+      log.warn("cannot move spooled mail {} to the failed mails", file);
+    }
+  }
+
+  private File getFailedDirectory() {
+
+    return new File(directory, "failed");
+  }
+
+  private void close(Transport transport) {
+
+    if (transport != null) {
+      try {
+        transport.close();
+      } catch (MessagingException e) {
+        log.debug("closing the mail transport failed", e);
+      }
+    }
+  }
+
+  /**
+   * Sends mails from the queue, reusing its connection as long as there are mails to send.
+   */
+  private class Worker implements Runnable {
+    @Override
+    public void run() {
+
+      Transport transport = null;
+      int sentOnConnection = 0;
+      List<Entry> batch = new ArrayList<Entry>(batchSize);
+
+      try {
+        while (running) {
+          Entry first = queue.poll(IDLE_MILLIS, TimeUnit.MILLISECONDS);
+          if (first == null) {
+            close(transport);
+            transport = null;
+            continue;
+          }
+
+          batch.clear();
+          batch.add(first);
+          queue.drainTo(batch, batchSize - 1);
+
+          boolean broken = false;
+          for (Entry entry : batch) {
+            entry.handle.attempt();
+            if (broken) {
+              retry(entry);
+              continue;
+            }
+
+            try {
+              if (transport == null || !transport.isConnected() || sentOnConnection >= messagesPerConnection) {
+                close(transport);
+                transport = mailSource.getSession().getTransport();
+                transport.connect();
+                sentOnConnection = 0;
+              }
+
+              transport.sendMessage(entry.message, entry.message.getAllRecipients());
+              sentOnConnection++;
+              delivered(entry);
+            } catch (SendFailedException e) {
+              log.warn("mail '" + entry.handle.getId() + "' was rejected", e);
+              failed(entry);
+            } catch (MessagingException e) {
+              log.warn("sending mail '" + entry.handle.getId() + "' failed", e);
+              close(transport);
+              transport = null;
+              broken = true;
+              retry(entry);
+            }
+          }
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } finally {
+        close(transport);
+      }
+    }
+  }
+
+  /**
+   * A queued mail.
+   */
+  private static final class Entry {
+    private final MailHandle handle;
+
+    private final MimeMessage message;
+
+    private final File file;
+
+    private Entry(MailHandle handle, MimeMessage message, File file) {
+
+      this.handle = handle;
+      this.message = message;
+      this.file = file;
+    }
+  }
+
+  /**
+   * Creates named daemon threads.
+   */
+  private static final class NamedThreadFactory implements ThreadFactory {
+    private final String prefix;
+
+    private final AtomicInteger count = new AtomicInteger();
+
+    private NamedThreadFactory(String prefix) {
+
+      this.prefix = prefix;
+    }
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+
+      Thread thread = new Thread(runnable, prefix + "-" + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+
+  /**
+   * Setter for mailSource.
+   *
+   * @param mailSource the mailSource to set
+   */
+  public void setMailSource(MailSource mailSource) {
+
+    this.mailSource = mailSource;
+  }
+
+  public boolean isEnabled() {
+
+    return enabled;
+  }
+
+  public void setEnabled(boolean enabled) {
+
+    this.enabled = enabled;
+  }
+
+  public void setDirectory(File directory) {
+
+    this.directory = directory;
+  }
+
+  public void setWorkers(int workers) {
+
+    if (workers <= 0) {
+      throw new IllegalArgumentException("at least one worker needed");
+    }
+    this.workers = workers;
+  }
+
+  public void setBatchSize(int batchSize) {
+
+    if (batchSize <= 0) {
+      throw new IllegalArgumentException("batch size has to be positive");
+    }
+    this.batchSize = batchSize;
+  }
+
+  public void setMessagesPerConnection(int messagesPerConnection) {
+
+    this.messagesPerConnection = messagesPerConnection;
+  }
+
+  public void setMaxAttempts(int maxAttempts) {
+
+    this.maxAttempts = maxAttempts;
+  }
+
+  public void setInitialBackoffMillis(long initialBackoffMillis) {
+
+    this.initialBackoffMillis = initialBackoffMillis;
+  }
+
+  public void setMaxBackoffMillis(long maxBackoffMillis) {
+
+    this.maxBackoffMillis = maxBackoffMillis;
+  }
+}
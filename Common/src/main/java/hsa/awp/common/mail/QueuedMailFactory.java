@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2010-2012 Matthias Klass, Johannes Leimer,
+ *               Rico Lieback, Sebastian Gabriel, Lothar Gesslein,
+ *               Alexander Rampp, Kai Weidner
+ *
+ * This file is part of the Physalix Enrollment System
+ *
+ * Foobar is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Foobar is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Foobar.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package hsa.awp.common.mail;
+
+/**
+ * Factory for producing mails which are sent asynchronously using a {@link MailQueue}. {@link IMail#send()} returns as soon as
+ * the mail is queued. If the queue is disabled, the mails are sent directly like the ones of {@link MailFactory}.
+ */
+public class QueuedMailFactory extends MailFactory {
+  /**
+   * Queue the mails are handed over to.
+   */
+  private MailQueue mailQueue;
+
+  @Override
+  protected Mail createMail(String recipient, String subject, String message, String sender) {
+
+    return new QueuedMail(recipient, subject, message, sender);
+  }
+
+  /**
+   * Setter for mailQueue.
+   *
+   * @param mailQueue the mailQueue to set
+   */
+  public void setMailQueue(MailQueue mailQueue) {
+
+    this.mailQueue = mailQueue;
+  }
+
+  /**
+   * {@link Mail} which is handed over to the {@link MailQueue} instead of being sent directly.
+   */
+  private class QueuedMail extends Mail {
+    QueuedMail(String recipient, String subject, String message, String sender) {
+
+      super(recipient, subject, message, sender);
+    }
+
+    @Override
+    public IMailHandle send() {
+
+      if (!mailQueue.isEnabled()) {
+        return super.send();
+      }
+      return mailQueue.enqueue(this);
+    }
+  }
+}
@@ -51,4 +51,35 @@ public class TemplateDetail {
   public void setTemplateType(TemplateType templateType) {
     this.templateType = templateType;
   }
+
+  @Override
+  public boolean equals(Object o) {
+
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof TemplateDetail)) {
+      return false;
+    }
+
+    TemplateDetail that = (TemplateDetail) o;
+    if (mandatorId != null ? !mandatorId.equals(that.mandatorId) : that.mandatorId != null) {
+      return false;
+    }
+    return templateType == that.templateType;
+  }
+
+  @Override
+  public int hashCode() {
+
+    int result = mandatorId != null ? mandatorId.hashCode() : 0;
+    result = 31 * result + (templateType != null ? templateType.hashCode() : 0);
+    return result;
+  }
+
+  @Override
+  public String toString() {
+
+    return "TemplateDetail[mandatorId=" + mandatorId + ", templateType=" + templateType + "]";
+  }
 }
@@ -0,0 +1,301 @@
+/*
+ * Copyright (c) 2010-2012 Matthias Klass, Johannes Leimer,
+ *               Rico Lieback, Sebastian Gabriel, Lothar Gesslein,
+ *               Alexander Rampp, Kai Weidner
+ *
+ * This file is part of the Physalix Enrollment System
+ *
+ * Foobar is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Foobar is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Foobar.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package hsa.awp.common.naming;
+
+import javax.naming.InterruptedNamingException;
+import javax.naming.NamingException;
+import javax.naming.directory.Attributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Size and time bounded cache for directory attributes.
+ * <p/>
+ * Concurrent requests for the same key share a single lookup: the first caller loads the attributes, all others wait
+ * for its result. Failed lookups are not cached. Callers always get a copy of the cached attributes, so they cannot
+ * modify the cache content.
+ *
+ * @param <K> type of the lookup key.
+ */
+public class AttributeCache<K> {
+
+  /**
+   * Loads the attributes for a key which is not in the cache.
+   *
+   * @param <K> type of the lookup key.
+   */
+  public interface Loader<K> {
+
+    /**
+     * Loads the attributes of the given key from the directory.
+     *
+     * @param key the key to look up.
+     * @return the attributes, never null.
+     * @throws NamingException if the lookup failed.
+     */
+    Attributes load(K key) throws NamingException;
+  }
+
+  private final ConcurrentMap<K, Entry> entries = new ConcurrentHashMap<K, Entry>();
+
+  private final AtomicLong hits = new AtomicLong();
+
+  private final AtomicLong misses = new AtomicLong();
+
+  /**
+   * Time in milliseconds an entry stays valid.
+   */
+  private volatile long timeToLive;
+
+  /**
+   * Maximum number of cached entries.
+   */
+  private volatile int maxSize;
+
+  public AttributeCache(long timeToLive, int maxSize) {
+
+    this.timeToLive = timeToLive;
+    this.maxSize = maxSize;
+  }
+
+  /**
+   * Returns the attributes for the given key, loading them with the given loader if they are not cached or expired.
+   *
+   * @param key    the key to look up.
+   * @param loader loader used on a cache miss.
+   * @return a copy of the cached attributes.
+   * @throws NamingException if the lookup failed.
+   */
+  public Attributes get(K key, Loader<K> loader) throws NamingException {
+
+    if (timeToLive <= 0 || maxSize <= 0) {
+      misses.incrementAndGet();
+      return loader.load(key);
+    }
+
+    while (true) {
+      Entry entry = entries.get(key);
+      if (entry != null && entry.isExpired(System.currentTimeMillis())) {
+        entries.remove(key, entry);
+        entry = null;
+      }
+
+      if (entry == null) {
+        Entry created = new Entry();
+        entry = entries.putIfAbsent(key, created);
+        if (entry == null) {
+          misses.incrementAndGet();
+          return copy(load(key, created, loader));
+        }
+      }
+
+      hits.incrementAndGet();
+      return copy(entry.await());
+    }
+  }
+
+  /**
+   * Removes the entry of the given key.
+   *
+   * @param key the key to remove.
+   */
+  public void invalidate(K key) {
+
+    entries.remove(key);
+  }
+
+  /**
+   * Removes all entries.
+   */
+  public void clear() {
+
+    entries.clear();
+  }
+
+  public int size() {
+
+    return entries.size();
+  }
+
+  public long getHits() {
+
+    return hits.get();
+  }
+
+  public long getMisses() {
+
+    return misses.get();
+  }
+
+  /**
+   * Returns the share of lookups which were answered without a directory lookup.
+   *
+   * @return hit rate between 0 and 1.
+   */
+  public double getHitRate() {
+
+    long h = hits.get();
+    long total = h + misses.get();
+    return total == 0 ? 0 : (double) h / total;
+  }
+
+  public void setTimeToLive(long timeToLive) {
+
+    this.timeToLive = timeToLive;
+    clear();
+  }
+
+  public void setMaxSize(int maxSize) {
+
+    this.maxSize = maxSize;
+    evictIfNecessary();
+  }
+
+  private Attributes load(K key, Entry entry, Loader<K> loader) throws NamingException {
+
+    Attributes attributes;
+    try {
+      attributes = loader.load(key);
+    } catch (NamingException e) {
+      entries.remove(key, entry);
+      entry.fail(e);
+      throw e;
+    } catch (RuntimeException e) {
+      entries.remove(key, entry);
+      entry.fail(e);
+      throw e;
+    } catch (Error e) {
+      entries.remove(key, entry);
+      entry.fail(new IllegalStateException(e));
+      throw e;
+    }
+
+    entry.complete(attributes);
+    evictIfNecessary();
+    return attributes;
+  }
+
+  /**
+   * Removes expired entries and, if the cache is still too large, the oldest ones.
+   */
+  private void evictIfNecessary() {
+
+    if (entries.size() <= maxSize) {
+      return;
+    }
+
+    long now = System.currentTimeMillis();
+    List<Map.Entry<K, Entry>> loaded = new ArrayList<Map.Entry<K, Entry>>();
+    for (Map.Entry<K, Entry> mapEntry : entries.entrySet()) {
+      Entry entry = mapEntry.getValue();
+      if (entry.isExpired(now)) {
+        entries.remove(mapEntry.getKey(), entry);
+      } else if (entry.isDone()) {
+        loaded.add(mapEntry);
+      }
+    }
+
+    int excess = entries.size() - maxSize;
+    if (excess <= 0) {
+      return;
+    }
+
+    Collections.sort(loaded, new Comparator<Map.Entry<K, Entry>>() {
+      @Override
+      public int compare(Map.Entry<K, Entry> o1, Map.Entry<K, Entry> o2) {
+
+        long t1 = o1.getValue().loadedAt;
+        long t2 = o2.getValue().loadedAt;
+        return t1 < t2 ? -1 : (t1 == t2 ? 0 : 1);
+      }
+    });
+    for (int i = 0; i < excess && i < loaded.size(); i++) {
+      entries.remove(loaded.get(i).getKey(), loaded.get(i).getValue());
+    }
+  }
+
+  private static Attributes copy(Attributes attributes) {
+
+    return attributes == null ? null : (Attributes) attributes.clone();
+  }
+
+  /**
+   * A cache entry which is either being loaded or holds the loaded attributes.
+   */
+  private final class Entry {
+
+    private final CountDownLatch done = new CountDownLatch(1);
+
+    private volatile Attributes attributes;
+
+    private volatile Exception failure;
+
+    private volatile long loadedAt;
+
+    private void complete(Attributes attributes) {
+
+      this.attributes = attributes;
+      this.loadedAt = System.currentTimeMillis();
+      done.countDown();
+    }
+
+    private void fail(Exception failure) {
+
+      this.failure = failure;
+      done.countDown();
+    }
+
+    private boolean isDone() {
+
+      return done.getCount() == 0;
+    }
+
+    private boolean isExpired(long now) {
+
+      return isDone() && failure == null && now - loadedAt > timeToLive;
+    }
+
+    private Attributes await() throws NamingException {
+
+      try {
+        done.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedNamingException("interrupted while waiting for directory lookup");
+      }
+
+      if (failure instanceof NamingException) {
+        throw (NamingException) failure;
+      } else if (failure instanceof RuntimeException) {
+        throw (RuntimeException) failure;
+      }
+      return attributes;
+    }
+  }
+}
@@ -22,6 +22,7 @@
 package hsa.awp.common.naming;
 
 import hsa.awp.common.exception.ConfigurationException;
+import hsa.awp.common.exception.DataAccessException;
 import hsa.awp.common.exception.NoMatchingElementException;
 import hsa.awp.common.exception.ProgrammingErrorException;
 import org.slf4j.Logger;
@@ -33,6 +34,7 @@ import javax.naming.directory.Attributes;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 import java.util.Map.Entry;
 import java.util.Properties;
@@ -147,6 +149,26 @@ public final class Directory implements IAbstractDirectory {
     return adapter.getAllStudyCourses();
   }
 
+  @Override
+  public void readAllUsers(Date modifiedSince, int pageSize, final IDirectoryPageHandler<Properties> handler) {
+
+    try {
+      adapter.readAllUsers(modifiedSince, pageSize, new IDirectoryPageHandler<Attributes>() {
+        @Override
+        public void handlePage(List<Attributes> page) {
+
+          List<Properties> properties = new ArrayList<Properties>(page.size());
+          for (Attributes attributes : page) {
+            properties.add(createProperties(attributes));
+          }
+          handler.handlePage(properties);
+        }
+      });
+    } catch (NamingException e) {
+      throw new DataAccessException("could not read users from the directory", e);
+    }
+  }
+
   /**
    * Converts given attributes to properties.
    *
@@ -23,6 +23,7 @@ package hsa.awp.common.naming;
 
 import hsa.awp.common.exception.ConfigurationException;
 
+import java.util.Date;
 import java.util.List;
 import java.util.Properties;
 import java.util.Set;
@@ -132,4 +133,14 @@ public interface IAbstractDirectory {
   List<Properties> searchForUser(String searchString);
 
   Set<String> readAllStudyCourses();
+
+  /**
+   * Reads all users of the directory page by page.
+   *
+   * @param modifiedSince if not null, only users changed at or after this date are read.
+   * @param pageSize      maximum number of users per page.
+   * @param handler       receives the properties of the users of each page.
+   * @throws hsa.awp.common.exception.DataAccessException if the directory could not be read.
+   */
+  void readAllUsers(Date modifiedSince, int pageSize, IDirectoryPageHandler<Properties> handler);
 }
@@ -24,6 +24,7 @@ package hsa.awp.common.naming;
 import javax.naming.NamingException;
 import javax.naming.directory.Attributes;
 import javax.naming.directory.DirContext;
+import java.util.Date;
 import java.util.List;
 import java.util.Set;
 
@@ -79,4 +80,14 @@ public interface IDirectoryAdapter {
   List<Attributes> searchDirectory(String searchString);
 
   Set<String> getAllStudyCourses();
+
+  /**
+   * Reads all users of the directory page by page.
+   *
+   * @param modifiedSince if not null, only users changed at or after this date are read.
+   * @param pageSize      maximum number of users per page.
+   * @param handler       receives the default attributes of the users of each page.
+   * @throws NamingException - if a naming exception is encountered
+   */
+  void readAllUsers(Date modifiedSince, int pageSize, IDirectoryPageHandler<Attributes> handler) throws NamingException;
 }
@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2010-2012 Matthias Klass, Johannes Leimer,
+ *               Rico Lieback, Sebastian Gabriel, Lothar Gesslein,
+ *               Alexander Rampp, Kai Weidner
+ *
+ * This file is part of the Physalix Enrollment System
+ *
+ * Foobar is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Foobar is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Foobar.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package hsa.awp.common.naming;
+
+import java.util.List;
+
+/**
+ * Receives the results of a bulk directory read one page at a time.
+ *
+ * @param <T> type of a single directory entry.
+ */
+public interface IDirectoryPageHandler<T> {
+
+  /**
+   * Handles one page of directory entries. The page is not used anymore after this call returns.
+   *
+   * @param page entries of the current page, never empty.
+   */
+  void handlePage(List<T> page);
+}
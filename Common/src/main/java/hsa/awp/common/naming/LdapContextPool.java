@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2010-2012 Matthias Klass, Johannes Leimer,
+ *               Rico Lieback, Sebastian Gabriel, Lothar Gesslein,
+ *               Alexander Rampp, Kai Weidner
+ *
+ * This file is part of the Physalix Enrollment System
+ *
+ * Foobar is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Foobar is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Foobar.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package hsa.awp.common.naming;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.naming.InterruptedNamingException;
+import javax.naming.NamingException;
+import javax.naming.ServiceUnavailableException;
+import javax.naming.directory.DirContext;
+import javax.naming.ldap.InitialLdapContext;
+import java.util.Hashtable;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded pool of LDAP directory contexts. A {@link DirContext} must not be used by several threads at once, so every
+ * lookup borrows its own context and gives it back afterwards. Contexts are created lazily up to the pool size.
+ */
+public class LdapContextPool {
+
+  private static final Logger logger = LoggerFactory.getLogger(LdapContextPool.class);
+
+  private final Hashtable<Object, Object> environment;
+
+  private final BlockingQueue<DirContext> idle;
+
+  private final Semaphore permits;
+
+  /**
+   * Time in milliseconds a caller waits for a free context.
+   */
+  private final long borrowTimeout;
+
+  private volatile boolean closed;
+
+  public LdapContextPool(Hashtable<Object, Object> environment, int size, long borrowTimeout) {
+
+    if (size < 1) {
+      throw new IllegalArgumentException("pool size must be at least 1");
+    }
+    this.environment = new Hashtable<Object, Object>(environment);
+    this.idle = new LinkedBlockingQueue<DirContext>(size);
+    this.permits = new Semaphore(size, true);
+    this.borrowTimeout = borrowTimeout;
+  }
+
+  /**
+   * Takes an idle context from the pool or opens a new one.
+   *
+   * @return a context which must be passed to {@link #release(DirContext)} or {@link #invalidate(DirContext)}.
+   * @throws NamingException if no context could be opened or none became free in time.
+   */
+  public DirContext borrow() throws NamingException {
+
+    if (closed) {
+      throw new ServiceUnavailableException("ldap context pool is closed");
+    }
+
+    try {
+      if (!permits.tryAcquire(borrowTimeout, TimeUnit.MILLISECONDS)) {
+        throw new ServiceUnavailableException("no ldap context available within " + borrowTimeout + "ms");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedNamingException("interrupted while waiting for an ldap context");
+    }
+
+    DirContext context = idle.poll();
+    if (context != null) {
+      return context;
+    }
+
+    try {
+      return new InitialLdapContext(environment, null);
+    } catch (NamingException e) {
+      permits.release();
+      throw e;
+    } catch (RuntimeException e) {
+      permits.release();
+      throw e;
+    }
+  }
+
+  /**
+   * Gives a healthy context back to the pool.
+   *
+   * @param context the borrowed context.
+   */
+  public void release(DirContext context) {
+
+    if (closed || !idle.offer(context)) {
+      close(context);
+    }
+    permits.release();
+  }
+
+  /**
+   * Closes a broken context instead of returning it to the pool.
+   *
+   * @param context the borrowed context.
+   */
+  public void invalidate(DirContext context) {
+
+    close(context);
+    permits.release();
+  }
+
+  /**
+   * Closes all idle contexts. Contexts which are still borrowed are closed when they are released.
+   */
+  public void close() {
+
+    closed = true;
+    DirContext context;
+    while ((context = idle.poll()) != null) {
+      close(context);
+    }
+  }
+
+  public int getIdleCount() {
+
+    return idle.size();
+  }
+
+  private void close(DirContext context) {
+
+    try {
+      context.close();
+    } catch (NamingException e) {
+      logger.warn("could not close ldap context", e);
+    }
+  }
+}
@@ -31,11 +31,21 @@ import javax.naming.NamingEnumeration;
 import javax.naming.NamingException;
 import javax.naming.ServiceUnavailableException;
 import javax.naming.directory.*;
+import javax.naming.ldap.Control;
+import javax.naming.ldap.LdapContext;
+import javax.naming.ldap.PagedResultsControl;
+import javax.naming.ldap.PagedResultsResponseControl;
+import java.io.IOException;
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
 import java.util.*;
 
 /**
  * This adapter implements lookup to an ldap directory. This implementation normally generates its dirContext automatically but you
  * can also use the setter to set a custom dirContext.
+ * <p/>
+ * Lookups borrow their context from a {@link LdapContextPool}. Attributes requested with the default attribute ids are kept in an
+ * {@link AttributeCache} per username and per uuid, so the lookups done on every page request do not hit the directory each time.
  *
  * @author alex
  */
@@ -44,10 +54,35 @@ public class LdapDirectoryAdapter implements IDirectoryAdapter {
   private static final Logger logger = LoggerFactory.getLogger(LdapDirectoryAdapter.class);
 
   /**
-   * LDAP directory context.
+   * Custom LDAP directory context, only used if set via {@link #setDirContext(DirContext)}.
    */
   private DirContext dirContext;
 
+  /**
+   * Pool of LDAP directory contexts.
+   */
+  private volatile LdapContextPool contextPool;
+
+  /**
+   * Maximum number of concurrently opened contexts.
+   */
+  private int poolSize = 8;
+
+  /**
+   * Time in milliseconds a lookup waits for a free context.
+   */
+  private long poolTimeout = 10000;
+
+  /**
+   * Cached attributes by username.
+   */
+  private final AttributeCache<String> usernameCache = new AttributeCache<String>(300000, 5000);
+
+  /**
+   * Cached attributes by uuid.
+   */
+  private final AttributeCache<Long> uuidCache = new AttributeCache<Long>(300000, 5000);
+
   private String[] userDnPatterns;
 
   /**
@@ -80,10 +115,15 @@ public class LdapDirectoryAdapter implements IDirectoryAdapter {
    */
   private String securityAuthentication;
 
+  /**
+   * Operational attribute holding the time of the last change of an entry.
+   */
+  private String modifiedAttribute = "modifyTimestamp";
+
   /**
    * If configuration changed, the dirty flag will be set. Then you must call initContext() to set the new configuration.
    */
-  private boolean dirty;
+  private volatile boolean dirty = true;
 
   /**
    * If a dir context is set via the setter, this flag turns of the dircontext configuration. This is usefull for testing with
@@ -94,26 +134,49 @@ public class LdapDirectoryAdapter implements IDirectoryAdapter {
   @Override
   public void finalize() {
 
-    try {
-      dirContext.close();
-    } catch (NamingException e) {
-      e.printStackTrace();
-      throw new RuntimeException(e);
+    close();
+  }
+
+  /**
+   * Closes all pooled contexts.
+   */
+  public void close() {
+
+    LdapContextPool pool = contextPool;
+    if (pool != null) {
+      pool.close();
     }
   }
 
   @Override
   public Attributes getAttributes(String name) throws NamingException {
 
-    return getAttributes(name, defaultAttrIds);
+    return usernameCache.get(name, new AttributeCache.Loader<String>() {
+      @Override
+      public Attributes load(String key) throws NamingException {
+
+        return getAttributes(key, defaultAttrIds);
+      }
+    });
   }
 
   @Override
   public Attributes getAttributes(long uuid) throws NamingException {
 
+    return uuidCache.get(uuid, new AttributeCache.Loader<Long>() {
+      @Override
+      public Attributes load(Long key) throws NamingException {
+
+        return searchAttributes(key);
+      }
+    });
+  }
+
+  private Attributes searchAttributes(final long uuid) throws NamingException {
+
     cleanContext();
 
-    Attributes matchingAttributes = new BasicAttributes();
+    final Attributes matchingAttributes = new BasicAttributes();
 
     // search for the attribute name for the uuid
     String uuidFieldName = null;
@@ -131,46 +194,105 @@ public class LdapDirectoryAdapter implements IDirectoryAdapter {
     Attribute uidNumber = new BasicAttribute(uuidFieldName, uuid);
     matchingAttributes.put(uidNumber);
 
-    for (String pattern : userDnPatterns) {
-      int start = pattern.indexOf("{0},") + 4;
-      String searchPattern = pattern.substring(start);
-
-      NamingEnumeration<SearchResult> searchResult = dirContext.search(searchPattern, matchingAttributes,
-          defaultAttrIds);
-
-      if (searchResult.hasMore()) {
-        return searchResult.next().getAttributes();
+    return execute(new ContextCallback<Attributes>() {
+      @Override
+      public Attributes doInContext(DirContext context) throws NamingException {
+
+        for (String pattern : userDnPatterns) {
+          int start = pattern.indexOf("{0},") + 4;
+          String searchPattern = pattern.substring(start);
+
+          NamingEnumeration<SearchResult> searchResult = context.search(searchPattern, matchingAttributes,
+              defaultAttrIds);
+          try {
+            if (searchResult.hasMore()) {
+              return searchResult.next().getAttributes();
+            }
+          } finally {
+            searchResult.close();
+          }
+        }
+        throw new NamingException("No user with uidNumber" + uuid + " found.");
       }
-    }
-    throw new NamingException("No user with uidNumber" + uuid + " found.");
+    });
   }
 
-  private void cleanContext() {
+  private synchronized void cleanContext() {
     if (dirty) {
       initContext();
     }
   }
 
   @Override
-  public Attributes getAttributes(String name, String[] attrIds) throws NamingException {
+  public Attributes getAttributes(final String name, final String[] attrIds) throws NamingException {
 
     cleanContext();
 
-    NamingException exception = null;
-    for (String pattern : userDnPatterns) {
-      try {
-        String searchPattern = pattern.replaceFirst("\\{0\\}", name);
-        return dirContext.getAttributes(searchPattern, attrIds);
-      } catch (ServiceUnavailableException e) {
-        logger.error("retry because of unavailable service", e);
-        dirty = true;
-        return getAttributes(name, attrIds);
-      } catch (NamingException e) {
-        exception = e;
+    return execute(new ContextCallback<Attributes>() {
+      @Override
+      public Attributes doInContext(DirContext context) throws NamingException {
+
+        NamingException exception = null;
+        for (String pattern : userDnPatterns) {
+          try {
+            String searchPattern = pattern.replaceFirst("\\{0\\}", name);
+            return context.getAttributes(searchPattern, attrIds);
+          } catch (ServiceUnavailableException e) {
+            throw e;
+          } catch (NamingException e) {
+            exception = e;
+          }
+        }
+
+        throw exception;
       }
+    });
+  }
+
+  /**
+   * Runs the callback with a pooled context. If the directory reports an unavailable service, the context is dropped and the
+   * callback is retried once with a fresh context.
+   *
+   * @param callback the lookup to run.
+   * @param <T>      result type of the lookup.
+   * @return the result of the callback.
+   * @throws NamingException if the lookup failed.
+   */
+  private <T> T execute(ContextCallback<T> callback) throws NamingException {
+
+    try {
+      return executeOnce(callback);
+    } catch (ServiceUnavailableException e) {
+      logger.error("retry because of unavailable service", e);
+      return executeOnce(callback);
     }
+  }
+
+  private <T> T executeOnce(ContextCallback<T> callback) throws NamingException {
 
-    throw exception;
+    if (customDirContext) {
+      return callback.doInContext(dirContext);
+    }
+
+    LdapContextPool pool = contextPool;
+    DirContext context = pool.borrow();
+    boolean healthy = false;
+    try {
+      T result = callback.doInContext(context);
+      healthy = true;
+      return result;
+    } catch (ServiceUnavailableException e) {
+      throw e;
+    } catch (NamingException e) {
+      healthy = true;
+      throw e;
+    } finally {
+      if (healthy) {
+        pool.release(context);
+      } else {
+        pool.invalidate(context);
+      }
+    }
   }
 
   @Override
@@ -178,30 +300,114 @@ public class LdapDirectoryAdapter implements IDirectoryAdapter {
 
     dirContext = context;
     customDirContext = true;
+    clearCache();
+  }
+
+  /**
+   * Removes all cached attributes.
+   */
+  public void clearCache() {
+
+    usernameCache.clear();
+    uuidCache.clear();
   }
 
   /**
-   * Initializes the dircontext.
+   * Returns the number of attribute lookups answered from the cache, including lookups which waited for a concurrent load of
+   * the same user.
+   *
+   * @return number of cache hits.
+   */
+  public long getCacheHits() {
+
+    return usernameCache.getHits() + uuidCache.getHits();
+  }
+
+  /**
+   * Returns the number of attribute lookups which had to query the directory.
+   *
+   * @return number of cache misses.
+   */
+  public long getCacheMisses() {
+
+    return usernameCache.getMisses() + uuidCache.getMisses();
+  }
+
+  /**
+   * Initializes the context pool.
    */
   private void initContext() {
 
     if (!customDirContext) {
+      Hashtable<Object, Object> env = new Hashtable<Object, Object>();
+      putIfSet(env, Context.INITIAL_CONTEXT_FACTORY, "com.sun.jndi.ldap.LdapCtxFactory");
+      putIfSet(env, Context.PROVIDER_URL, providerURL);
+      putIfSet(env, Context.SECURITY_PRINCIPAL, securityPrincipal);
+      putIfSet(env, Context.SECURITY_CREDENTIALS, securityCredentials);
+      putIfSet(env, Context.SECURITY_PROTOCOL, securityProtocol);
+      putIfSet(env, Context.SECURITY_AUTHENTICATION, securityAuthentication);
+
+      LdapContextPool pool = new LdapContextPool(env, poolSize, poolTimeout);
       try {
-        Properties env = new Properties();
-        env.put(Context.INITIAL_CONTEXT_FACTORY, "com.sun.jndi.ldap.LdapCtxFactory");
-        env.put(Context.PROVIDER_URL, providerURL);
-        env.put(Context.SECURITY_PRINCIPAL, securityPrincipal);
-        env.put(Context.SECURITY_CREDENTIALS, securityCredentials);
-        env.put(Context.SECURITY_PROTOCOL, securityProtocol);
-        env.put(Context.SECURITY_AUTHENTICATION, securityAuthentication);
-        dirContext = new InitialDirContext(env);
-        dirty = false;
+        pool.release(pool.borrow());
       } catch (NamingException e) {
+        pool.close();
         throw new ConfigurationException(e);
       }
+
+      LdapContextPool old = contextPool;
+      contextPool = pool;
+      if (old != null) {
+        old.close();
+      }
+      clearCache();
+    }
+    dirty = false;
+  }
+
+  private static void putIfSet(Hashtable<Object, Object> env, String key, String value) {
+
+    if (value != null && value.length() > 0) {
+      env.put(key, value);
     }
   }
 
+  /**
+   * @param poolSize maximum number of concurrently opened directory contexts.
+   */
+  public void setPoolSize(int poolSize) {
+
+    dirty = true;
+    this.poolSize = poolSize;
+  }
+
+  /**
+   * @param poolTimeout time in milliseconds a lookup waits for a free directory context.
+   */
+  public void setPoolTimeout(long poolTimeout) {
+
+    dirty = true;
+    this.poolTimeout = poolTimeout;
+  }
+
+  /**
+   * @param seconds time in seconds cached attributes stay valid. 0 disables the cache.
+   */
+  public void setCacheTimeToLive(long seconds) {
+
+    usernameCache.setTimeToLive(seconds * 1000);
+    uuidCache.setTimeToLive(seconds * 1000);
+  }
+
+  /**
+   * @param maxSize maximum number of cached users per lookup key. 0 disables the cache.
+   */
+  public void setCacheMaxSize(int maxSize) {
+
+    usernameCache.setMaxSize(maxSize);
+    uuidCache.setMaxSize(maxSize);
+  }
+
   /**
    * A comma separated list of ldap attribute ids to request.
    *
@@ -272,39 +478,8 @@ public class LdapDirectoryAdapter implements IDirectoryAdapter {
 
     String searchPattern = "(|(uid=#)(sn=#))";
     searchPattern = searchPattern.replaceAll("#", searchString);
-    List<NamingEnumeration<SearchResult>> searches = queryDirectories(searchPattern);
 
-    return convertToListOfAttributes(searches);
-  }
-
-  private List<Attributes> convertToListOfAttributes(List<NamingEnumeration<SearchResult>> searches) {
-    List<Attributes> list = new ArrayList<Attributes>();
-
-    for (NamingEnumeration<SearchResult> result : searches) {
-      list.addAll(convertToListOfAttributes(result));
-    }
-
-    return list;
-  }
-
-
-  private List<Attributes> convertToListOfAttributes(NamingEnumeration<SearchResult> search) {
-
-    List<Attributes> attributes = new ArrayList<Attributes>();
-
-    if (search == null) {
-      return attributes;
-    }
-
-    try {
-      while (search.hasMore()) {
-        attributes.add(search.next().getAttributes());
-      }
-    } catch (NamingException e) {
-      throw new RuntimeException(e);
-    }
-
-    return attributes;
+    return queryDirectories(searchPattern);
   }
 
 
@@ -313,7 +488,7 @@ public class LdapDirectoryAdapter implements IDirectoryAdapter {
     Set<String> studyCourses = new HashSet<String>();
     for (String userDnPattern : userDnPatterns) {
       Set<String> courses = getAllStudyCourses(userDnPattern);
-      studyCourses.addAll(studyCourses);
+      studyCourses.addAll(courses);
     }
 
     return studyCourses;
@@ -322,13 +497,11 @@ public class LdapDirectoryAdapter implements IDirectoryAdapter {
   private Set<String> getAllStudyCourses(String searchDn) {
     String concreteStudyCourseFieldName = Directory.getInstance().getLowLevelFieldName(IAbstractDirectory.STUDYCOURSE);
     String baseDn = searchDn.substring(searchDn.indexOf(",") + 1);
-    NamingEnumeration<SearchResult> results = queryDirectory("(" + concreteStudyCourseFieldName + "=*)", baseDn);
+    List<Attributes> results = queryDirectory("(" + concreteStudyCourseFieldName + "=*)", baseDn);
     Set<String> studyCourses = new HashSet<String>();
     try {
-      while (results.hasMore()) {
-
-        SearchResult result = results.next();
-        String studyCourse = new String((String) result.getAttributes().get(concreteStudyCourseFieldName).get());
+      for (Attributes result : results) {
+        String studyCourse = new String((String) result.get(concreteStudyCourseFieldName).get());
         studyCourses.add(studyCourse);
       }
     } catch (NamingException e) {
@@ -337,26 +510,166 @@ public class LdapDirectoryAdapter implements IDirectoryAdapter {
     return studyCourses;
   }
 
-  private List<NamingEnumeration<SearchResult>> queryDirectories(String searchPattern) {
-    List<NamingEnumeration<SearchResult>> results = new ArrayList<NamingEnumeration<SearchResult>>();
+  private List<Attributes> queryDirectories(String searchPattern) {
+    List<Attributes> results = new ArrayList<Attributes>();
 
     for (String pattern : userDnPatterns) {
       pattern = pattern.substring(pattern.indexOf(",") + 1);
-      results.add(queryDirectory(searchPattern, pattern));
+      results.addAll(queryDirectory(searchPattern, pattern));
     }
 
     return results;
   }
 
-  private NamingEnumeration<SearchResult> queryDirectory(String searchPattern, String directory) {
+  /**
+   * Runs the search and reads all results while the context is still borrowed.
+   */
+  private List<Attributes> queryDirectory(final String searchPattern, final String directory) {
     cleanContext();
-    NamingEnumeration<SearchResult> search = null;
     try {
-      search = dirContext.search(directory, searchPattern, defaultAttrIds, null);
+      return execute(new ContextCallback<List<Attributes>>() {
+        @Override
+        public List<Attributes> doInContext(DirContext context) throws NamingException {
+
+          List<Attributes> attributes = new ArrayList<Attributes>();
+          NamingEnumeration<SearchResult> search = context.search(directory, searchPattern, defaultAttrIds, null);
+          try {
+            while (search.hasMore()) {
+              attributes.add(search.next().getAttributes());
+            }
+          } finally {
+            search.close();
+          }
+          return attributes;
+        }
+      });
     } catch (NamingException e) {
       throw new RuntimeException(e);
     }
-    return search;
+  }
+
+  @Override
+  public void readAllUsers(Date modifiedSince, final int pageSize, final IDirectoryPageHandler<Attributes> handler)
+      throws NamingException {
+
+    cleanContext();
+
+    String filter = "(" + Directory.getInstance().getLowLevelFieldName(IAbstractDirectory.LOGIN) + "=*)";
+    if (modifiedSince != null) {
+      filter = "(&" + filter + "(" + modifiedAttribute + ">=" + formatGeneralizedTime(modifiedSince) + "))";
+    }
+    final String searchFilter = filter;
+    final SearchControls controls = new SearchControls();
+    controls.setSearchScope(SearchControls.ONELEVEL_SCOPE);
+    controls.setReturningAttributes(defaultAttrIds);
+
+    for (String pattern : userDnPatterns) {
+      final String baseDn = pattern.substring(pattern.indexOf(",") + 1);
+      execute(new ContextCallback<Void>() {
+        @Override
+        public Void doInContext(DirContext context) throws NamingException {
+
+          if (context instanceof LdapContext) {
+            readPaged((LdapContext) context, baseDn, searchFilter, controls, pageSize, handler);
+          } else {
+            readUnpaged(context, baseDn, searchFilter, controls, pageSize, handler);
+          }
+          return null;
+        }
+      });
+    }
+  }
+
+  /**
+   * Reads the search results with the paged results control, so the server never has to return more than one page at once.
+   */
+  private void readPaged(LdapContext context, String baseDn, String filter, SearchControls controls, int pageSize,
+                         IDirectoryPageHandler<Attributes> handler) throws NamingException {
+
+    byte[] cookie = null;
+    try {
+      do {
+        context.setRequestControls(new Control[]{new PagedResultsControl(pageSize, cookie, Control.CRITICAL)});
+
+        List<Attributes> page = new ArrayList<Attributes>(pageSize);
+        NamingEnumeration<SearchResult> results = context.search(baseDn, filter, controls);
+        try {
+          while (results.hasMore()) {
+            page.add(results.next().getAttributes());
+          }
+        } finally {
+          results.close();
+        }
+        if (!page.isEmpty()) {
+          handler.handlePage(page);
+        }
+
+        cookie = null;
+        Control[] responseControls = context.getResponseControls();
+        if (responseControls != null) {
+          for (Control control : responseControls) {
+            if (control instanceof PagedResultsResponseControl) {
+              cookie = ((PagedResultsResponseControl) control).getCookie();
+            }
+          }
+        }
+      } while (cookie != null && cookie.length > 0);
+    } catch (IOException e) {
+      NamingException namingException = new NamingException("could not create paged results control");
+      namingException.setRootCause(e);
+      throw namingException;
+    } finally {
+      context.setRequestControls(null);
+    }
+  }
+
+  /**
+   * Fallback for contexts without LDAP controls, the results are split into pages on the client.
+   */
+  private void readUnpaged(DirContext context, String baseDn, String filter, SearchControls controls, int pageSize,
+                           IDirectoryPageHandler<Attributes> handler) throws NamingException {
+
+    List<Attributes> page = new ArrayList<Attributes>(pageSize);
+    NamingEnumeration<SearchResult> results = context.search(baseDn, filter, controls);
+    try {
+      while (results.hasMore()) {
+        page.add(results.next().getAttributes());
+        if (page.size() == pageSize) {
+          handler.handlePage(page);
+          page = new ArrayList<Attributes>(pageSize);
+        }
+      }
+    } finally {
+      results.close();
+    }
+    if (!page.isEmpty()) {
+      handler.handlePage(page);
+    }
+  }
+
+  private static String formatGeneralizedTime(Date date) {
+
+    DateFormat format = new SimpleDateFormat("yyyyMMddHHmmss'Z'");
+    format.setTimeZone(TimeZone.getTimeZone("UTC"));
+    return format.format(date);
+  }
+
+  /**
+   * @param modifiedAttribute operational attribute holding the time of the last change of an entry.
+   */
+  public void setModifiedAttribute(String modifiedAttribute) {
+
+    this.modifiedAttribute = modifiedAttribute;
+  }
+
+  /**
+   * A lookup which runs with a borrowed directory context.
+   *
+   * @param <T> result type of the lookup.
+   */
+  private interface ContextCallback<T> {
+
+    T doInContext(DirContext context) throws NamingException;
   }
 
 }
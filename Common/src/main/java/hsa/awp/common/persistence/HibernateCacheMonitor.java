@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2010-2012 Matthias Klass, Johannes Leimer,
+ *               Rico Lieback, Sebastian Gabriel, Lothar Gesslein,
+ *               Alexander Rampp, Kai Weidner
+ *
+ * This file is part of the Physalix Enrollment System
+ *
+ * Foobar is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Foobar is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Foobar.  If not, see <http://www.gnu.org/licenses/>.
+ */
+ */
+
+package hsa.awp.common.persistence;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.ejb.HibernateEntityManagerFactory;
+import org.hibernate.stat.SecondLevelCacheStatistics;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Arrays;
+
+/**
+ * Reads the second-level cache metrics from the hibernate {@link Statistics}. Requires <code>hibernate.generate_statistics</code>
+ * to be enabled, otherwise all counters stay at zero.
+ */
+public class HibernateCacheMonitor implements ICacheMonitor {
+  /**
+   * Standard logger.
+   */
+  private Logger logger = LoggerFactory.getLogger(HibernateCacheMonitor.class);
+
+  /**
+   * The monitored {@link SessionFactory}.
+   */
+  private SessionFactory sessionFactory;
+
+  /**
+   * Creates a new {@link HibernateCacheMonitor}.
+   *
+   * @param entityManagerFactory the {@link EntityManagerFactory} whose cache is monitored. Has to be backed by hibernate.
+   */
+  public HibernateCacheMonitor(EntityManagerFactory entityManagerFactory) {
+
+    if (!(entityManagerFactory instanceof HibernateEntityManagerFactory)) {
+      throw new IllegalArgumentException("no hibernate entityManagerFactory given");
+    }
+    this.sessionFactory = ((HibernateEntityManagerFactory) entityManagerFactory).getSessionFactory();
+  }
+
+  @Override
+  public String[] getRegionNames() {
+
+    String[] names = getStatistics().getSecondLevelCacheRegionNames();
+    Arrays.sort(names);
+    return names;
+  }
+
+  @Override
+  public String[] getRegionStatistics() {
+
+    String[] names = getRegionNames();
+    String[] lines = new String[names.length];
+    for (int i = 0; i < names.length; i++) {
+      SecondLevelCacheStatistics region = getStatistics().getSecondLevelCacheStatistics(names[i]);
+      lines[i] = names[i] + ": hits=" + region.getHitCount() + ", misses=" + region.getMissCount() + ", puts="
+          + region.getPutCount() + ", elements=" + region.getElementCountInMemory();
+    }
+    return lines;
+  }
+
+  @Override
+  public long getHitCount(String region) {
+
+    SecondLevelCacheStatistics statistics = getRegion(region);
+    return statistics == null ? -1 : statistics.getHitCount();
+  }
+
+  @Override
+  public long getMissCount(String region) {
+
+    SecondLevelCacheStatistics statistics = getRegion(region);
+    return statistics == null ? -1 : statistics.getMissCount();
+  }
+
+  @Override
+  public long getPutCount(String region) {
+
+    SecondLevelCacheStatistics statistics = getRegion(region);
+    return statistics == null ? -1 : statistics.getPutCount();
+  }
+
+  @Override
+  public long getElementCount(String region) {
+
+    SecondLevelCacheStatistics statistics = getRegion(region);
+    return statistics == null ? -1 : statistics.getElementCountInMemory();
+  }
+
+  @Override
+  public long getQueryCacheHitCount() {
+
+    return getStatistics().getQueryCacheHitCount();
+  }
+
+  @Override
+  public long getQueryCacheMissCount() {
+
+    return getStatistics().getQueryCacheMissCount();
+  }
+
+  @Override
+  public void evictAll() {
+
+    logger.info("evicting the whole second-level cache");
+    for (Object entityName : sessionFactory.getAllClassMetadata().keySet()) {
+      sessionFactory.evictEntity((String) entityName);
+    }
+    for (Object role : sessionFactory.getAllCollectionMetadata().keySet()) {
+      sessionFactory.evictCollection((String) role);
+    }
+    sessionFactory.evictQueries();
+    for (String region : getRegionNames()) {
+      sessionFactory.evictQueries(region);
+    }
+  }
+
+  @Override
+  public void resetStatistics() {
+
+    getStatistics().clear();
+  }
+
+  /**
+   * Returns the statistics of the given region.
+   *
+   * @param region name of the region.
+   * @return the statistics or <code>null</code> if there is no such region.
+   */
+  private SecondLevelCacheStatistics getRegion(String region) {
+
+    if (region == null) {
+      throw new IllegalArgumentException("no region given");
+    }
+    return getStatistics().getSecondLevelCacheStatistics(region);
+  }
+
+  private Statistics getStatistics() {
+
+    return sessionFactory.getStatistics();
+  }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2010-2012 Matthias Klass, Johannes Leimer,
+ *               Rico Lieback, Sebastian Gabriel, Lothar Gesslein,
+ *               Alexander Rampp, Kai Weidner
+ *
+ * This file is part of the Physalix Enrollment System
+ *
+ * Foobar is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Foobar is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Foobar.  If not, see <http://www.gnu.org/licenses/>.
+ */
+ */
+
+package hsa.awp.common.persistence;
+
+/**
+ * Metrics of the second-level cache.
+ */
+public interface ICacheMonitor {
+  /**
+   * Returns the names of all second-level cache regions.
+   *
+   * @return region names.
+   */
+  String[] getRegionNames();
+
+  /**
+   * Returns one line per region containing hits, misses, puts and the number of cached elements.
+   *
+   * @return region statistics.
+   */
+  String[] getRegionStatistics();
+
+  /**
+   * Returns the number of successful lookups in the given region.
+   *
+   * @param region name of the region.
+   * @return hits or -1 if the region does not exist.
+   */
+  long getHitCount(String region);
+
+  /**
+   * Returns the number of lookups in the given region which had to go to the database.
+   *
+   * @param region name of the region.
+   * @return misses or -1 if the region does not exist.
+   */
+  long getMissCount(String region);
+
+  /**
+   * Returns the number of elements put into the given region.
+   *
+   * @param region name of the region.
+   * @return puts or -1 if the region does not exist.
+   */
+  long getPutCount(String region);
+
+  /**
+   * Returns the number of elements currently held in memory by the given region.
+   *
+   * @param region name of the region.
+   * @return element count or -1 if the region does not exist.
+   */
+  long getElementCount(String region);
+
+  /**
+   * Returns the number of query results which could be taken from the query cache.
+   *
+   * @return query cache hits.
+   */
+  long getQueryCacheHitCount();
+
+  /**
+   * Returns the number of queries which had to be executed although they are cacheable.
+   *
+   * @return query cache misses.
+   */
+  long getQueryCacheMissCount();
+
+  /**
+   * Removes all entities, collections and query results from the second-level cache. Needed after the database has been changed
+   * without going through the application.
+   */
+  void evictAll();
+
+  /**
+   * Resets all counters.
+   */
+  void resetStatistics();
+}
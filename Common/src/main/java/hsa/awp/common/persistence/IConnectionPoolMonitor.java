@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2010-2012 Matthias Klass, Johannes Leimer,
+ *               Rico Lieback, Sebastian Gabriel, Lothar Gesslein,
+ *               Alexander Rampp, Kai Weidner
+ *
+ * This file is part of the Physalix Enrollment System
+ *
+ * Foobar is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Foobar is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Foobar.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package hsa.awp.common.persistence;
+
+/**
+ * Metrics of a JDBC connection pool.
+ */
+public interface IConnectionPoolMonitor {
+  /**
+   * Returns the number of connections currently checked out of the pool.
+   *
+   * @return active connections or -1 if the pool cannot be queried.
+   */
+  int getActiveConnections();
+
+  /**
+   * Returns the number of connections currently waiting in the pool.
+   *
+   * @return idle connections or -1 if the pool cannot be queried.
+   */
+  int getIdleConnections();
+
+  /**
+   * Returns the total number of connections held by the pool.
+   *
+   * @return total connections or -1 if the pool cannot be queried.
+   */
+  int getTotalConnections();
+
+  /**
+   * Returns the number of threads currently waiting for a connection.
+   *
+   * @return waiting threads or -1 if the pool cannot be queried.
+   */
+  int getWaitingThreads();
+
+  /**
+   * Returns how many connections were requested since the last reset.
+   *
+   * @return number of requests.
+   */
+  long getConnectionRequests();
+
+  /**
+   * Returns the average time in milliseconds a request had to wait for a connection.
+   *
+   * @return average wait time.
+   */
+  double getAverageWaitMillis();
+
+  /**
+   * Returns the longest time in milliseconds a request had to wait for a connection.
+   *
+   * @return maximum wait time.
+   */
+  long getMaxWaitMillis();
+
+  /**
+   * Resets the request and wait time counters.
+   */
+  void resetStatistics();
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2010-2012 Matthias Klass, Johannes Leimer,
+ *               Rico Lieback, Sebastian Gabriel, Lothar Gesslein,
+ *               Alexander Rampp, Kai Weidner
+ *
+ * This file is part of the Physalix Enrollment System
+ *
+ * Foobar is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Foobar is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Foobar.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package hsa.awp.common.persistence;
+
+import com.mchange.v2.c3p0.PooledDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * DataSource which delegates to a c3p0 connection pool and records how long callers have to wait for a connection.
+ */
+public class MonitoredDataSource extends DelegatingDataSource implements IConnectionPoolMonitor {
+  /**
+   * Standard logger.
+   */
+  private Logger logger = LoggerFactory.getLogger(MonitoredDataSource.class);
+
+  /**
+   * The connection pool.
+   */
+  private PooledDataSource pool;
+
+  /**
+   * Number of connection requests.
+   */
+  private final AtomicLong requests = new AtomicLong();
+
+  /**
+   * Summed up wait time of all requests in nanoseconds.
+   */
+  private final AtomicLong totalWait = new AtomicLong();
+
+  /**
+   * Longest wait time in nanoseconds.
+   */
+  private final AtomicLong maxWait = new AtomicLong();
+
+  /**
+   * Wait time in milliseconds from which on a warning is logged.
+   */
+  private long warnThresholdMillis = 1000;
+
+  /**
+   * Creates a new {@link MonitoredDataSource}.
+   *
+   * @param pool the connection pool to monitor.
+   */
+  public MonitoredDataSource(PooledDataSource pool) {
+
+    super(pool);
+    if (pool == null) {
+      throw new IllegalArgumentException("no pool given");
+    }
+    this.pool = pool;
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+
+    long start = System.nanoTime();
+    try {
+      return super.getConnection();
+    } finally {
+      record(System.nanoTime() - start);
+    }
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+
+    long start = System.nanoTime();
+    try {
+      return super.getConnection(username, password);
+    } finally {
+      record(System.nanoTime() - start);
+    }
+  }
+
+  /**
+   * Adds a wait time to the statistics.
+   *
+   * @param nanos wait time in nanoseconds.
+   */
+  private void record(long nanos) {
+
+    requests.incrementAndGet();
+    totalWait.addAndGet(nanos);
+
+    long max = maxWait.get();
+    while (nanos > max && !maxWait.compareAndSet(max, nanos)) {
+      max = maxWait.get();
+    }
+
+    long millis = nanos / 1000000L;
+    if (millis >= warnThresholdMillis) {
+      logger.warn("waited {} ms for a database connection", millis);
+    }
+  }
+
+  @Override
+  public int getActiveConnections() {
+
+    try {
+      return pool.getNumBusyConnectionsDefaultUser();
+    } catch (SQLException e) {
+      logger.warn("cannot query connection pool", e);
+      return -1;
+    }
+  }
+
+  @Override
+  public int getIdleConnections() {
+
+    try {
+      return pool.getNumIdleConnectionsDefaultUser();
+    } catch (SQLException e) {
+      logger.warn("cannot query connection pool", e);
+      return -1;
+    }
+  }
+
+  @Override
+  public int getTotalConnections() {
+
+    try {
+      return pool.getNumConnectionsDefaultUser();
+    } catch (SQLException e) {
+      logger.warn("cannot query connection pool", e);
+      return -1;
+    }
+  }
+
+  @Override
+  public int getWaitingThreads() {
+
+    try {
+      return pool.getNumThreadsAwaitingCheckoutDefaultUser();
+    } catch (SQLException e) {
+      logger.warn("cannot query connection pool", e);
+      return -1;
+    }
+  }
+
+  @Override
+  public long getConnectionRequests() {
+
+    return requests.get();
+  }
+
+  @Override
+  public double getAverageWaitMillis() {
+
+    long count = requests.get();
+    if (count == 0) {
+      return 0;
+    }
+    return totalWait.get() / 1000000.0 / count;
+  }
+
+  @Override
+  public long getMaxWaitMillis() {
+
+    return maxWait.get() / 1000000L;
+  }
+
+  @Override
+  public void resetStatistics() {
+
+    requests.set(0);
+    totalWait.set(0);
+    maxWait.set(0);
+  }
+
+  /**
+   * Sets the wait time from which on a warning is logged.
+   *
+   * @param warnThresholdMillis threshold in milliseconds.
+   */
+  public void setWarnThresholdMillis(long warnThresholdMillis) {
+
+    this.warnThresholdMillis = warnThresholdMillis;
+  }
+}
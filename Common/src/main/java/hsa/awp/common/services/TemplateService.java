@@ -26,18 +26,46 @@ import hsa.awp.common.model.TemplateDetail;
 import hsa.awp.common.model.TemplateType;
 import org.apache.velocity.Template;
 import org.apache.velocity.app.VelocityEngine;
-import org.apache.velocity.exception.ResourceNotFoundException;
 import org.apache.velocity.runtime.RuntimeConstants;
 import org.apache.velocity.runtime.resource.loader.ClasspathResourceLoader;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Loads the mail templates of a mandator and falls back to the default templates shipped in the jar.
+ * <p/>
+ * Parsed {@link Template}s are cached per {@link TemplateDetail}. A mandator without an own template file is cached
+ * as well (pointing to the default template), so bulk mail rendering neither touches the file system nor relies on
+ * exceptions after the first lookup. Entries written through {@link #saveTemplate(String, TemplateDetail)} are
+ * invalidated immediately, all other entries are reloaded once they are older than {@link #setMaxAge(long)}, so
+ * templates changed by another application pick up after a while.
+ */
 public class TemplateService {
 
+  /**
+   * Default maximum age of a cached template in milliseconds.
+   */
+  public static final long DEFAULT_MAX_AGE = 5 * 60 * 1000L;
+
   private VelocityEngine velocityEngine;
   private VelocityEngine jarVelocityEngine;
 
   private ITemplateDao templateFileSystemDao;
   private ITemplateDao templateJarDao;
 
+  private final ConcurrentMap<TemplateDetail, CachedTemplate> templateCache =
+      new ConcurrentHashMap<TemplateDetail, CachedTemplate>();
+
+  private final ConcurrentMap<TemplateType, Template> defaultTemplates = new ConcurrentHashMap<TemplateType, Template>();
+
+  private final AtomicLong cacheHits = new AtomicLong();
+
+  private final AtomicLong cacheMisses = new AtomicLong();
+
+  private long maxAge = DEFAULT_MAX_AGE;
+
   public TemplateService() {
     jarVelocityEngine = new VelocityEngine();
     jarVelocityEngine.setProperty(RuntimeConstants.RESOURCE_LOADER, "classpath");
@@ -46,15 +74,31 @@ public class TemplateService {
   }
 
   public Template loadVelocityTemplate(TemplateDetail templateDetail) {
-    try {
-      return velocityEngine.getTemplate(generateFileName(templateDetail));
-    } catch (ResourceNotFoundException e) {
-      return jarVelocityEngine.getTemplate("templates/" + templateDetail.getTemplateType().getFileName());
+
+    CachedTemplate cached = templateCache.get(templateDetail);
+    long now = System.currentTimeMillis();
+    if (cached != null && now - cached.loadedAt < maxAge) {
+      cacheHits.incrementAndGet();
+      return cached.template;
+    }
+
+    cacheMisses.incrementAndGet();
+    String fileName = generateFileName(templateDetail);
+    Template template;
+    if (velocityEngine.resourceExists(fileName)) {
+      template = velocityEngine.getTemplate(fileName);
+    } else {
+      template = loadDefaultVelocityTemplate(templateDetail.getTemplateType());
     }
+
+    templateCache.put(copyOf(templateDetail), new CachedTemplate(template, now));
+    return template;
   }
 
   public void saveTemplate(String content, TemplateDetail templateDetail) {
+
     templateFileSystemDao.saveTemplate(content, templateDetail);
+    invalidate(templateDetail);
   }
 
   public String loadTemplate(TemplateDetail templateDetail) {
@@ -62,7 +106,7 @@ public class TemplateService {
     String content = templateFileSystemDao.loadTemplate(templateDetail);
     if (content == null || "".equals(content)) {
       content = templateJarDao.loadTemplate(templateDetail);
-      templateFileSystemDao.saveTemplate(content, templateDetail);
+      saveTemplate(content, templateDetail);
     }
     return content;
   }
@@ -71,6 +115,56 @@ public class TemplateService {
     return templateJarDao.loadTemplate(templateDetail);
   }
 
+  /**
+   * Removes the cached template of the given mandator and {@link TemplateType}.
+   *
+   * @param templateDetail mandator and type of the template.
+   */
+  public void invalidate(TemplateDetail templateDetail) {
+
+    templateCache.remove(templateDetail);
+  }
+
+  /**
+   * Removes all cached templates.
+   */
+  public void invalidateAll() {
+
+    templateCache.clear();
+  }
+
+  /**
+   * Returns the number of {@link #loadVelocityTemplate(TemplateDetail)} calls served from the cache.
+   *
+   * @return number of cache hits.
+   */
+  public long getCacheHits() {
+    return cacheHits.get();
+  }
+
+  /**
+   * Returns the number of {@link #loadVelocityTemplate(TemplateDetail)} calls which had to load the template.
+   *
+   * @return number of cache misses.
+   */
+  public long getCacheMisses() {
+    return cacheMisses.get();
+  }
+
+  private Template loadDefaultVelocityTemplate(TemplateType templateType) {
+
+    Template template = defaultTemplates.get(templateType);
+    if (template == null) {
+      template = jarVelocityEngine.getTemplate("templates/" + templateType.getFileName());
+      defaultTemplates.put(templateType, template);
+    }
+    return template;
+  }
+
+  private TemplateDetail copyOf(TemplateDetail templateDetail) {
+    return TemplateDetail.getInstance(templateDetail.getMandatorId(), templateDetail.getTemplateType());
+  }
+
   private String generateFileName(TemplateDetail templateDetail) {
     Long mandatorId = templateDetail.getMandatorId();
     TemplateType templateType = templateDetail.getTemplateType();
@@ -83,6 +177,7 @@ public class TemplateService {
 
   public void setVelocityEngine(VelocityEngine velocityEngine) {
     this.velocityEngine = velocityEngine;
+    invalidateAll();
   }
 
   public void setTemplateFileSystemDao(ITemplateDao templateFileSystemDao) {
@@ -92,4 +187,23 @@ public class TemplateService {
   public void setTemplateJarDao(ITemplateDao templateJarDao) {
     this.templateJarDao = templateJarDao;
   }
+
+  public void setMaxAge(long maxAge) {
+    this.maxAge = maxAge;
+  }
+
+  /**
+   * A parsed template together with the time it was loaded.
+   */
+  private static final class CachedTemplate {
+
+    private final Template template;
+
+    private final long loadedAt;
+
+    private CachedTemplate(Template template, long loadedAt) {
+      this.template = template;
+      this.loadedAt = loadedAt;
+    }
+  }
 }
@@ -28,6 +28,7 @@ import org.springframework.transaction.support.TransactionSynchronizationManager
 
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
+import java.util.Collection;
 
 /**
  * Utility class for standard actions on an {@link EntityManager}.
@@ -61,6 +62,30 @@ public final class EntityManagerUtil {
     }
   }
 
+  /**
+   * Detaches the given entities from the {@link EntityManager} bound to the current Thread, so that they can be garbage
+   * collected while the {@link EntityManager} stays open. Other entities of the persistence context stay managed. Nothing
+   * happens if no {@link EntityManager} is bound.
+   *
+   * @param entities entities to detach. Entities which are not managed are ignored.
+   */
+  public static void detach(Collection<?> entities) {
+
+    EntityManager em = getEntityManagerFromThread();
+    if (em == null) {
+      return;
+    }
+
+    int detached = 0;
+    for (Object entity : entities) {
+      if (entity != null && em.contains(entity)) {
+        em.detach(entity);
+        detached++;
+      }
+    }
+    log.trace("detached {} entities", detached);
+  }
+
   /**
    * Setter for the {@link EntityManagerFactory} used for finding a pre-bound {@link EntityManager} in the current
    * {@link ThreadLocal}s.
@@ -0,0 +1,288 @@
+/*
+ * Copyright (c) 2010-2012 Matthias Klass, Johannes Leimer,
+ *               Rico Lieback, Sebastian Gabriel, Lothar Gesslein,
+ *               Alexander Rampp, Kai Weidner
+ *
+ * This file is part of the Physalix Enrollment System
+ *
+ * Foobar is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Foobar is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Foobar.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package hsa.awp.common.mail;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.mail.Address;
+import javax.mail.Message;
+import javax.mail.MessagingException;
+import javax.mail.Provider;
+import javax.mail.SendFailedException;
+import javax.mail.Session;
+import javax.mail.Transport;
+import javax.mail.URLName;
+import javax.mail.internet.MimeMessage;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests the {@link MailQueue} against a {@link TestTransport} which records the sent mails.
+ */
+public class MailQueueTest {
+  private File directory;
+
+  private MailQueue mailQueue;
+
+  private MailSource mailSource;
+
+  @Before
+  public void setUp() throws IOException {
+
+    TestTransport.reset();
+
+    directory = File.createTempFile("mailqueue", "");
+    directory.delete();
+
+    mailSource = new TestMailSource();
+
+    mailQueue = new MailQueue();
+    mailQueue.setEnabled(true);
+    mailQueue.setMailSource(mailSource);
+    mailQueue.setDirectory(directory);
+    mailQueue.setWorkers(1);
+    mailQueue.setInitialBackoffMillis(10);
+    mailQueue.setMaxBackoffMillis(50);
+    mailQueue.setMaxAttempts(3);
+  }
+
+  @After
+  public void tearDown() {
+
+    mailQueue.stop();
+    delete(directory);
+  }
+
+  @Test
+  public void testSend() throws InterruptedException {
+
+    mailQueue.start();
+    IMailHandle handle = mailQueue.enqueue(createMail("to@example.org"));
+
+    assertTrue(handle.await(5, TimeUnit.SECONDS));
+    assertEquals(IMailHandle.State.SENT, handle.getState());
+    assertEquals(1, handle.getAttempts());
+    assertEquals(1, TestTransport.sent.size());
+    assertFalse(new File(directory, handle.getId() + ".eml").exists());
+  }
+
+  @Test
+  public void testRetry() throws InterruptedException {
+
+    TestTransport.failures.set(2);
+    mailQueue.start();
+    IMailHandle handle = mailQueue.enqueue(createMail("to@example.org"));
+
+    assertTrue(handle.await(5, TimeUnit.SECONDS));
+    assertEquals(IMailHandle.State.SENT, handle.getState());
+    assertEquals(3, handle.getAttempts());
+    assertEquals(1, TestTransport.sent.size());
+  }
+
+  @Test
+  public void testGiveUpAfterMaxAttempts() throws InterruptedException {
+
+    TestTransport.failures.set(Integer.MAX_VALUE);
+    mailQueue.start();
+    IMailHandle handle = mailQueue.enqueue(createMail("to@example.org"));
+
+    assertTrue(handle.await(5, TimeUnit.SECONDS));
+    assertEquals(IMailHandle.State.FAILED, handle.getState());
+    assertEquals(3, handle.getAttempts());
+    assertEquals(0, TestTransport.sent.size());
+    assertTrue(new File(new File(directory, "failed"), handle.getId() + ".eml").isFile());
+    assertFalse(new File(directory, handle.getId() + ".eml").exists());
+  }
+
+  @Test
+  public void testRejected() throws InterruptedException {
+
+    TestTransport.rejected = true;
+    mailQueue.start();
+    IMailHandle handle = mailQueue.enqueue(createMail("to@example.org"));
+
+    assertTrue(handle.await(5, TimeUnit.SECONDS));
+    assertEquals(IMailHandle.State.FAILED, handle.getState());
+    assertEquals(1, handle.getAttempts());
+    assertTrue(new File(new File(directory, "failed"), handle.getId() + ".eml").isFile());
+  }
+
+  @Test
+  public void testRecover() throws MessagingException, IOException, InterruptedException {
+
+    directory.mkdirs();
+    MimeMessage message = createMail("recovered@example.org").createMessage(mailSource.getSession());
+    OutputStream out = new FileOutputStream(new File(directory, "recovered.eml"));
+    try {
+      message.writeTo(out);
+    } finally {
+      out.close();
+    }
+    out = new FileOutputStream(new File(directory, "incomplete.eml.tmp"));
+    try {
+      out.write("Subject: trunc".getBytes("US-ASCII"));
+    } finally {
+      out.close();
+    }
+
+    mailQueue.start();
+    assertFalse(new File(directory, "incomplete.eml.tmp").exists());
+
+    long deadline = System.currentTimeMillis() + 5000;
+    while (TestTransport.sent.isEmpty() && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertEquals(1, TestTransport.sent.size());
+    assertEquals("recovered@example.org", TestTransport.sent.get(0).getAllRecipients()[0].toString());
+    while (new File(directory, "recovered.eml").exists() && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertFalse(new File(directory, "recovered.eml").exists());
+  }
+
+  @Test
+  public void testSpoolDirectoryIsLocked() {
+
+    mailQueue.start();
+
+    MailQueue other = new MailQueue();
+    other.setEnabled(true);
+    other.setMailSource(mailSource);
+    other.setDirectory(directory);
+    try {
+      other.start();
+      fail("the spool directory is used by the first queue");
+    } catch (IllegalStateException e) {
+      assertFalse(other.isRunning());
+    }
+
+    mailQueue.stop();
+    other.start();
+    assertTrue(other.isRunning());
+    other.stop();
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testDisabled() {
+
+    mailQueue.setEnabled(false);
+    mailQueue.start();
+
+    assertFalse(mailQueue.isRunning());
+    assertFalse(directory.exists());
+    mailQueue.enqueue(createMail("to@example.org"));
+  }
+
+  private Mail createMail(String recipient) {
+
+    Mail mail = new Mail(recipient, "subject", "message", "from@example.org");
+    mail.setMailSource(mailSource);
+    return mail;
+  }
+
+  private static void delete(File file) {
+
+    File[] children = file.listFiles();
+    if (children != null) {
+      for (File child : children) {
+        delete(child);
+      }
+    }
+    file.delete();
+  }
+
+  /**
+   * {@link MailSource} creating sessions which use the {@link TestTransport}.
+   */
+  private static class TestMailSource extends MailSource {
+    @Override
+    public Session getSession() {
+
+      Properties props = new Properties();
+      props.put("mail.transport.protocol", "test");
+
+      Session session = Session.getInstance(props);
+      session.addProvider(new Provider(Provider.Type.TRANSPORT, "test", TestTransport.class.getName(), "physalix", null));
+      return session;
+    }
+  }
+
+  /**
+   * Transport which records the sent mails instead of sending them.
+   */
+  public static class TestTransport extends Transport {
+    private static final List<Message> sent = new CopyOnWriteArrayList<Message>();
+
+    /**
+     * Number of attempts which fail before mails are sent.
+     */
+    private static final AtomicInteger failures = new AtomicInteger();
+
+    /**
+     * Whether the recipients are rejected.
+     */
+    private static volatile boolean rejected = false;
+
+    public TestTransport(Session session, URLName urlName) {
+
+      super(session, urlName);
+    }
+
+    private static void reset() {
+
+      sent.clear();
+      failures.set(0);
+      rejected = false;
+    }
+
+    @Override
+    protected boolean protocolConnect(String host, int port, String user, String password) {
+
+      return true;
+    }
+
+    @Override
+    public void sendMessage(Message message, Address[] addresses) throws MessagingException {
+
+      if (rejected) {
+        throw new SendFailedException("rejected", null, new Address[0], new Address[0], addresses);
+      } else if (failures.getAndDecrement() > 0) {
+        throw new MessagingException("connection lost");
+      }
+      sent.add(message);
+    }
+  }
+}
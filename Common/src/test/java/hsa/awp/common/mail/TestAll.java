@@ -30,7 +30,8 @@ import org.junit.runners.Suite.SuiteClasses;
  */
 @RunWith(Suite.class)
 @SuiteClasses({
-    MailSourceTest.class
+    MailSourceTest.class,
+    MailQueueTest.class
 })
 public class TestAll {
 }
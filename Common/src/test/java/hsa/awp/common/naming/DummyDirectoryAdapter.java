@@ -120,6 +120,22 @@ public class DummyDirectoryAdapter implements IDirectoryAdapter {
     return Collections.emptySet();  //To change body of implemented methods use File | Settings | File Templates.
   }
 
+  @Override
+  public void readAllUsers(Date modifiedSince, int pageSize, IDirectoryPageHandler<Attributes> handler) {
+
+    List<Attributes> page = new ArrayList<Attributes>();
+    for (Attributes attributes : uid2user.values()) {
+      page.add(selectConfiguredAttributes(attributes));
+      if (page.size() == pageSize) {
+        handler.handlePage(page);
+        page = new ArrayList<Attributes>();
+      }
+    }
+    if (!page.isEmpty()) {
+      handler.handlePage(page);
+    }
+  }
+
   /**
    * Returns the dummy users of this class.
    *
@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2010-2012 Matthias Klass, Johannes Leimer,
+ *               Rico Lieback, Sebastian Gabriel, Lothar Gesslein,
+ *               Alexander Rampp, Kai Weidner
+ *
+ * This file is part of the Physalix Enrollment System
+ *
+ * Foobar is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Foobar is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Foobar.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package hsa.awp.common.naming;
+
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+import com.unboundid.ldap.listener.InMemoryDirectoryServerConfig;
+import com.unboundid.ldap.listener.InMemoryListenerConfig;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import javax.naming.NamingException;
+import javax.naming.directory.Attributes;
+import javax.naming.directory.BasicAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.fail;
+
+/**
+ * Runs the {@link LdapDirectoryAdapter} against an in-process LDAP server and checks the attribute cache.
+ */
+public class LdapDirectoryAdapterCacheTest {
+
+  private static InMemoryDirectoryServer server;
+
+  private LdapDirectoryAdapter adapter;
+
+  @BeforeClass
+  public static void startServer() throws Exception {
+
+    InMemoryDirectoryServerConfig config = new InMemoryDirectoryServerConfig("dc=domain,dc=com");
+    config.setListenerConfigs(InMemoryListenerConfig.createLDAPConfig("default", 0));
+    config.setSchema(null);
+
+    server = new InMemoryDirectoryServer(config);
+    server.add("dn: dc=domain,dc=com", "objectClass: top", "objectClass: domain", "dc: domain");
+    server.add("dn: ou=People,dc=domain,dc=com", "objectClass: top", "objectClass: organizationalUnit", "ou: People");
+    server.add("dn: uid=hans,ou=People,dc=domain,dc=com", "objectClass: top", "objectClass: person", "uid: hans",
+        "uidNumber: 1000", "mail: hans@domain.com");
+    server.startListening();
+
+    Properties mapping = new Properties();
+    mapping.put("LOGIN", "uid");
+    mapping.put("UUID", "uidNumber");
+    mapping.put("EMAIL", "mail");
+    Directory.getInstance().setFieldMapping(mapping);
+  }
+
+  @AfterClass
+  public static void stopServer() {
+
+    server.shutDown(true);
+  }
+
+  @Before
+  public void setUp() {
+
+    adapter = new LdapDirectoryAdapter();
+    adapter.setProviderURL("ldap://localhost:" + server.getListenPort());
+    adapter.setSecurityAuthentication("none");
+    adapter.setUserDnPatterns(new String[]{"uid={0},ou=People,dc=domain,dc=com"});
+    adapter.setDefaultAttrIds("uid,uidNumber,mail");
+    adapter.setPoolSize(2);
+  }
+
+  @Test
+  public void testUsernameLookupIsCached() throws Exception {
+
+    Attributes first = adapter.getAttributes("hans");
+    Attributes second = adapter.getAttributes("hans");
+
+    assertEquals("hans", first.get("uid").get());
+    assertEquals("hans@domain.com", second.get("mail").get());
+    assertNotSame(first, second);
+    assertEquals(1, adapter.getCacheMisses());
+    assertEquals(1, adapter.getCacheHits());
+  }
+
+  @Test
+  public void testUuidLookupIsCached() throws Exception {
+
+    assertEquals("hans", adapter.getAttributes(1000L).get("uid").get());
+    assertEquals("hans", adapter.getAttributes(1000L).get("uid").get());
+
+    assertEquals(1, adapter.getCacheMisses());
+    assertEquals(1, adapter.getCacheHits());
+  }
+
+  @Test
+  public void testUnknownUserIsNotCached() throws Exception {
+
+    for (int i = 0; i < 2; i++) {
+      try {
+        adapter.getAttributes("nobody");
+        fail("NamingException expected");
+      } catch (NamingException e) {
+        // expected
+      }
+    }
+    assertEquals(2, adapter.getCacheMisses());
+  }
+
+  @Test
+  public void testConcurrentLookupsShareOneLoad() throws Exception {
+
+    final int threads = 8;
+    final AtomicInteger loads = new AtomicInteger();
+    final CountDownLatch release = new CountDownLatch(1);
+    final AttributeCache<String> cache = new AttributeCache<String>(60000, 10);
+    final AttributeCache.Loader<String> loader = new AttributeCache.Loader<String>() {
+      @Override
+      public Attributes load(String key) throws NamingException {
+
+        loads.incrementAndGet();
+        try {
+          release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        return new BasicAttributes("uid", key);
+      }
+    };
+
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<Attributes>> results = new ArrayList<Future<Attributes>>();
+      for (int i = 0; i < threads; i++) {
+        results.add(executor.submit(new Callable<Attributes>() {
+          @Override
+          public Attributes call() throws Exception {
+
+            return cache.get("hans", loader);
+          }
+        }));
+      }
+      while (cache.getHits() + cache.getMisses() < threads) {
+        Thread.sleep(10);
+      }
+      release.countDown();
+
+      for (Future<Attributes> result : results) {
+        assertEquals("hans", result.get().get("uid").get());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertEquals(1, loads.get());
+    assertEquals(1, cache.getMisses());
+    assertEquals(threads - 1, cache.getHits());
+  }
+
+  @Test
+  public void testSizeBound() throws Exception {
+
+    AttributeCache<String> cache = new AttributeCache<String>(60000, 2);
+    AttributeCache.Loader<String> loader = new AttributeCache.Loader<String>() {
+      @Override
+      public Attributes load(String key) throws NamingException {
+
+        return new BasicAttributes("uid", key);
+      }
+    };
+
+    cache.get("a", loader);
+    cache.get("b", loader);
+    cache.get("c", loader);
+
+    assertEquals(2, cache.size());
+  }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2010-2012 Matthias Klass, Johannes Leimer,
+ *               Rico Lieback, Sebastian Gabriel, Lothar Gesslein,
+ *               Alexander Rampp, Kai Weidner
+ *
+ * This file is part of the Physalix Enrollment System
+ *
+ * Foobar is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Foobar is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Foobar.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package hsa.awp.common.services;
+
+import hsa.awp.common.dao.template.ITemplateDao;
+import hsa.awp.common.model.TemplateDetail;
+import hsa.awp.common.model.TemplateType;
+import org.apache.velocity.Template;
+import org.apache.velocity.app.VelocityEngine;
+import org.apache.velocity.runtime.RuntimeConstants;
+import org.apache.velocity.runtime.resource.loader.ClasspathResourceLoader;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+
+public class TemplateServiceCacheTest {
+
+  private TemplateService templateService;
+
+  private int saved;
+
+  @Before
+  public void setUp() {
+
+    VelocityEngine engine = new VelocityEngine();
+    engine.setProperty(RuntimeConstants.RESOURCE_LOADER, "classpath");
+    engine.setProperty("classpath.resource.loader.class", ClasspathResourceLoader.class.getName());
+    engine.init();
+
+    saved = 0;
+    templateService = new TemplateService();
+    templateService.setVelocityEngine(engine);
+    templateService.setTemplateFileSystemDao(new ITemplateDao() {
+      @Override
+      public void saveTemplate(String content, TemplateDetail templateDetail) {
+        saved++;
+      }
+
+      @Override
+      public String loadTemplate(TemplateDetail templateDetail) {
+        return "";
+      }
+    });
+  }
+
+  @Test
+  public void testMissingMandatorTemplateIsCached() {
+
+    Template first = templateService.loadVelocityTemplate(TemplateDetail.getInstance(1L, TemplateType.DRAWN));
+    Template second = templateService.loadVelocityTemplate(TemplateDetail.getInstance(1L, TemplateType.DRAWN));
+
+    assertNotNull(first);
+    assertSame(first, second);
+    assertEquals(1, templateService.getCacheMisses());
+    assertEquals(1, templateService.getCacheHits());
+  }
+
+  @Test
+  public void testDefaultTemplateIsSharedBetweenMandators() {
+
+    Template first = templateService.loadVelocityTemplate(TemplateDetail.getInstance(1L, TemplateType.FIFO));
+    Template second = templateService.loadVelocityTemplate(TemplateDetail.getInstance(2L, TemplateType.FIFO));
+
+    assertSame(first, second);
+    assertEquals(2, templateService.getCacheMisses());
+  }
+
+  @Test
+  public void testSaveTemplateInvalidatesCache() {
+
+    TemplateDetail detail = TemplateDetail.getInstance(1L, TemplateType.DRAWN_NO_LUCK);
+    templateService.loadVelocityTemplate(detail);
+    templateService.saveTemplate("content", detail);
+    templateService.loadVelocityTemplate(detail);
+
+    assertEquals(1, saved);
+    assertEquals(2, templateService.getCacheMisses());
+    assertEquals(0, templateService.getCacheHits());
+  }
+
+  @Test
+  public void testExpiredEntriesAreReloaded() {
+
+    templateService.setMaxAge(-1);
+    TemplateDetail detail = TemplateDetail.getInstance(1L, TemplateType.DRAWN);
+    templateService.loadVelocityTemplate(detail);
+    templateService.loadVelocityTemplate(detail);
+
+    assertEquals(2, templateService.getCacheMisses());
+  }
+}
@@ -317,6 +317,38 @@ public abstract class GenericDaoTest<T extends IGenericDomainModel<K>, D extends
     commit();
   }
 
+  /**
+   * Generates three objects and looks them up at once. The result has to keep the requested order and skip unknown ids.
+   */
+  @Test
+  public void testFindByIds() {
+
+    List<T> objects = generateAndPersistObjects(3);
+
+    List<K> ids = new ArrayList<K>();
+    ids.add(objects.get(2).getId());
+    ids.add(objects.get(0).getId());
+    ids.add(factory.getInstance().getId());
+    ids.add(objects.get(1).getId());
+
+    startTransaction();
+    List<T> result = getDao().findByIds(ids);
+    commit();
+    assertEquals(3, result.size());
+    assertEquals(objects.get(2), result.get(0));
+    assertEquals(objects.get(0), result.get(1));
+    assertEquals(objects.get(1), result.get(2));
+  }
+
+  /**
+   * Tries to find objects without giving ids.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testFindByIdsNull() {
+
+    getDao().findByIds(null);
+  }
+
   /**
    * Tries to find an object with a nonexistent Id.
    */
@@ -39,7 +39,7 @@ public class CategoryDao extends AbstractMandatorableDao<Category, Long> impleme
    */
   public CategoryDao() {
 
-    super(Category.class);
+    super(Category.class, true);
   }
 
   @Override
@@ -50,7 +50,7 @@ public class CategoryDao extends AbstractMandatorableDao<Category, Long> impleme
     }
 
     try {
-      return (Category) getEntityManager().createQuery("select o from Category o where o.name='" + name + "'")
+      return (Category) createQuery("select o from Category o where o.name='" + name + "'")
           .getSingleResult();
     } catch (NoResultException e) {
       throw new NoMatchingElementException("no matching element", e);
@@ -65,7 +65,7 @@ public class CategoryDao extends AbstractMandatorableDao<Category, Long> impleme
     }
 
     try {
-      Query query = getEntityManager().createQuery("select o from Category o where o.name = :name and o.mandatorId = :mandatorId");
+      Query query = createQuery("select o from Category o where o.name = :name and o.mandatorId = :mandatorId");
       query.setParameter("name", name);
       query.setParameter("mandatorId", mandatorId);
       return (Category) query
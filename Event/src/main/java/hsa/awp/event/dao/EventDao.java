@@ -32,7 +32,9 @@ import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Root;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Data Access Object for CRUD methods of Event.
@@ -45,14 +47,14 @@ public class EventDao extends AbstractMandatorableDao<Event, Long> implements IE
    */
   public EventDao() {
 
-    super(Event.class);
+    super(Event.class, true);
   }
 
   @Override
   public Event findEventByEventId(Integer eventId) {
 
     try {
-      Query query = getEntityManager().createQuery("select o from Event o where o.eventId=:eventId");
+      Query query = createQuery("select o from Event o where o.eventId=:eventId");
       query.setParameter("eventId", eventId);
       return (Event) query.getSingleResult();
     } catch (NoResultException e) {
@@ -63,7 +65,7 @@ public class EventDao extends AbstractMandatorableDao<Event, Long> implements IE
   @Override
   public Event findEventByEventIdAndMandator(Integer eventId, Long mandatorId) {
     try {
-      Query query = getEntityManager().createQuery("select o from Event o where o.eventId=:eventId and o.mandatorId = :mandatorId");
+      Query query = createQuery("select o from Event o where o.eventId=:eventId and o.mandatorId = :mandatorId");
       query.setParameter("eventId", eventId);
       query.setParameter("mandatorId", mandatorId);
       return (Event) query.getSingleResult();
@@ -75,7 +77,7 @@ public class EventDao extends AbstractMandatorableDao<Event, Long> implements IE
   @Override
   public List<Event> findEventsByTeacher(Long userId) {
     try {
-      Query query = getEntityManager().createQuery("select o from Event o join o.teachers t where t = :teacher");
+      Query query = createQuery("select o from Event o join o.teachers t where t = :teacher");
       query.setParameter("teacher", userId);
       return query.getResultList();
     } catch (NoResultException e) {
@@ -83,11 +85,39 @@ public class EventDao extends AbstractMandatorableDao<Event, Long> implements IE
     }
   }
 
+  @Override
+  public long countEventsByTeacher(Long userId, String termDesc) {
+
+    Map<String, Object> parameters = new HashMap<String, Object>();
+    return countWhere(teacherCondition(userId, termDesc, parameters), parameters);
+  }
+
+  @Override
+  public List<Event> findEventsByTeacher(int firstResult, int maxResults, Long userId, String termDesc,
+                                         String sortProperty, boolean ascending) {
+
+    Map<String, Object> parameters = new HashMap<String, Object>();
+    return findPage(teacherCondition(userId, termDesc, parameters), parameters, firstResult, maxResults, sortProperty,
+        ascending);
+  }
+
+  private String teacherCondition(Long userId, String termDesc, Map<String, Object> parameters) {
+
+    // subselect instead of a join, so the count is not multiplied and the page boundaries stay on whole events
+    String condition = "o.id in (select e.id from Event e join e.teachers t where t = :teacher)";
+    parameters.put("teacher", userId);
+    if (termDesc != null) {
+      condition += " and o.term.termDesc = :term";
+      parameters.put("term", termDesc);
+    }
+    return condition;
+  }
+
   @Override
   public List<Event> findEventsByTerm(String term) {
 
     try {
-      Query query = getEntityManager().createQuery("select o from Event o where o.term.termDesc=:term");
+      Query query = createQuery("select o from Event o where o.term.termDesc=:term");
       query.setParameter("term", term);
       return query.getResultList();
     } catch (NoResultException e) {
@@ -98,7 +128,7 @@ public class EventDao extends AbstractMandatorableDao<Event, Long> implements IE
   @Override
   public List<Event> findEventsByTermAndMandator(String term, Long mandatorId) {
     try {
-      Query query = getEntityManager().createQuery("select o from Event o where o.term.termDesc=:term and o.mandatorId = :mandatorId");
+      Query query = createQuery("select o from Event o where o.term.termDesc=:term and o.mandatorId = :mandatorId");
       query.setParameter("term", term);
       query.setParameter("mandatorId", mandatorId);
       return query.getResultList();
@@ -111,7 +141,7 @@ public class EventDao extends AbstractMandatorableDao<Event, Long> implements IE
   public List<Event> findEventsByTermId(Long id) {
 
     try {
-      Query query = getEntityManager().createQuery("select o from Event o where o.term.id=:id");
+      Query query = createQuery("select o from Event o where o.term.id=:id");
       query.setParameter("id", id);
       return query.getResultList();
     } catch (NoResultException e) {
@@ -119,11 +149,22 @@ public class EventDao extends AbstractMandatorableDao<Event, Long> implements IE
     }
   }
 
+  @SuppressWarnings("unchecked")
+  @Override
+  public List<Object[]> findOccurrenceRowsByTermId(Long termId) {
+
+    // the rows are indexed by the facade, so they are not put into the query cache
+    Query query = getEntityManager().createQuery("select e.id, o.startDate, o.endDate from Event e join e.timetable t "
+        + "join t.occurrences o where e.term.id = :termId");
+    query.setParameter("termId", termId);
+    return query.getResultList();
+  }
+
 @SuppressWarnings("unchecked")
 @Override
 public List<Event> findEventsBySubjectId(long subjectId) {
 	try{
-		Query select = getEntityManager().createQuery("select e from Event e where subject.id=:id");
+		Query select = createQuery("select e from Event e where subject.id=:id");
 		select.setParameter("id", subjectId);
 		return select.getResultList();
 	}catch(Exception e){
@@ -134,7 +175,7 @@ public List<Event> findEventsBySubjectId(long subjectId) {
 @Override
 public long findCategoryIdByEventId(long eventId) {
 	try {
-		Query select = getEntityManager().createQuery("select s.category.id from Subject s where s.id IN (select e.subject.id from Event e where e.id=:eventId)");
+		Query select = createQuery("select s.category.id from Subject s where s.id IN (select e.subject.id from Event e where e.id=:eventId)");
 		select.setParameter("eventId", eventId);
 		return Long.parseLong(select.getSingleResult().toString());
 	}
@@ -35,6 +35,6 @@ public class ExamDao extends AbstractMandatorableDao<Exam, Long> implements IExa
    */
   public ExamDao() {
 
-    super(Exam.class);
+    super(Exam.class, true);
   }
 }
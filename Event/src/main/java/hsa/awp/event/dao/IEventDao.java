@@ -46,12 +46,43 @@ public interface IEventDao extends IAbstractMandatorableDao<Event, Long> {
 
   List<Event> findEventsByTeacher(Long userId);
 
+  /**
+   * Counts the events of a teacher, optionally restricted to one term.
+   *
+   * @param userId   id of the teacher.
+   * @param termDesc description of the term, null for all terms.
+   * @return number of events.
+   */
+  long countEventsByTeacher(Long userId, String termDesc);
+
+  /**
+   * Loads one page of the events of a teacher, ordered by the database.
+   *
+   * @param firstResult  index of the first event.
+   * @param maxResults   maximum number of events.
+   * @param userId       id of the teacher.
+   * @param termDesc     description of the term, null for all terms.
+   * @param sortProperty property path to sort by, null to sort by id only.
+   * @param ascending    sort direction.
+   * @return the events of the page.
+   */
+  List<Event> findEventsByTeacher(int firstResult, int maxResults, Long userId, String termDesc, String sortProperty,
+                                  boolean ascending);
+
   List<Event> findEventsByTerm(String term);
 
   List<Event> findEventsByTermAndMandator(String term, Long mandatorId);
 
   List<Event> findEventsByTermId(Long id);
 
+  /**
+   * Looks for the {@link hsa.awp.event.model.Occurrence}s of all {@link Event}s of a term.
+   *
+   * @param termId id of the term.
+   * @return rows of <code>[eventId, startDate, endDate]</code>.
+   */
+  List<Object[]> findOccurrenceRowsByTermId(Long termId);
+
   List<Event> findEventsBySubjectId(long subjectId);
 
 long findCategoryIdByEventId(long id);
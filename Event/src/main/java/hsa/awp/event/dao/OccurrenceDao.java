@@ -35,6 +35,6 @@ public class OccurrenceDao extends AbstractMandatorableDao<Occurrence, Long> imp
    */
   public OccurrenceDao() {
 
-    super(Occurrence.class);
+    super(Occurrence.class, true);
   }
 }
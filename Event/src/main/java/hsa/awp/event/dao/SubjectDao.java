@@ -40,13 +40,12 @@ public class SubjectDao extends AbstractMandatorableDao<Subject, Long>
 	 */
 	public SubjectDao() {
 
-		super(Subject.class);
+		super(Subject.class, true);
 	}
 
 	@Override
 	public Subject findByNameAndMandatorId(String name, Long activeMandator) {
-		Query query = getEntityManager()
-				.createQuery(
+		Query query = createQuery(
 						"select o from Subject o where o.name=:name and o.mandatorId = :mandator");
 		query.setParameter("name", name);
 		query.setParameter("mandator", activeMandator);
@@ -59,7 +58,7 @@ public class SubjectDao extends AbstractMandatorableDao<Subject, Long>
 
 	@SuppressWarnings("unchecked")
 	public List<Subject> findAllSubjectsByCategoryId(long id) {
-		Query query = getEntityManager().createQuery(
+		Query query = createQuery(
 				"select sub from Subject sub where category.id = :id ");
 		query.setParameter("id", id);
 		try {
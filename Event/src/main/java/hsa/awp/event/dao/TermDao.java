@@ -35,6 +35,6 @@ public class TermDao extends AbstractMandatorableDao<Term, Long> implements ITer
    */
   public TermDao() {
 
-    super(Term.class);
+    super(Term.class, true);
   }
 }
@@ -35,6 +35,6 @@ public class TimetableDao extends AbstractMandatorableDao<Timetable, Long> imple
    */
   public TimetableDao() {
 
-    super(Timetable.class);
+    super(Timetable.class, true);
   }
 }
@@ -21,15 +21,24 @@
 
 package hsa.awp.event.facade;
 
+import hsa.awp.common.exception.NoMatchingElementException;
 import hsa.awp.event.dao.*;
 import hsa.awp.event.model.*;
+import hsa.awp.event.util.OccurrenceIndex;
 import hsa.awp.user.model.SingleUser;
 
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Facade for interacting with the Event Context.
@@ -37,6 +46,11 @@ import java.util.List;
  * @author klassm
  */
 public class EventFacade implements IEventFacade {
+  /**
+   * Default maximum age of a cached {@link OccurrenceIndex} in milliseconds.
+   */
+  public static final long DEFAULT_OCCURRENCE_INDEX_MAX_AGE = 5 * 60 * 1000L;
+
   /**
    * Data Access Object for interacting with the {@link Category} domain object.
    */
@@ -72,6 +86,15 @@ public class EventFacade implements IEventFacade {
    */
   private ITimetableDao timetableDao;
 
+  /**
+   * {@link OccurrenceIndex}s by term id. Changes made through this facade invalidate all of them, changes made by another
+   * application are picked up once an index is older than {@link #setOccurrenceIndexMaxAge(long)}.
+   */
+  private final ConcurrentMap<Long, CachedOccurrenceIndex> occurrenceIndexes =
+      new ConcurrentHashMap<Long, CachedOccurrenceIndex>();
+
+  private long occurrenceIndexMaxAge = DEFAULT_OCCURRENCE_INDEX_MAX_AGE;
+
   /**
    * Constructor for creating an event Facade.
    */
@@ -142,6 +165,13 @@ public class EventFacade implements IEventFacade {
     return eventDao.findById(eventId);
   }
 
+  @Transactional(readOnly = true)
+  @Override
+  public List<Event> getEventsByIds(Collection<Long> ids) {
+
+    return eventDao.findByIds(ids);
+  }
+
   @Transactional(readOnly = true)
   @Override
   public Exam getExamById(Long examId) {
@@ -168,6 +198,7 @@ public class EventFacade implements IEventFacade {
   public void removeCategory(Category c) {
 
     categoryDao.remove(c);
+    categoryDao.evict(c.getId());
   }
 
   @Transactional
@@ -180,6 +211,8 @@ public class EventFacade implements IEventFacade {
 
     if (e.getSubject() != null) {
       e.getSubject().getEvents().remove(e);
+      // events is the inverse side, so hibernate does not invalidate the cached collection by itself
+      subjectDao.evict(e.getSubject().getId());
     }
     if (e.getExams() != null) {
       for (Exam exam : new LinkedList<Exam>(e.getExams())) {
@@ -192,6 +225,7 @@ public class EventFacade implements IEventFacade {
       e.setTimetable(null);
     }
     eventDao.remove(e);
+    eventDao.evict(e.getId());
   }
 
   @Transactional
@@ -207,6 +241,8 @@ public class EventFacade implements IEventFacade {
     }
 
     timetableDao.remove(timetable);
+    timetableDao.evict(timetable.getId());
+    invalidateOccurrenceIndexes();
   }
 
   @Transactional
@@ -214,6 +250,7 @@ public class EventFacade implements IEventFacade {
   public void removeExam(Exam e) {
 
     examDao.remove(e);
+    examDao.evict(e.getId());
   }
 
   @Transactional
@@ -221,6 +258,8 @@ public class EventFacade implements IEventFacade {
   public void removeOccurence(Occurrence o) {
 
     occurenceDao.remove(o);
+    occurenceDao.evict(o.getId());
+    invalidateOccurrenceIndexes();
   }
 
   @Transactional
@@ -239,6 +278,7 @@ public class EventFacade implements IEventFacade {
       s.getCategory().getSubjects().remove(s);
     }
     subjectDao.remove(s);
+    subjectDao.evict(s.getId());
   }
 
   @Transactional
@@ -248,6 +288,7 @@ public class EventFacade implements IEventFacade {
       throw new IllegalArgumentException("Term contains events");
     }
     termDao.remove(term);
+    termDao.evict(term.getId());
   }
 
   @Transactional
@@ -261,6 +302,7 @@ public class EventFacade implements IEventFacade {
   @Override
   public Event saveEvent(Event e) {
 
+    invalidateOccurrenceIndexes();
     return eventDao.persist(e);
   }
 
@@ -275,6 +317,7 @@ public class EventFacade implements IEventFacade {
   @Override
   public Occurrence saveOccurrence(Occurrence o) {
 
+    invalidateOccurrenceIndexes();
     return occurenceDao.persist(o);
   }
 
@@ -296,6 +339,7 @@ public class EventFacade implements IEventFacade {
   @Override
   public Timetable saveTimetable(Timetable timetable) {
 
+    invalidateOccurrenceIndexes();
     return timetableDao.persist(timetable);
   }
 
@@ -303,42 +347,71 @@ public class EventFacade implements IEventFacade {
   @Override
   public Category updateCategory(Category c) {
 
-    return categoryDao.merge(c);
+    Category merged = categoryDao.merge(c);
+    categoryDao.evict(c.getId());
+    return merged;
   }
 
   @Transactional
   @Override
   public Event updateEvent(Event e) {
 
-    return eventDao.merge(e);
+    Event merged = eventDao.merge(e);
+    eventDao.evict(e.getId());
+    invalidateOccurrenceIndexes();
+    return merged;
+  }
+
+  @Transactional
+  @Override
+  public void addConfirmedRegistrations(Map<Long, ? extends Collection<Long>> registrationsByEvent) {
+
+    if (registrationsByEvent == null) {
+      throw new IllegalArgumentException("no registrations given");
+    }
+
+    for (Map.Entry<Long, ? extends Collection<Long>> entry : registrationsByEvent.entrySet()) {
+      Event event = eventDao.findById(entry.getKey());
+      event.getConfirmedRegistrations().addAll(entry.getValue());
+    }
   }
 
   @Transactional
   @Override
   public Exam updateExam(Exam e) {
 
-    return examDao.merge(e);
+    Exam merged = examDao.merge(e);
+    examDao.evict(e.getId());
+    return merged;
   }
 
   @Transactional
   @Override
   public Occurrence updateOccurrence(Occurrence o) {
 
-    return occurenceDao.merge(o);
+    Occurrence merged = occurenceDao.merge(o);
+    occurenceDao.evict(o.getId());
+    invalidateOccurrenceIndexes();
+    return merged;
   }
 
   @Transactional
   @Override
   public Subject updateSubject(Subject s) {
 
-    return subjectDao.merge(s);
+    Subject merged = subjectDao.merge(s);
+    subjectDao.evict(s.getId());
+    return merged;
   }
 
   @Transactional
   @Override
   public Timetable updateTimetable(Timetable timetable) {
 
-    return timetableDao.merge(timetable);
+    Timetable merged = timetableDao.merge(timetable);
+    timetableDao.evict(timetable.getId());
+    invalidateOccurrenceIndexes();
+    return merged;
   }
 
   @Transactional
@@ -384,6 +457,37 @@ public class EventFacade implements IEventFacade {
     return eventDao.findByMandator(mandatorId);
   }
 
+  @Override
+  @Transactional
+  public long countEventsByMandator(Long mandatorId, String termDesc) {
+    return eventDao.countByMandator(mandatorId, termFilter(termDesc));
+  }
+
+  @Override
+  @Transactional
+  public List<Event> findEventsByMandator(int firstResult, int maxResults, Long mandatorId, String termDesc,
+                                          String sortProperty, boolean ascending) {
+    return eventDao.findByMandator(firstResult, maxResults, mandatorId, termFilter(termDesc), sortProperty, ascending);
+  }
+
+  @Override
+  @Transactional
+  public long countEventsByTeacher(SingleUser user, String termDesc) {
+    return eventDao.countEventsByTeacher(user.getId(), termDesc);
+  }
+
+  @Override
+  @Transactional
+  public List<Event> getEventsByTeacher(int firstResult, int maxResults, SingleUser user, String termDesc,
+                                        String sortProperty, boolean ascending) {
+    return eventDao.findEventsByTeacher(firstResult, maxResults, user.getId(), termDesc, sortProperty, ascending);
+  }
+
+  private static Map<String, Object> termFilter(String termDesc) {
+
+    return Collections.<String, Object>singletonMap("term.termDesc", termDesc);
+  }
+
   @Override
   @Transactional
   public List<Subject> getSubjectsByMandator(Long mandator) {
@@ -406,9 +510,9 @@ public class EventFacade implements IEventFacade {
   @Transactional
   public List<Event> convertToEventList(List<Long> ids) {
 
-    List<Event> events = new LinkedList<Event>();
-    for (Long id : ids) {
-      events.add(eventDao.findById(id));
+    List<Event> events = eventDao.findByIds(ids);
+    if (events.size() != ids.size()) {
+      throw new NoMatchingElementException("not all events of " + ids + " could be found");
     }
 
     return events;
@@ -474,6 +578,53 @@ public class EventFacade implements IEventFacade {
     this.termDao = dao;
   }
 
+  @Transactional(readOnly = true)
+  @Override
+  public OccurrenceIndex getOccurrenceIndex(Long termId) {
+
+    if (termId == null) {
+      throw new IllegalArgumentException("no termId given");
+    }
+
+    CachedOccurrenceIndex cached = occurrenceIndexes.get(termId);
+    long now = System.currentTimeMillis();
+    if (cached != null && now - cached.builtAt < occurrenceIndexMaxAge) {
+      return cached.index;
+    }
+
+    OccurrenceIndex index = OccurrenceIndex.build(eventDao.findOccurrenceRowsByTermId(termId));
+    occurrenceIndexes.put(termId, new CachedOccurrenceIndex(index, now));
+    return index;
+  }
+
+  /**
+   * Drops all cached {@link OccurrenceIndex}s, and again once the current transaction has completed, so an index
+   * built concurrently from the old data does not survive.
+   */
+  private void invalidateOccurrenceIndexes() {
+
+    occurrenceIndexes.clear();
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+        @Override
+        public void afterCompletion(int status) {
+
+          occurrenceIndexes.clear();
+        }
+      });
+    }
+  }
+
+  /**
+   * Sets the maximum age of a cached {@link OccurrenceIndex} in milliseconds.
+   *
+   * @param occurrenceIndexMaxAge maximum age.
+   */
+  public void setOccurrenceIndexMaxAge(long occurrenceIndexMaxAge) {
+
+    this.occurrenceIndexMaxAge = occurrenceIndexMaxAge;
+  }
+
   /**
    * Setter for timetableDao need for Spring.
    *
@@ -495,4 +646,20 @@ public List<Event> findEventsBySubjectId(long subjectId) {
 public long findCategoryIdByEventId(long id) {
 	return eventDao.findCategoryIdByEventId(id);
 }
+
+  /**
+   * An {@link OccurrenceIndex} together with the time it was built.
+   */
+  private static final class CachedOccurrenceIndex {
+
+    private final OccurrenceIndex index;
+
+    private final long builtAt;
+
+    private CachedOccurrenceIndex(OccurrenceIndex index, long builtAt) {
+
+      this.index = index;
+      this.builtAt = builtAt;
+    }
+  }
 }
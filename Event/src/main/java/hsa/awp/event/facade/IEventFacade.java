@@ -22,9 +22,12 @@
 package hsa.awp.event.facade;
 
 import hsa.awp.event.model.*;
+import hsa.awp.event.util.OccurrenceIndex;
 import hsa.awp.user.model.SingleUser;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Interface for interacting with the Event Context.
@@ -92,6 +95,14 @@ public interface IEventFacade {
    */
   Event getEventById(Long eventId);
 
+  /**
+   * Looks for all {@link Event}s with the given identifiers using as few queries as possible.
+   *
+   * @param ids identifiers to look for.
+   * @return found {@link Event}s in the order of the given ids, unknown ids are skipped.
+   */
+  List<Event> getEventsByIds(Collection<Long> ids);
+
   Exam getExamById(Long examId);
 
   /**
@@ -230,6 +241,13 @@ public interface IEventFacade {
    */
   Event updateEvent(Event e);
 
+  /**
+   * Adds the given ConfirmedRegistration ids to the registration sets of the respective {@link Event}s within one transaction.
+   *
+   * @param registrationsByEvent ConfirmedRegistration ids mapped by the id of the {@link Event} they belong to.
+   */
+  void addConfirmedRegistrations(Map<Long, ? extends Collection<Long>> registrationsByEvent);
+
   /**
    * Merges a {@link Exam} so that all changes will become persistent. If the {@link Exam} does not exist, a
    * {@link DataAccessException} will be thrown. Will throw {@link IllegalArgumentException} if <code>null</code>.
@@ -266,6 +284,15 @@ public interface IEventFacade {
    */
   Timetable updateTimetable(Timetable timetable);
 
+  /**
+   * Returns the index of the {@link Occurrence}s of all {@link Event}s of a term. The index is cached and rebuilt after
+   * {@link Occurrence}s, {@link Timetable}s or {@link Event}s have been changed.
+   *
+   * @param termId id of the {@link Term}.
+   * @return index of the {@link Occurrence}s.
+   */
+  OccurrenceIndex getOccurrenceIndex(Long termId);
+
   List<Term> getAllTerms();
 
   List<Event> getEventsByTeacher(SingleUser user);
@@ -276,6 +303,52 @@ public interface IEventFacade {
 
   List<Event> findEventsByMandator(Long mandatorId);
 
+  /**
+   * Counts the events of a mandator, optionally restricted to one term.
+   *
+   * @param mandatorId id of the mandator.
+   * @param termDesc   description of the term, null for all terms.
+   * @return number of events.
+   */
+  long countEventsByMandator(Long mandatorId, String termDesc);
+
+  /**
+   * Loads one page of the events of a mandator, sorted by the database.
+   *
+   * @param firstResult  index of the first event.
+   * @param maxResults   maximum number of events.
+   * @param mandatorId   id of the mandator.
+   * @param termDesc     description of the term, null for all terms.
+   * @param sortProperty property path to sort by, e.g. <code>subject.name</code>.
+   * @param ascending    sort direction.
+   * @return the events of the page.
+   */
+  List<Event> findEventsByMandator(int firstResult, int maxResults, Long mandatorId, String termDesc,
+                                   String sortProperty, boolean ascending);
+
+  /**
+   * Counts the events of a teacher, optionally restricted to one term.
+   *
+   * @param user     the teacher.
+   * @param termDesc description of the term, null for all terms.
+   * @return number of events.
+   */
+  long countEventsByTeacher(SingleUser user, String termDesc);
+
+  /**
+   * Loads one page of the events of a teacher, sorted by the database.
+   *
+   * @param firstResult  index of the first event.
+   * @param maxResults   maximum number of events.
+   * @param user         the teacher.
+   * @param termDesc     description of the term, null for all terms.
+   * @param sortProperty property path to sort by, e.g. <code>subject.name</code>.
+   * @param ascending    sort direction.
+   * @return the events of the page.
+   */
+  List<Event> getEventsByTeacher(int firstResult, int maxResults, SingleUser user, String termDesc,
+                                 String sortProperty, boolean ascending);
+
   List<Subject> getSubjectsByMandator(Long mandator);
 
   List<Term> getTermsByMandator(Long mandator);
@@ -24,6 +24,9 @@ package hsa.awp.event.model;
 import hsa.awp.common.AbstractMandatorableDomainObject;
 import hsa.awp.common.exception.ProgrammingErrorException;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import javax.persistence.*;
 import java.util.HashSet;
 import java.util.Set;
@@ -34,6 +37,7 @@ import java.util.Set;
  * @author klassm
  */
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "`category`", uniqueConstraints = {
     @UniqueConstraint(columnNames = {"name", "mandatorId"})
 })
@@ -63,6 +67,7 @@ public class Category extends AbstractMandatorableDomainObject<Long> {
   @Column(name = "subjects")
   @OneToMany(fetch = FetchType.LAZY, cascade = {CascadeType.MERGE})
   @JoinTable
+  @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
   private Set<Subject> subjects;
 
   /**
@@ -24,6 +24,9 @@ package hsa.awp.event.model;
 import hsa.awp.common.AbstractMandatorableDomainObject;
 import hsa.awp.user.model.SingleUser;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import javax.persistence.*;
 
 import java.io.Serializable;
@@ -36,6 +39,7 @@ import java.util.Set;
  * @author klassm
  */
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "`event`")
 public class Event extends AbstractMandatorableDomainObject<Long> implements Serializable {
   /**
@@ -61,6 +65,7 @@ public class Event extends AbstractMandatorableDomainObject<Long> implements Ser
    */
   @OneToMany(cascade = {CascadeType.MERGE})
   @Column(nullable = false)
+  @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
   private Set<Exam> exams;
 
   /**
@@ -86,6 +91,7 @@ public class Event extends AbstractMandatorableDomainObject<Long> implements Ser
    * List of teachers.
    */
   @ElementCollection
+  @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
   private Set<Long> teachers;
 
   /**
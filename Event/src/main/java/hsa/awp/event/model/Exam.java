@@ -23,6 +23,9 @@ package hsa.awp.event.model;
 
 import hsa.awp.common.AbstractMandatorableDomainObject;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import javax.persistence.*;
 
 /**
@@ -31,6 +34,7 @@ import javax.persistence.*;
  * @author klassm
  */
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "`exam`")
 @Inheritance(strategy = InheritanceType.JOINED)
 public class Exam extends AbstractMandatorableDomainObject<Long> {
@@ -23,6 +23,9 @@ package hsa.awp.event.model;
 
 import hsa.awp.common.AbstractMandatorableDomainObject;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import javax.persistence.*;
 import java.util.Calendar;
 
@@ -32,6 +35,7 @@ import java.util.Calendar;
  * @author klassm
  */
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "`occurence`")
 public class Occurrence extends AbstractMandatorableDomainObject<Long> {
   /**
@@ -23,6 +23,9 @@ package hsa.awp.event.model;
 
 import hsa.awp.common.AbstractMandatorableDomainObject;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import javax.persistence.*;
 import java.util.HashSet;
 import java.util.Set;
@@ -33,6 +36,7 @@ import java.util.Set;
  * @author klassm
  */
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "`subject`", uniqueConstraints = {
     @UniqueConstraint(columnNames = {"name", "mandatorId"})
 })
@@ -57,6 +61,7 @@ public class Subject extends AbstractMandatorableDomainObject<Long> {
    * Contains all associated events.
    */
   @OneToMany(mappedBy = "subject", fetch = FetchType.LAZY, cascade = {CascadeType.MERGE, CascadeType.REFRESH})
+  @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
   private Set<Event> events;
 
   /**
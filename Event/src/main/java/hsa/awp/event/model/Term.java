@@ -23,12 +23,16 @@ package hsa.awp.event.model;
 
 import hsa.awp.common.AbstractMandatorableDomainObject;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import javax.persistence.*;
 
 /**
  * Persistent object for Terms.
  */
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "`term`")
 public class Term extends AbstractMandatorableDomainObject<Long> {
   /**
@@ -23,6 +23,9 @@ package hsa.awp.event.model;
 
 import hsa.awp.common.AbstractMandatorableDomainObject;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import javax.persistence.*;
 import java.util.Collection;
 import java.util.LinkedList;
@@ -34,6 +37,7 @@ import java.util.List;
  * @author klassm
  */
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "`timetable`")
 public class Timetable extends AbstractMandatorableDomainObject<Long> {
   /**
@@ -52,6 +56,7 @@ public class Timetable extends AbstractMandatorableDomainObject<Long> {
    * List of associated {@link Occurrence} instances.
    */
   @OneToMany(targetEntity = Occurrence.class, cascade = {CascadeType.MERGE, CascadeType.REFRESH, CascadeType.REMOVE})
+  @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
   private List<Occurrence> occurrences;
 
 
@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) 2010-2012 Matthias Klass, Johannes Leimer,
+ *               Rico Lieback, Sebastian Gabriel, Lothar Gesslein,
+ *               Alexander Rampp, Kai Weidner
+ *
+ * This file is part of the Physalix Enrollment System
+ *
+ * Foobar is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Foobar is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Foobar.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package hsa.awp.event.util;
+
+import hsa.awp.event.model.Event;
+import hsa.awp.event.model.Occurrence;
+
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * Immutable index over the {@link Occurrence}s of the {@link Event}s of a term, used to find {@link Event}s clashing in time.
+ * <p/>
+ * Every {@link Occurrence} is stored as half-open interval of epoch minutes, the intervals are sorted by start. A running
+ * maximum of the ends bounds the scan of an overlap query from below, the start of the queried interval from above. So the
+ * {@link Event}s clashing with a set of {@link Event}s are found by two binary searches and a short scan per
+ * {@link Occurrence} of the set, without touching any {@link Calendar}. {@link Occurrence}s which only touch each other
+ * do not clash.
+ */
+public final class OccurrenceIndex implements Serializable {
+  /**
+   * generated uid.
+   */
+  private static final long serialVersionUID = -2184569702718374051L;
+
+  private static final long MILLIS_PER_MINUTE = 60 * 1000L;
+
+  /**
+   * Index without any {@link Occurrence}.
+   */
+  public static final OccurrenceIndex EMPTY = build(Collections.<Object[]>emptyList());
+
+  private final int[] starts;
+
+  private final int[] ends;
+
+  /**
+   * Maximum of <code>ends[0..i]</code>, never decreasing.
+   */
+  private final int[] maxEnds;
+
+  private final long[] eventIds;
+
+  /**
+   * Positions of the intervals of every {@link Event}.
+   */
+  private final Map<Long, int[]> positionsByEvent;
+
+  private OccurrenceIndex(int[] starts, int[] ends, long[] eventIds) {
+
+    this.starts = starts;
+    this.ends = ends;
+    this.eventIds = eventIds;
+
+    maxEnds = new int[ends.length];
+    for (int i = 0; i < ends.length; i++) {
+      maxEnds[i] = i == 0 ? ends[i] : Math.max(maxEnds[i - 1], ends[i]);
+    }
+
+    Map<Long, Integer> counts = new HashMap<Long, Integer>();
+    for (long eventId : eventIds) {
+      Integer count = counts.get(eventId);
+      counts.put(eventId, count == null ? 1 : count + 1);
+    }
+    positionsByEvent = new HashMap<Long, int[]>(counts.size() * 2);
+    for (Map.Entry<Long, Integer> entry : counts.entrySet()) {
+      positionsByEvent.put(entry.getKey(), new int[entry.getValue()]);
+    }
+    Map<Long, Integer> filled = new HashMap<Long, Integer>(counts.size() * 2);
+    for (int i = 0; i < eventIds.length; i++) {
+      Integer count = filled.get(eventIds[i]);
+      count = count == null ? 0 : count;
+      positionsByEvent.get(eventIds[i])[count] = i;
+      filled.put(eventIds[i], count + 1);
+    }
+  }
+
+  /**
+   * Builds the index. Dates are truncated to the minute, rows without dates or with an end not after the start are
+   * ignored.
+   *
+   * @param rows rows of <code>[eventId, startDate, endDate]</code>, as returned by
+   *             {@link hsa.awp.event.dao.IEventDao#findOccurrenceRowsByTermId(Long)}.
+   * @return the index.
+   */
+  public static OccurrenceIndex build(List<Object[]> rows) {
+
+    long[] keys = new long[rows.size()];
+    int[] rowStarts = new int[rows.size()];
+    int[] rowEnds = new int[rows.size()];
+    long[] rowEvents = new long[rows.size()];
+
+    int count = 0;
+    for (Object[] row : rows) {
+      Calendar start = (Calendar) row[1];
+      Calendar end = (Calendar) row[2];
+      if (row[0] == null || start == null || end == null) {
+        continue;
+      }
+
+      int startMinute = (int) (start.getTimeInMillis() / MILLIS_PER_MINUTE);
+      int endMinute = (int) (end.getTimeInMillis() / MILLIS_PER_MINUTE);
+      if (endMinute <= startMinute) {
+        continue;
+      }
+
+      rowStarts[count] = startMinute;
+      rowEnds[count] = endMinute;
+      rowEvents[count] = (Long) row[0];
+      // sorting the start in the upper bits keeps the row number as tie breaker in the lower bits
+      keys[count] = ((long) startMinute << 32) | count;
+      count++;
+    }
+
+    Arrays.sort(keys, 0, count);
+    int[] starts = new int[count];
+    int[] ends = new int[count];
+    long[] eventIds = new long[count];
+    for (int i = 0; i < count; i++) {
+      int row = (int) keys[i];
+      starts[i] = rowStarts[row];
+      ends[i] = rowEnds[row];
+      eventIds[i] = rowEvents[row];
+    }
+
+    return new OccurrenceIndex(starts, ends, eventIds);
+  }
+
+  /**
+   * Looks for the {@link Event}s with at least one {@link Occurrence} overlapping an {@link Occurrence} of the given
+   * {@link Event}s. {@link Event}s unknown to the index have no {@link Occurrence}s and never clash.
+   *
+   * @param ids ids of the {@link Event}s to check.
+   * @return ids of the clashing {@link Event}s, without the given ones.
+   */
+  public Set<Long> findClashingEventIds(Collection<Long> ids) {
+
+    Set<Long> given = ids instanceof Set ? (Set<Long>) ids : new HashSet<Long>(ids);
+    Set<Long> result = new HashSet<Long>();
+
+    for (Long eventId : given) {
+      int[] positions = eventId == null ? null : positionsByEvent.get(eventId);
+      if (positions == null) {
+        continue;
+      }
+
+      for (int position : positions) {
+        int start = starts[position];
+        int end = ends[position];
+        int to = lowerBound(starts, end);
+        for (int i = lowerBound(maxEnds, start + 1); i < to; i++) {
+          if (ends[i] > start && !given.contains(eventIds[i])) {
+            result.add(eventIds[i]);
+          }
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Checks whether two {@link Event}s have overlapping {@link Occurrence}s.
+   *
+   * @param eventId1 id of the first {@link Event}.
+   * @param eventId2 id of the second {@link Event}.
+   * @return true if the {@link Event}s clash.
+   */
+  public boolean clashes(Long eventId1, Long eventId2) {
+
+    int[] first = positionsByEvent.get(eventId1);
+    int[] second = positionsByEvent.get(eventId2);
+    if (first == null || second == null) {
+      return false;
+    }
+
+    for (int i : first) {
+      for (int j : second) {
+        if (starts[i] < ends[j] && starts[j] < ends[i]) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns the number of indexed {@link Occurrence}s.
+   *
+   * @return number of {@link Occurrence}s.
+   */
+  public int size() {
+
+    return starts.length;
+  }
+
+  /**
+   * Returns the first position whose value is not less than the given one.
+   */
+  private static int lowerBound(int[] values, int value) {
+
+    int low = 0;
+    int high = values.length;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (values[mid] < value) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+}
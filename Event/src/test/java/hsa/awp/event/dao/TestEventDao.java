@@ -22,12 +22,14 @@
 package hsa.awp.event.dao;
 
 import hsa.awp.common.exception.NoMatchingElementException;
+import hsa.awp.common.persistence.TPersistenceUtil;
 import hsa.awp.common.test.GenericDaoTest;
 import hsa.awp.common.test.IObjectFactory;
 import hsa.awp.event.model.Event;
 import hsa.awp.event.model.Term;
 import org.junit.Test;
 
+import javax.persistence.EntityManager;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
@@ -58,6 +60,38 @@ public class TestEventDao extends GenericDaoTest<Event, EventDao, Long> {
     });
   }
 
+  /**
+   * An {@link Event} read from the second-level cache has to show the changes committed in the meantime.
+   */
+  @Test
+  public void testCachedReadSeesCommittedChanges() {
+
+    startTransaction();
+    Event event = Event.getInstance(1, 0L);
+    event.setMaxParticipants(10);
+    event = getDao().persist(event);
+    commit();
+
+    EntityManager other = TPersistenceUtil.getEntityManager();
+    try {
+      assertEquals(10, other.find(Event.class, event.getId()).getMaxParticipants());
+      assertTrue(other.getEntityManagerFactory().getCache().contains(Event.class, event.getId()));
+      other.clear();
+
+      startTransaction();
+      event.setMaxParticipants(20);
+      event.getConfirmedRegistrations().add(5L);
+      getDao().merge(event);
+      commit();
+
+      Event found = other.find(Event.class, event.getId());
+      assertEquals(20, found.getMaxParticipants());
+      assertTrue(found.getConfirmedRegistrations().contains(5L));
+    } finally {
+      other.close();
+    }
+  }
+
   @Test
   public void testFindEventsByTeacher() {
 
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2010-2012 Matthias Klass, Johannes Leimer,
+ *               Rico Lieback, Sebastian Gabriel, Lothar Gesslein,
+ *               Alexander Rampp, Kai Weidner
+ *
+ * This file is part of the Physalix Enrollment System
+ *
+ * Foobar is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Foobar is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Foobar.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package hsa.awp.event.util;
+
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit test for {@link OccurrenceIndex}.
+ */
+public class OccurrenceIndexTest {
+  @Test
+  public void testFindClashingEventIds() {
+
+    List<Object[]> rows = new ArrayList<Object[]>();
+    rows.add(row(1L, 8, 0, 9, 30));
+    rows.add(row(1L, 14, 0, 15, 30));
+    rows.add(row(2L, 9, 0, 10, 0));
+    // only touches event 1
+    rows.add(row(3L, 9, 30, 11, 0));
+    rows.add(row(4L, 15, 0, 16, 0));
+    // a long occurrence starting early, must not be skipped by the scan
+    rows.add(row(5L, 7, 0, 17, 0));
+    rows.add(row(6L, 17, 0, 18, 0));
+
+    OccurrenceIndex index = OccurrenceIndex.build(rows);
+    assertEquals(7, index.size());
+
+    assertEquals(new HashSet<Long>(Arrays.asList(2L, 4L, 5L)), index.findClashingEventIds(Arrays.asList(1L)));
+    assertEquals(new HashSet<Long>(Arrays.asList(2L, 5L)), index.findClashingEventIds(Arrays.asList(3L)));
+    assertEquals(new HashSet<Long>(Arrays.asList(2L, 4L, 5L)), index.findClashingEventIds(Arrays.asList(1L, 6L)));
+    assertTrue(index.findClashingEventIds(Arrays.asList(6L)).isEmpty());
+    assertTrue(index.findClashingEventIds(Arrays.asList(42L)).isEmpty());
+
+    assertTrue(index.clashes(1L, 2L));
+    assertFalse(index.clashes(1L, 3L));
+    assertFalse(index.clashes(1L, 42L));
+  }
+
+  @Test
+  public void testInvalidRowsAreIgnored() {
+
+    List<Object[]> rows = new ArrayList<Object[]>();
+    rows.add(new Object[]{1L, null, calendar(9, 0)});
+    rows.add(row(2L, 10, 0, 9, 0));
+    rows.add(row(3L, 8, 0, 9, 0));
+
+    OccurrenceIndex index = OccurrenceIndex.build(rows);
+    assertEquals(1, index.size());
+    assertTrue(OccurrenceIndex.EMPTY.findClashingEventIds(Arrays.asList(3L)).isEmpty());
+  }
+
+  private static Object[] row(Long eventId, int startHour, int startMinute, int endHour, int endMinute) {
+
+    return new Object[]{eventId, calendar(startHour, startMinute), calendar(endHour, endMinute)};
+  }
+
+  private static Calendar calendar(int hour, int minute) {
+
+    Calendar calendar = Calendar.getInstance();
+    calendar.clear();
+    calendar.set(2010, Calendar.OCTOBER, 4, hour, minute);
+    return calendar;
+  }
+}
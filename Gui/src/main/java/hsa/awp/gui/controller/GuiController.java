@@ -207,6 +207,13 @@ public class GuiController implements IGuiController {
 		return camFacade.countConfirmedRegistrationsByEventId(eventId);
 	}
 
+	@Override
+	public Map<Long, Long> countConfirmedRegistrationsByEventIds(
+			Collection<Long> eventIds) {
+
+		return camFacade.countConfirmedRegistrationsByEventIds(eventIds);
+	}
+
 	@Override
 	public SingleUser getUserById(Long id) {
 
@@ -224,6 +231,12 @@ public class GuiController implements IGuiController {
 		return singleUser;
 	}
 
+	@Override
+	public List<SingleUser> getUsersByIds(Collection<Long> ids) {
+
+		return userFacade.getSingleUsersByIds(ids);
+	}
+
 	@Override
 	public SingleUser getUserByName(String username) {
 
@@ -325,4 +338,11 @@ public class GuiController implements IGuiController {
 		return camFacade.hasParticipantConfirmedRegistrationInEvent(
 				participant.getId(), event.getId());
 	}
+
+	@Override
+	public Set<Long> findEventIdsWithConfirmedRegistration(User participant,
+			Collection<Long> eventIds) {
+		return camFacade.findEventIdsWithConfirmedRegistration(
+				participant.getId(), eventIds);
+	}
 }
@@ -32,7 +32,9 @@ import hsa.awp.event.model.Subject;
 import hsa.awp.user.model.SingleUser;
 import hsa.awp.user.model.User;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 public interface IGuiController {
@@ -44,6 +46,14 @@ public interface IGuiController {
    */
   long countConfirmedRegistrationsByEventId(long eventId);
 
+  /**
+   * Counts the {@link ConfirmedRegistration}s of several {@link Event}s in one round trip.
+   *
+   * @param eventIds ids of the events
+   * @return amount of found {@link ConfirmedRegistration}s per event id.
+   */
+  Map<Long, Long> countConfirmedRegistrationsByEventIds(Collection<Long> eventIds);
+
   /**
    * Removes a {@link ConfirmedRegistration}.
    *
@@ -113,6 +123,14 @@ public interface IGuiController {
    */
   SingleUser getUserById(Long id);
 
+  /**
+   * Looks for all {@link SingleUser}s with the given ids.
+   *
+   * @param ids unique identifiers.
+   * @return found {@link SingleUser}s in the order of the given ids, unknown ids are skipped.
+   */
+  List<SingleUser> getUsersByIds(Collection<Long> ids);
+
   /**
    * Looks for a {@link SingleUser} using a given user name.
    *
@@ -139,5 +157,14 @@ public interface IGuiController {
 
   boolean hasParticipantConfirmedRegistrationInEvent(User participant, Event event);
 
+  /**
+   * Looks for those of the given {@link Event}s in which a participant has a {@link ConfirmedRegistration}.
+   *
+   * @param participant participant to look for.
+   * @param eventIds    ids of the events to check.
+   * @return ids of the events the participant is registered in.
+   */
+  Set<Long> findEventIdsWithConfirmedRegistration(User participant, Collection<Long> eventIds);
+
 long findCategoryIdByEventId(long id);
 }
@@ -23,6 +23,7 @@ package launcher;
 
 import pruefplan.Fach;
 import pruefplan.Pruefungsplan;
+import pruefplan.Slotplaner;
 import pruefplan.Teilnahme;
 
 import java.util.Map;
@@ -34,9 +35,8 @@ public class Launcher {
     String path = "data/FAV_WS09.aw";
 
     Map<Integer, Fach> faecher = Fach.readFile(path);
-    Teilnahme.readTeilnahmeliste(faecher, "data/KON_WS09.aw");
 
-    Pruefungsplan plan = new Pruefungsplan(faecher);
+    Pruefungsplan plan = new Pruefungsplan(Teilnahme.readKonfliktgraph(faecher, "data/KON_WS09.aw"), new Slotplaner());
     System.out.println(plan.toString());
   }
 }
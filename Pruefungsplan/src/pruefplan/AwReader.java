@@ -0,0 +1,245 @@
+/*
+ * Copyright (c) 2010-2012 Matthias Klass, Johannes Leimer,
+ *               Rico Lieback, Sebastian Gabriel, Lothar Gesslein,
+ *               Alexander Rampp, Kai Weidner
+ *
+ * This file is part of the Physalix Enrollment System
+ *
+ * Foobar is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Foobar is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Foobar.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pruefplan;
+
+import java.io.Closeable;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+
+/**
+ * Line reader for the whitespace separated <code>.aw</code> files. The input is read in large blocks of bytes, each line
+ * is split into tokens by offsets only, so numbers are parsed without creating any objects. Strings are only created on
+ * request by {@link #getString(int)}.
+ */
+public class AwReader implements Closeable {
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  private final InputStream in;
+  private final Charset charset;
+
+  private final byte[] buffer = new byte[BUFFER_SIZE];
+  private int position;
+  private int limit;
+
+  private byte[] line = new byte[256];
+  private int length;
+
+  private int[] start = new int[16];
+  private int[] end = new int[16];
+  private int tokens;
+
+  /**
+   * Opens a file using the default charset, as the files have been read by a {@link java.io.FileReader} before.
+   *
+   * @param path path of the file.
+   * @return reader of the file.
+   */
+  public static AwReader open(String path) {
+
+    try {
+      return new AwReader(new FileInputStream(path), Charset.defaultCharset());
+    } catch (FileNotFoundException e) {
+      throw new IllegalArgumentException("file not found: " + path);
+    }
+  }
+
+  public AwReader(InputStream in, Charset charset) {
+
+    if (in == null) {
+      throw new IllegalArgumentException("no input given");
+    } else if (charset == null) {
+      throw new IllegalArgumentException("no charset given");
+    }
+    this.in = in;
+    this.charset = charset;
+  }
+
+  /**
+   * Reads the next line. The tokens of the previous line are discarded.
+   *
+   * @return false if the end of the input is reached.
+   * @throws IOException if the input could not be read.
+   */
+  public boolean nextLine() throws IOException {
+
+    length = 0;
+    tokens = 0;
+
+    while (true) {
+      if (position == limit) {
+        limit = in.read(buffer, 0, buffer.length);
+        position = 0;
+        if (limit <= 0) {
+          limit = 0;
+          return length > 0;
+        }
+      }
+
+      int i = position;
+      while (i < limit && buffer[i] != '\n') {
+        i++;
+      }
+      append(position, i - position);
+
+      if (i < limit) {
+        position = i + 1;
+        if (length > 0 && line[length - 1] == '\r') {
+          length--;
+        }
+        return true;
+      }
+      position = limit;
+    }
+  }
+
+  /**
+   * Splits the current line into tokens. Leading and trailing whitespace is ignored, tokens are separated by runs of at
+   * least <code>minGap</code> whitespace characters. Shorter runs are part of a token, e.g. the blanks within a name.
+   *
+   * @param minGap minimum number of whitespace characters separating two tokens.
+   * @return number of tokens.
+   */
+  public int split(int minGap) {
+
+    int i = 0;
+    int n = length;
+    while (i < n && isWhitespace(line[i])) {
+      i++;
+    }
+    while (n > i && isWhitespace(line[n - 1])) {
+      n--;
+    }
+
+    tokens = 0;
+    int tokenStart = i;
+    while (i < n) {
+      if (isWhitespace(line[i])) {
+        int j = i;
+        while (j < n && isWhitespace(line[j])) {
+          j++;
+        }
+        if (j - i >= minGap) {
+          addToken(tokenStart, i);
+          tokenStart = j;
+        }
+        i = j;
+      } else {
+        i++;
+      }
+    }
+    if (tokenStart < n) {
+      addToken(tokenStart, n);
+    }
+    return tokens;
+  }
+
+  public int getTokenCount() {
+
+    return tokens;
+  }
+
+  /**
+   * Parses a token as decimal int.
+   *
+   * @param token index of the token.
+   * @return parsed value.
+   * @throws NumberFormatException if the token is not a valid int.
+   */
+  public int getInt(int token) {
+
+    int i = start[token];
+    int e = end[token];
+    boolean negative = i < e && line[i] == '-';
+    if (negative || (i < e && line[i] == '+')) {
+      i++;
+    }
+    if (i == e) {
+      throw new NumberFormatException("not a number: " + getString(token));
+    }
+
+    long value = 0;
+    for (; i < e; i++) {
+      int digit = line[i] - '0';
+      if (digit < 0 || digit > 9) {
+        throw new NumberFormatException("not a number: " + getString(token));
+      }
+      value = value * 10 + digit;
+      if (value > Integer.MAX_VALUE + 1L) {
+        throw new NumberFormatException("number too large: " + getString(token));
+      }
+    }
+
+    value = negative ? -value : value;
+    if (value > Integer.MAX_VALUE) {
+      throw new NumberFormatException("number too large: " + getString(token));
+    }
+    return (int) value;
+  }
+
+  public String getString(int token) {
+
+    return new String(line, start[token], end[token] - start[token], charset);
+  }
+
+  /**
+   * Closes the input. Errors are ignored, as nothing is written.
+   */
+  @Override
+  public void close() {
+
+    try {
+      in.close();
+    } catch (IOException e) {
+      // nothing to do
+    }
+  }
+
+  private void append(int offset, int count) {
+
+    if (length + count > line.length) {
+      line = Arrays.copyOf(line, Math.max(line.length * 2, length + count));
+    }
+    System.arraycopy(buffer, offset, line, length, count);
+    length += count;
+  }
+
+  private void addToken(int from, int to) {
+
+    if (tokens == start.length) {
+      start = Arrays.copyOf(start, tokens * 2);
+      end = Arrays.copyOf(end, tokens * 2);
+    }
+    start[tokens] = from;
+    end[tokens] = to;
+    tokens++;
+  }
+
+  private static boolean isWhitespace(byte b) {
+
+    return b == ' ' || b == '\t' || b == '\r' || b == '\f' || b == 0x0B;
+  }
+}
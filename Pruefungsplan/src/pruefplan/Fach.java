@@ -21,10 +21,8 @@
 
 package pruefplan;
 
-import java.io.*;
+import java.io.IOException;
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 
 public class Fach {
@@ -33,42 +31,38 @@ public class Fach {
   private String fachname;
   private Collection<Fach> notParallelPruef;
 
+  /**
+   * Reads the subjects of a <code>.aw</code> file. Each line holds number, name and lecturer, separated by at least two
+   * whitespace characters. Lines without a number are skipped.
+   *
+   * @param path path of the file.
+   * @return {@link Fach}s by number.
+   */
   public static Map<Integer, Fach> readFile(String path) {
 
-    File f = new File(path);
     Map<Integer, Fach> faecher = new HashMap<Integer, Fach>();
+    AwReader reader = AwReader.open(path);
 
     try {
-      BufferedReader bf = new BufferedReader(new FileReader(f));
-      String in;
-      while ((in = bf.readLine()) != null) {
-        in = in.trim();
-
-        Pattern p = Pattern.compile("[\\s]{2,}");
-        Matcher m = p.matcher(in);
-
-        StringBuffer res = new StringBuffer();
-
-        while (m.find()) {
-          m.appendReplacement(res, ";");
+      while (reader.nextLine()) {
+        int count = reader.split(2);
+        if (count < 2) {
+          continue;
         }
-        m.appendTail(res);
-
-        String[] val = res.toString().split(";");
 
-        if (val.length < 2) {
+        try {
+          int fachnummer = reader.getInt(0);
+          String fachname = reader.getString(1);
+          String dozent = count > 2 ? reader.getString(2) : "";
+          faecher.put(fachnummer, new Fach(fachname, dozent, fachnummer));
+        } catch (NumberFormatException e) {
           continue;
         }
-
-        int fachnummer = Integer.valueOf(val[0]);
-        String fachname = val[1].trim();
-        String dozent = val[2].trim();
-        faecher.put(fachnummer, new Fach(fachname, dozent, fachnummer));
       }
-    } catch (FileNotFoundException e) {
-      throw new IllegalArgumentException("file not found: " + path);
     } catch (IOException e) {
       e.printStackTrace();
+    } finally {
+      reader.close();
     }
 
     return faecher;
@@ -80,7 +74,7 @@ public class Fach {
     this.fachnummer = fachnummer;
     this.fachname = fachname;
 
-    notParallelPruef = new LinkedList<Fach>();
+    notParallelPruef = new LinkedHashSet<Fach>();
   }
 
   public boolean equals(Object o) {
@@ -93,6 +87,11 @@ public class Fach {
     return f.getDozent().equals(dozent) && f.getFachnummer() == fachnummer && f.getFachname().equals(fachname);
   }
 
+  public int hashCode() {
+
+    return fachnummer;
+  }
+
   public String toString() {
 
     return fachnummer + " " + fachname + " (" + dozent + ")";
@@ -100,7 +99,7 @@ public class Fach {
 
   public void addNotParallelPruef(Fach f) {
 
-    if (f != null && !(notParallelPruef.contains(f)) && f.getFachnummer() != fachnummer) {
+    if (f != null && f.getFachnummer() != fachnummer) {
       notParallelPruef.add(f);
     }
   }
@@ -0,0 +1,273 @@
+/*
+ * Copyright (c) 2010-2012 Matthias Klass, Johannes Leimer,
+ *               Rico Lieback, Sebastian Gabriel, Lothar Gesslein,
+ *               Alexander Rampp, Kai Weidner
+ *
+ * This file is part of the Physalix Enrollment System
+ *
+ * Foobar is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Foobar is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Foobar.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pruefplan;
+
+import java.util.*;
+
+
+/**
+ * Conflict graph of the {@link Fach}s of an exam plan. Every {@link Fach} gets a dense index ordered by its number. The
+ * conflicts are stored in compressed sparse rows: the conflicting indexes of <code>i</code> are
+ * <code>nachbarn[anfang[i]]</code> to <code>nachbarn[anfang[i + 1] - 1]</code> in ascending order.
+ */
+public class Konfliktgraph {
+  /**
+   * Number of collected edges after which duplicates are removed instead of growing the buffer.
+   */
+  static final int VERDICHTEN_AB = 1 << 20;
+
+  private final Fach[] faecher;
+  private final int[] nummern;
+  private final int[] teilnehmer;
+
+  private int[] anfang;
+  private int[] nachbarn;
+
+  /**
+   * Edges collected while the graph is built, each packed as smaller index in the upper and larger index in the lower
+   * 32 bits. Released by {@link #fertigstellen()}.
+   */
+  private long[] kanten = new long[1024];
+  private int kantenAnzahl;
+
+  /**
+   * Builds the graph from the blacklists of the given {@link Fach}s.
+   *
+   * @param faecher {@link Fach}s by number.
+   * @return the conflict graph.
+   */
+  public static Konfliktgraph ausFaechern(Map<Integer, Fach> faecher) {
+
+    Konfliktgraph graph = new Konfliktgraph(faecher.values());
+    for (int i = 0; i < graph.size(); i++) {
+      for (Fach other : graph.faecher[i].getNotParallelPruef()) {
+        graph.verbinde(i, graph.indexOf(other.getFachnummer()));
+      }
+    }
+    graph.fertigstellen();
+    return graph;
+  }
+
+  /**
+   * Builds the graph from the registrations of the participants. Two {@link Fach}s are in conflict if at least one
+   * participant is registered for both of them. Numbers without a {@link Fach} are ignored.
+   *
+   * @param faecher    {@link Fach}s by number.
+   * @param teilnahmen numbers of the {@link Fach}s each participant is registered for, keyed by participant.
+   * @return the conflict graph, also holding the number of participants of each {@link Fach}.
+   */
+  public static Konfliktgraph ausTeilnahmen(Map<Integer, Fach> faecher,
+                                            Map<?, ? extends Collection<Integer>> teilnahmen) {
+
+    Konfliktgraph graph = new Konfliktgraph(faecher.values());
+    BitSet gesehen = new BitSet(graph.size());
+    int[] belegt = new int[graph.size()];
+
+    for (Collection<Integer> fachnummern : teilnahmen.values()) {
+      int count = 0;
+      for (Integer fachnummer : fachnummern) {
+        int i = fachnummer == null ? -1 : graph.indexOf(fachnummer);
+        if (i >= 0 && !gesehen.get(i)) {
+          gesehen.set(i);
+          belegt[count++] = i;
+        }
+      }
+
+      for (int a = 0; a < count; a++) {
+        graph.teilnehmer[belegt[a]]++;
+        gesehen.clear(belegt[a]);
+        for (int b = 0; b < a; b++) {
+          graph.verbinde(belegt[a], belegt[b]);
+        }
+      }
+    }
+    graph.fertigstellen();
+    return graph;
+  }
+
+  /**
+   * Creates a graph without conflicts. Conflicts are added by {@link #verbinde(int, int)}, the graph must be completed by
+   * {@link #fertigstellen()} before it is used.
+   *
+   * @param faecher all {@link Fach}s of the graph.
+   */
+  Konfliktgraph(Collection<Fach> faecher) {
+
+    this.faecher = faecher.toArray(new Fach[faecher.size()]);
+    Arrays.sort(this.faecher, new Comparator<Fach>() {
+      @Override
+      public int compare(Fach o1, Fach o2) {
+
+        return o1.getFachnummer() < o2.getFachnummer() ? -1 : (o1.getFachnummer() == o2.getFachnummer() ? 0 : 1);
+      }
+    });
+
+    nummern = new int[this.faecher.length];
+    teilnehmer = new int[this.faecher.length];
+    for (int i = 0; i < this.faecher.length; i++) {
+      nummern[i] = this.faecher[i].getFachnummer();
+    }
+  }
+
+  /**
+   * Adds a conflict between two indexes. Negative indexes and loops are ignored, duplicates are removed later.
+   */
+  void verbinde(int i, int j) {
+
+    if (i < 0 || j < 0 || i == j) {
+      return;
+    }
+
+    if (kantenAnzahl == kanten.length) {
+      if (kantenAnzahl >= VERDICHTEN_AB) {
+        verdichten();
+      }
+      if (kantenAnzahl > kanten.length / 2) {
+        kanten = Arrays.copyOf(kanten, kanten.length * 2);
+      }
+    }
+    kanten[kantenAnzahl++] = ((long) Math.min(i, j) << 32) | Math.max(i, j);
+  }
+
+  /**
+   * Builds the rows from the collected edges. As the edges are sorted, every row is filled in ascending order.
+   */
+  void fertigstellen() {
+
+    verdichten();
+
+    int n = faecher.length;
+    anfang = new int[n + 1];
+    for (int k = 0; k < kantenAnzahl; k++) {
+      anfang[(int) (kanten[k] >>> 32) + 1]++;
+      anfang[(int) kanten[k] + 1]++;
+    }
+    for (int i = 0; i < n; i++) {
+      anfang[i + 1] += anfang[i];
+    }
+
+    nachbarn = new int[anfang[n]];
+    int[] position = Arrays.copyOf(anfang, n);
+    for (int k = 0; k < kantenAnzahl; k++) {
+      int i = (int) (kanten[k] >>> 32);
+      int j = (int) kanten[k];
+      nachbarn[position[i]++] = j;
+      nachbarn[position[j]++] = i;
+    }
+
+    kanten = null;
+    kantenAnzahl = 0;
+  }
+
+  private void verdichten() {
+
+    Arrays.sort(kanten, 0, kantenAnzahl);
+    int unique = 0;
+    for (int k = 0; k < kantenAnzahl; k++) {
+      if (unique == 0 || kanten[k] != kanten[unique - 1]) {
+        kanten[unique++] = kanten[k];
+      }
+    }
+    kantenAnzahl = unique;
+  }
+
+  public int size() {
+
+    return faecher.length;
+  }
+
+  public Fach getFach(int i) {
+
+    return faecher[i];
+  }
+
+  /**
+   * Returns the index of a {@link Fach}.
+   *
+   * @param fachnummer number of the {@link Fach}.
+   * @return the index or -1 if the graph does not contain the {@link Fach}.
+   */
+  public int indexOf(int fachnummer) {
+
+    int i = Arrays.binarySearch(nummern, fachnummer);
+    return i < 0 ? -1 : i;
+  }
+
+  public boolean inKonflikt(int i, int j) {
+
+    return Arrays.binarySearch(nachbarn, anfang[i], anfang[i + 1], j) >= 0;
+  }
+
+  public int getGrad(int i) {
+
+    return anfang[i + 1] - anfang[i];
+  }
+
+  /**
+   * Number of conflicts between two {@link Fach}s in the whole graph.
+   *
+   * @return number of conflicts.
+   */
+  public int getKantenAnzahl() {
+
+    return nachbarn.length / 2;
+  }
+
+  /**
+   * Number of participants of a {@link Fach}. This is only known if the graph was built from registrations, otherwise 0.
+   *
+   * @param i index of the {@link Fach}.
+   * @return number of participants.
+   */
+  public int getTeilnehmer(int i) {
+
+    return teilnehmer[i];
+  }
+
+  /**
+   * Returns the conflicting indexes of a {@link Fach} in ascending order.
+   *
+   * @param i index of the {@link Fach}.
+   * @return copy of the conflicting indexes.
+   */
+  public int[] getNachbarn(int i) {
+
+    return Arrays.copyOfRange(nachbarn, anfang[i], anfang[i + 1]);
+  }
+
+  /**
+   * Expands the rows into one {@link BitSet} per index, which allows the planner to test a whole slot at once.
+   *
+   * @return conflicting indexes by index.
+   */
+  BitSet[] konfliktMengen() {
+
+    BitSet[] mengen = new BitSet[faecher.length];
+    for (int i = 0; i < faecher.length; i++) {
+      mengen[i] = new BitSet(faecher.length);
+      for (int k = anfang[i]; k < anfang[i + 1]; k++) {
+        mengen[i].set(nachbarn[k]);
+      }
+    }
+    return mengen;
+  }
+}
@@ -24,64 +24,48 @@ package pruefplan;
 import java.util.*;
 
 
+/**
+ * Exam plan assigning every {@link Fach} to a slot, so that no two {@link Fach}s which must not be examined in parallel
+ * share a slot. The slots are planned by a {@link Slotplaner}.
+ */
 public class Pruefungsplan {
-  private Map<Integer, Fach> faecher;
-  private Collection<Collection<Fach>> belegung;
+  private List<Collection<Fach>> belegung;
 
   public Pruefungsplan(Map<Integer, Fach> faecher) {
 
-    this.faecher = faecher;
-    belegung = new LinkedList<Collection<Fach>>();
-    parse();
+    this(faecher, new Slotplaner());
   }
 
-  private void parse() {
-
-    Collection<Fach> val = faecher.values();
-    Fach[] valFach = new Fach[val.size()];
-    val.toArray(valFach);
-    Arrays.sort(valFach, new Comparator<Fach>() {
-      @Override
-      public int compare(Fach o1, Fach o2) {
-
-        if (o1.countBlacklist() > o2.countBlacklist()) {
-          return -1;
-        } else if (o1.countBlacklist() == o2.countBlacklist()) {
-          return 0;
-        } else {
-          return 1;
-        }
-      }
-    });
+  public Pruefungsplan(Map<Integer, Fach> faecher, Slotplaner planer) {
 
+    this(Konfliktgraph.ausFaechern(faecher), planer);
+  }
 
-    for (Fach current : valFach) {
-      boolean foundSlot = false;
-      for (Collection<Fach> slot : belegung) {
-        if (!hasFach(slot, current)) {
-          slot.add(current);
-          foundSlot = true;
-          break;
-        }
-      }
-      if (!foundSlot) {
-        Collection<Fach> slot = new LinkedList<Fach>();
-        slot.add(current);
-        belegung.add(slot);
-      }
-    }
+  public Pruefungsplan(Konfliktgraph graph, Slotplaner planer) {
+
+    belegung = new ArrayList<Collection<Fach>>();
+    parse(graph, planer);
   }
 
-  private boolean hasFach(Collection<Fach> slot, Fach fach) {
+  private void parse(Konfliktgraph graph, Slotplaner planer) {
 
-    for (Fach item : slot) {
-      if (item.getFachnummer() == fach.getFachnummer() || item.hasBlacklistedFach(fach)) {
-        return true;
-      } else {
-//				System.out.println(item.getFachnummer() + " " + fach.getFachnummer());
+    int[] slots = planer.planen(graph);
+    for (int i = 0; i < slots.length; i++) {
+      while (belegung.size() <= slots[i]) {
+        belegung.add(new LinkedList<Fach>());
       }
+      belegung.get(slots[i]).add(graph.getFach(i));
     }
-    return false;
+  }
+
+  public int getSlotCount() {
+
+    return belegung.size();
+  }
+
+  public List<Collection<Fach>> getBelegung() {
+
+    return Collections.unmodifiableList(belegung);
   }
 
   public String toString() {
@@ -0,0 +1,484 @@
+/*
+ * Copyright (c) 2010-2012 Matthias Klass, Johannes Leimer,
+ *               Rico Lieback, Sebastian Gabriel, Lothar Gesslein,
+ *               Alexander Rampp, Kai Weidner
+ *
+ * This file is part of the Physalix Enrollment System
+ *
+ * Foobar is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Foobar is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Foobar.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pruefplan;
+
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+
+/**
+ * Assigns the {@link Fach}s of a {@link Konfliktgraph} to as few exam slots as possible, so that no two conflicting
+ * {@link Fach}s share a slot. Each run builds a plan with DSatur or Welsh-Powell and improves it by iterated greedy
+ * and by emptying small slots. Several runs with different seeds are executed in parallel and the best plan is taken.
+ * The result is deterministic for a given seed.
+ */
+public class Slotplaner {
+  /**
+   * Order in which the {@link Fach}s are assigned to the slots.
+   */
+  public enum Reihenfolge {
+    /**
+     * The {@link Fach} with the most distinct slots among its conflicts comes next.
+     */
+    DSATUR,
+
+    /**
+     * The {@link Fach}s are assigned by descending number of conflicts.
+     */
+    WELSH_POWELL
+  }
+
+  private Reihenfolge reihenfolge = Reihenfolge.DSATUR;
+
+  /**
+   * Maximum number of {@link Fach}s per slot, e.g. the number of rooms. 0 means unlimited.
+   */
+  private int maxFaecherProSlot = 0;
+
+  /**
+   * Maximum number of participants per slot, e.g. the seats of all rooms. 0 means unlimited. A single {@link Fach}
+   * exceeding the capacity gets a slot of its own.
+   */
+  private int maxTeilnehmerProSlot = 0;
+
+  private int neustarts = 8;
+  private int threads = Runtime.getRuntime().availableProcessors();
+  private int iterationen = 200;
+  private long seed = 0L;
+
+  /**
+   * Plans the exam slots.
+   *
+   * @param graph conflicts of the {@link Fach}s.
+   * @return the slot of each {@link Fach} by its index in the graph, slots are numbered from 0 without gaps.
+   */
+  public int[] planen(final Konfliktgraph graph) {
+
+    if (graph == null) {
+      throw new IllegalArgumentException("no graph given");
+    } else if (graph.size() == 0) {
+      return new int[0];
+    }
+
+    final BitSet[] konflikte = graph.konfliktMengen();
+    int laeufe = Math.max(1, neustarts);
+    ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, laeufe)));
+    try {
+      List<Future<int[]>> ergebnisse = new ArrayList<Future<int[]>>(laeufe);
+      for (int i = 0; i < laeufe; i++) {
+        final long laufSeed = seed + i;
+        ergebnisse.add(executor.submit(new Callable<int[]>() {
+          @Override
+          public int[] call() {
+
+            return new Lauf(graph, konflikte, new Random(laufSeed)).planen();
+          }
+        }));
+      }
+
+      int[] beste = null;
+      for (Future<int[]> ergebnis : ergebnisse) {
+        int[] slots = ergebnis.get();
+        if (beste == null || anzahlSlots(slots) < anzahlSlots(beste)) {
+          beste = slots;
+        }
+      }
+      return beste;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("exam planning interrupted", e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("exam planning failed", e.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Returns the number of slots used by a plan.
+   *
+   * @param slots slot of each {@link Fach}.
+   * @return number of slots.
+   */
+  public static int anzahlSlots(int[] slots) {
+
+    int max = -1;
+    for (int slot : slots) {
+      max = Math.max(max, slot);
+    }
+    return max + 1;
+  }
+
+  public Reihenfolge getReihenfolge() {
+
+    return reihenfolge;
+  }
+
+  public void setReihenfolge(Reihenfolge reihenfolge) {
+
+    if (reihenfolge == null) {
+      throw new IllegalArgumentException("no order given");
+    }
+    this.reihenfolge = reihenfolge;
+  }
+
+  public int getMaxFaecherProSlot() {
+
+    return maxFaecherProSlot;
+  }
+
+  public void setMaxFaecherProSlot(int maxFaecherProSlot) {
+
+    this.maxFaecherProSlot = maxFaecherProSlot;
+  }
+
+  public int getMaxTeilnehmerProSlot() {
+
+    return maxTeilnehmerProSlot;
+  }
+
+  public void setMaxTeilnehmerProSlot(int maxTeilnehmerProSlot) {
+
+    this.maxTeilnehmerProSlot = maxTeilnehmerProSlot;
+  }
+
+  public int getNeustarts() {
+
+    return neustarts;
+  }
+
+  public void setNeustarts(int neustarts) {
+
+    this.neustarts = neustarts;
+  }
+
+  public int getThreads() {
+
+    return threads;
+  }
+
+  public void setThreads(int threads) {
+
+    this.threads = threads;
+  }
+
+  public int getIterationen() {
+
+    return iterationen;
+  }
+
+  public void setIterationen(int iterationen) {
+
+    this.iterationen = iterationen;
+  }
+
+  public long getSeed() {
+
+    return seed;
+  }
+
+  public void setSeed(long seed) {
+
+    this.seed = seed;
+  }
+
+  /**
+   * A single run of the planner. Each slot is kept as a {@link BitSet} of its {@link Fach}s, so a {@link Fach} fits into a
+   * slot if its conflicts do not intersect the slot.
+   */
+  private final class Lauf {
+    private final Konfliktgraph graph;
+    private final BitSet[] konflikte;
+    private final Random random;
+    private final int n;
+
+    private final int[] slots;
+    private final BitSet[] mitglieder;
+    private final int[] faecherProSlot;
+    private final int[] teilnehmerProSlot;
+    private int anzahl;
+
+    private Lauf(Konfliktgraph graph, BitSet[] konflikte, Random random) {
+
+      this.graph = graph;
+      this.konflikte = konflikte;
+      this.random = random;
+      this.n = graph.size();
+
+      slots = new int[n];
+      mitglieder = new BitSet[n];
+      faecherProSlot = new int[n];
+      teilnehmerProSlot = new int[n];
+      for (int i = 0; i < n; i++) {
+        mitglieder[i] = new BitSet(n);
+      }
+      leeren();
+    }
+
+    private int[] planen() {
+
+      if (reihenfolge == Reihenfolge.DSATUR) {
+        dsatur();
+      } else {
+        greedy(welshPowell());
+      }
+
+      int[] beste = slots.clone();
+      int besteAnzahl = anzahl;
+      for (int i = 0; i < iterationen; i++) {
+        greedy(nachSlots(beste));
+        if (anzahl <= besteAnzahl) {
+          beste = slots.clone();
+          besteAnzahl = anzahl;
+        }
+      }
+
+      laden(beste);
+      while (slotAufloesen()) {
+        // every successful pass removes one slot
+      }
+      return slots.clone();
+    }
+
+    private void dsatur() {
+
+      BitSet offen = new BitSet(n);
+      offen.set(0, n);
+      BitSet[] nachbarSlots = new BitSet[n];
+      int[] saettigung = new int[n];
+      int[] grad = new int[n];
+      int[] zufall = new int[n];
+      for (int i = 0; i < n; i++) {
+        nachbarSlots[i] = new BitSet();
+        grad[i] = graph.getGrad(i);
+        zufall[i] = random.nextInt();
+      }
+
+      for (int k = 0; k < n; k++) {
+        int v = -1;
+        for (int i = offen.nextSetBit(0); i >= 0; i = offen.nextSetBit(i + 1)) {
+          if (v < 0 || saettigung[i] > saettigung[v]
+              || (saettigung[i] == saettigung[v] && (grad[i] > grad[v] || (grad[i] == grad[v] && zufall[i] > zufall[v])))) {
+            v = i;
+          }
+        }
+
+        int slot = zuweisen(v);
+        offen.clear(v);
+
+        for (int u = konflikte[v].nextSetBit(0); u >= 0; u = konflikte[v].nextSetBit(u + 1)) {
+          if (offen.get(u) && !nachbarSlots[u].get(slot)) {
+            nachbarSlots[u].set(slot);
+            saettigung[u]++;
+          }
+        }
+      }
+    }
+
+    private int[] welshPowell() {
+
+      Integer[] order = new Integer[n];
+      for (int i = 0; i < n; i++) {
+        order[i] = i;
+      }
+      Collections.shuffle(Arrays.asList(order), random);
+      Arrays.sort(order, new Comparator<Integer>() {
+        @Override
+        public int compare(Integer o1, Integer o2) {
+
+          return graph.getGrad(o2) - graph.getGrad(o1);
+        }
+      });
+
+      int[] result = new int[n];
+      for (int i = 0; i < n; i++) {
+        result[i] = order[i];
+      }
+      return result;
+    }
+
+    /**
+     * Orders the {@link Fach}s slot by slot, the order of the slots is chosen randomly. Assigning them greedily in this
+     * order never needs more slots than the given plan unless a capacity is exceeded.
+     */
+    private int[] nachSlots(int[] plan) {
+
+      int slotCount = anzahlSlots(plan);
+      List<List<Integer>> klassen = new ArrayList<List<Integer>>(slotCount);
+      for (int c = 0; c < slotCount; c++) {
+        klassen.add(new ArrayList<Integer>());
+      }
+      for (int i = 0; i < n; i++) {
+        klassen.get(plan[i]).add(i);
+      }
+
+      switch (random.nextInt(3)) {
+        case 0:
+          Collections.reverse(klassen);
+          break;
+        case 1:
+          Collections.sort(klassen, new Comparator<List<Integer>>() {
+            @Override
+            public int compare(List<Integer> o1, List<Integer> o2) {
+
+              return o2.size() - o1.size();
+            }
+          });
+          break;
+        default:
+          Collections.shuffle(klassen, random);
+      }
+
+      int[] order = new int[n];
+      int k = 0;
+      for (List<Integer> klasse : klassen) {
+        for (Integer i : klasse) {
+          order[k++] = i;
+        }
+      }
+      return order;
+    }
+
+    private void greedy(int[] order) {
+
+      leeren();
+      for (int v : order) {
+        zuweisen(v);
+      }
+    }
+
+    /**
+     * Tries to move all {@link Fach}s of the smallest possible slot into other slots.
+     *
+     * @return true if a slot was removed.
+     */
+    private boolean slotAufloesen() {
+
+      Integer[] kandidaten = new Integer[anzahl];
+      for (int c = 0; c < anzahl; c++) {
+        kandidaten[c] = c;
+      }
+      Arrays.sort(kandidaten, new Comparator<Integer>() {
+        @Override
+        public int compare(Integer o1, Integer o2) {
+
+          return faecherProSlot[o1] - faecherProSlot[o2];
+        }
+      });
+
+      for (int leer : kandidaten) {
+        int[] vorher = slots.clone();
+        BitSet faecher = (BitSet) mitglieder[leer].clone();
+        boolean verschoben = true;
+
+        for (int v = faecher.nextSetBit(0); v >= 0 && verschoben; v = faecher.nextSetBit(v + 1)) {
+          verschoben = false;
+          for (int c = 0; c < anzahl; c++) {
+            if (c != leer && passt(v, c)) {
+              entfernen(v);
+              hinzufuegen(v, c);
+              verschoben = true;
+              break;
+            }
+          }
+        }
+
+        if (verschoben) {
+          int[] kompakt = slots.clone();
+          for (int i = 0; i < n; i++) {
+            if (kompakt[i] > leer) {
+              kompakt[i]--;
+            }
+          }
+          laden(kompakt);
+          return true;
+        }
+        laden(vorher);
+      }
+      return false;
+    }
+
+    private int zuweisen(int v) {
+
+      for (int c = 0; c < anzahl; c++) {
+        if (passt(v, c)) {
+          hinzufuegen(v, c);
+          return c;
+        }
+      }
+      hinzufuegen(v, anzahl);
+      return anzahl - 1;
+    }
+
+    private boolean passt(int v, int c) {
+
+      if (mitglieder[c].intersects(konflikte[v])) {
+        return false;
+      } else if (maxFaecherProSlot > 0 && faecherProSlot[c] >= maxFaecherProSlot) {
+        return false;
+      }
+      return maxTeilnehmerProSlot <= 0 || faecherProSlot[c] == 0
+          || teilnehmerProSlot[c] + graph.getTeilnehmer(v) <= maxTeilnehmerProSlot;
+    }
+
+    private void hinzufuegen(int v, int c) {
+
+      slots[v] = c;
+      mitglieder[c].set(v);
+      faecherProSlot[c]++;
+      teilnehmerProSlot[c] += graph.getTeilnehmer(v);
+      anzahl = Math.max(anzahl, c + 1);
+    }
+
+    private void entfernen(int v) {
+
+      int c = slots[v];
+      slots[v] = -1;
+      mitglieder[c].clear(v);
+      faecherProSlot[c]--;
+      teilnehmerProSlot[c] -= graph.getTeilnehmer(v);
+    }
+
+    private void leeren() {
+
+      for (int c = 0; c < n; c++) {
+        mitglieder[c].clear();
+        faecherProSlot[c] = 0;
+        teilnehmerProSlot[c] = 0;
+      }
+      Arrays.fill(slots, -1);
+      anzahl = 0;
+    }
+
+    private void laden(int[] plan) {
+
+      leeren();
+      for (int v = 0; v < n; v++) {
+        hinzufuegen(v, plan[v]);
+      }
+    }
+  }
+}
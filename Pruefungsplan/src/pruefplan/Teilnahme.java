@@ -21,7 +21,7 @@
 
 package pruefplan;
 
-import java.io.*;
+import java.io.IOException;
 import java.util.Map;
 
 
@@ -35,34 +35,80 @@ public class Teilnahme {
   public static void readTeilnahmeliste(Map<Integer, Fach> faecher,
                                         String path) {
 
-    File f = new File(path);
+    AwReader reader = AwReader.open(path);
 
     try {
-      BufferedReader bf = new BufferedReader(new FileReader(f));
-      String in;
-      while ((in = bf.readLine()) != null) {
-        in = in.trim();
-
-        String[] val = in.split("\\s");
+      while (reader.nextLine()) {
+        int count = reader.split(1);
+        if (count == 0) {
+          continue;
+        }
 
         try {
-          Fach current = faecher.get(Integer.valueOf(val[0]));
+          Fach current = faecher.get(reader.getInt(0));
           if (current == null) {
             continue;
           }
 
-          for (String v : val) {
-            current.addNotParallelPruef(faecher.get(Integer
-                .valueOf(v)));
+          for (int t = 1; t < count; t++) {
+            current.addNotParallelPruef(faecher.get(reader.getInt(t)));
           }
         } catch (NumberFormatException e) {
           continue;
         }
       }
-    } catch (FileNotFoundException e) {
-      throw new IllegalArgumentException("file not found: " + path);
     } catch (IOException e) {
       e.printStackTrace();
+    } finally {
+      reader.close();
     }
   }
+
+  /**
+   * Reads the participation files directly into a {@link Konfliktgraph}, without building the blacklists of the
+   * {@link Fach}s. Each line starts with a subject number followed by the numbers of the subjects which must not be
+   * examined in parallel. Several files, e.g. of past semesters, are merged into one graph.
+   *
+   * @param faecher {@link Fach}s by number, unknown numbers are ignored.
+   * @param paths   paths of the participation files.
+   * @return the conflict graph.
+   * @throws IllegalStateException if a file cannot be read.
+   */
+  public static Konfliktgraph readKonfliktgraph(Map<Integer, Fach> faecher, String... paths) {
+
+    Konfliktgraph graph = new Konfliktgraph(faecher.values());
+
+    for (String path : paths) {
+      AwReader reader = AwReader.open(path);
+
+      try {
+        while (reader.nextLine()) {
+          int count = reader.split(1);
+          if (count == 0) {
+            continue;
+          }
+
+          try {
+            int current = graph.indexOf(reader.getInt(0));
+            if (current < 0) {
+              continue;
+            }
+
+            for (int t = 1; t < count; t++) {
+              graph.verbinde(current, graph.indexOf(reader.getInt(t)));
+            }
+          } catch (NumberFormatException e) {
+            continue;
+          }
+        }
+      } catch (IOException e) {
+        throw new IllegalStateException("could not read " + path, e);
+      } finally {
+        reader.close();
+      }
+    }
+
+    graph.fertigstellen();
+    return graph;
+  }
 }
@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2010-2012 Matthias Klass, Johannes Leimer,
+ *               Rico Lieback, Sebastian Gabriel, Lothar Gesslein,
+ *               Alexander Rampp, Kai Weidner
+ *
+ * This file is part of the Physalix Enrollment System
+ *
+ * Foobar is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Foobar is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Foobar.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pruefplan;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class AwReaderTest {
+  private static final Charset UTF8 = Charset.forName("UTF-8");
+
+  @Test
+  public void testLineEndings() throws IOException {
+
+    AwReader reader = reader("1 a\r\n2 b\n\r\n3 c");
+
+    assertTrue(reader.nextLine());
+    assertEquals(2, reader.split(1));
+    assertEquals("a", reader.getString(1));
+    assertTrue(reader.nextLine());
+    assertEquals("b", token(reader, 1, 1));
+    assertTrue(reader.nextLine());
+    assertEquals(0, reader.split(1));
+    assertTrue(reader.nextLine());
+    assertEquals("c", token(reader, 1, 1));
+    assertFalse(reader.nextLine());
+    assertFalse(reader.nextLine());
+  }
+
+  @Test
+  public void testFinalLineWithoutNewline() throws IOException {
+
+    AwReader reader = reader("1\n2");
+
+    assertTrue(reader.nextLine());
+    assertEquals(1, reader.split(1));
+    assertTrue(reader.nextLine());
+    assertEquals(1, reader.split(1));
+    assertEquals(2, reader.getInt(0));
+    assertFalse(reader.nextLine());
+  }
+
+  @Test
+  public void testEmptyInput() throws IOException {
+
+    assertFalse(reader("").nextLine());
+    AwReader reader = reader("1\n");
+    assertTrue(reader.nextLine());
+    assertFalse(reader.nextLine());
+  }
+
+  /**
+   * Line endings split across two reads of the underlying stream.
+   */
+  @Test
+  public void testSmallReads() throws IOException {
+
+    InputStream in = new FilterInputStream(new ByteArrayInputStream("12 34\r\n56\r\n".getBytes(UTF8))) {
+      @Override
+      public int read(byte[] b, int off, int len) throws IOException {
+
+        return super.read(b, off, Math.min(len, 1));
+      }
+    };
+    AwReader reader = new AwReader(in, UTF8);
+
+    assertTrue(reader.nextLine());
+    assertEquals(2, reader.split(1));
+    assertEquals(34, reader.getInt(1));
+    assertTrue(reader.nextLine());
+    assertEquals("56", token(reader, 1, 0));
+    assertFalse(reader.nextLine());
+  }
+
+  /**
+   * Lines longer than the internal buffer of 64 KiB, also crossing its boundaries.
+   */
+  @Test
+  public void testLongLines() throws IOException {
+
+    char[] chars = new char[200000];
+    Arrays.fill(chars, 'x');
+    String longToken = new String(chars);
+    AwReader reader = reader("1 " + longToken + " 2\r\n" + longToken + "\n3");
+
+    assertTrue(reader.nextLine());
+    assertEquals(3, reader.split(1));
+    assertEquals(1, reader.getInt(0));
+    assertEquals(longToken, reader.getString(1));
+    assertEquals(2, reader.getInt(2));
+    assertTrue(reader.nextLine());
+    assertEquals(longToken, token(reader, 1, 0));
+    assertTrue(reader.nextLine());
+    assertEquals(1, reader.split(1));
+    assertEquals(3, reader.getInt(0));
+    assertFalse(reader.nextLine());
+  }
+
+  @Test
+  public void testMinGap() throws IOException {
+
+    AwReader reader = reader("  4711  Software Engineering \t Prof. Dr. Mustermann  ");
+    assertTrue(reader.nextLine());
+
+    assertEquals(3, reader.split(2));
+    assertEquals(4711, reader.getInt(0));
+    assertEquals("Software Engineering", reader.getString(1));
+    assertEquals("Prof. Dr. Mustermann", reader.getString(2));
+    assertEquals(3, reader.getTokenCount());
+
+    assertEquals(6, reader.split(1));
+    assertEquals("Software", reader.getString(1));
+    assertEquals("Mustermann", reader.getString(5));
+  }
+
+  @Test
+  public void testManyTokens() throws IOException {
+
+    StringBuilder line = new StringBuilder();
+    for (int i = 0; i < 100; i++) {
+      line.append(i).append('\t');
+    }
+    AwReader reader = reader(line.toString());
+    assertTrue(reader.nextLine());
+
+    assertEquals(100, reader.split(1));
+    for (int i = 0; i < 100; i++) {
+      assertEquals(i, reader.getInt(i));
+    }
+  }
+
+  @Test
+  public void testGetIntSign() throws IOException {
+
+    AwReader reader = reader("-17 +17 0 -0 2147483647 -2147483648");
+    assertTrue(reader.nextLine());
+    assertEquals(6, reader.split(1));
+
+    assertEquals(-17, reader.getInt(0));
+    assertEquals(17, reader.getInt(1));
+    assertEquals(0, reader.getInt(2));
+    assertEquals(0, reader.getInt(3));
+    assertEquals(Integer.MAX_VALUE, reader.getInt(4));
+    assertEquals(Integer.MIN_VALUE, reader.getInt(5));
+  }
+
+  @Test
+  public void testGetIntOverflow() throws IOException {
+
+    AwReader reader = reader("2147483648 -2147483649 99999999999999999999 - + 12a");
+    assertTrue(reader.nextLine());
+    assertEquals(6, reader.split(1));
+
+    for (int token = 0; token < 6; token++) {
+      try {
+        reader.getInt(token);
+        fail("no exception for " + reader.getString(token));
+      } catch (NumberFormatException e) {
+        // expected
+      }
+    }
+  }
+
+  private static AwReader reader(String content) {
+
+    return new AwReader(new ByteArrayInputStream(content.getBytes(UTF8)), UTF8);
+  }
+
+  private static String token(AwReader reader, int minGap, int token) {
+
+    reader.split(minGap);
+    return reader.getString(token);
+  }
+}
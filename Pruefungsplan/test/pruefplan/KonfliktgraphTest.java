@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2010-2012 Matthias Klass, Johannes Leimer,
+ *               Rico Lieback, Sebastian Gabriel, Lothar Gesslein,
+ *               Alexander Rampp, Kai Weidner
+ *
+ * This file is part of the Physalix Enrollment System
+ *
+ * Foobar is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Foobar is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Foobar.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pruefplan;
+
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class KonfliktgraphTest {
+
+  @Test
+  public void testDuplicateAndSelfEdges() {
+
+    Konfliktgraph graph = new Konfliktgraph(faecher(4));
+    graph.verbinde(0, 1);
+    graph.verbinde(1, 0);
+    graph.verbinde(0, 1);
+    graph.verbinde(2, 2);
+    graph.verbinde(-1, 3);
+    graph.verbinde(3, -1);
+    graph.fertigstellen();
+
+    assertEquals(1, graph.getKantenAnzahl());
+    assertTrue(graph.inKonflikt(0, 1));
+    assertTrue(graph.inKonflikt(1, 0));
+    assertFalse(graph.inKonflikt(2, 2));
+    assertFalse(graph.inKonflikt(3, 0));
+    assertEquals(1, graph.getGrad(0));
+    assertEquals(1, graph.getGrad(1));
+    assertEquals(0, graph.getGrad(2));
+    assertEquals(0, graph.getGrad(3));
+  }
+
+  @Test
+  public void testIndexOrderedByNumber() {
+
+    Map<Integer, Fach> faecher = new HashMap<Integer, Fach>();
+    faecher.put(30, new Fach("c", "", 30));
+    faecher.put(10, new Fach("a", "", 10));
+    faecher.put(20, new Fach("b", "", 20));
+    faecher.get(30).addNotParallelPruef(faecher.get(10));
+    Konfliktgraph graph = Konfliktgraph.ausFaechern(faecher);
+
+    assertEquals(0, graph.indexOf(10));
+    assertEquals(1, graph.indexOf(20));
+    assertEquals(2, graph.indexOf(30));
+    assertEquals(-1, graph.indexOf(15));
+    assertEquals(30, graph.getFach(2).getFachnummer());
+    assertTrue(graph.inKonflikt(0, 2));
+    assertFalse(graph.inKonflikt(0, 1));
+  }
+
+  @Test
+  public void testAgainstAdjacencyMatrix() {
+
+    Random random = new Random(1);
+    for (int run = 0; run < 20; run++) {
+      int n = 1 + random.nextInt(80);
+      Konfliktgraph graph = new Konfliktgraph(faecher(n));
+      boolean[][] matrix = new boolean[n][n];
+
+      int edges = random.nextInt(4 * n);
+      for (int k = 0; k < edges; k++) {
+        int i = random.nextInt(n);
+        int j = random.nextInt(n);
+        graph.verbinde(i, j);
+        if (i != j) {
+          matrix[i][j] = true;
+          matrix[j][i] = true;
+        }
+      }
+      graph.fertigstellen();
+
+      assertMatches(matrix, graph);
+    }
+  }
+
+  @Test
+  public void testAusTeilnahmen() {
+
+    Map<Integer, Fach> faecher = new HashMap<Integer, Fach>();
+    for (int nummer = 1; nummer <= 4; nummer++) {
+      faecher.put(nummer, new Fach("fach" + nummer, "", nummer));
+    }
+    Map<String, List<Integer>> teilnahmen = new HashMap<String, List<Integer>>();
+    teilnahmen.put("a", Arrays.asList(1, 2, 2, 99));
+    teilnahmen.put("b", Arrays.asList(2, 3, null));
+    teilnahmen.put("c", Arrays.asList(4));
+
+    Konfliktgraph graph = Konfliktgraph.ausTeilnahmen(faecher, teilnahmen);
+
+    assertEquals(2, graph.getKantenAnzahl());
+    assertTrue(graph.inKonflikt(graph.indexOf(1), graph.indexOf(2)));
+    assertTrue(graph.inKonflikt(graph.indexOf(2), graph.indexOf(3)));
+    assertFalse(graph.inKonflikt(graph.indexOf(1), graph.indexOf(3)));
+    assertEquals(0, graph.getGrad(graph.indexOf(4)));
+    assertEquals(1, graph.getTeilnehmer(graph.indexOf(1)));
+    assertEquals(2, graph.getTeilnehmer(graph.indexOf(2)));
+    assertEquals(1, graph.getTeilnehmer(graph.indexOf(4)));
+  }
+
+  /**
+   * More edges than {@link Konfliktgraph#VERDICHTEN_AB}, most of them duplicates, so the buffer is compacted while the
+   * graph is built.
+   */
+  @Test
+  public void testManyDuplicateEdges() {
+
+    int n = 50;
+    Random random = new Random(2);
+    Konfliktgraph graph = new Konfliktgraph(faecher(n));
+    boolean[][] matrix = new boolean[n][n];
+
+    for (int k = 0; k < 3 * Konfliktgraph.VERDICHTEN_AB; k++) {
+      int i = random.nextInt(n);
+      int j = random.nextInt(n);
+      if ((i + j) % 3 == 0) {
+        graph.verbinde(i, j);
+        if (i != j) {
+          matrix[i][j] = true;
+          matrix[j][i] = true;
+        }
+      }
+    }
+    graph.fertigstellen();
+
+    assertMatches(matrix, graph);
+  }
+
+  /**
+   * More distinct edges than {@link Konfliktgraph#VERDICHTEN_AB}, so the buffer still has to grow after compacting.
+   */
+  @Test
+  public void testManyDistinctEdges() {
+
+    int n = 1500;
+    Konfliktgraph graph = new Konfliktgraph(faecher(n));
+    for (int i = 0; i < n; i++) {
+      for (int j = 0; j < i; j++) {
+        graph.verbinde(i, j);
+      }
+    }
+    assertTrue(n * (n - 1) / 2 > Konfliktgraph.VERDICHTEN_AB);
+    for (int i = 0; i < n; i += 7) {
+      graph.verbinde(i, (i + 1) % n);
+    }
+    graph.fertigstellen();
+
+    assertEquals(n * (n - 1) / 2, graph.getKantenAnzahl());
+    for (int i = 0; i < n; i++) {
+      assertEquals(n - 1, graph.getGrad(i));
+    }
+    assertTrue(graph.inKonflikt(0, n - 1));
+    assertFalse(graph.inKonflikt(5, 5));
+  }
+
+  static List<Fach> faecher(int n) {
+
+    List<Fach> faecher = new ArrayList<Fach>(n);
+    for (int i = 0; i < n; i++) {
+      faecher.add(new Fach("fach" + i, "dozent", i));
+    }
+    return faecher;
+  }
+
+  private static void assertMatches(boolean[][] matrix, Konfliktgraph graph) {
+
+    int n = matrix.length;
+    int kanten = 0;
+    for (int i = 0; i < n; i++) {
+      int grad = 0;
+      List<Integer> nachbarn = new ArrayList<Integer>();
+      for (int j = 0; j < n; j++) {
+        assertEquals(i + "-" + j, matrix[i][j], graph.inKonflikt(i, j));
+        if (matrix[i][j]) {
+          grad++;
+          nachbarn.add(j);
+        }
+      }
+      assertEquals(grad, graph.getGrad(i));
+
+      int[] actual = graph.getNachbarn(i);
+      assertEquals(nachbarn.size(), actual.length);
+      for (int k = 0; k < actual.length; k++) {
+        assertEquals(nachbarn.get(k).intValue(), actual[k]);
+      }
+      kanten += grad;
+    }
+    assertEquals(kanten / 2, graph.getKantenAnzahl());
+  }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2010-2012 Matthias Klass, Johannes Leimer,
+ *               Rico Lieback, Sebastian Gabriel, Lothar Gesslein,
+ *               Alexander Rampp, Kai Weidner
+ *
+ * This file is part of the Physalix Enrollment System
+ *
+ * Foobar is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Foobar is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Foobar.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pruefplan;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class SlotplanerTest {
+  private Slotplaner planer;
+
+  @Before
+  public void setUp() {
+
+    planer = new Slotplaner();
+    planer.setNeustarts(4);
+    planer.setThreads(2);
+    planer.setIterationen(50);
+  }
+
+  @Test
+  public void testLeererGraph() {
+
+    assertEquals(0, planer.planen(new Konfliktgraph(KonfliktgraphTest.faecher(0))).length);
+  }
+
+  @Test
+  public void testOhneKonflikte() {
+
+    Konfliktgraph graph = graph(10);
+    graph.fertigstellen();
+
+    int[] slots = planer.planen(graph);
+    assertKonfliktfrei(graph, slots);
+    assertEquals(1, Slotplaner.anzahlSlots(slots));
+  }
+
+  @Test
+  public void testVollstaendigerGraph() {
+
+    Konfliktgraph graph = graph(7);
+    for (int i = 0; i < 7; i++) {
+      for (int j = 0; j < i; j++) {
+        graph.verbinde(i, j);
+      }
+    }
+    graph.fertigstellen();
+
+    int[] slots = planer.planen(graph);
+    assertKonfliktfrei(graph, slots);
+    assertEquals(7, Slotplaner.anzahlSlots(slots));
+  }
+
+  @Test
+  public void testGeraderKreis() {
+
+    Konfliktgraph graph = graph(12);
+    for (int i = 0; i < 12; i++) {
+      graph.verbinde(i, (i + 1) % 12);
+    }
+    graph.fertigstellen();
+
+    for (Slotplaner.Reihenfolge reihenfolge : Slotplaner.Reihenfolge.values()) {
+      planer.setReihenfolge(reihenfolge);
+      int[] slots = planer.planen(graph);
+      assertKonfliktfrei(graph, slots);
+      assertEquals(2, Slotplaner.anzahlSlots(slots));
+    }
+  }
+
+  @Test
+  public void testZufaelligeGraphenKonfliktfrei() {
+
+    Random random = new Random(3);
+    for (int run = 0; run < 10; run++) {
+      int n = 20 + random.nextInt(60);
+      Konfliktgraph graph = graph(n);
+      for (int k = 0; k < 3 * n; k++) {
+        graph.verbinde(random.nextInt(n), random.nextInt(n));
+      }
+      graph.fertigstellen();
+
+      for (Slotplaner.Reihenfolge reihenfolge : Slotplaner.Reihenfolge.values()) {
+        planer.setReihenfolge(reihenfolge);
+        planer.setSeed(run);
+        assertKonfliktfrei(graph, planer.planen(graph));
+      }
+    }
+  }
+
+  @Test
+  public void testDeterministisch() {
+
+    Random random = new Random(4);
+    Konfliktgraph graph = graph(60);
+    for (int k = 0; k < 300; k++) {
+      graph.verbinde(random.nextInt(60), random.nextInt(60));
+    }
+    graph.fertigstellen();
+
+    planer.setSeed(42);
+    int[] first = planer.planen(graph);
+    planer.setThreads(1);
+    assertArrayEquals(first, planer.planen(graph));
+  }
+
+  @Test
+  public void testMaxFaecherProSlot() {
+
+    Konfliktgraph graph = graph(10);
+    graph.fertigstellen();
+    planer.setMaxFaecherProSlot(3);
+
+    int[] slots = planer.planen(graph);
+    assertKonfliktfrei(graph, slots);
+    assertEquals(4, Slotplaner.anzahlSlots(slots));
+    int[] proSlot = new int[4];
+    for (int slot : slots) {
+      proSlot[slot]++;
+    }
+    for (int count : proSlot) {
+      assertTrue(count <= 3);
+    }
+  }
+
+  @Test
+  public void testMaxTeilnehmerProSlot() {
+
+    Map<Integer, Fach> faecher = new HashMap<Integer, Fach>();
+    for (int nummer = 1; nummer <= 3; nummer++) {
+      faecher.put(nummer, new Fach("fach" + nummer, "", nummer));
+    }
+    Map<String, List<Integer>> teilnahmen = new HashMap<String, List<Integer>>();
+    for (int t = 0; t < 30; t++) {
+      teilnahmen.put("t" + t, Arrays.asList(1 + t % 3));
+    }
+    Konfliktgraph graph = Konfliktgraph.ausTeilnahmen(faecher, teilnahmen);
+    planer.setMaxTeilnehmerProSlot(20);
+
+    int[] slots = planer.planen(graph);
+    assertKonfliktfrei(graph, slots);
+    assertEquals(2, Slotplaner.anzahlSlots(slots));
+  }
+
+  private static Konfliktgraph graph(int n) {
+
+    return new Konfliktgraph(KonfliktgraphTest.faecher(n));
+  }
+
+  /**
+   * Checks that no two conflicting {@link Fach}s share a slot and that the slots are numbered without gaps.
+   */
+  private static void assertKonfliktfrei(Konfliktgraph graph, int[] slots) {
+
+    assertEquals(graph.size(), slots.length);
+    int anzahl = Slotplaner.anzahlSlots(slots);
+    boolean[] belegt = new boolean[anzahl];
+    for (int i = 0; i < slots.length; i++) {
+      assertTrue(slots[i] >= 0);
+      belegt[slots[i]] = true;
+      for (int j : graph.getNachbarn(i)) {
+        assertTrue(i + " and " + j + " share slot " + slots[i], slots[i] != slots[j]);
+      }
+    }
+    for (int slot = 0; slot < anzahl; slot++) {
+      assertTrue("slot " + slot + " is empty", belegt[slot]);
+    }
+  }
+}
@@ -57,7 +57,7 @@ public class RegistrationRuleSetDao extends AbstractMandatorableDao<Registration
       throw new IllegalArgumentException("no event given");
     }
 
-    Query query = getEntityManager().createQuery(
+    Query query = createQuery(
             "select o from " + RegistrationRuleSet.class.getSimpleName() + " o where o.campaign=:campaign and o.event=:event");
     query.setParameter("campaign", campaign);
     query.setParameter("event", event);
@@ -77,7 +77,7 @@ public class RegistrationRuleSetDao extends AbstractMandatorableDao<Registration
       throw new IllegalArgumentException("no campaign given");
     }
 
-    Query query = getEntityManager().createQuery(
+    Query query = createQuery(
             "select o from " + RegistrationRuleSet.class.getSimpleName() + " o where o.campaign=:campaign");
     query.setParameter("campaign", campaign);
 
@@ -98,7 +98,7 @@ public class RegistrationRuleSetDao extends AbstractMandatorableDao<Registration
       throw new IllegalArgumentException("no event given");
     }
 
-    Query query = getEntityManager().createQuery(
+    Query query = createQuery(
         "select o from " + RegistrationRuleSet.class.getSimpleName() + " o where o.campaign=:campaign and o.event=:event and o.mandatorId = :mandatorId");
     query.setParameter("campaign", campaign);
     query.setParameter("event", event);
@@ -120,7 +120,7 @@ public class RegistrationRuleSetDao extends AbstractMandatorableDao<Registration
       throw new IllegalArgumentException("no event given");
     }
 
-    Query query = getEntityManager().createQuery(
+    Query query = createQuery(
         "select o from " + RegistrationRuleSet.class.getSimpleName() + " o where o.event=:event");
     query.setParameter("event", id);
 
@@ -134,7 +134,7 @@ public class RegistrationRuleSetDao extends AbstractMandatorableDao<Registration
       throw new IllegalArgumentException("no event given");
     }
 
-    Query query = getEntityManager().createQuery(
+    Query query = createQuery(
         "select o from " + RegistrationRuleSet.class.getSimpleName() + " o where o.event=:event and o.mandatorId = :mandatorId");
     query.setParameter("event", id);
     query.setParameter("mandatorId", mandatorId);
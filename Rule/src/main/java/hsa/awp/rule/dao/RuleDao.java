@@ -54,7 +54,7 @@ public class RuleDao extends AbstractMandatorableDao<Rule, Long> implements IRul
       throw new IllegalArgumentException("no name given");
     }
 
-    Query query = getEntityManager().createQuery(
+    Query query = createQuery(
         "select o from " + Rule.class.getSimpleName() + " o where o.name=:name");
     query.setParameter("name", name);
 
@@ -72,7 +72,7 @@ public class RuleDao extends AbstractMandatorableDao<Rule, Long> implements IRul
       throw new IllegalArgumentException("no name given");
     }
 
-    Query query = getEntityManager().createQuery(
+    Query query = createQuery(
         "select o from " + Rule.class.getSimpleName() + " o where o.name=:name and o.mandatorId = :mandatorId");
     query.setParameter("name", name);
     query.setParameter("mandatorId", mandatorId);
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2010-2012 Matthias Klass, Johannes Leimer,
+ *               Rico Lieback, Sebastian Gabriel, Lothar Gesslein,
+ *               Alexander Rampp, Kai Weidner
+ *
+ * This file is part of the Physalix Enrollment System
+ *
+ * Foobar is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Foobar is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Foobar.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package hsa.awp.rule.facade;
+
+import hsa.awp.user.model.SingleUser;
+import hsa.awp.user.model.Student;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Index whether a user can register for at least one event of a campaign. Students with the same study course and term are
+ * treated equally by all registration rules, so the result is computed once per study course and term and reused for all
+ * students of this class.
+ * <p/>
+ * The index belongs to one instance of the compiled rule sets and to the events the campaign had when it was built, so it
+ * expires together with the compiled rule sets. Events with
+ * rule sets which could not be compiled do not allow a registration here, these rule sets are not configured completely.
+ */
+final class CampaignEligibility {
+  private final CompiledRuleSets ruleSets;
+
+  private final Set<Long> eventIds;
+
+  private final long[] events;
+
+  /**
+   * Eligibility by study course and term.
+   */
+  private final ConcurrentMap<StudentClass, Boolean> students = new ConcurrentHashMap<StudentClass, Boolean>();
+
+  /**
+   * Eligibility of users which are no students, computed on first access.
+   */
+  private volatile Boolean otherUsers;
+
+  CampaignEligibility(CompiledRuleSets ruleSets, Set<Long> eventIds) {
+
+    this.ruleSets = ruleSets;
+    this.eventIds = new HashSet<Long>(eventIds);
+    this.eventIds.remove(null);
+
+    events = new long[this.eventIds.size()];
+    int i = 0;
+    for (Long id : this.eventIds) {
+      events[i++] = id;
+    }
+  }
+
+  /**
+   * Checks whether the index was built from the given rule sets and events.
+   *
+   * @param currentRuleSets the current compiled rule sets of the campaign.
+   * @param currentEventIds the current events of the campaign.
+   * @return true if the index can be used.
+   */
+  boolean isUpToDate(CompiledRuleSets currentRuleSets, Set<Long> currentEventIds) {
+
+    return ruleSets == currentRuleSets && eventIds.equals(currentEventIds);
+  }
+
+  /**
+   * Checks whether the given user can register for at least one event of the campaign.
+   *
+   * @param user the user.
+   * @return true if there is an event the user can register for.
+   */
+  boolean isEligible(SingleUser user) {
+
+    if (!(user instanceof Student)) {
+      if (otherUsers == null) {
+        otherUsers = computeOtherUsers();
+      }
+      return otherUsers;
+    }
+
+    Student student = (Student) user;
+    StudentClass key = new StudentClass(CompiledRuleSets.getStudyCourse(student), student.getTerm());
+
+    Boolean eligible = students.get(key);
+    if (eligible == null) {
+      eligible = compute(key.studyCourse, key.term);
+      students.put(key, eligible);
+    }
+    return eligible;
+  }
+
+  private boolean compute(long studyCourse, int term) {
+
+    for (long event : events) {
+      if (ruleSets.check(event, studyCourse, term) == CompiledRuleSets.Decision.ALLOWED) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private boolean computeOtherUsers() {
+
+    for (long event : events) {
+      if (ruleSets.checkOtherUser(event) == CompiledRuleSets.Decision.ALLOWED) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Study course and term of a student.
+   */
+  private static final class StudentClass {
+    private final long studyCourse;
+
+    private final int term;
+
+    private StudentClass(long studyCourse, int term) {
+
+      this.studyCourse = studyCourse;
+      this.term = term;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof StudentClass)) {
+        return false;
+      }
+      StudentClass other = (StudentClass) obj;
+      return studyCourse == other.studyCourse && term == other.term;
+    }
+
+    @Override
+    public int hashCode() {
+
+      final int prime = 31;
+      int result = 1;
+      result = prime * result + (int) (studyCourse ^ (studyCourse >>> 32));
+      result = prime * result + term;
+      return result;
+    }
+  }
+}
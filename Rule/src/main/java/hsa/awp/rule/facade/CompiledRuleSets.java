@@ -0,0 +1,292 @@
+/*
+ * Copyright (c) 2010-2012 Matthias Klass, Johannes Leimer,
+ *               Rico Lieback, Sebastian Gabriel, Lothar Gesslein,
+ *               Alexander Rampp, Kai Weidner
+ *
+ * This file is part of the Physalix Enrollment System
+ *
+ * Foobar is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Foobar is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Foobar.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package hsa.awp.rule.facade;
+
+import hsa.awp.rule.model.RegistrationRuleSet;
+import hsa.awp.rule.model.Rule;
+import hsa.awp.rule.model.StudyCourseAndTermRule;
+import hsa.awp.rule.model.StudyCourseRule;
+import hsa.awp.rule.model.TermRule;
+import hsa.awp.user.model.SingleUser;
+import hsa.awp.user.model.Student;
+import hsa.awp.user.model.StudyCourse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable, compiled form of all {@link RegistrationRuleSet}s of one campaign. The rules are flattened into primitive arrays
+ * which are indexed by the event id, so a check is a binary search followed by some comparisons and does not touch the
+ * database or allocate memory.
+ * <p/>
+ * Rule sets containing rules unknown to the compiler or rules which are not fully configured are marked as undecided. These
+ * have to be checked with the rule entities themselves.
+ */
+final class CompiledRuleSets {
+  /**
+   * Result of a check against the compiled rules.
+   */
+  enum Decision {
+    ALLOWED, DENIED, UNDECIDED
+  }
+
+  private static final byte STUDY_COURSE = 0;
+
+  private static final byte TERM = 1;
+
+  private static final byte STUDY_COURSE_AND_TERM = 2;
+
+  /**
+   * Marks a study course which is not set.
+   */
+  static final long NO_STUDY_COURSE = Long.MIN_VALUE;
+
+  /**
+   * Sorted ids of all events which have a rule set.
+   */
+  private final long[] events;
+
+  /**
+   * The rules of the event at index i are stored from rulesStart[i] to rulesStart[i + 1] (exclusive).
+   */
+  private final int[] rulesStart;
+
+  /**
+   * Whether the rule set of the event at index i could not be compiled.
+   */
+  private final boolean[] undecided;
+
+  private final byte[] kinds;
+
+  private final long[] studyCourses;
+
+  private final int[] minTerms;
+
+  private final int[] maxTerms;
+
+  /**
+   * Generation of the rules this instance was compiled from.
+   */
+  private final long generation;
+
+  /**
+   * Time in milliseconds this instance was compiled at.
+   */
+  private final long compiledAt = System.currentTimeMillis();
+
+  /**
+   * Compiles the given rule sets of one campaign.
+   *
+   * @param sets       all rule sets of the campaign.
+   * @param generation generation of the rules at the time the rule sets were loaded.
+   * @return the compiled rule sets.
+   */
+  static CompiledRuleSets compile(List<RegistrationRuleSet> sets, long generation) {
+
+    // sets without an event can not be checked and are skipped
+    List<RegistrationRuleSet> checkable = new ArrayList<RegistrationRuleSet>(sets.size());
+    for (RegistrationRuleSet set : sets) {
+      if (set.getEvent() != null) {
+        checkable.add(set);
+      }
+    }
+
+    RegistrationRuleSet[] sorted = checkable.toArray(new RegistrationRuleSet[checkable.size()]);
+    Arrays.sort(sorted, new Comparator<RegistrationRuleSet>() {
+      @Override
+      public int compare(RegistrationRuleSet o1, RegistrationRuleSet o2) {
+
+        return o1.getEvent().compareTo(o2.getEvent());
+      }
+    });
+
+    int ruleCount = 0;
+    for (RegistrationRuleSet set : sorted) {
+      ruleCount += set.getRules().size();
+    }
+
+    return new CompiledRuleSets(sorted, ruleCount, generation);
+  }
+
+  private CompiledRuleSets(RegistrationRuleSet[] sets, int ruleCount, long generation) {
+
+    this.generation = generation;
+
+    events = new long[sets.length];
+    rulesStart = new int[sets.length + 1];
+    undecided = new boolean[sets.length];
+    kinds = new byte[ruleCount];
+    studyCourses = new long[ruleCount];
+    minTerms = new int[ruleCount];
+    maxTerms = new int[ruleCount];
+
+    int rule = 0;
+    for (int i = 0; i < sets.length; i++) {
+      events[i] = sets[i].getEvent();
+      rulesStart[i] = rule;
+
+      for (Rule r : sets[i].getRules()) {
+        if (!compileRule(r, rule)) {
+          undecided[i] = true;
+        }
+        rule++;
+      }
+    }
+    rulesStart[sets.length] = rule;
+  }
+
+  /**
+   * Stores the given rule at the given index.
+   *
+   * @param r     the rule to compile.
+   * @param index the index to store the rule at.
+   * @return false if the rule can not be compiled.
+   */
+  private boolean compileRule(Rule r, int index) {
+
+    if (r instanceof StudyCourseRule) {
+      StudyCourseRule rule = (StudyCourseRule) r;
+      kinds[index] = STUDY_COURSE;
+      if (rule.getStudyCourse() == null) {
+        return false;
+      }
+      studyCourses[index] = rule.getStudyCourse();
+
+    } else if (r instanceof TermRule) {
+      TermRule rule = (TermRule) r;
+      kinds[index] = TERM;
+      minTerms[index] = rule.getMinTerm();
+      maxTerms[index] = rule.getMaxTerm();
+
+    } else if (r instanceof StudyCourseAndTermRule) {
+      StudyCourseAndTermRule rule = (StudyCourseAndTermRule) r;
+      kinds[index] = STUDY_COURSE_AND_TERM;
+      // a missing minimal term is an error which is reported by the rule itself
+      if (rule.getStudyCourse() == null || rule.getMinTerm() == 0) {
+        return false;
+      }
+      studyCourses[index] = rule.getStudyCourse();
+      minTerms[index] = rule.getMinTerm();
+
+    } else {
+      return false;
+    }
+
+    return true;
+  }
+
+  /**
+   * Checks whether the given user may register for the given event.
+   *
+   * @param event id of the event.
+   * @param user  the user who wants to register.
+   * @return the decision, {@link Decision#UNDECIDED} if the rules have to be checked by the rule entities.
+   */
+  Decision check(long event, SingleUser user) {
+
+    if (!(user instanceof Student)) {
+      return checkOtherUser(event);
+    }
+
+    Student student = (Student) user;
+    return check(event, getStudyCourse(student), student.getTerm());
+  }
+
+  /**
+   * Checks whether a student of the given study course and term may register for the given event.
+   *
+   * @param event       id of the event.
+   * @param studyCourse id of the study course or {@link #NO_STUDY_COURSE}.
+   * @param term        term of the student.
+   * @return the decision, {@link Decision#UNDECIDED} if the rules have to be checked by the rule entities.
+   */
+  Decision check(long event, long studyCourse, int term) {
+
+    int index = Arrays.binarySearch(events, event);
+    if (index < 0) {
+      return Decision.ALLOWED;
+    } else if (undecided[index]) {
+      return Decision.UNDECIDED;
+    }
+
+    for (int i = rulesStart[index]; i < rulesStart[index + 1]; i++) {
+      if (!check(i, studyCourse, term)) {
+        return Decision.DENIED;
+      }
+    }
+    return Decision.ALLOWED;
+  }
+
+  /**
+   * Checks whether a user who is no student may register for the given event.
+   *
+   * @param event id of the event.
+   * @return the decision, {@link Decision#UNDECIDED} if the rules have to be checked by the rule entities.
+   */
+  Decision checkOtherUser(long event) {
+
+    int index = Arrays.binarySearch(events, event);
+    if (index >= 0 && undecided[index]) {
+      return Decision.UNDECIDED;
+    }
+    // all known rules are student rules, which do not restrict other users
+    return Decision.ALLOWED;
+  }
+
+  /**
+   * Returns the study course of the given student in the form used by the compiled rules.
+   *
+   * @param student the student.
+   * @return id of the study course or {@link #NO_STUDY_COURSE}.
+   */
+  static long getStudyCourse(Student student) {
+
+    StudyCourse course = student.getStudyCourse();
+    return course == null || course.getId() == null ? NO_STUDY_COURSE : course.getId();
+  }
+
+  private boolean check(int rule, long studyCourse, int term) {
+
+    switch (kinds[rule]) {
+      case STUDY_COURSE:
+        return studyCourse == studyCourses[rule];
+      case TERM:
+        return (minTerms[rule] == 0 || minTerms[rule] <= term) && (maxTerms[rule] == 0 || term <= maxTerms[rule]);
+      case STUDY_COURSE_AND_TERM:
+        return studyCourse != studyCourses[rule] || minTerms[rule] <= term;
+      default:
+        throw new IllegalStateException("unknown rule kind " + kinds[rule]);
+    }
+  }
+
+  long getGeneration() {
+
+    return generation;
+  }
+
+  long getCompiledAt() {
+
+    return compiledAt;
+  }
+}
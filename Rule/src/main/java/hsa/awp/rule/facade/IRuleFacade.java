@@ -21,8 +21,10 @@
 
 package hsa.awp.rule.facade;
 
+import hsa.awp.campaign.model.Campaign;
 import hsa.awp.rule.model.RegistrationRuleSet;
 import hsa.awp.rule.model.Rule;
+import hsa.awp.user.model.SingleUser;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
@@ -41,6 +43,16 @@ public interface IRuleFacade {
 
   Set<Rule> findRulesByCampaignAndEvent(Long campaignId, Long eventId);
 
+  /**
+   * Checks whether the user may register for at least one event of the campaign. The result is computed once for all students
+   * with the same study course and term and kept until the rules or the events of the campaign change.
+   *
+   * @param user     the user.
+   * @param campaign the campaign with its current events.
+   * @return true if there is an event the user can register for.
+   */
+  boolean hasAllowedRegistrations(SingleUser user, Campaign campaign);
+
   void removeRule(Rule rule);
 
   void removeRulesConnection(Long campaignId, Long eventId);
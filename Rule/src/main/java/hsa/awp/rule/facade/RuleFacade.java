@@ -32,18 +32,48 @@ import hsa.awp.user.model.SingleUser;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class RuleFacade implements IRuleFacade, ICampaignRuleChecker {
+  /**
+   * Default maximum age of compiled rule sets in milliseconds.
+   */
+  public static final long DEFAULT_RULE_SETS_MAX_AGE = 5 * 60 * 1000L;
+
   private Logger logger = LoggerFactory.getLogger(getClass());
 
   private IRegistrationRuleSetDao registrationRuleSetDao;
 
   private IRuleDao ruleDao;
 
+  /**
+   * Compiled rule sets by campaign id. Entries of an older generation than {@link #generation} are outdated. Changes made
+   * by another application are picked up once an entry is older than {@link #setRuleSetsMaxAge(long)}.
+   */
+  private final ConcurrentMap<Long, CompiledRuleSets> compiledRuleSets = new ConcurrentHashMap<Long, CompiledRuleSets>();
+
+  /**
+   * Eligibility indexes by campaign id, see {@link #hasAllowedRegistrations(SingleUser, Campaign)}. An index is only used
+   * with the compiled rule sets it was built from, so it is rebuilt whenever they are outdated or older than
+   * {@link #setRuleSetsMaxAge(long)}.
+   */
+  private final ConcurrentMap<Long, CampaignEligibility> eligibilities = new ConcurrentHashMap<Long, CampaignEligibility>();
+
+  /**
+   * Incremented whenever rules or rule sets are changed.
+   */
+  private final AtomicLong generation = new AtomicLong();
+
+  private long ruleSetsMaxAge = DEFAULT_RULE_SETS_MAX_AGE;
+
   @Override
   @Transactional
   public boolean isRegistrationAllowed(SingleUser user, Campaign campaign, Event event) {
@@ -56,7 +86,12 @@ public class RuleFacade implements IRuleFacade, ICampaignRuleChecker {
       throw new IllegalArgumentException("event must not be null");
     }
 
-    // first get the RuleSet for the given parameters
+    CompiledRuleSets.Decision decision = getCompiledRuleSets(campaign.getId()).check(event.getId(), user);
+    if (decision != CompiledRuleSets.Decision.UNDECIDED) {
+      return decision == CompiledRuleSets.Decision.ALLOWED;
+    }
+
+    // the rules could not be compiled, so get the RuleSet for the given parameters
     RegistrationRuleSet set = registrationRuleSetDao.findByCampaignAndEvent(campaign.getId(), event.getId());
 
     if (set == null) {
@@ -67,6 +102,28 @@ public class RuleFacade implements IRuleFacade, ICampaignRuleChecker {
     }
   }
 
+  @Override
+  @Transactional
+  public boolean hasAllowedRegistrations(SingleUser user, Campaign campaign) {
+
+    if (user == null) {
+      throw new IllegalArgumentException("user must not be null");
+    } else if (campaign == null) {
+      throw new IllegalArgumentException("campaign must not be null");
+    }
+
+    CompiledRuleSets ruleSets = getCompiledRuleSets(campaign.getId());
+    Set<Long> eventIds = campaign.getEventIds();
+
+    CampaignEligibility eligibility = eligibilities.get(campaign.getId());
+    if (eligibility == null || !eligibility.isUpToDate(ruleSets, eventIds)) {
+      logger.trace("building eligibility index of campaign '{}'", campaign.getName());
+      eligibility = new CampaignEligibility(ruleSets, eventIds);
+      eligibilities.put(campaign.getId(), eligibility);
+    }
+    return eligibility.isEligible(user);
+  }
+
   @Override
   @Transactional
   public RegistrationRuleSet addRuleToRegistrationRuleSet(Long campaign, Long event, Long mandator, Rule rule) {
@@ -82,6 +139,7 @@ public class RuleFacade implements IRuleFacade, ICampaignRuleChecker {
     }
 
     set.addRule(rule);
+    rulesChanged();
     set = registrationRuleSetDao.merge(set);
 
     return set;
@@ -138,10 +196,12 @@ public class RuleFacade implements IRuleFacade, ICampaignRuleChecker {
     List<RegistrationRuleSet> sets = registrationRuleSetDao.findAll();
     for (RegistrationRuleSet set : sets) {
       if (set.removeRule(rule)) {
+        rulesChanged();
         registrationRuleSetDao.merge(set);
       }
     }
     ruleDao.remove(rule);
+    rulesChanged();
   }
 
   @Override
@@ -157,6 +217,7 @@ public class RuleFacade implements IRuleFacade, ICampaignRuleChecker {
       ruleSet.removeRule(rule);
     }
     registrationRuleSetDao.remove(ruleSet);
+    rulesChanged();
   }
 
   @Override
@@ -164,6 +225,7 @@ public class RuleFacade implements IRuleFacade, ICampaignRuleChecker {
   public RegistrationRuleSet saveRegistrationRuleSet(RegistrationRuleSet set) {
 
     this.registrationRuleSetDao.persist(set);
+    rulesChanged();
     return set;
   }
 
@@ -172,6 +234,7 @@ public class RuleFacade implements IRuleFacade, ICampaignRuleChecker {
   public <R extends Rule> R saveRule(R rule) {
 
     ruleDao.persist(rule);
+    rulesChanged();
     return rule;
   }
 
@@ -180,7 +243,9 @@ public class RuleFacade implements IRuleFacade, ICampaignRuleChecker {
   @SuppressWarnings("unchecked")
   public <R extends Rule> R updateRule(R rule) {
 
-    return (R) ruleDao.merge(rule);
+    R merged = (R) ruleDao.merge(rule);
+    rulesChanged();
+    return merged;
   }
 
   @Override
@@ -195,6 +260,62 @@ public class RuleFacade implements IRuleFacade, ICampaignRuleChecker {
     return ruleDao.findByMandator(mandator);
   }
 
+  /**
+   * Returns the compiled rule sets of the given campaign and compiles them if necessary. Rule sets are only cached if the
+   * current transaction did not change any rules, as the changes are not visible to other transactions yet, and are
+   * compiled again once they are older than the maximum age.
+   *
+   * @param campaign id of the campaign.
+   * @return the compiled rule sets.
+   */
+  private CompiledRuleSets getCompiledRuleSets(Long campaign) {
+
+    long current = generation.get();
+    boolean changedInTransaction = TransactionSynchronizationManager.hasResource(generation);
+
+    CompiledRuleSets compiled = compiledRuleSets.get(campaign);
+    if (compiled != null && compiled.getGeneration() == current && !changedInTransaction
+        && System.currentTimeMillis() - compiled.getCompiledAt() < ruleSetsMaxAge) {
+      return compiled;
+    }
+
+    logger.trace("compiling rule sets of campaign '{}'", campaign);
+    compiled = CompiledRuleSets.compile(registrationRuleSetDao.findByCampaign(campaign), current);
+    if (!changedInTransaction) {
+      compiledRuleSets.put(campaign, compiled);
+    }
+    return compiled;
+  }
+
+  /**
+   * Outdates all compiled rule sets. If a transaction is active, the compiled rule sets are outdated again after it is completed,
+   * as other transactions may have compiled the rules without the changes in the meantime.
+   */
+  private void rulesChanged() {
+
+    invalidateCompiledRuleSets();
+
+    if (TransactionSynchronizationManager.isSynchronizationActive()
+        && !TransactionSynchronizationManager.hasResource(generation)) {
+      TransactionSynchronizationManager.bindResource(generation, Boolean.TRUE);
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+        @Override
+        public void afterCompletion(int status) {
+
+          TransactionSynchronizationManager.unbindResourceIfPossible(generation);
+          invalidateCompiledRuleSets();
+        }
+      });
+    }
+  }
+
+  private void invalidateCompiledRuleSets() {
+
+    generation.incrementAndGet();
+    compiledRuleSets.clear();
+    eligibilities.clear();
+  }
+
   public void setRegistrationRuleSetDao(IRegistrationRuleSetDao registrationRuleSetDao) {
 
     this.registrationRuleSetDao = registrationRuleSetDao;
@@ -204,4 +325,14 @@ public class RuleFacade implements IRuleFacade, ICampaignRuleChecker {
 
     this.ruleDao = ruleDao;
   }
+
+  /**
+   * Sets the maximum age of compiled rule sets in milliseconds.
+   *
+   * @param ruleSetsMaxAge maximum age.
+   */
+  public void setRuleSetsMaxAge(long ruleSetsMaxAge) {
+
+    this.ruleSetsMaxAge = ruleSetsMaxAge;
+  }
 }
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2010-2012 Matthias Klass, Johannes Leimer,
+ *               Rico Lieback, Sebastian Gabriel, Lothar Gesslein,
+ *               Alexander Rampp, Kai Weidner
+ *
+ * This file is part of the Physalix Enrollment System
+ *
+ * Foobar is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Foobar is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Foobar.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package hsa.awp.rule.facade;
+
+import hsa.awp.rule.model.AbstractStudentRuleTest;
+import hsa.awp.rule.model.RegistrationRuleSet;
+import hsa.awp.rule.model.StudyCourseRule;
+import hsa.awp.rule.model.TermRule;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CampaignEligibilityTest extends AbstractStudentRuleTest {
+  private RegistrationRuleSet createSet(Long eventId) {
+
+    RegistrationRuleSet set = RegistrationRuleSet.getInstance(0L);
+    set.setCampaign(campaign.getId());
+    set.setEvent(eventId);
+    return set;
+  }
+
+  @Test
+  public void testEligibleByStudyCourseAndTerm() {
+
+    // event 1 only for the course of the student, event 2 only from the fourth term on
+    StudyCourseRule courseRule = StudyCourseRule.getInstance(0L);
+    courseRule.setStudyCourse(course.getId());
+    RegistrationRuleSet first = createSet(1L);
+    first.addRule(courseRule);
+
+    TermRule termRule = TermRule.getInstance(0L);
+    termRule.setMinTerm(4);
+    RegistrationRuleSet second = createSet(2L);
+    second.addRule(termRule);
+
+    CompiledRuleSets ruleSets = CompiledRuleSets.compile(Arrays.asList(first, second), 0L);
+    Set<Long> eventIds = new HashSet<Long>(Arrays.asList(1L, 2L));
+    CampaignEligibility eligibility = new CampaignEligibility(ruleSets, eventIds);
+
+    student.setTerm(1);
+    assertTrue(eligibility.isEligible(student));
+
+    course.setId(course.getId() + 1);
+    assertFalse(eligibility.isEligible(student));
+    student.setTerm(4);
+    assertTrue(eligibility.isEligible(student));
+
+    // users which are no students are not restricted
+    assertTrue(eligibility.isEligible(user));
+
+    assertTrue(eligibility.isUpToDate(ruleSets, new HashSet<Long>(Arrays.asList(2L, 1L))));
+    assertFalse(eligibility.isUpToDate(ruleSets, new HashSet<Long>(Arrays.asList(1L, 2L, 3L))));
+    assertFalse(eligibility.isUpToDate(CompiledRuleSets.compile(Arrays.asList(first, second), 1L), eventIds));
+  }
+
+  @Test
+  public void testEventWithoutRulesAllowsEveryone() {
+
+    TermRule termRule = TermRule.getInstance(0L);
+    termRule.setMinTerm(4);
+    RegistrationRuleSet set = createSet(1L);
+    set.addRule(termRule);
+
+    CompiledRuleSets ruleSets = CompiledRuleSets.compile(Arrays.asList(set), 0L);
+
+    student.setTerm(1);
+    assertFalse(new CampaignEligibility(ruleSets, new HashSet<Long>(Arrays.asList(1L))).isEligible(student));
+    assertTrue(new CampaignEligibility(ruleSets, new HashSet<Long>(Arrays.asList(1L, 2L))).isEligible(student));
+  }
+
+  @Test
+  public void testCampaignWithoutEvents() {
+
+    CampaignEligibility eligibility = new CampaignEligibility(CompiledRuleSets.compile(
+        Arrays.<RegistrationRuleSet>asList(), 0L), new HashSet<Long>());
+
+    assertFalse(eligibility.isEligible(student));
+    assertFalse(eligibility.isEligible(user));
+  }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2010-2012 Matthias Klass, Johannes Leimer,
+ *               Rico Lieback, Sebastian Gabriel, Lothar Gesslein,
+ *               Alexander Rampp, Kai Weidner
+ *
+ * This file is part of the Physalix Enrollment System
+ *
+ * Foobar is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Foobar is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Foobar.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package hsa.awp.rule.facade;
+
+import hsa.awp.rule.model.AbstractStudentRuleTest;
+import hsa.awp.rule.model.RegistrationRuleSet;
+import hsa.awp.rule.model.StudyCourseAndTermRule;
+import hsa.awp.rule.model.StudyCourseRule;
+import hsa.awp.rule.model.TermRule;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+
+public class CompiledRuleSetsTest extends AbstractStudentRuleTest {
+  private RegistrationRuleSet createSet(Long eventId) {
+
+    RegistrationRuleSet set = RegistrationRuleSet.getInstance(0L);
+    set.setCampaign(campaign.getId());
+    set.setEvent(eventId);
+    return set;
+  }
+
+  @Test
+  public void testEventWithoutRuleSet() {
+
+    CompiledRuleSets compiled = CompiledRuleSets.compile(Collections.singletonList(createSet(1L)), 0L);
+
+    assertEquals(CompiledRuleSets.Decision.ALLOWED, compiled.check(event.getId(), student));
+  }
+
+  @Test
+  public void testStudyCourseAndTermRules() {
+
+    TermRule termRule = TermRule.getInstance(0L);
+    termRule.setMinTerm(3);
+    termRule.setMaxTerm(5);
+
+    StudyCourseRule courseRule = StudyCourseRule.getInstance(0L);
+    courseRule.setStudyCourse(course.getId());
+
+    RegistrationRuleSet set = createSet(event.getId());
+    set.addRule(termRule);
+    set.addRule(courseRule);
+
+    CompiledRuleSets compiled = CompiledRuleSets.compile(Arrays.asList(createSet(1L), set, createSet(9L)), 0L);
+
+    student.setTerm(2);
+    assertEquals(CompiledRuleSets.Decision.DENIED, compiled.check(event.getId(), student));
+    student.setTerm(4);
+    assertEquals(CompiledRuleSets.Decision.ALLOWED, compiled.check(event.getId(), student));
+    student.setTerm(6);
+    assertEquals(CompiledRuleSets.Decision.DENIED, compiled.check(event.getId(), student));
+
+    // other study course
+    student.setTerm(4);
+    courseRule.setStudyCourse(course.getId() + 1);
+    compiled = CompiledRuleSets.compile(Collections.singletonList(set), 0L);
+    assertEquals(CompiledRuleSets.Decision.DENIED, compiled.check(event.getId(), student));
+
+    // users which are no students are not restricted
+    assertEquals(CompiledRuleSets.Decision.ALLOWED, compiled.check(event.getId(), user));
+  }
+
+  @Test
+  public void testStudyCourseAndTermRule() {
+
+    StudyCourseAndTermRule rule = StudyCourseAndTermRule.getInstance(0L);
+    rule.setStudyCourse(course.getId());
+    rule.setMinTerm(3);
+
+    RegistrationRuleSet set = createSet(event.getId());
+    set.addRule(rule);
+    CompiledRuleSets compiled = CompiledRuleSets.compile(Collections.singletonList(set), 0L);
+
+    student.setTerm(2);
+    assertEquals(CompiledRuleSets.Decision.DENIED, compiled.check(event.getId(), student));
+    student.setTerm(3);
+    assertEquals(CompiledRuleSets.Decision.ALLOWED, compiled.check(event.getId(), student));
+
+    // other study courses are not restricted
+    rule.setStudyCourse(course.getId() + 1);
+    compiled = CompiledRuleSets.compile(Collections.singletonList(set), 0L);
+    student.setTerm(1);
+    assertEquals(CompiledRuleSets.Decision.ALLOWED, compiled.check(event.getId(), student));
+  }
+
+  @Test
+  public void testIncompleteRuleIsUndecided() {
+
+    // the rule itself reports the missing minimal term
+    StudyCourseAndTermRule rule = StudyCourseAndTermRule.getInstance(0L);
+    rule.setStudyCourse(course.getId());
+
+    RegistrationRuleSet set = createSet(event.getId());
+    set.addRule(rule);
+    CompiledRuleSets compiled = CompiledRuleSets.compile(Collections.singletonList(set), 0L);
+
+    assertEquals(CompiledRuleSets.Decision.UNDECIDED, compiled.check(event.getId(), student));
+  }
+}
@@ -22,6 +22,8 @@
 package hsa.awp.rule.facade;
 
 import hsa.awp.campaign.rule.ICampaignRuleChecker;
+import hsa.awp.rule.dao.IRegistrationRuleSetDao;
+import hsa.awp.rule.dao.IRuleDao;
 import hsa.awp.rule.model.*;
 import hsa.awp.user.model.StudyCourse;
 import org.junit.Test;
@@ -46,6 +48,12 @@ public class RuleFacadeTest extends AbstractStudentRuleTest {
   @Resource(name = "rule.facade")
   private ICampaignRuleChecker campaignRuleChecker;
 
+  @Resource(name = "rule.dao.ruleDao")
+  private IRuleDao ruleDao;
+
+  @Resource(name = "rule.dao.registrationRuleSetDao")
+  private IRegistrationRuleSetDao registrationRuleSetDao;
+
   @Test
   @Transactional
   public void testAddRuleToRegistrationRuleSetExisting() {
@@ -189,6 +197,99 @@ public class RuleFacadeTest extends AbstractStudentRuleTest {
     assertFalse(campaignRuleChecker.isRegistrationAllowed(student, campaign, event));
   }
 
+  @Test
+  @Transactional
+  public void testIsRegistrationAllowedAfterUpdate() {
+
+    TermRule termRule = TermRule.getInstance(0L);
+    termRule.setName("termRule");
+    termRule.setMinTerm(3);
+    facade.saveRule(termRule);
+    facade.addRuleToRegistrationRuleSet(campaign.getId(), event.getId(), 0L, termRule);
+
+    student.setTerm(2);
+    assertFalse(campaignRuleChecker.isRegistrationAllowed(student, campaign, event));
+
+    // the changed rule has to be used for the next check
+    termRule.setMinTerm(2);
+    facade.updateRule(termRule);
+    assertTrue(campaignRuleChecker.isRegistrationAllowed(student, campaign, event));
+
+    // without the rule set there are no restrictions
+    facade.removeRulesConnection(campaign.getId(), event.getId());
+    student.setTerm(1);
+    assertTrue(campaignRuleChecker.isRegistrationAllowed(student, campaign, event));
+  }
+
+  /**
+   * Rules changed by another application are only seen by the compiled rule sets once they are outdated.
+   */
+  @Test
+  @Transactional
+  public void testCompiledRuleSetsExpire() {
+
+    RuleFacade checker = new RuleFacade();
+    checker.setRuleDao(ruleDao);
+    checker.setRegistrationRuleSetDao(registrationRuleSetDao);
+
+    // written without the facade, like another application would do
+    TermRule termRule = TermRule.getInstance(0L);
+    termRule.setName("termRule");
+    termRule.setMinTerm(3);
+    ruleDao.persist(termRule);
+
+    RegistrationRuleSet set = RegistrationRuleSet.getInstance(0L);
+    set.setCampaign(campaign.getId());
+    set.setEvent(event.getId());
+    set.addRule(termRule);
+    registrationRuleSetDao.persist(set);
+
+    student.setTerm(2);
+    assertFalse(checker.isRegistrationAllowed(student, campaign, event));
+
+    termRule.setMinTerm(2);
+    ruleDao.merge(termRule);
+    assertFalse(checker.isRegistrationAllowed(student, campaign, event));
+
+    checker.setRuleSetsMaxAge(0);
+    assertTrue(checker.isRegistrationAllowed(student, campaign, event));
+  }
+
+  /**
+   * The eligibility of a campaign expires together with the compiled rule sets it was built from.
+   */
+  @Test
+  @Transactional
+  public void testEligibilityExpires() {
+
+    RuleFacade checker = new RuleFacade();
+    checker.setRuleDao(ruleDao);
+    checker.setRegistrationRuleSetDao(registrationRuleSetDao);
+    campaign.getEventIds().add(event.getId());
+
+    // written without the facade, like another application would do
+    TermRule termRule = TermRule.getInstance(0L);
+    termRule.setName("termRule");
+    termRule.setMinTerm(3);
+    ruleDao.persist(termRule);
+
+    RegistrationRuleSet set = RegistrationRuleSet.getInstance(0L);
+    set.setCampaign(campaign.getId());
+    set.setEvent(event.getId());
+    set.addRule(termRule);
+    registrationRuleSetDao.persist(set);
+
+    student.setTerm(2);
+    assertFalse(checker.hasAllowedRegistrations(student, campaign));
+
+    termRule.setMinTerm(2);
+    ruleDao.merge(termRule);
+    assertFalse(checker.hasAllowedRegistrations(student, campaign));
+
+    checker.setRuleSetsMaxAge(0);
+    assertTrue(checker.hasAllowedRegistrations(student, campaign));
+  }
+
   @Test
   @Transactional
   public void testRemoveRule() {
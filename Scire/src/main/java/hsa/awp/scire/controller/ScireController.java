@@ -22,6 +22,7 @@
 package hsa.awp.scire.controller;
 
 import hsa.awp.campaign.facade.CampaignFacade;
+import hsa.awp.campaign.facade.ICampaignChangeListener;
 import hsa.awp.campaign.facade.ICampaignFacade;
 import hsa.awp.campaign.model.Campaign;
 import hsa.awp.campaign.model.DrawProcedure;
@@ -33,6 +34,7 @@ import hsa.awp.common.util.GenericUtil;
 import hsa.awp.common.util.ITimerTaskFactory;
 import hsa.awp.scire.procedureLogic.DrawProcedureLogic;
 import hsa.awp.scire.procedureLogic.FifoProcedureLogic;
+import hsa.awp.scire.procedureLogic.IDrawProcedureLogic;
 import hsa.awp.scire.procedureLogic.IProcedureLogic;
 import hsa.awp.scire.procedureLogic.IProcedureLogicFactory;
 import org.slf4j.Logger;
@@ -45,18 +47,22 @@ import java.util.*;
 
 /**
  * Controller class managing currently active {@link Procedure}s, looking for new and finalizing expired ones.
+ * <p/>
+ * Instead of polling, the controller computes the next instant at which a {@link Procedure} starts, ends or has to be
+ * drawn and sleeps until then. Changes done through the {@link ICampaignFacade} wake it up early. The timer interval
+ * only bounds the sleep time so that changes done by other applications are picked up as well.
  *
  * @author klassm
  * @author johannes
  */
-public class ScireController implements IScireController {
+public class ScireController implements IScireController, ICampaignChangeListener {
   /**
    * {@link CampaignFacade}.
    */
   private ICampaignFacade campaignFacade;
 
   /**
-   * time interval the {@link ScireController} checks for newly active {@link Procedure}s.
+   * maximum time the {@link ScireController} sleeps before it checks for changed {@link Procedure}s.
    */
   private int checkInterval = 500;
 
@@ -86,9 +92,20 @@ public class ScireController implements IScireController {
   private Set<IProcedureLogic<? extends Procedure>> runningProcedures;
 
   /**
-   * Timer object calling the check method in a periodical time period.
+   * Thread waiting for the next state change of the {@link Procedure}s. A thread terminates as soon as it is no longer
+   * the current scheduler thread.
    */
-  private Timer timer;
+  private volatile Thread schedulerThread;
+
+  /**
+   * Monitor the scheduler thread is waiting on.
+   */
+  private final Object schedulerMonitor = new Object();
+
+  /**
+   * True if a {@link Campaign} or {@link Procedure} has been changed since the scheduler thread last woke up.
+   */
+  private boolean changed = false;
 
   /**
    * The TimerTaskFactory which wraps a {@link TimerTask} into an open {@link EntityManager}.
@@ -100,6 +117,11 @@ public class ScireController implements IScireController {
    */
   private boolean timerIsRunning = false;
 
+  /**
+   * True once the mails of {@link DrawProcedure}s which ended while the application was not running have been resumed.
+   */
+  private boolean drawMailsResumed = false;
+
   /**
    * Default constructor.
    */
@@ -123,7 +145,7 @@ public class ScireController implements IScireController {
     Collection<Campaign> active = campaignFacade.findActiveCampaigns();
 
     if (active.size() != runningProcedures.size()) {
-      check();
+      check(true);
     }
 
     return active;
@@ -172,6 +194,16 @@ public class ScireController implements IScireController {
     return findActiveLogicByProcedure(proc.getId());
   }
 
+  @Override
+  public void campaignsChanged() {
+
+    synchronized (schedulerMonitor) {
+      logger.debug("campaigns changed, waking up scheduler");
+      changed = true;
+      schedulerMonitor.notifyAll();
+    }
+  }
+
   @Override
   public Set<IProcedureLogic<? extends Procedure>> getRunningProcedures() {
     checkForDeletedCampaignsOrProcedures();
@@ -203,7 +235,7 @@ public class ScireController implements IScireController {
   @Override
   public synchronized void setTimerInterval(int interval) {
 
-    if (interval < 0) {
+    if (interval <= 0) {
       throw new IllegalArgumentException("argument must be at least 1 minute (60.000 millisecods)");
     }
 
@@ -230,20 +262,19 @@ public class ScireController implements IScireController {
     lastCheck = Calendar.getInstance();
     lastCheck.add(Calendar.YEAR, -30);
 
-    timer = new Timer();
-    timer.scheduleAtFixedRate(timerTaskFactory.getTask(new Runnable() {
+    timerIsRunning = true;
+    campaignFacade.addChangeListener(this);
+
+    Thread thread = new Thread(new Runnable() {
       @Override
       public void run() {
-        // TODO remove that one!!!
-        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("admin", "password"));
-        try {
-          check();
-        } catch (Throwable e) {
-          logger.error(e.toString(), e);
-        }
+
+        schedule();
       }
-    }), 0, checkInterval);
-    timerIsRunning = true;
+    }, "scire-controller");
+    thread.setDaemon(true);
+    schedulerThread = thread;
+    thread.start();
   }
 
   @Override
@@ -254,8 +285,14 @@ public class ScireController implements IScireController {
     }
     logger.debug("stopping timer");
 
-    timer.cancel();
+    campaignFacade.removeChangeListener(this);
+
     timerIsRunning = false;
+
+    synchronized (schedulerMonitor) {
+      schedulerThread = null;
+      schedulerMonitor.notifyAll();
+    }
   }
 
   /**
@@ -268,21 +305,76 @@ public class ScireController implements IScireController {
     procedureTypes.add(type);
   }
 
+  /**
+   * Main loop of the scheduler thread. Checks the states of the {@link Procedure}s and sleeps until the next
+   * {@link Procedure} starts, ends or has to be drawn, until a change is signalled or until the timer interval has
+   * elapsed - whichever comes first.
+   */
+  private void schedule() {
+
+    boolean resync = true;
+
+    while (schedulerThread == Thread.currentThread()) {
+      final boolean fullCheck = resync;
+      final long[] nextDue = new long[]{Long.MAX_VALUE};
+
+      timerTaskFactory.getTask(new Runnable() {
+        @Override
+        public void run() {
+          // TODO remove that one!!!
+          SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("admin", "password"));
+          try {
+            nextDue[0] = check(fullCheck);
+          } catch (Throwable e) {
+            logger.error(e.toString(), e);
+          }
+        }
+      }).run();
+
+      synchronized (schedulerMonitor) {
+        long delay = Math.min(nextDue[0] - System.currentTimeMillis(), checkInterval);
+        resync = delay >= checkInterval;
+
+        if (!changed && schedulerThread == Thread.currentThread() && delay > 0) {
+          logger.debug("next check in {} ms", delay);
+          try {
+            schedulerMonitor.wait(delay);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+          }
+        }
+        resync |= changed;
+        changed = false;
+      }
+    }
+  }
+
   /**
    * Checks the {@link Procedure}s whether their states have changed.
+   *
+   * @param resync true if running {@link Procedure}s have to be checked against the database for having been deleted.
+   * @return the next instant in milliseconds at which a {@link Procedure} state is due to change or
+   *         {@link Long#MAX_VALUE} if nothing is scheduled.
    */
-  private synchronized void check() {
+  private synchronized long check(boolean resync) {
 
     logger.debug("starting check for procedure states");
 
-    logger.debug("looking for deleted campaigns/procedures");
-
-    checkForDeletedCampaignsOrProcedures();
+    if (resync) {
+      logger.debug("looking for deleted campaigns/procedures");
+      checkForDeletedCampaignsOrProcedures();
+    }
 
 
     Set<IProcedureLogic<? extends Procedure>> procedures = new HashSet<IProcedureLogic<? extends Procedure>>(runningProcedures);
     Calendar now = Calendar.getInstance();
 
+    if (!drawMailsResumed) {
+      drawMailsResumed = true;
+      resumeDrawMails(now);
+    }
+
 
     logger.debug("looking for no longer active procedures");
     for (IProcedureLogic<? extends Procedure> logic : procedures) {
@@ -327,6 +419,65 @@ public class ScireController implements IScireController {
         }
       }
     }
+
+    return findNextDue(now);
+  }
+
+  /**
+   * Finishes the {@link DrawProcedure}s which have been drawn and have ended, but whose participants have not all been notified,
+   * because the application was stopped while the mails were sent.
+   *
+   * @param now the current instant.
+   */
+  private void resumeDrawMails(Calendar now) {
+
+    for (DrawProcedure procedure : campaignFacade.findEndedDrawProceduresWithPriorityLists(now)) {
+      if (isProcedureKnown(procedure)) {
+        continue;
+      } else if (campaignFacade.countConfirmedRegistrationsByProcedure(procedure) == 0) {
+        logger.warn("procedure {} has ended without being drawn, its priority lists are kept", procedure.getName());
+        continue;
+      }
+
+      IDrawProcedureLogic logic = (IDrawProcedureLogic) procedureLogicFactory.getInstance(DrawProcedureLogic.class);
+      logic.setProcedure(procedure);
+      try {
+        logic.resumeMails();
+      } catch (RuntimeException e) {
+        logger.error("resuming the mails of procedure " + procedure.getName() + " failed", e);
+      }
+    }
+  }
+
+  /**
+   * Computes the next instant at which a running {@link Procedure} ends or has to be drawn, or at which a new
+   * {@link Procedure} may become active.
+   *
+   * @param now the current instant.
+   * @return next due instant in milliseconds or {@link Long#MAX_VALUE} if nothing is scheduled.
+   */
+  private long findNextDue(Calendar now) {
+
+    long nextDue = Long.MAX_VALUE;
+
+    for (IProcedureLogic<? extends Procedure> logic : runningProcedures) {
+      Procedure proc = logic.getProcedure();
+      nextDue = Math.min(nextDue, proc.getEndDate().getTimeInMillis());
+
+      if (proc instanceof DrawProcedure) {
+        Calendar drawDate = ((DrawProcedure) proc).getDrawDate();
+        if (drawDate != null && drawDate.after(now)) {
+          nextDue = Math.min(nextDue, drawDate.getTimeInMillis());
+        }
+      }
+    }
+
+    Calendar nextActivation = campaignFacade.findNextProcedureActivation(now);
+    if (nextActivation != null) {
+      nextDue = Math.min(nextDue, nextActivation.getTimeInMillis());
+    }
+
+    return nextDue;
   }
 
   private void checkForDeletedCampaignsOrProcedures() {
@@ -36,6 +36,7 @@ import hsa.awp.common.services.TemplateService;
 import hsa.awp.common.util.ITimerTaskFactory;
 import hsa.awp.event.facade.IEventFacade;
 import hsa.awp.event.model.Event;
+import hsa.awp.scire.procedureLogic.seat.ISeatReservation;
 import hsa.awp.user.facade.IUserFacade;
 import hsa.awp.user.model.SingleUser;
 import hsa.awp.user.model.User;
@@ -43,6 +44,7 @@ import org.apache.velocity.Template;
 import org.apache.velocity.VelocityContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.io.StringWriter;
 import java.util.Calendar;
@@ -106,6 +108,11 @@ public abstract class AbstractProcedureLogic<T extends Procedure> implements IPr
 
   protected TemplateService templateService;
 
+  /**
+   * Counts the occupied seats of the events. If not set, the registrations of the event are counted on every registration.
+   */
+  protected ISeatReservation seatReservation;
+
   public AbstractProcedureLogic(Class<T> procedureType) {
 
     logger = LoggerFactory.getLogger(this.getClass());
@@ -299,8 +306,7 @@ public abstract class AbstractProcedureLogic<T extends Procedure> implements IPr
    * @param examOnly    true if the registration will only apply for the final exam.
    * @throws NoSpaceAvailableException if the event has no more available spaces to register for.
    */
-  public synchronized ConfirmedRegistration singleRegistration(Event event, User participant, SingleUser initiator,
-                                                               boolean examOnly) {
+  public ConfirmedRegistration singleRegistration(Event event, User participant, SingleUser initiator, boolean examOnly) {
 
     logger.debug("register with " + procedureType.getSimpleName());
 
@@ -315,14 +321,56 @@ public abstract class AbstractProcedureLogic<T extends Procedure> implements IPr
       throw new IllegalArgumentException("no event given");
     }
 
-    // check rules
+    if (examOnly) {
+      this.checkRules(participant, event);
+      return createRegistration(event, participant, initiator, true);
+    } else if (seatReservation == null) {
+      return legacyRegistration(event, participant, initiator);
+    }
+
+    // take the seat first, so that a full event is rejected without touching the database
+    if (!seatReservation.reserve(event.getId(), event.getMaxParticipants())) {
+      logger.debug("no space available");
+      throw new NoSpaceAvailableException();
+    }
+
+    boolean bound = TransactionSynchronizationManager.isSynchronizationActive();
+    ConfirmedRegistration confirmedRegistration;
+    try {
+      this.checkRules(participant, event);
+      confirmedRegistration = createRegistration(event, participant, initiator, false);
+    } catch (RuntimeException e) {
+      if (!bound) {
+        seatReservation.release(event.getId());
+      }
+      throw e;
+    }
+    if (!bound) {
+      seatReservation.confirm(event.getId());
+    }
+    return confirmedRegistration;
+  }
+
+  /**
+   * Registers without {@link ISeatReservation}. Callers are serialized, as the capacity check counts the registrations of the
+   * event.
+   */
+  private synchronized ConfirmedRegistration legacyRegistration(Event event, User participant, SingleUser initiator) {
+
     this.checkRules(participant, event);
 
     // check whether there is enough space available to register.
-    if (!examOnly && event.getConfirmedRegistrations().size() + 1 >= event.getMaxParticipants()) {
+    if (event.getConfirmedRegistrations().size() >= event.getMaxParticipants()) {
       logger.debug("no space available");
       throw new NoSpaceAvailableException();
     }
+    return createRegistration(event, participant, initiator, false);
+  }
+
+  /**
+   * Writes the {@link ConfirmedRegistration} and adds it to the event.
+   */
+  private ConfirmedRegistration createRegistration(Event event, User participant, SingleUser initiator, boolean examOnly) {
 
     // Create the ConfirmedRegistration
     logger.debug("creating ConfirmedRegistration");
@@ -356,4 +404,8 @@ public abstract class AbstractProcedureLogic<T extends Procedure> implements IPr
   public void setTemplateService(TemplateService templateService) {
     this.templateService = templateService;
   }
+
+  public void setSeatReservation(ISeatReservation seatReservation) {
+    this.seatReservation = seatReservation;
+  }
 }
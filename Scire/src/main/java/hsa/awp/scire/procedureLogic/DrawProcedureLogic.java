@@ -22,14 +22,18 @@
 package hsa.awp.scire.procedureLogic;
 
 import hsa.awp.campaign.model.*;
-import hsa.awp.common.exception.NoMatchingElementException;
 import hsa.awp.common.exception.ProgrammingErrorException;
 import hsa.awp.common.mail.IMail;
 import hsa.awp.common.model.TemplateDetail;
 import hsa.awp.common.model.TemplateType;
 import hsa.awp.event.model.Event;
 import hsa.awp.scire.exception.DuplicatePriorityListElementException;
+import hsa.awp.scire.procedureLogic.draw.DrawResult;
+import hsa.awp.scire.procedureLogic.draw.DrawSimulation;
+import hsa.awp.scire.procedureLogic.draw.DrawSnapshot;
+import hsa.awp.scire.procedureLogic.draw.IDrawEngine;
 import hsa.awp.scire.procedureLogic.util.MailContent;
+import hsa.awp.scire.procedureLogic.util.MailProgress;
 import hsa.awp.scire.procedureLogic.util.PriorityListItemPrioritySorter;
 import hsa.awp.scire.procedureLogic.util.XmlDrawLogUtil;
 import hsa.awp.user.model.Group;
@@ -37,11 +41,21 @@ import hsa.awp.user.model.SingleUser;
 import hsa.awp.user.model.User;
 import org.apache.velocity.Template;
 import org.apache.velocity.VelocityContext;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.util.HtmlUtils;
 
 import java.io.StringWriter;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import static hsa.awp.event.util.EventFormattingUtils.formatIdSubjectNameAndDetailInformation;
 
@@ -54,10 +68,21 @@ import static hsa.awp.event.util.EventFormattingUtils.formatIdSubjectNameAndDeta
  */
 public class DrawProcedureLogic extends AbstractProcedureLogic<DrawProcedure> implements IDrawProcedureLogic,
     IProcedureLogic<DrawProcedure> {
+  /**
+   * Number of participants after which the {@link PriorityList}s of the notified participants are removed.
+   */
+  private static final int MAIL_CHECKPOINT_SIZE = 200;
+
   /**
    * Boolean variable will be true when the underlying {@link DrawProcedure} has been drawn.
    */
-  private boolean drawn = false;
+  private volatile boolean drawn = false;
+
+  /**
+   * Registrations share the read lock and may run concurrently, the draw takes the write lock. So the draw waits for all
+   * registrations in progress and no registration is accepted while the procedure is drawn.
+   */
+  private final ReadWriteLock registrationLock = new ReentrantReadWriteLock();
 
   /**
    * A random generator.
@@ -71,6 +96,21 @@ public class DrawProcedureLogic extends AbstractProcedureLogic<DrawProcedure> im
 
   private XmlDrawLogUtil xmlDrawLogUtil;
 
+  /**
+   * Engine drawing the procedure in memory. If no engine is set, every list is drawn using the facades.
+   */
+  private IDrawEngine drawEngine;
+
+  /**
+   * Number of threads rendering the mails after a draw.
+   */
+  private int mailWorkers = 4;
+
+  /**
+   * Progress of the last or currently running mail delivery.
+   */
+  private volatile MailProgress mailProgress = new MailProgress();
+
   /**
    * Default constructor.
    */
@@ -81,12 +121,83 @@ public class DrawProcedureLogic extends AbstractProcedureLogic<DrawProcedure> im
   }
 
   @Override
-  @Transactional
-  public synchronized void register(PriorityList list) {
+  public void register(PriorityList list) {
+
+    registrationLock.readLock().lock();
+    try {
+      if (drawn) {
+        throw new IllegalStateException("cannot register anymore : already drawn");
+      }
+      checkPriorityList(list);
+
+      // the list references its procedure, the lists submitted before are not touched
+      campaignFacade.appendPriorityList(getProcedure().getId(), list);
+    } finally {
+      registrationLock.readLock().unlock();
+    }
+  }
 
-    if (drawn) {
-      throw new IllegalStateException("cannot register anymore : already drawn");
-    } else if (list == null) {
+  @Override
+  public void register(Set<PriorityList> lists) {
+
+    registrationLock.readLock().lock();
+    try {
+      if (drawn) {
+        throw new IllegalStateException("cannot register anymore : already drawn");
+      } else if (lists == null || lists.size() == 0) {
+        throw new IllegalArgumentException("no priorityList set given");
+      }
+
+      Long initiator = null;
+      Long participant = null;
+      for (PriorityList list : lists) {
+        if (initiator == null) {
+          if (list.getInitiator() == null) {
+            throw new IllegalArgumentException("no initiator given (:null)");
+          } else if (list.getParticipant() == null) {
+            throw new IllegalArgumentException("no participant given (:null)");
+          } else {
+            initiator = list.getInitiator();
+            participant = list.getParticipant();
+          }
+        } else if (initiator != list.getInitiator()) {
+          throw new IllegalArgumentException("different initiators given");
+        } else if (participant != list.getParticipant()) {
+          throw new IllegalArgumentException("different participants given");
+        }
+      }
+
+      // check whether an Event was added two times.
+      LinkedList<Long> events = new LinkedList<Long>();
+      for (PriorityList list : lists) {
+        for (PriorityListItem item : getSortedPriorityListItemsOfPriorityList(list)) {
+          if (events.contains(item.getEvent())) {
+            throw new DuplicatePriorityListElementException(item.getEvent().toString());
+          }
+          events.add(item.getEvent());
+        }
+      }
+
+      for (PriorityList list : lists) {
+        checkPriorityList(list);
+      }
+
+      // all lists of the submission are inserted in one transaction
+      campaignFacade.appendPriorityLists(getProcedure().getId(), lists);
+    } finally {
+      registrationLock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Checks whether a {@link PriorityList} may be submitted: it has to be new and its participant has to pass the rules of every
+   * chosen {@link Event}.
+   *
+   * @param list the list to check.
+   */
+  private void checkPriorityList(PriorityList list) {
+
+    if (list == null) {
       throw new IllegalArgumentException("no priorityList given (:null)");
     } else if (list.getInitiator() == null) {
       throw new IllegalArgumentException("no initiator given (:null)");
@@ -102,60 +213,8 @@ public class DrawProcedureLogic extends AbstractProcedureLogic<DrawProcedure> im
       this.checkRules(participant, event);
     }
 
-    setProcedure(campaignFacade.getDrawProcedureById(getProcedure().getId()));
-
     if (list.getId() != 0L) {
       throw new ProgrammingErrorException("Priority list has not to be saved in the database!");
-      // } else if (getProcedure().getPriorityLists().contains(list)) {
-      // throw new ProgrammingErrorException("the priority list is not allowed to be assigned to the procedure");
-    } else {
-      campaignFacade.savePriorityList(list);
-      getProcedure().addPriorityList(list);
-      campaignFacade.updateProcedure(getProcedure());
-    }
-  }
-
-  @Override
-  public synchronized void register(Set<PriorityList> lists) {
-
-    if (drawn) {
-      throw new IllegalStateException("cannot register anymore : already drawn");
-    } else if (lists == null || lists.size() == 0) {
-      throw new IllegalArgumentException("no priorityList set given");
-    }
-
-    Long initiator = null;
-    Long participant = null;
-    for (PriorityList list : lists) {
-      if (initiator == null) {
-        if (list.getInitiator() == null) {
-          throw new IllegalArgumentException("no initiator given (:null)");
-        } else if (list.getParticipant() == null) {
-          throw new IllegalArgumentException("no participant given (:null)");
-        } else {
-          initiator = list.getInitiator();
-          participant = list.getParticipant();
-        }
-      } else if (initiator != list.getInitiator()) {
-        throw new IllegalArgumentException("different initiators given");
-      } else if (participant != list.getParticipant()) {
-        throw new IllegalArgumentException("different participants given");
-      }
-    }
-
-    // check whether an Event was added two times.
-    LinkedList<Long> events = new LinkedList<Long>();
-    for (PriorityList list : lists) {
-      for (PriorityListItem item : getSortedPriorityListItemsOfPriorityList(list)) {
-        if (events.contains(item.getEvent())) {
-          throw new DuplicatePriorityListElementException(item.getEvent().toString());
-        }
-        events.add(item.getEvent());
-      }
-    }
-
-    for (PriorityList list : lists) {
-      register(list);
     }
   }
 
@@ -166,12 +225,17 @@ public class DrawProcedureLogic extends AbstractProcedureLogic<DrawProcedure> im
   }
 
   @Override
-  public synchronized void registerExamOnly(SingleUser initiator, User participant, Event event) {
+  public void registerExamOnly(SingleUser initiator, User participant, Event event) {
 
-    if (drawn) {
-      throw new IllegalStateException("cannot register anymore : already drawn");
+    registrationLock.readLock().lock();
+    try {
+      if (drawn) {
+        throw new IllegalStateException("cannot register anymore : already drawn");
+      }
+      singleRegistration(event, participant, initiator, true);
+    } finally {
+      registrationLock.readLock().unlock();
     }
-    singleRegistration(event, participant, initiator, true);
   }
 
   @Override
@@ -189,7 +253,7 @@ public class DrawProcedureLogic extends AbstractProcedureLogic<DrawProcedure> im
   public synchronized void afterActive() {
 
     logger.info("sending mails to registered participants");
-    sendMails();
+    sendMails(false);
 
     /* priolists are deleted after mails are sent */
   }
@@ -213,11 +277,53 @@ public class DrawProcedureLogic extends AbstractProcedureLogic<DrawProcedure> im
   /**
    * this method starts the draw procedure and writes the resulting {@link ConfirmedRegistration}s as persistent objects.
    */
-  @Transactional
   public synchronized void draw() {
 
+    registrationLock.writeLock().lock();
+    try {
+      drawn = true;
+      drawPriorityLists();
+    } finally {
+      registrationLock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public DrawSimulation simulate(Map<Long, Integer> capacities, int runs, long seed) {
+
+    if (drawEngine == null) {
+      throw new IllegalStateException("simulation needs a draw engine");
+    }
+
+    DrawSnapshot snapshot = drawEngine.loadSnapshot(procedure);
+    if (capacities != null) {
+      snapshot = snapshot.withCapacities(capacities);
+    }
+    return drawEngine.simulate(snapshot, runs, seed);
+  }
+
+  /**
+   * Draws the {@link PriorityList}s of the procedure. Must only be called while holding the write lock.
+   */
+  private void drawPriorityLists() {
+
     logger.info("Draw started");
-    drawn = true;
+
+    if (drawEngine != null) {
+      long seed = rand.nextLong();
+      logger.info("drawing procedure '{}' in memory using seed '{}'", procedure.getId(), seed);
+      DrawResult result = drawEngine.draw(procedure, seed);
+      logger.info("Draw finished with '{}' registrations", result.size());
+
+      if (seatReservation != null) {
+        for (int i = 0; i < result.getSnapshot().getEventCount(); i++) {
+          seatReservation.invalidate(result.getSnapshot().getEventId(i));
+        }
+      }
+
+      procedure = campaignFacade.getDrawProcedureById(procedure.getId());
+      return;
+    }
 
     // get associated priority lists
     logger.info("using procedure '{}' with id '{}'", procedure.getName(), procedure.getId());
@@ -282,6 +388,10 @@ public class DrawProcedureLogic extends AbstractProcedureLogic<DrawProcedure> im
         logger.debug("'{}' lists left", roundPool.size());
       }
     }
+
+    if (seatReservation != null) {
+      seatReservation.invalidateAll();
+    }
   }
 
   private PriorityList randomPriorityList(List<PriorityList> roundPool) {
@@ -296,152 +406,348 @@ public class DrawProcedureLogic extends AbstractProcedureLogic<DrawProcedure> im
     return list;
   }
 
+  /**
+   * Sends the mails of an ended {@link DrawProcedure} to all participants which still have {@link PriorityList}s. This is used
+   * after a restart if the application was stopped while the mails were sent.
+   */
+  @Override
+  public synchronized void resumeMails() {
+
+    logger.info("resuming mails of procedure '{}'", procedure.getName());
+    drawn = true;
+    sendMails(true);
+  }
+
+  @Override
+  public MailProgress getMailProgress() {
+
+    return mailProgress;
+  }
+
   // TODO All : Move to Notification Procedure
 
   /**
-   * Sends dirty mails! (one user can get more mails when he gets more than one registration. The mails will be sent by a separate
-   * thread.
+   * Sends the mails to all participants in three stages. All participants, registrations and events are loaded with a few bulk
+   * queries first, then the mails are rendered by a bounded pool of workers which hand them over to the mail factory (and thereby
+   * to the mail queue, which sends them in batches). The {@link PriorityList}s of the notified participants are removed
+   * periodically, so that a restart only notifies the remaining participants. The lists of participants whose mails failed are
+   * kept, so that {@link #resumeMails()} notifies them after the next restart. If their mails fail again in the resumed run,
+   * they are logged and their lists are removed, so that a permanently failing address is not retried forever.
+   *
+   * @param resumed true if mails of an earlier, interrupted run are resumed.
    */
-  private void sendMails() {
+  private void sendMails(boolean resumed) {
 
-    Runnable task = new Runnable() {
-      @Override
-      public void run() {
+    procedure = campaignFacade.getDrawProcedureById(procedure.getId());
+    MailProgress progress = new MailProgress();
+    mailProgress = progress;
 
-        procedure = campaignFacade.getDrawProcedureById(procedure.getId());
-        List<PriorityList> allLists = new ArrayList<PriorityList>(procedure.getPriorityLists());
-        Map<Long, MailContent> mailPerUser = new HashMap<Long, MailContent>();
+    Map<Long, MailContent> mailPerUser = new LinkedHashMap<Long, MailContent>();
+    Map<Long, List<Long>> listIdsPerUser = new HashMap<Long, List<Long>>();
+    loadMailContents(mailPerUser, listIdsPerUser);
+    progress.setTotal(mailPerUser.size());
+    logger.info("sending {} draw mails of procedure '{}'", mailPerUser.size(), procedure.getName());
 
-        for (PriorityList list : allLists) {
-          MailContent mailContent = mailPerUser.get(list.getParticipant());
+    sendRegistrationLog(mailPerUser.values(), resumed);
 
-          if (mailContent == null) {
-            mailContent = new MailContent(userFacade.getSingleUserById(list.getParticipant()));
-            mailContent.setDrawProcedure(procedure);
-            mailContent.setRegistrations(campaignFacade.findConfirmedRegistrationsByParticipantIdAndProcedure(list
-                .getParticipant(), procedure));
-            mailPerUser.put(list.getParticipant(), mailContent);
-          }
+    MailRenderer renderer = new MailRenderer(loadEventTexts(mailPerUser.values()));
+    ExecutorService pool = Executors.newFixedThreadPool(mailWorkers, new ThreadFactory() {
+      private final AtomicInteger count = new AtomicInteger();
 
-          mailContent.getPrioLists().add(list);
+      @Override
+      public Thread newThread(Runnable r) {
 
-          mailPerUser.put(list.getParticipant(), mailContent);
+        Thread thread = new Thread(r, "draw-mail-" + count.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      }
+    });
+    CompletionService<Long> completion = new ExecutorCompletionService<Long>(pool);
+    Map<Future<Long>, MailContent> submitted = new HashMap<Future<Long>, MailContent>();
+    List<String> failedRecipients = new ArrayList<String>();
+
+    List<Long> notifiedLists = new ArrayList<Long>();
+    Iterator<MailContent> pending = mailPerUser.values().iterator();
+    int inFlight = 0;
+    try {
+      while (pending.hasNext() || inFlight > 0) {
+        // keep the workers busy, but do not render far ahead of the mails already handed over
+        while (pending.hasNext() && inFlight < mailWorkers * 4) {
+          MailContent content = pending.next();
+          submitted.put(completion.submit(renderer.task(content)), content);
+          inFlight++;
         }
 
-        for (MailContent mailContent : mailPerUser.values()) {
-          sendMail(mailContent);
+        Future<Long> future = completion.take();
+        inFlight--;
+        MailContent content = submitted.remove(future);
+        try {
+          notifiedLists.addAll(listIdsPerUser.get(future.get()));
+          progress.incrementSent();
+        } catch (ExecutionException e) {
+          progress.incrementFailed();
+          failedRecipients.add(content.getUser().getMail());
+          logger.error("could not send draw mail to " + content.getUser().getMail(), e.getCause());
         }
 
-        logger.info("send registrationLog");
-        String drawLogAsXml = xmlDrawLogUtil.transformMailContentsToXml(mailPerUser.values());
-        String correspondentEMail = procedure.getCampaign().getCorrespondentEMail();
-
-        IMail mail = mailFactory.getInstance(correspondentEMail, "Registration Log", "see attachment.", "registration-log");
-        mail.addByteArrayAsFileAttachment("drawLog.xml", drawLogAsXml.getBytes());
-        mail.send();
-
-        logger.info("remove associated priority lists");
-        campaignFacade.removePriorityListsAssociatedWithDrawProcedure(procedure);
+        if (notifiedLists.size() >= MAIL_CHECKPOINT_SIZE) {
+          checkpoint(notifiedLists, progress);
+        }
       }
-    };
+      checkpoint(notifiedLists, progress);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      logger.warn("sending draw mails interrupted ({}), the remaining participants are notified after a restart", progress);
+      return;
+    } finally {
+      pool.shutdownNow();
+    }
+
+    logger.info("draw mails of procedure '{}' finished: {}", procedure.getName(), progress);
+    progress.finish();
+
+    if (progress.getFailed() > 0 && !resumed) {
+      // the lists of the participants whose mails failed mark them for resumeMails()
+      logger.warn("{} draw mails of procedure '{}' failed, their priority lists are kept", progress.getFailed(),
+          procedure.getName());
+      return;
+    } else if (progress.getFailed() > 0) {
+      logger.error("giving up {} draw mails of procedure '{}' after the resumed run: {}", new Object[]{progress.getFailed(),
+          procedure.getName(), failedRecipients});
+    }
 
-    task.run();
+    logger.info("remove associated priority lists");
+    campaignFacade.removePriorityListsAssociatedWithDrawProcedure(procedure);
   }
 
-  protected void sendMail(MailContent content) {
+  /**
+   * Builds the {@link MailContent} of every participant from the priority list rows and the registrations of the procedure.
+   *
+   * @param mailPerUser    receives the mail contents by participant.
+   * @param listIdsPerUser receives the ids of the {@link PriorityList}s by participant.
+   */
+  private void loadMailContents(Map<Long, MailContent> mailPerUser, Map<Long, List<Long>> listIdsPerUser) {
+
+    // rows of [listId, participant, initiator, event, priority], ordered by list id and priority
+    Map<Long, PriorityList> lists = new LinkedHashMap<Long, PriorityList>();
+    for (Object[] row : campaignFacade.findPriorityListItemRowsByDrawProcedure(procedure)) {
+      PriorityList list = lists.get(row[0]);
+      if (list == null) {
+        list = PriorityList.getInstance(procedure.getMandatorId());
+        list.setParticipant((Long) row[1]);
+        list.setInitiator((Long) row[2]);
+        lists.put((Long) row[0], list);
+      }
+      list.addItem((Long) row[3], (Integer) row[4]);
+    }
 
-    if (content == null) {
-      throw new IllegalArgumentException("no mailContent was given");
+    Set<Long> participants = new LinkedHashSet<Long>();
+    for (PriorityList list : lists.values()) {
+      participants.add(list.getParticipant());
+    }
+    Map<Long, SingleUser> users = new HashMap<Long, SingleUser>();
+    for (SingleUser user : userFacade.getSingleUsersByIds(participants)) {
+      users.put(user.getId(), user);
     }
 
-    User participant = content.getUser();
-    List<Event> events = new LinkedList<Event>();
-    for (ConfirmedRegistration confirmedRegistration : content.getRegistrations()) {
-      try {
-        events.add(eventFacade.getEventById(confirmedRegistration.getEventId()));
-      } catch (NoMatchingElementException e) {
-        throw new IllegalArgumentException("either event or participant id is invalid in the given confirmedRegistration");
+    Map<Long, List<ConfirmedRegistration>> registrations = new HashMap<Long, List<ConfirmedRegistration>>();
+    for (ConfirmedRegistration registration : campaignFacade.getConfirmedRegistrationsByProcedure(procedure)) {
+      List<ConfirmedRegistration> ofParticipant = registrations.get(registration.getParticipant());
+      if (ofParticipant == null) {
+        ofParticipant = new LinkedList<ConfirmedRegistration>();
+        registrations.put(registration.getParticipant(), ofParticipant);
       }
+      ofParticipant.add(registration);
     }
 
-    /** Write a mail to the user **/
-    logger.trace("write a mail to the user");
+    for (Map.Entry<Long, PriorityList> entry : lists.entrySet()) {
+      Long participant = entry.getValue().getParticipant();
+      MailContent mailContent = mailPerUser.get(participant);
 
-    if (!(participant instanceof SingleUser)) {
-      throw new UnsupportedOperationException("groups are not yet supported for mail sending");
+      if (mailContent == null) {
+        SingleUser user = users.get(participant);
+        if (user == null) {
+          logger.warn("participant {} does not exist, no mail is sent", participant);
+          continue;
+        }
+        mailContent = new MailContent(user);
+        mailContent.setDrawProcedure(procedure);
+        if (registrations.containsKey(participant)) {
+          mailContent.setRegistrations(registrations.get(participant));
+        }
+        mailPerUser.put(participant, mailContent);
+        listIdsPerUser.put(participant, new ArrayList<Long>());
+      }
+
+      mailContent.getPrioLists().add(entry.getValue());
+      listIdsPerUser.get(participant).add(entry.getKey());
     }
-    SingleUser singleUser = (SingleUser) participant;
+  }
 
+  /**
+   * Formats all events referenced by the given mail contents with a single lookup, so that the workers do not need to access the
+   * database.
+   *
+   * @param contents mail contents to look at.
+   * @return formatted events by id.
+   */
+  private Map<Long, String> loadEventTexts(Collection<MailContent> contents) {
 
-    String mailSubject = buildMailSubject();
+    Set<Long> ids = new HashSet<Long>();
+    for (MailContent content : contents) {
+      for (PriorityList list : content.getPrioLists()) {
+        for (PriorityListItem item : list.getItems()) {
+          ids.add(item.getEvent());
+        }
+      }
+      for (ConfirmedRegistration registration : content.getRegistrations()) {
+        ids.add(registration.getEventId());
+      }
+    }
 
-    //-----------Begin edit
+    Map<Long, String> texts = new HashMap<Long, String>(ids.size() * 2);
+    for (Event event : eventFacade.getEventsByIds(ids)) {
+      texts.put(event.getId(), formatIdSubjectNameAndDetailInformation(event));
+    }
+    return texts;
+  }
 
+  /**
+   * Sends the registration log of the given mail contents to the correspondent of the campaign.
+   *
+   * @param contents mail contents to log.
+   * @param resumed  true if the log only contains the participants of a resumed run.
+   */
+  private void sendRegistrationLog(Collection<MailContent> contents, boolean resumed) {
 
-    Template template;
+    logger.info("send registrationLog");
+    String drawLogAsXml = xmlDrawLogUtil.transformMailContentsToXml(contents);
+    String correspondentEMail = procedure.getCampaign().getCorrespondentEMail();
 
-    VelocityContext context = new VelocityContext();
+    String subject = resumed ? "Registration Log (resumed)" : "Registration Log";
+    IMail mail = mailFactory.getInstance(correspondentEMail, subject, "see attachment.", "registration-log");
+    mail.addByteArrayAsFileAttachment("drawLog.xml", drawLogAsXml.getBytes());
+    mail.send();
+  }
 
-    context.put("name", singleUser.getName());
-    context.put("campaign", procedure.getCampaign().getName());
-    context.put("procedure", procedure.getName());
-    context.put("priolists", convertToPrioListString(content.getPrioLists()));
+  /**
+   * Removes the {@link PriorityList}s of the participants whose mails have been handed over.
+   *
+   * @param notifiedLists ids of the lists to remove, cleared afterwards.
+   * @param progress      progress to log.
+   */
+  private void checkpoint(List<Long> notifiedLists, MailProgress progress) {
 
-    if (content.isDrawn()) {
-      context.put("eventlist", convertToEventListString(content.getRegistrations()));
-      template = templateService.loadVelocityTemplate(TemplateDetail.getInstance(procedure.getMandatorId(), TemplateType.DRAWN));
-    } else {
-      template = templateService.loadVelocityTemplate(TemplateDetail.getInstance(procedure.getMandatorId(), TemplateType.DRAWN_NO_LUCK));
+    if (notifiedLists.isEmpty()) {
+      return;
     }
+    campaignFacade.removePriorityLists(procedure, notifiedLists);
+    notifiedLists.clear();
+    logger.info("draw mails of procedure '{}': {}", procedure.getName(), progress);
+  }
 
-    StringWriter writer = new StringWriter();
+  /**
+   * Renders the mails of a draw. All data is read on the calling thread, so that the tasks can run on any thread.
+   */
+  private final class MailRenderer {
+    private final Map<Long, String> eventTexts;
 
-    template.merge(context, writer);
+    private final Template drawnTemplate;
 
-    //-----------
+    private final Template noLuckTemplate;
 
-    Campaign campaign = procedure.getCampaign();
+    private final String subject;
 
-    logger.trace("sending mail to {}", singleUser.getMail());
-    IMail mail = mailFactory.getInstance(singleUser.getMail(), mailSubject, writer.toString(), campaign.getCorrespondentEMail());
-    mail.send();
-  }
+    private final String campaignName;
 
-  private String convertToPrioListString(List<PriorityList> lists) {
+    private final String procedureName;
 
-    StringBuffer sb = new StringBuffer();
+    private final String sender;
 
-    int i = 1;
-    for (PriorityList list : lists) {
-      sb.append("<table><tr><th>Wunschliste Kurs " + i + "</th></tr>\n");
-      list = campaignFacade.getPriorityListById(list.getId());
+    MailRenderer(Map<Long, String> eventTexts) {
 
-      for (int priority = 1; priority <= list.getItems().size(); priority++) {
-        PriorityListItem item = list.getItem(priority);
-        sb.append("<tr><td>");
-        Event event = eventFacade.getEventById(item.getEvent());
-        sb.append(HtmlUtils.htmlEscape(formatIdSubjectNameAndDetailInformation(event)));
-        sb.append("</td></tr>\n");
-      }
-      sb.append("</table>\n");
-      i++;
+      this.eventTexts = eventTexts;
+      drawnTemplate = templateService.loadVelocityTemplate(TemplateDetail.getInstance(procedure.getMandatorId(),
+          TemplateType.DRAWN));
+      noLuckTemplate = templateService.loadVelocityTemplate(TemplateDetail.getInstance(procedure.getMandatorId(),
+          TemplateType.DRAWN_NO_LUCK));
+      subject = buildMailSubject();
+      campaignName = procedure.getCampaign().getName();
+      procedureName = procedure.getName();
+      sender = procedure.getCampaign().getCorrespondentEMail();
     }
 
-    return sb.toString();
-  }
+    /**
+     * Creates a task rendering and sending the mail of the given content.
+     *
+     * @param content content of the mail.
+     * @return task returning the id of the participant.
+     */
+    Callable<Long> task(final MailContent content) {
+
+      return new Callable<Long>() {
+        @Override
+        public Long call() {
+
+          SingleUser singleUser = content.getUser();
+
+          VelocityContext context = new VelocityContext();
+          context.put("name", singleUser.getName());
+          context.put("campaign", campaignName);
+          context.put("procedure", procedureName);
+          context.put("priolists", convertToPrioListString(content.getPrioLists()));
+
+          Template template;
+          if (content.isDrawn()) {
+            context.put("eventlist", convertToEventListString(content.getRegistrations()));
+            template = drawnTemplate;
+          } else {
+            template = noLuckTemplate;
+          }
 
-  private String convertToEventListString(List<ConfirmedRegistration> registrations) {
+          StringWriter writer = new StringWriter();
+          template.merge(context, writer);
 
-    StringBuffer sb = new StringBuffer();
+          logger.trace("sending mail to {}", singleUser.getMail());
+          mailFactory.getInstance(singleUser.getMail(), subject, writer.toString(), sender).send();
+          return singleUser.getId();
+        }
+      };
+    }
+
+    private String convertToPrioListString(List<PriorityList> lists) {
+
+      StringBuilder sb = new StringBuilder();
+
+      int i = 1;
+      for (PriorityList list : lists) {
+        sb.append("<table><tr><th>Wunschliste Kurs ").append(i).append("</th></tr>\n");
 
-    for (ConfirmedRegistration registration : registrations) {
-      sb.append("<li>");
-      Event event = eventFacade.getEventById(registration.getEventId());
-      sb.append(formatIdSubjectNameAndDetailInformation(event));
-      sb.append("</li> \n");
+        for (int priority = 1; priority <= list.getItems().size(); priority++) {
+          PriorityListItem item = list.getItem(priority);
+          sb.append("<tr><td>");
+          sb.append(HtmlUtils.htmlEscape(eventTexts.get(item.getEvent())));
+          sb.append("</td></tr>\n");
+        }
+        sb.append("</table>\n");
+        i++;
+      }
+
+      return sb.toString();
     }
 
-    return sb.toString();
+    private String convertToEventListString(List<ConfirmedRegistration> registrations) {
+
+      StringBuilder sb = new StringBuilder();
+
+      for (ConfirmedRegistration registration : registrations) {
+        sb.append("<li>");
+        sb.append(eventTexts.get(registration.getEventId()));
+        sb.append("</li> \n");
+      }
+
+      return sb.toString();
+    }
   }
 
   /**
@@ -460,4 +766,16 @@ public class DrawProcedureLogic extends AbstractProcedureLogic<DrawProcedure> im
   public void setXmlDrawLogUtil(XmlDrawLogUtil xmlDrawLogUtil) {
     this.xmlDrawLogUtil = xmlDrawLogUtil;
   }
+
+  public void setDrawEngine(IDrawEngine drawEngine) {
+    this.drawEngine = drawEngine;
+  }
+
+  public void setMailWorkers(int mailWorkers) {
+
+    if (mailWorkers < 1) {
+      throw new IllegalArgumentException("at least one mail worker needed");
+    }
+    this.mailWorkers = mailWorkers;
+  }
 }
@@ -44,7 +44,7 @@ public class FifoProcedureLogic extends AbstractProcedureLogic<FifoProcedure> im
 
   @Override
   @Transactional
-  public synchronized void register(Event event, User participant, SingleUser initiator, boolean examOnly) {
+  public void register(Event event, User participant, SingleUser initiator, boolean examOnly) {
 
     ConfirmedRegistration confirmedRegistration = singleRegistration(event, participant, initiator, examOnly);
     sendMail(confirmedRegistration);
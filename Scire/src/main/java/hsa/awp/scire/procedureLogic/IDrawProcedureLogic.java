@@ -27,10 +27,13 @@ import hsa.awp.common.mail.IMailFactory;
 import hsa.awp.common.mail.MailFactory;
 import hsa.awp.event.model.Event;
 import hsa.awp.scire.exception.DuplicatePriorityListElementException;
+import hsa.awp.scire.procedureLogic.draw.DrawSimulation;
+import hsa.awp.scire.procedureLogic.util.MailProgress;
 import hsa.awp.user.model.SingleUser;
 import hsa.awp.user.model.User;
 
 import java.util.Collection;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -46,6 +49,19 @@ public interface IDrawProcedureLogic extends IProcedureLogic<DrawProcedure> {
    */
   boolean isDrawn();
 
+  /**
+   * Returns the progress of the mails which are sent to the participants after the {@link DrawProcedure} has ended.
+   *
+   * @return progress of the last or currently running delivery.
+   */
+  MailProgress getMailProgress();
+
+  /**
+   * Sends the mails of an ended {@link DrawProcedure} to all participants which have not been notified yet, e.g. after the
+   * application was stopped while the mails were sent.
+   */
+  void resumeMails();
+
   /**
    * Registers a given user with a {@link Collection} of items.
    *
@@ -77,6 +93,17 @@ public interface IDrawProcedureLogic extends IProcedureLogic<DrawProcedure> {
    */
   void registerExamOnly(SingleUser initiator, User participant, Event event);
 
+  /**
+   * Simulates the draw of the {@link DrawProcedure} on its current {@link PriorityList}s without creating any registration.
+   *
+   * @param capacities changed maximum number of participants per {@link Event} id or null to use the current ones.
+   * @param runs       number of simulated draws.
+   * @param seed       seed of the first draw. The same seed on the same data yields the same simulation.
+   * @return distributions over all draws.
+   * @throws IllegalStateException if no draw engine is configured.
+   */
+  DrawSimulation simulate(Map<Long, Integer> capacities, int runs, long seed);
+
   /**
    * Setter for the {@link MailFactory}.
    *
@@ -27,6 +27,8 @@ import hsa.awp.common.exception.ProgrammingErrorException;
 import hsa.awp.common.mail.IMailFactory;
 import hsa.awp.common.services.TemplateService;
 import hsa.awp.event.facade.IEventFacade;
+import hsa.awp.scire.procedureLogic.draw.IDrawEngine;
+import hsa.awp.scire.procedureLogic.seat.ISeatReservation;
 import hsa.awp.scire.procedureLogic.util.XmlDrawLogUtil;
 import hsa.awp.user.facade.IUserFacade;
 import org.slf4j.Logger;
@@ -67,6 +69,21 @@ public class ProcedureLogicFactory implements IProcedureLogicFactory {
 
   private XmlDrawLogUtil xmlDrawLogUtil;
 
+  /**
+   * Engine used by {@link DrawProcedureLogic}s to draw in memory.
+   */
+  private IDrawEngine drawEngine;
+
+  /**
+   * Counter of the occupied seats, shared by all logic instances.
+   */
+  private ISeatReservation seatReservation;
+
+  /**
+   * Number of threads rendering the mails after a draw.
+   */
+  private int drawMailWorkers = 4;
+
   @Override
   public IProcedureLogic<?> getInstance(Class<?> logicType) {
 
@@ -88,9 +105,12 @@ public class ProcedureLogicFactory implements IProcedureLogicFactory {
     logic.setUserFacade(userFacade);
     logic.setCampaignRuleChecker(campaignRuleChecker);
     logic.setTemplateService(templateService);
+    logic.setSeatReservation(seatReservation);
 
     if (logic instanceof DrawProcedureLogic) {
       ((DrawProcedureLogic) logic).setXmlDrawLogUtil(xmlDrawLogUtil);
+      ((DrawProcedureLogic) logic).setDrawEngine(drawEngine);
+      ((DrawProcedureLogic) logic).setMailWorkers(drawMailWorkers);
     }
 
     return logic;
@@ -153,4 +173,16 @@ public class ProcedureLogicFactory implements IProcedureLogicFactory {
   public void setXmlDrawLogUtil(XmlDrawLogUtil xmlDrawLogUtil) {
     this.xmlDrawLogUtil = xmlDrawLogUtil;
   }
+
+  public void setDrawEngine(IDrawEngine drawEngine) {
+    this.drawEngine = drawEngine;
+  }
+
+  public void setSeatReservation(ISeatReservation seatReservation) {
+    this.seatReservation = seatReservation;
+  }
+
+  public void setDrawMailWorkers(int drawMailWorkers) {
+    this.drawMailWorkers = drawMailWorkers;
+  }
 }
@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2010-2012 Matthias Klass, Johannes Leimer,
+ *               Rico Lieback, Sebastian Gabriel, Lothar Gesslein,
+ *               Alexander Rampp, Kai Weidner
+ *
+ * This file is part of the Physalix Enrollment System
+ *
+ * Foobar is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Foobar is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Foobar.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package hsa.awp.scire.procedureLogic.draw;
+
+import hsa.awp.campaign.facade.ICampaignFacade;
+import hsa.awp.campaign.model.ConfirmedRegistration;
+import hsa.awp.campaign.model.DrawProcedure;
+import hsa.awp.event.facade.IEventFacade;
+import hsa.awp.event.model.Event;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Default {@link IDrawEngine}. Loads the priority list items of a {@link DrawProcedure} with a single projection query and all
+ * involved {@link Event}s and their registration counts in bulk, draws on a {@link DrawSnapshot} and persists all {@link ConfirmedRegistration}s in one
+ * transaction.
+ */
+public class DrawEngine implements IDrawEngine {
+  /**
+   * Standard logger.
+   */
+  private Logger logger = LoggerFactory.getLogger(this.getClass());
+
+  /**
+   * Facade for accessing the Campaign component.
+   */
+  private ICampaignFacade campaignFacade;
+
+  /**
+   * Facade for accessing the Event component.
+   */
+  private IEventFacade eventFacade;
+
+  /**
+   * Number of threads used by {@link #simulate(DrawSnapshot, int, long)}.
+   */
+  private int simulationThreads = Runtime.getRuntime().availableProcessors();
+
+  @Override
+  @Transactional(readOnly = true)
+  public DrawSnapshot loadSnapshot(DrawProcedure procedure) {
+
+    if (procedure == null) {
+      throw new IllegalArgumentException("no procedure given");
+    }
+
+    List<Object[]> rows = campaignFacade.findPriorityListItemRowsByDrawProcedure(procedure);
+    logger.debug("loaded '{}' priority list items of procedure '{}'", rows.size(), procedure.getId());
+
+    Set<Long> eventIds = new LinkedHashSet<Long>();
+    for (Object[] row : rows) {
+      eventIds.add((Long) row[3]);
+    }
+
+    // capacities and registration counts of all events with one bulk load and one grouped count
+    Map<Long, Long> registrations = campaignFacade.countConfirmedRegistrationsByEventIds(eventIds);
+    DrawSnapshot.Builder builder = DrawSnapshot.builder(procedure.getMaximumPriorityListItems());
+    for (Event event : eventFacade.getEventsByIds(eventIds)) {
+      Long count = registrations.get(event.getId());
+      builder.addEvent(event.getId(), event.getMaxParticipants(), count == null ? 0 : count.intValue());
+    }
+
+    for (Object[] row : rows) {
+      builder.addItem((Long) row[0], (Long) row[1], (Long) row[2], (Long) row[3], (Integer) row[4]);
+    }
+
+    return builder.build();
+  }
+
+  @Override
+  @Transactional
+  public DrawResult draw(DrawProcedure procedure, long seed) {
+
+    if (procedure == null) {
+      throw new IllegalArgumentException("no procedure given");
+    }
+
+    procedure = campaignFacade.getDrawProcedureById(procedure.getId());
+
+    long start = System.currentTimeMillis();
+    DrawSnapshot snapshot = loadSnapshot(procedure);
+    logger.info("loaded '{}' prio lists for '{}' events in {} ms", new Object[]{snapshot.getListCount(),
+        snapshot.getEventCount(), System.currentTimeMillis() - start});
+
+    start = System.currentTimeMillis();
+    DrawResult result = snapshot.draw(new Random(seed));
+    logger.info("drew '{}' registrations with seed '{}' in {} ms", new Object[]{result.size(), seed,
+        System.currentTimeMillis() - start});
+
+    start = System.currentTimeMillis();
+    writeResult(procedure, result);
+    logger.info("wrote registrations in {} ms", System.currentTimeMillis() - start);
+
+    return result;
+  }
+
+  @Override
+  public DrawSimulation simulate(DrawSnapshot snapshot, int runs, long seed) {
+
+    long start = System.currentTimeMillis();
+    DrawSimulation simulation = new DrawSimulator(simulationThreads).simulate(snapshot, runs, seed);
+    logger.info("simulated {} draws with seed '{}' in {} ms", new Object[]{runs, seed,
+        System.currentTimeMillis() - start});
+
+    return simulation;
+  }
+
+  /**
+   * Persists the {@link ConfirmedRegistration}s of a draw and adds them to their {@link Event}s.
+   *
+   * @param procedure the drawn procedure.
+   * @param result    result of the draw.
+   */
+  private void writeResult(DrawProcedure procedure, DrawResult result) {
+
+    DrawSnapshot snapshot = result.getSnapshot();
+
+    List<ConfirmedRegistration> registrations = new ArrayList<ConfirmedRegistration>(result.size());
+    for (int i = 0; i < result.size(); i++) {
+      int list = result.getList(i);
+      ConfirmedRegistration registration = ConfirmedRegistration.getInstance(snapshot.getEventId(result.getEvent(i)),
+          procedure.getMandatorId());
+      registration.setInitiator(snapshot.getInitiator(list));
+      registration.setParticipant(snapshot.getParticipant(list));
+      registration.setProcedure(procedure);
+      registrations.add(registration);
+    }
+
+    registrations = campaignFacade.saveConfirmedRegistrations(registrations);
+
+    Map<Long, List<Long>> registrationsByEvent = new HashMap<Long, List<Long>>();
+    for (ConfirmedRegistration registration : registrations) {
+      List<Long> ids = registrationsByEvent.get(registration.getEventId());
+      if (ids == null) {
+        ids = new LinkedList<Long>();
+        registrationsByEvent.put(registration.getEventId(), ids);
+      }
+      ids.add(registration.getId());
+    }
+    eventFacade.addConfirmedRegistrations(registrationsByEvent);
+  }
+
+  /**
+   * Setter for campaignFacade.
+   *
+   * @param campaignFacade the campaignFacade to set
+   */
+  public void setCampaignFacade(ICampaignFacade campaignFacade) {
+
+    this.campaignFacade = campaignFacade;
+  }
+
+  /**
+   * Setter for eventFacade.
+   *
+   * @param eventFacade the eventFacade to set
+   */
+  public void setEventFacade(IEventFacade eventFacade) {
+
+    this.eventFacade = eventFacade;
+  }
+
+  /**
+   * Setter for simulationThreads.
+   *
+   * @param simulationThreads the simulationThreads to set
+   */
+  public void setSimulationThreads(int simulationThreads) {
+
+    this.simulationThreads = simulationThreads;
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2010-2012 Matthias Klass, Johannes Leimer,
+ *               Rico Lieback, Sebastian Gabriel, Lothar Gesslein,
+ *               Alexander Rampp, Kai Weidner
+ *
+ * This file is part of the Physalix Enrollment System
+ *
+ * Foobar is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Foobar is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Foobar.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package hsa.awp.scire.procedureLogic.draw;
+
+import hsa.awp.campaign.model.ConfirmedRegistration;
+import hsa.awp.campaign.model.PriorityList;
+import hsa.awp.event.model.Event;
+
+/**
+ * Result of a draw on a {@link DrawSnapshot}. Every entry stands for one {@link ConfirmedRegistration} to be created and holds
+ * the list index, the event index and the round (priority - 1) the registration was drawn in.
+ */
+public final class DrawResult {
+  /**
+   * The snapshot the draw was run on.
+   */
+  private final DrawSnapshot snapshot;
+
+  /**
+   * List index per registration.
+   */
+  private final int[] lists;
+
+  /**
+   * Event index per registration.
+   */
+  private final int[] events;
+
+  /**
+   * Round per registration.
+   */
+  private final int[] rounds;
+
+  /**
+   * Number of registrations per event after the draw, indexed by event index.
+   */
+  private final int[] fill;
+
+  DrawResult(DrawSnapshot snapshot, int[] lists, int[] events, int[] rounds, int[] fill) {
+
+    this.snapshot = snapshot;
+    this.lists = lists;
+    this.events = events;
+    this.rounds = rounds;
+    this.fill = fill;
+  }
+
+  /**
+   * Returns the number of drawn registrations.
+   *
+   * @return number of registrations.
+   */
+  public int size() {
+
+    return lists.length;
+  }
+
+  public DrawSnapshot getSnapshot() {
+
+    return snapshot;
+  }
+
+  /**
+   * Returns the list index of a registration.
+   *
+   * @param registration index of the registration.
+   * @return index of the {@link PriorityList} in the snapshot.
+   */
+  public int getList(int registration) {
+
+    return lists[registration];
+  }
+
+  /**
+   * Returns the event index of a registration.
+   *
+   * @param registration index of the registration.
+   * @return index of the {@link Event} in the snapshot.
+   */
+  public int getEvent(int registration) {
+
+    return events[registration];
+  }
+
+  /**
+   * Returns the round a registration was drawn in.
+   *
+   * @param registration index of the registration.
+   * @return round, 0 for the first priority.
+   */
+  public int getRound(int registration) {
+
+    return rounds[registration];
+  }
+
+  /**
+   * Returns the number of registrations of an event after the draw, including the ones existing before.
+   *
+   * @param event event index.
+   * @return number of registrations.
+   */
+  public int getFill(int event) {
+
+    return fill[event];
+  }
+}
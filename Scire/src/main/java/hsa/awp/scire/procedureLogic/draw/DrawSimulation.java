@@ -0,0 +1,281 @@
+/*
+ * Copyright (c) 2010-2012 Matthias Klass, Johannes Leimer,
+ *               Rico Lieback, Sebastian Gabriel, Lothar Gesslein,
+ *               Alexander Rampp, Kai Weidner
+ *
+ * This file is part of the Physalix Enrollment System
+ *
+ * Foobar is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Foobar is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Foobar.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package hsa.awp.scire.procedureLogic.draw;
+
+import hsa.awp.campaign.model.PriorityList;
+import hsa.awp.event.model.Event;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Distributions over several simulated draws of a {@link DrawSnapshot}: the fill of every {@link Event}, the share of
+ * {@link PriorityList}s drawn in every round and the number of participants without any registration.
+ */
+public final class DrawSimulation {
+  /**
+   * The snapshot the draws were run on.
+   */
+  private final DrawSnapshot snapshot;
+
+  private final int runs;
+
+  /**
+   * Sum, minimum and maximum of the registrations per event after a draw, indexed by event index.
+   */
+  private final long[] fillSum;
+
+  private final int[] fillMin;
+
+  private final int[] fillMax;
+
+  /**
+   * Sum of the registrations drawn per round.
+   */
+  private final long[] roundSum;
+
+  /**
+   * Number of distinct participants in the snapshot.
+   */
+  private final int participantCount;
+
+  private final long unassignedSum;
+
+  private final int unassignedMin;
+
+  private final int unassignedMax;
+
+  private DrawSimulation(Accumulator accumulator) {
+
+    this.snapshot = accumulator.snapshot;
+    this.runs = accumulator.runs;
+    this.fillSum = accumulator.fillSum;
+    this.fillMin = accumulator.fillMin;
+    this.fillMax = accumulator.fillMax;
+    this.roundSum = accumulator.roundSum;
+    this.participantCount = accumulator.participantCount;
+    this.unassignedSum = accumulator.unassignedSum;
+    this.unassignedMin = accumulator.unassignedMin;
+    this.unassignedMax = accumulator.unassignedMax;
+  }
+
+  public DrawSnapshot getSnapshot() {
+
+    return snapshot;
+  }
+
+  /**
+   * Returns the number of simulated draws.
+   *
+   * @return number of draws.
+   */
+  public int getRuns() {
+
+    return runs;
+  }
+
+  /**
+   * Returns the mean number of registrations of an event after a draw, including the ones existing before.
+   *
+   * @param event event index.
+   * @return mean number of registrations.
+   */
+  public double getMeanFill(int event) {
+
+    return runs == 0 ? 0 : (double) fillSum[event] / runs;
+  }
+
+  public int getMinFill(int event) {
+
+    return fillMin[event];
+  }
+
+  public int getMaxFill(int event) {
+
+    return fillMax[event];
+  }
+
+  /**
+   * Returns the mean share of the places of an event which are taken after a draw.
+   *
+   * @param event event index.
+   * @return mean fill rate between 0 and 1, or 0 for an event without places.
+   */
+  public double getMeanFillRate(int event) {
+
+    int capacity = snapshot.getCapacity(event);
+    return capacity <= 0 ? 0 : getMeanFill(event) / capacity;
+  }
+
+  /**
+   * Returns the share of {@link PriorityList}s which got the event of the given round, i.e. their choice with priority
+   * <code>round + 1</code>.
+   *
+   * @param round round, 0 for the first priority.
+   * @return share between 0 and 1.
+   */
+  public double getChoiceShare(int round) {
+
+    long total = (long) runs * snapshot.getListCount();
+    return total == 0 ? 0 : (double) roundSum[round] / total;
+  }
+
+  /**
+   * Returns the share of {@link PriorityList}s which did not get any of their events.
+   *
+   * @return share between 0 and 1.
+   */
+  public double getUnassignedListShare() {
+
+    long total = (long) runs * snapshot.getListCount();
+    long assigned = 0;
+    for (long sum : roundSum) {
+      assigned += sum;
+    }
+    return total == 0 ? 0 : (double) (total - assigned) / total;
+  }
+
+  /**
+   * Returns the number of distinct participants having at least one {@link PriorityList}.
+   *
+   * @return number of participants.
+   */
+  public int getParticipantCount() {
+
+    return participantCount;
+  }
+
+  /**
+   * Returns the mean number of participants who did not get a registration for any of their {@link PriorityList}s.
+   *
+   * @return mean number of participants.
+   */
+  public double getMeanUnassignedParticipants() {
+
+    return runs == 0 ? 0 : (double) unassignedSum / runs;
+  }
+
+  public int getMinUnassignedParticipants() {
+
+    return unassignedMin;
+  }
+
+  public int getMaxUnassignedParticipants() {
+
+    return unassignedMax;
+  }
+
+  /**
+   * Collects the results of single draws. An accumulator is used by one thread only, the accumulators of several threads
+   * are merged afterwards.
+   */
+  static final class Accumulator {
+    private final DrawSnapshot snapshot;
+
+    /**
+     * Participant index per list index.
+     */
+    private final int[] participantIndexes;
+
+    private final int participantCount;
+
+    private final BitSet assigned;
+
+    private int runs;
+
+    private final long[] fillSum;
+
+    private final int[] fillMin;
+
+    private final int[] fillMax;
+
+    private final long[] roundSum;
+
+    private long unassignedSum;
+
+    private int unassignedMin = Integer.MAX_VALUE;
+
+    private int unassignedMax;
+
+    Accumulator(DrawSnapshot snapshot, int[] participantIndexes, int participantCount) {
+
+      this.snapshot = snapshot;
+      this.participantIndexes = participantIndexes;
+      this.participantCount = participantCount;
+      this.assigned = new BitSet(participantCount);
+
+      int events = snapshot.getEventCount();
+      fillSum = new long[events];
+      fillMin = new int[events];
+      fillMax = new int[events];
+      Arrays.fill(fillMin, Integer.MAX_VALUE);
+      roundSum = new long[snapshot.getRounds()];
+    }
+
+    void add(DrawResult result) {
+
+      for (int event = 0; event < fillSum.length; event++) {
+        int fill = result.getFill(event);
+        fillSum[event] += fill;
+        fillMin[event] = Math.min(fillMin[event], fill);
+        fillMax[event] = Math.max(fillMax[event], fill);
+      }
+
+      assigned.clear();
+      for (int i = 0; i < result.size(); i++) {
+        roundSum[result.getRound(i)]++;
+        assigned.set(participantIndexes[result.getList(i)]);
+      }
+
+      int unassigned = participantCount - assigned.cardinality();
+      unassignedSum += unassigned;
+      unassignedMin = Math.min(unassignedMin, unassigned);
+      unassignedMax = Math.max(unassignedMax, unassigned);
+      runs++;
+    }
+
+    void merge(Accumulator other) {
+
+      for (int event = 0; event < fillSum.length; event++) {
+        fillSum[event] += other.fillSum[event];
+        fillMin[event] = Math.min(fillMin[event], other.fillMin[event]);
+        fillMax[event] = Math.max(fillMax[event], other.fillMax[event]);
+      }
+      for (int round = 0; round < roundSum.length; round++) {
+        roundSum[round] += other.roundSum[round];
+      }
+      unassignedSum += other.unassignedSum;
+      unassignedMin = Math.min(unassignedMin, other.unassignedMin);
+      unassignedMax = Math.max(unassignedMax, other.unassignedMax);
+      runs += other.runs;
+    }
+
+    DrawSimulation toSimulation() {
+
+      if (runs == 0) {
+        Arrays.fill(fillMin, 0);
+        unassignedMin = 0;
+      }
+      return new DrawSimulation(this);
+    }
+  }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2010-2012 Matthias Klass, Johannes Leimer,
+ *               Rico Lieback, Sebastian Gabriel, Lothar Gesslein,
+ *               Alexander Rampp, Kai Weidner
+ *
+ * This file is part of the Physalix Enrollment System
+ *
+ * Foobar is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Foobar is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Foobar.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package hsa.awp.scire.procedureLogic.draw;
+
+import hsa.awp.campaign.model.ConfirmedRegistration;
+import hsa.awp.campaign.model.DrawProcedure;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs several draws on a {@link DrawSnapshot} in parallel and collects their distributions in a {@link DrawSimulation}. The
+ * runs work on the snapshot only, so they neither access the database nor create any {@link ConfirmedRegistration}, and
+ * can be used to check the outcome of a {@link DrawProcedure} before its draw date. Run <code>i</code> uses the seed
+ * <code>seed + i</code>, so the result does not depend on the number of threads.
+ */
+public class DrawSimulator {
+  private final int threads;
+
+  /**
+   * Creates a simulator.
+   *
+   * @param threads number of threads running the draws.
+   */
+  public DrawSimulator(int threads) {
+
+    if (threads <= 0) {
+      throw new IllegalArgumentException("no threads given");
+    }
+    this.threads = threads;
+  }
+
+  /**
+   * Simulates the draws.
+   *
+   * @param snapshot snapshot to draw, e.g. with changed capacities from {@link DrawSnapshot#withCapacities(Map)}.
+   * @param runs     number of draws.
+   * @param seed     seed of the first draw.
+   * @return distributions over all draws.
+   */
+  public DrawSimulation simulate(final DrawSnapshot snapshot, int runs, final long seed) {
+
+    if (snapshot == null) {
+      throw new IllegalArgumentException("no snapshot given");
+    } else if (runs <= 0) {
+      throw new IllegalArgumentException("no runs given");
+    }
+
+    Map<Long, Integer> participants = new HashMap<Long, Integer>();
+    final int[] participantIndexes = new int[snapshot.getListCount()];
+    for (int list = 0; list < participantIndexes.length; list++) {
+      Integer index = participants.get(snapshot.getParticipant(list));
+      if (index == null) {
+        index = participants.size();
+        participants.put(snapshot.getParticipant(list), index);
+      }
+      participantIndexes[list] = index;
+    }
+    final int participantCount = participants.size();
+
+    int tasks = Math.min(threads, runs);
+    ExecutorService pool = Executors.newFixedThreadPool(tasks, new ThreadFactory() {
+      private final AtomicInteger count = new AtomicInteger();
+
+      @Override
+      public Thread newThread(Runnable r) {
+
+        Thread thread = new Thread(r, "draw-simulation-" + count.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      }
+    });
+
+    try {
+      List<Future<DrawSimulation.Accumulator>> futures = new ArrayList<Future<DrawSimulation.Accumulator>>(tasks);
+      for (int task = 0; task < tasks; task++) {
+        final int from = (int) ((long) runs * task / tasks);
+        final int to = (int) ((long) runs * (task + 1) / tasks);
+        futures.add(pool.submit(new Callable<DrawSimulation.Accumulator>() {
+          @Override
+          public DrawSimulation.Accumulator call() {
+
+            DrawSimulation.Accumulator accumulator = new DrawSimulation.Accumulator(snapshot, participantIndexes,
+                participantCount);
+            for (int run = from; run < to; run++) {
+              accumulator.add(snapshot.draw(new Random(seed + run)));
+            }
+            return accumulator;
+          }
+        }));
+      }
+
+      DrawSimulation.Accumulator total = new DrawSimulation.Accumulator(snapshot, participantIndexes, participantCount);
+      for (Future<DrawSimulation.Accumulator> future : futures) {
+        total.merge(future.get());
+      }
+      return total.toSimulation();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("draw simulation interrupted", e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("draw simulation failed", e.getCause());
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+}
@@ -0,0 +1,410 @@
+/*
+ * Copyright (c) 2010-2012 Matthias Klass, Johannes Leimer,
+ *               Rico Lieback, Sebastian Gabriel, Lothar Gesslein,
+ *               Alexander Rampp, Kai Weidner
+ *
+ * This file is part of the Physalix Enrollment System
+ *
+ * Foobar is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Foobar is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Foobar.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package hsa.awp.scire.procedureLogic.draw;
+
+import hsa.awp.campaign.model.DrawProcedure;
+import hsa.awp.campaign.model.PriorityList;
+import hsa.awp.event.model.Event;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Compact in-memory representation of all {@link PriorityList}s and {@link Event} capacities of a {@link DrawProcedure}. Lists
+ * and events are addressed by dense indexes, all data is held in primitive arrays so that a draw does not need any database
+ * access.
+ */
+public final class DrawSnapshot {
+  /**
+   * Marks a round in which a {@link PriorityList} has no item.
+   */
+  static final int NO_ITEM = -1;
+
+  /**
+   * Ids of the {@link PriorityList}s, indexed by list index.
+   */
+  private final long[] listIds;
+
+  /**
+   * Participants of the {@link PriorityList}s, indexed by list index.
+   */
+  private final long[] participants;
+
+  /**
+   * Initiators of the {@link PriorityList}s, indexed by list index.
+   */
+  private final long[] initiators;
+
+  /**
+   * Event index per list and round (<code>listIndex * rounds + round</code>) or {@link #NO_ITEM}.
+   */
+  private final int[] items;
+
+  /**
+   * Number of draw rounds (maximum number of items in a {@link PriorityList}).
+   */
+  private final int rounds;
+
+  /**
+   * Ids of the {@link Event}s, indexed by event index.
+   */
+  private final long[] eventIds;
+
+  /**
+   * Maximum participants of the {@link Event}s, indexed by event index.
+   */
+  private final int[] capacities;
+
+  /**
+   * Number of registrations the {@link Event}s already had when the snapshot was taken, indexed by event index.
+   */
+  private final int[] occupied;
+
+  private DrawSnapshot(Builder builder) {
+
+    this.rounds = builder.rounds;
+    this.listIds = Arrays.copyOf(builder.listIds, builder.listCount);
+    this.participants = Arrays.copyOf(builder.participants, builder.listCount);
+    this.initiators = Arrays.copyOf(builder.initiators, builder.listCount);
+    this.items = Arrays.copyOf(builder.items, builder.listCount * rounds);
+    this.eventIds = Arrays.copyOf(builder.eventIds, builder.eventCount);
+    this.capacities = Arrays.copyOf(builder.capacities, builder.eventCount);
+    this.occupied = Arrays.copyOf(builder.occupied, builder.eventCount);
+  }
+
+  private DrawSnapshot(DrawSnapshot snapshot, int[] capacities) {
+
+    this.rounds = snapshot.rounds;
+    this.listIds = snapshot.listIds;
+    this.participants = snapshot.participants;
+    this.initiators = snapshot.initiators;
+    this.items = snapshot.items;
+    this.eventIds = snapshot.eventIds;
+    this.capacities = capacities;
+    this.occupied = snapshot.occupied;
+  }
+
+  /**
+   * Creates a {@link Builder} for a snapshot with the given number of rounds.
+   *
+   * @param rounds maximum number of items in a {@link PriorityList}.
+   * @return new builder.
+   */
+  public static Builder builder(int rounds) {
+
+    if (rounds < 0) {
+      throw new IllegalArgumentException("negative number of rounds given");
+    }
+    return new Builder(rounds);
+  }
+
+  /**
+   * Creates a copy of this snapshot with changed {@link Event} capacities, e.g. to find out how an additional group would
+   * change the outcome of a draw. Events which are not part of this snapshot are ignored.
+   *
+   * @param changed new maximum number of participants per event id.
+   * @return the changed snapshot.
+   */
+  public DrawSnapshot withCapacities(Map<Long, Integer> changed) {
+
+    if (changed == null) {
+      throw new IllegalArgumentException("no capacities given");
+    }
+
+    int[] copy = Arrays.copyOf(capacities, capacities.length);
+    for (int event = 0; event < eventIds.length; event++) {
+      Integer capacity = changed.get(eventIds[event]);
+      if (capacity != null) {
+        copy[event] = capacity;
+      }
+    }
+    return new DrawSnapshot(this, copy);
+  }
+
+  /**
+   * Runs the draw on this snapshot. For every round all remaining lists are visited in random order. A list leaves the draw as
+   * soon as it has no item for the current round or as soon as the event of its item still has places left, in which case the
+   * list gets a registration for this event. The snapshot itself is not modified, so that it can be drawn several times.
+   *
+   * @param random source of randomness. Two draws using generators with the same seed yield the same result.
+   * @return the result of the draw.
+   */
+  public DrawResult draw(Random random) {
+
+    if (random == null) {
+      throw new IllegalArgumentException("no random generator given");
+    }
+
+    int listCount = listIds.length;
+    int[] fill = Arrays.copyOf(occupied, occupied.length);
+    boolean[] done = new boolean[listCount];
+    int[] pool = new int[listCount];
+
+    int[] resultLists = new int[listCount];
+    int[] resultEvents = new int[listCount];
+    int[] resultRounds = new int[listCount];
+    int size = 0;
+
+    for (int round = 0; round < rounds; round++) {
+      int poolSize = 0;
+      for (int list = 0; list < listCount; list++) {
+        if (!done[list]) {
+          pool[poolSize++] = list;
+        }
+      }
+
+      for (int remaining = poolSize; remaining > 0; remaining--) {
+        int pick = random.nextInt(remaining);
+        int list = pool[pick];
+        pool[pick] = pool[remaining - 1];
+
+        int event = items[list * rounds + round];
+        if (event == NO_ITEM) {
+          done[list] = true;
+        } else if (fill[event] < capacities[event]) {
+          fill[event]++;
+          done[list] = true;
+
+          resultLists[size] = list;
+          resultEvents[size] = event;
+          resultRounds[size] = round;
+          size++;
+        }
+      }
+    }
+
+    return new DrawResult(this, Arrays.copyOf(resultLists, size), Arrays.copyOf(resultEvents, size),
+        Arrays.copyOf(resultRounds, size), fill);
+  }
+
+  /**
+   * Returns the number of {@link PriorityList}s in this snapshot.
+   *
+   * @return number of lists.
+   */
+  public int getListCount() {
+
+    return listIds.length;
+  }
+
+  /**
+   * Returns the number of {@link Event}s in this snapshot.
+   *
+   * @return number of events.
+   */
+  public int getEventCount() {
+
+    return eventIds.length;
+  }
+
+  /**
+   * Returns the number of draw rounds.
+   *
+   * @return number of rounds.
+   */
+  public int getRounds() {
+
+    return rounds;
+  }
+
+  public long getListId(int list) {
+
+    return listIds[list];
+  }
+
+  public long getParticipant(int list) {
+
+    return participants[list];
+  }
+
+  public long getInitiator(int list) {
+
+    return initiators[list];
+  }
+
+  /**
+   * Returns the index of the event a list has chosen for a round.
+   *
+   * @param list  list index.
+   * @param round round, starting with 0 for priority 1.
+   * @return the event index or a negative value if the list has no item for this round.
+   */
+  public int getItem(int list, int round) {
+
+    return items[list * rounds + round];
+  }
+
+  public long getEventId(int event) {
+
+    return eventIds[event];
+  }
+
+  public int getCapacity(int event) {
+
+    return capacities[event];
+  }
+
+  public int getOccupied(int event) {
+
+    return occupied[event];
+  }
+
+  /**
+   * Collects {@link PriorityList} items and {@link Event} capacities and assigns dense indexes to them.
+   */
+  public static final class Builder {
+    private final int rounds;
+
+    private final Map<Long, Integer> listIndexes = new HashMap<Long, Integer>();
+
+    private final Map<Long, Integer> eventIndexes = new HashMap<Long, Integer>();
+
+    private long[] listIds = new long[16];
+
+    private long[] participants = new long[16];
+
+    private long[] initiators = new long[16];
+
+    private int[] items;
+
+    private int listCount = 0;
+
+    private long[] eventIds = new long[16];
+
+    private int[] capacities = new int[16];
+
+    private int[] occupied = new int[16];
+
+    private int eventCount = 0;
+
+    private Builder(int rounds) {
+
+      this.rounds = rounds;
+      this.items = new int[16 * rounds];
+    }
+
+    /**
+     * Adds an {@link Event} with its capacity. Events have to be added before items referencing them.
+     *
+     * @param eventId         id of the event.
+     * @param maxParticipants maximum number of participants.
+     * @param registrations   number of already existing registrations.
+     * @return this builder.
+     */
+    public Builder addEvent(long eventId, int maxParticipants, int registrations) {
+
+      if (eventIndexes.containsKey(eventId)) {
+        throw new IllegalArgumentException("event '" + eventId + "' was already added");
+      }
+
+      if (eventCount == eventIds.length) {
+        int length = eventIds.length * 2;
+        eventIds = Arrays.copyOf(eventIds, length);
+        capacities = Arrays.copyOf(capacities, length);
+        occupied = Arrays.copyOf(occupied, length);
+      }
+
+      eventIds[eventCount] = eventId;
+      capacities[eventCount] = maxParticipants;
+      occupied[eventCount] = registrations;
+      eventIndexes.put(eventId, eventCount);
+      eventCount++;
+
+      return this;
+    }
+
+    /**
+     * Adds an item of a {@link PriorityList}. Items of a priority higher than the number of rounds are ignored.
+     *
+     * @param listId      id of the list.
+     * @param participant participant of the list.
+     * @param initiator   initiator of the list.
+     * @param eventId     id of the chosen event.
+     * @param priority    priority of the item, starting with 1.
+     * @return this builder.
+     * @throws IllegalArgumentException if the event was not added before.
+     */
+    public Builder addItem(long listId, long participant, long initiator, long eventId, int priority) {
+
+      Integer event = eventIndexes.get(eventId);
+      if (event == null) {
+        throw new IllegalArgumentException("unknown event '" + eventId + "'");
+      } else if (priority <= 0) {
+        throw new IllegalArgumentException("negative or zero priority given");
+      }
+
+      int list = listIndex(listId, participant, initiator);
+      if (priority <= rounds) {
+        items[list * rounds + priority - 1] = event;
+      }
+
+      return this;
+    }
+
+    /**
+     * Checks whether an event was already added.
+     *
+     * @param eventId id of the event.
+     * @return true if the event is known.
+     */
+    public boolean hasEvent(long eventId) {
+
+      return eventIndexes.containsKey(eventId);
+    }
+
+    /**
+     * Creates the snapshot.
+     *
+     * @return immutable snapshot.
+     */
+    public DrawSnapshot build() {
+
+      return new DrawSnapshot(this);
+    }
+
+    private int listIndex(long listId, long participant, long initiator) {
+
+      Integer index = listIndexes.get(listId);
+      if (index != null) {
+        return index;
+      }
+
+      if (listCount == listIds.length) {
+        int length = listIds.length * 2;
+        listIds = Arrays.copyOf(listIds, length);
+        participants = Arrays.copyOf(participants, length);
+        initiators = Arrays.copyOf(initiators, length);
+        items = Arrays.copyOf(items, length * rounds);
+      }
+
+      listIds[listCount] = listId;
+      participants[listCount] = participant;
+      initiators[listCount] = initiator;
+      Arrays.fill(items, listCount * rounds, (listCount + 1) * rounds, NO_ITEM);
+      listIndexes.put(listId, listCount);
+
+      return listCount++;
+    }
+  }
+}
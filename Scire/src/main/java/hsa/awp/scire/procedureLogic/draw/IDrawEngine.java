@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2010-2012 Matthias Klass, Johannes Leimer,
+ *               Rico Lieback, Sebastian Gabriel, Lothar Gesslein,
+ *               Alexander Rampp, Kai Weidner
+ *
+ * This file is part of the Physalix Enrollment System
+ *
+ * Foobar is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Foobar is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Foobar.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package hsa.awp.scire.procedureLogic.draw;
+
+import hsa.awp.campaign.model.ConfirmedRegistration;
+import hsa.awp.campaign.model.DrawProcedure;
+
+/**
+ * Draws a {@link DrawProcedure} in memory. All data needed for the draw is loaded at once, the rounds are run without database
+ * access and the resulting {@link ConfirmedRegistration}s are written back in batches.
+ */
+public interface IDrawEngine {
+  /**
+   * Loads all priority lists and event capacities of the given {@link DrawProcedure}.
+   *
+   * @param procedure {@link DrawProcedure} to load.
+   * @return snapshot of the procedure.
+   */
+  DrawSnapshot loadSnapshot(DrawProcedure procedure);
+
+  /**
+   * Draws the given {@link DrawProcedure} and makes the resulting {@link ConfirmedRegistration}s persistent.
+   *
+   * @param procedure {@link DrawProcedure} to draw.
+   * @param seed      seed of the random generator. The same seed on the same data yields the same registrations.
+   * @return the result of the draw.
+   */
+  DrawResult draw(DrawProcedure procedure, long seed);
+
+  /**
+   * Runs several draws on the given snapshot without making anything persistent.
+   *
+   * @param snapshot snapshot to draw, see {@link #loadSnapshot(DrawProcedure)}.
+   * @param runs     number of draws.
+   * @param seed     seed of the first draw, run <code>i</code> uses <code>seed + i</code>.
+   * @return distributions over all draws.
+   */
+  DrawSimulation simulate(DrawSnapshot snapshot, int runs, long seed);
+}
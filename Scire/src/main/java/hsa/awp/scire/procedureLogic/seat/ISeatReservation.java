@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2010-2012 Matthias Klass, Johannes Leimer,
+ *               Rico Lieback, Sebastian Gabriel, Lothar Gesslein,
+ *               Alexander Rampp, Kai Weidner
+ *
+ * This file is part of the Physalix Enrollment System
+ *
+ * Foobar is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Foobar is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Foobar.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package hsa.awp.scire.procedureLogic.seat;
+
+import hsa.awp.campaign.model.ConfirmedRegistration;
+import hsa.awp.event.model.Event;
+
+import java.util.Collection;
+
+/**
+ * Keeps track of the occupied seats of every {@link Event} in memory, so that registrations for different {@link Event}s do not
+ * have to wait for each other and a full {@link Event} can be rejected without asking the database.
+ * <p/>
+ * The number of occupied seats is read from the database the first time an {@link Event} is accessed and kept up to date by the
+ * reservations afterwards. {@link ConfirmedRegistration}s written by someone else (e.g. a draw) are only seen after
+ * {@link #invalidate(Long)} or the next periodic synchronization.
+ * <p/>
+ * Every change of a counter increments the version of its {@link Event}, which allows pages to poll for changes of the
+ * {@link Event}s they show without asking the database.
+ */
+public interface ISeatReservation {
+  /**
+   * Tries to take a seat of the given {@link Event}. If a transaction is active, the seat is confirmed when the transaction commits
+   * and given back when it rolls back. Otherwise the caller has to call {@link #confirm(Long)} or {@link #release(Long)}.
+   *
+   * @param eventId         id of the {@link Event}.
+   * @param maxParticipants number of available seats.
+   * @return true if a seat was taken, false if the {@link Event} is full.
+   */
+  boolean reserve(Long eventId, int maxParticipants);
+
+  /**
+   * Marks a reserved seat as written to the database.
+   *
+   * @param eventId id of the {@link Event}.
+   */
+  void confirm(Long eventId);
+
+  /**
+   * Gives back a reserved seat which was not written to the database.
+   *
+   * @param eventId id of the {@link Event}.
+   */
+  void release(Long eventId);
+
+  /**
+   * Returns the number of occupied seats including reservations which are not yet written.
+   *
+   * @param eventId id of the {@link Event}.
+   * @return occupied seats.
+   */
+  int getOccupiedSeats(Long eventId);
+
+  /**
+   * Returns the occupied seats of the given {@link Event}s. Counters which are not known yet are read from the database with a
+   * single query, all others are answered from memory.
+   *
+   * @param eventIds ids of the {@link Event}s, usually those of one campaign.
+   * @return snapshot of the occupied seats.
+   */
+  SeatSnapshot getSnapshot(Collection<Long> eventIds);
+
+  /**
+   * Returns the current version of the counters of the given {@link Event}s. The version changes whenever the number of occupied
+   * seats of one of these {@link Event}s changes, changes of other {@link Event}s do not affect it.
+   *
+   * @param eventIds ids of the {@link Event}s, usually those of one campaign.
+   * @return current version.
+   */
+  long getVersion(Collection<Long> eventIds);
+
+  /**
+   * Reads the number of occupied seats of the given {@link Event} from the database again.
+   *
+   * @param eventId id of the {@link Event}.
+   */
+  void invalidate(Long eventId);
+
+  /**
+   * Reads the number of occupied seats of all known {@link Event}s from the database again.
+   */
+  void invalidateAll();
+}
@@ -0,0 +1,424 @@
+/*
+ * Copyright (c) 2010-2012 Matthias Klass, Johannes Leimer,
+ *               Rico Lieback, Sebastian Gabriel, Lothar Gesslein,
+ *               Alexander Rampp, Kai Weidner
+ *
+ * This file is part of the Physalix Enrollment System
+ *
+ * Foobar is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Foobar is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Foobar.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package hsa.awp.scire.procedureLogic.seat;
+
+import hsa.awp.campaign.facade.ICampaignFacade;
+import hsa.awp.campaign.facade.IConfirmedRegistrationListener;
+import hsa.awp.campaign.model.ConfirmedRegistration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link ISeatReservation} using one atomic counter per event. Counters are created lazily from
+ * {@link ICampaignFacade#countConfirmedRegistrationsByEventId(long)} and synchronized with the database periodically. Removed
+ * {@link ConfirmedRegistration}s give their seat back immediately.
+ */
+public class SeatReservation implements ISeatReservation, IConfirmedRegistrationListener {
+  /**
+   * Number of attempts to synchronize a counter which is changed concurrently.
+   */
+  private static final int SYNC_ATTEMPTS = 3;
+
+  /**
+   * Standard logger.
+   */
+  private Logger logger = LoggerFactory.getLogger(SeatReservation.class);
+
+  /**
+   * Facade for counting the written registrations.
+   */
+  private ICampaignFacade campaignFacade;
+
+  /**
+   * Counters by event id.
+   */
+  private final ConcurrentMap<Long, Counter> counters = new ConcurrentHashMap<Long, Counter>();
+
+  /**
+   * Interval in seconds in which all counters are synchronized with the database, 0 to disable.
+   */
+  private long syncIntervalSeconds = 60;
+
+  /**
+   * Executor running the periodic synchronization.
+   */
+  private ScheduledExecutorService scheduler;
+
+  /**
+   * Starts the periodic synchronization.
+   */
+  public void start() {
+
+    campaignFacade.addConfirmedRegistrationListener(this);
+    if (syncIntervalSeconds <= 0) {
+      return;
+    }
+    scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+      @Override
+      public Thread newThread(Runnable r) {
+
+        Thread thread = new Thread(r, "seat-reservation-sync");
+        thread.setDaemon(true);
+        return thread;
+      }
+    });
+    scheduler.scheduleWithFixedDelay(new Runnable() {
+      @Override
+      public void run() {
+
+        try {
+          invalidateAll();
+        } catch (RuntimeException e) {
+          logger.warn("could not synchronize seat counters", e);
+        }
+      }
+    }, syncIntervalSeconds, syncIntervalSeconds, TimeUnit.SECONDS);
+  }
+
+  /**
+   * Stops the periodic synchronization.
+   */
+  public void stop() {
+
+    campaignFacade.removeConfirmedRegistrationListener(this);
+    if (scheduler != null) {
+      scheduler.shutdownNow();
+      scheduler = null;
+    }
+  }
+
+  @Override
+  public boolean reserve(final Long eventId, int maxParticipants) {
+
+    Counter counter = getCounter(eventId);
+
+    // announce the reservation before taking the seat, so that a concurrent synchronization counts it
+    counter.pending.incrementAndGet();
+    while (true) {
+      long state = counter.state.get();
+      if (seats(state) >= maxParticipants) {
+        counter.pending.decrementAndGet();
+        logger.debug("no seat left in event {}", eventId);
+        return false;
+      }
+      if (counter.state.compareAndSet(state, next(state, seats(state) + 1))) {
+        break;
+      }
+    }
+    counter.version.incrementAndGet();
+
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+        @Override
+        public void afterCompletion(int status) {
+
+          if (status == TransactionSynchronization.STATUS_COMMITTED) {
+            confirm(eventId);
+          } else {
+            release(eventId);
+          }
+        }
+      });
+    }
+    return true;
+  }
+
+  @Override
+  public void confirm(Long eventId) {
+
+    getCounter(eventId).pending.decrementAndGet();
+  }
+
+  @Override
+  public void release(Long eventId) {
+
+    Counter counter = getCounter(eventId);
+    decrement(counter);
+    counter.pending.decrementAndGet();
+  }
+
+  @Override
+  public void confirmedRegistrationRemoved(ConfirmedRegistration confirmedRegistration) {
+
+    Counter counter = counters.get(confirmedRegistration.getEventId());
+    if (counter != null && counter.initialized) {
+      decrement(counter);
+    }
+  }
+
+  @Override
+  public int getOccupiedSeats(Long eventId) {
+
+    return seats(getCounter(eventId).state.get());
+  }
+
+  @Override
+  public SeatSnapshot getSnapshot(Collection<Long> eventIds) {
+
+    if (eventIds == null) {
+      throw new IllegalArgumentException("no events given");
+    }
+
+    initialize(eventIds);
+
+    // read the version first, a change while copying is then reported by the next call of getVersion()
+    long current = getVersion(eventIds);
+    Map<Long, Integer> occupied = new HashMap<Long, Integer>(eventIds.size() * 2);
+    for (Long eventId : eventIds) {
+      if (eventId != null) {
+        occupied.put(eventId, seats(getCounter(eventId).state.get()));
+      }
+    }
+    return new SeatSnapshot(current, occupied);
+  }
+
+  @Override
+  public long getVersion(Collection<Long> eventIds) {
+
+    if (eventIds == null) {
+      throw new IllegalArgumentException("no events given");
+    }
+
+    // versions only grow, so their sum changes whenever one of them changes
+    long sum = 0;
+    for (Long eventId : eventIds) {
+      Counter counter = eventId == null ? null : counters.get(eventId);
+      if (counter != null) {
+        sum += counter.version.get();
+      }
+    }
+    return sum;
+  }
+
+  @Override
+  public void invalidate(Long eventId) {
+
+    Counter counter = counters.get(eventId);
+    if (counter != null && counter.initialized) {
+      synchronize(eventId, counter);
+    }
+  }
+
+  @Override
+  public void invalidateAll() {
+
+    for (Map.Entry<Long, Counter> entry : counters.entrySet()) {
+      if (entry.getValue().initialized) {
+        synchronize(entry.getKey(), entry.getValue());
+      }
+    }
+  }
+
+  /**
+   * Reads all counters of the given events which are not initialized yet with a single query.
+   *
+   * @param eventIds ids of the events.
+   */
+  private void initialize(Collection<Long> eventIds) {
+
+    List<Long> missing = new ArrayList<Long>();
+    for (Long eventId : eventIds) {
+      if (eventId != null && !lookup(eventId).initialized) {
+        missing.add(eventId);
+      }
+    }
+    if (missing.isEmpty()) {
+      return;
+    }
+
+    Map<Long, Long> counts = campaignFacade.countConfirmedRegistrationsByEventIds(missing);
+    for (Long eventId : missing) {
+      Counter counter = lookup(eventId);
+      synchronized (counter) {
+        if (!counter.initialized) {
+          Long count = counts.get(eventId);
+          counter.state.set(next(0, count == null ? 0 : count.intValue()));
+          counter.initialized = true;
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the counter of the given event, which is created if necessary but not initialized.
+   *
+   * @param eventId id of the event.
+   * @return the counter.
+   */
+  private Counter lookup(Long eventId) {
+
+    Counter counter = counters.get(eventId);
+    if (counter == null) {
+      Counter created = new Counter();
+      counter = counters.putIfAbsent(eventId, created);
+      if (counter == null) {
+        counter = created;
+      }
+    }
+    return counter;
+  }
+
+  /**
+   * Gives back one seat of the given counter.
+   *
+   * @param counter counter of the event.
+   */
+  private void decrement(Counter counter) {
+
+    while (true) {
+      long state = counter.state.get();
+      if (counter.state.compareAndSet(state, next(state, Math.max(0, seats(state) - 1)))) {
+        break;
+      }
+    }
+    counter.version.incrementAndGet();
+  }
+
+  /**
+   * Returns the initialized counter of the given event.
+   *
+   * @param eventId id of the event.
+   * @return the counter.
+   */
+  private Counter getCounter(Long eventId) {
+
+    if (eventId == null) {
+      throw new IllegalArgumentException("no event given");
+    }
+
+    Counter counter = lookup(eventId);
+    if (!counter.initialized) {
+      synchronized (counter) {
+        if (!counter.initialized) {
+          counter.state.set(next(0, (int) campaignFacade.countConfirmedRegistrationsByEventId(eventId)));
+          counter.initialized = true;
+        }
+      }
+    }
+    return counter;
+  }
+
+  /**
+   * Sets the counter to the number of written registrations plus the pending reservations. The new value is only applied if no
+   * seat was taken or given back in the meantime, a reservation between reading the pending reservations and counting the
+   * registrations is counted twice at most, which is corrected by the next synchronization.
+   *
+   * @param eventId id of the event.
+   * @param counter counter of the event.
+   */
+  private void synchronize(Long eventId, Counter counter) {
+
+    synchronized (counter) {
+      for (int i = 0; i < SYNC_ATTEMPTS; i++) {
+        long state = counter.state.get();
+        int pending = Math.max(0, counter.pending.get());
+        int written = (int) campaignFacade.countConfirmedRegistrationsByEventId(eventId);
+
+        if (counter.state.compareAndSet(state, next(state, written + pending))) {
+          if (seats(state) != written + pending) {
+            counter.version.incrementAndGet();
+            logger.debug("seat counter of event {} corrected from {} to {}", new Object[]{eventId, seats(state),
+                written + pending});
+          }
+          return;
+        }
+      }
+      logger.debug("seat counter of event {} changed during synchronization, skipped", eventId);
+    }
+  }
+
+  /**
+   * Extracts the number of occupied seats from a counter state.
+   *
+   * @param state counter state.
+   * @return occupied seats.
+   */
+  private static int seats(long state) {
+
+    return (int) state;
+  }
+
+  /**
+   * Builds the successor of a counter state. Every change increments the stamp in the upper half, so that a synchronization does
+   * not overwrite a reservation which happened in between even if the number of seats is the same again.
+   *
+   * @param state current state.
+   * @param seats new number of occupied seats.
+   * @return next state.
+   */
+  private static long next(long state, int seats) {
+
+    return (((state >>> 32) + 1) << 32) | (seats & 0xffffffffL);
+  }
+
+  public void setCampaignFacade(ICampaignFacade campaignFacade) {
+
+    this.campaignFacade = campaignFacade;
+  }
+
+  public void setSyncIntervalSeconds(long syncIntervalSeconds) {
+
+    this.syncIntervalSeconds = syncIntervalSeconds;
+  }
+
+  /**
+   * Seat counter of a single event.
+   */
+  private static final class Counter {
+    /**
+     * Stamp in the upper and occupied seats in the lower 32 bits.
+     */
+    private final AtomicLong state = new AtomicLong();
+
+    /**
+     * Incremented whenever the number of occupied seats changes.
+     */
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * Reservations which are neither confirmed nor released yet.
+     */
+    private final AtomicInteger pending = new AtomicInteger();
+
+    /**
+     * Whether the counter was read from the database.
+     */
+    private volatile boolean initialized;
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2010-2012 Matthias Klass, Johannes Leimer,
+ *               Rico Lieback, Sebastian Gabriel, Lothar Gesslein,
+ *               Alexander Rampp, Kai Weidner
+ *
+ * This file is part of the Physalix Enrollment System
+ *
+ * Foobar is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Foobar is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Foobar.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package hsa.awp.scire.procedureLogic.seat;
+
+import hsa.awp.event.model.Event;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable view of the occupied seats of a set of {@link Event}s, taken from the {@link ISeatReservation} counters. Two snapshots
+ * of the same {@link Event}s with the same version show the same numbers, so clients may poll
+ * {@link ISeatReservation#getVersion(java.util.Collection)} for their {@link Event}s and only rebuild their view if it changed.
+ */
+public final class SeatSnapshot implements Serializable {
+  /**
+   * unique serialization id.
+   */
+  private static final long serialVersionUID = -3287443150972360416L;
+
+  /**
+   * Version of the counters of the {@link Event}s the snapshot was taken from.
+   */
+  private final long version;
+
+  /**
+   * Occupied seats by event id.
+   */
+  private final Map<Long, Integer> occupiedSeats;
+
+  /**
+   * Creates a snapshot.
+   *
+   * @param version       version of the counters the snapshot was taken from.
+   * @param occupiedSeats occupied seats by event id.
+   */
+  public SeatSnapshot(long version, Map<Long, Integer> occupiedSeats) {
+
+    this.version = version;
+    this.occupiedSeats = Collections.unmodifiableMap(new HashMap<Long, Integer>(occupiedSeats));
+  }
+
+  /**
+   * Returns the number of occupied seats of the given {@link Event}.
+   *
+   * @param eventId id of the {@link Event}.
+   * @return occupied seats, 0 if the {@link Event} is not part of the snapshot.
+   */
+  public int getOccupiedSeats(Long eventId) {
+
+    Integer seats = occupiedSeats.get(eventId);
+    return seats == null ? 0 : seats;
+  }
+
+  /**
+   * Returns the number of free seats of the given {@link Event}.
+   *
+   * @param event the {@link Event}.
+   * @return free seats, never negative.
+   */
+  public int getFreeSeats(Event event) {
+
+    return Math.max(0, event.getMaxParticipants() - getOccupiedSeats(event.getId()));
+  }
+
+  /**
+   * Returns the occupied seats of all {@link Event}s of the snapshot.
+   *
+   * @return unmodifiable map of occupied seats by event id.
+   */
+  public Map<Long, Integer> getOccupiedSeats() {
+
+    return occupiedSeats;
+  }
+
+  public long getVersion() {
+
+    return version;
+  }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2010-2012 Matthias Klass, Johannes Leimer,
+ *               Rico Lieback, Sebastian Gabriel, Lothar Gesslein,
+ *               Alexander Rampp, Kai Weidner
+ *
+ * This file is part of the Physalix Enrollment System
+ *
+ * Foobar is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Foobar is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Foobar.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package hsa.awp.scire.procedureLogic.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Progress of the mails sent after a draw. All counters may be read while the mails are sent.
+ */
+public class MailProgress {
+  /**
+   * Number of participants to notify.
+   */
+  private volatile int total;
+
+  /**
+   * Number of mails handed over to the mail factory.
+   */
+  private final AtomicInteger sent = new AtomicInteger();
+
+  /**
+   * Number of mails which could not be rendered or handed over.
+   */
+  private final AtomicInteger failed = new AtomicInteger();
+
+  /**
+   * Whether all mails have been processed.
+   */
+  private volatile boolean finished;
+
+  public void setTotal(int total) {
+
+    this.total = total;
+  }
+
+  public int getTotal() {
+
+    return total;
+  }
+
+  public int getSent() {
+
+    return sent.get();
+  }
+
+  public int getFailed() {
+
+    return failed.get();
+  }
+
+  /**
+   * Returns the number of mails which are still to be processed.
+   *
+   * @return remaining mails.
+   */
+  public int getRemaining() {
+
+    return Math.max(0, total - sent.get() - failed.get());
+  }
+
+  public boolean isFinished() {
+
+    return finished;
+  }
+
+  public void incrementSent() {
+
+    sent.incrementAndGet();
+  }
+
+  public void incrementFailed() {
+
+    failed.incrementAndGet();
+  }
+
+  public void finish() {
+
+    finished = true;
+  }
+
+  @Override
+  public String toString() {
+
+    return getSent() + "/" + total + " sent, " + getFailed() + " failed";
+  }
+}
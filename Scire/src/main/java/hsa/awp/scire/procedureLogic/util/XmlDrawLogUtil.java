@@ -14,6 +14,11 @@ import javax.xml.bind.JAXBException;
 import javax.xml.bind.Marshaller;
 import java.io.StringWriter;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
 
 public class XmlDrawLogUtil {
 
@@ -41,14 +46,19 @@ public class XmlDrawLogUtil {
 
   public XmlDrawLog transformMailContentsToXmlDrawLog(Collection<MailContent> contentList) {
     XmlDrawLog xmlDrawLog = new XmlDrawLog();
+    Map<Long, Event> events = loadEvents(contentList);
     for (MailContent content : contentList) {
-      XmlDrawLog.LogEntry entry = transformMailContentToLogEntry(content);
+      XmlDrawLog.LogEntry entry = transformMailContentToLogEntry(content, events);
       xmlDrawLog.logEntries.add(entry);
     }
     return xmlDrawLog;
   }
 
   public XmlDrawLog.LogEntry transformMailContentToLogEntry(MailContent content) {
+    return transformMailContentToLogEntry(content, loadEvents(Collections.singleton(content)));
+  }
+
+  private XmlDrawLog.LogEntry transformMailContentToLogEntry(MailContent content, Map<Long, Event> events) {
     XmlDrawLog.LogEntry entry = new XmlDrawLog.LogEntry();
 
     DrawProcedure procedure = content.getDrawProcedure();
@@ -73,7 +83,7 @@ public class XmlDrawLogUtil {
       for (PriorityListItem item : priorityList.getItems()) {
         XmlDrawLog.PrioListEntry prioListEntry = new XmlDrawLog.PrioListEntry();
 
-        Event event = eventFacade.getEventById(item.getEvent());
+        Event event = events.get(item.getEvent());
         prioListEntry.priority = item.getPriority();
         prioListEntry.id = event.getId();
         prioListEntry.eventId = event.getEventId();
@@ -87,7 +97,7 @@ public class XmlDrawLogUtil {
     for (ConfirmedRegistration registration : content.getRegistrations()) {
       XmlDrawLog.Ticket ticket = new XmlDrawLog.Ticket();
 
-      Event event = eventFacade.getEventById(registration.getEventId());
+      Event event = events.get(registration.getEventId());
       ticket.id = event.getId();
       ticket.eventId = event.getEventId();
       ticket.subject = event.getSubject().getName();
@@ -98,6 +108,32 @@ public class XmlDrawLogUtil {
     return entry;
   }
 
+  /**
+   * Loads all events referenced by the given contents with a single lookup.
+   *
+   * @param contentList contents to look at.
+   * @return events by id.
+   */
+  private Map<Long, Event> loadEvents(Collection<MailContent> contentList) {
+    Set<Long> ids = new LinkedHashSet<Long>();
+    for (MailContent content : contentList) {
+      for (PriorityList priorityList : content.getPrioLists()) {
+        for (PriorityListItem item : priorityList.getItems()) {
+          ids.add(item.getEvent());
+        }
+      }
+      for (ConfirmedRegistration registration : content.getRegistrations()) {
+        ids.add(registration.getEventId());
+      }
+    }
+
+    Map<Long, Event> events = new HashMap<Long, Event>();
+    for (Event event : eventFacade.getEventsByIds(ids)) {
+      events.put(event.getId(), event);
+    }
+    return events;
+  }
+
   public void setContext(JAXBContext context) {
     this.context = context;
   }
@@ -36,8 +36,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public class EventCheckService {
   /**
@@ -51,6 +56,12 @@ public class EventCheckService {
   
   private IEventFacade eventFacade;
 
+  /**
+   * Whether events clashing in time with the confirmed registrations of the user are left out. Off by default, as the events
+   * are hidden without telling the user why.
+   */
+  private boolean hideClashingEvents = false;
+
   public void setEventFacade(IEventFacade eventFacade) {
 	this.eventFacade = eventFacade;
 }
@@ -69,11 +80,20 @@ public EventCheckService() {
         drawProcedure);
     List<ConfirmedRegistration> confirmedRegistrations = campaignFacade.findConfirmedRegistrationsByParticipantId(singleUser
         .getId());
+
+    Set<Long> registeredEventIds = new HashSet<Long>();
+    for (ConfirmedRegistration registration : confirmedRegistrations) {
+      registeredEventIds.add(registration.getEventId());
+    }
+    Map<Long, Set<Long>> clashingEventIdsByTerm = new HashMap<Long, Set<Long>>();
+
     for (Event e : events) {
+      Set<Long> clashingEventIds = findClashingEventIds(e, registeredEventIds, clashingEventIdsByTerm);
       /*
       * if nothing found add event
       */
-      if (!checkEvent(e, priorityListsByUserAndProcedure, confirmedRegistrations, singleUser, drawProcedure, blackList)) {
+      if (!checkEvent(e, priorityListsByUserAndProcedure, confirmedRegistrations, clashingEventIds, singleUser, drawProcedure,
+          blackList)) {
         eventList.add(e);
       }
     }
@@ -81,8 +101,34 @@ public EventCheckService() {
     return eventList;
   }
 
+  /**
+   * Looks for the events of the term of the given event which clash in time with the events the user is registered with.
+   * Priority lists are not taken into account, as their items are alternatives of which the user gets only one. The result
+   * is computed once per term. Nothing is looked up unless clashing events are to be hidden.
+   *
+   * @param e                      event whose term is checked.
+   * @param registeredEventIds     ids of the events the user is registered with.
+   * @param clashingEventIdsByTerm results of the terms checked before.
+   * @return ids of the clashing events.
+   */
+  private Set<Long> findClashingEventIds(Event e, Set<Long> registeredEventIds, Map<Long, Set<Long>> clashingEventIdsByTerm) {
+
+    if (!hideClashingEvents || registeredEventIds.isEmpty() || e.getTerm() == null) {
+      return Collections.emptySet();
+    }
+
+    Long termId = e.getTerm().getId();
+    Set<Long> clashing = clashingEventIdsByTerm.get(termId);
+    if (clashing == null) {
+      clashing = eventFacade.getOccurrenceIndex(termId).findClashingEventIds(registeredEventIds);
+      clashingEventIdsByTerm.put(termId, clashing);
+    }
+    return clashing;
+  }
+
   private boolean checkEvent(Event e, List<PriorityList> priorityListsByUserAndProcedure,
-                             List<ConfirmedRegistration> confirmedRegistrations, SingleUser singleUser, DrawProcedure drawProcedure, List<Event> blackList) {
+                             List<ConfirmedRegistration> confirmedRegistrations, Set<Long> clashingEventIds,
+                             SingleUser singleUser, DrawProcedure drawProcedure, List<Event> blackList) {
 
     if (blackList.contains(e)) {
       return true;
@@ -108,6 +154,13 @@ public EventCheckService() {
       }
     }
 
+    /*
+    * check if event clashes in time with an event the user is registered with.
+    */
+    if (clashingEventIds.contains(e.getId())) {
+      return true;
+    }
+
     /*
     * check if event has enough empty slots
     */
@@ -146,4 +199,9 @@ public EventCheckService() {
 
     this.ruleChecker = ruleChecker;
   }
+
+  public void setHideClashingEvents(boolean hideClashingEvents) {
+
+    this.hideClashingEvents = hideClashingEvents;
+  }
 }
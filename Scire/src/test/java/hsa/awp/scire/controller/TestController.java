@@ -139,6 +139,59 @@ public class TestController extends OpenEntityManagerInTest {
     controller.stopTimer();
   }
 
+  @Test
+  public void testWakeUpWithoutPolling() {
+
+    Set<Class<? extends IProcedureLogic<?>>> types = new HashSet<Class<? extends IProcedureLogic<?>>>();
+    types.add(LogicDummy.class);
+    controller.setProcedureLogicTypeList(types);
+
+    // interval far beyond the test duration - transitions must be triggered by schedule and change events
+    controller.setTimerInterval(600000);
+    controller.startTimer();
+
+    Campaign camp = Campaign.getInstance(0L);
+
+    Calendar endShow = Calendar.getInstance();
+    endShow.roll(Calendar.YEAR, 1);
+
+    camp.setStartShow(Calendar.getInstance());
+    camp.setName("wakeUp");
+    camp.setEndShow(endShow);
+    campaignFacade.saveCampaign(camp);
+
+    FifoProcedure p = FifoProcedure.getInstance(0L);
+    Calendar startDate = Calendar.getInstance();
+    startDate.add(Calendar.SECOND, 2);
+    Calendar endDate = (Calendar) startDate.clone();
+    endDate.add(Calendar.SECOND, 2);
+    p.setInterval(startDate, endDate);
+
+    campaignFacade.saveFifoProcedure(p);
+    camp.addProcedure(p);
+    campaignFacade.updateCampaign(camp);
+
+    boolean foundStarted = false;
+    boolean foundTerminated = false;
+
+    for (int i = 0; i < 100 && !foundTerminated; i++) {
+      boolean active = controller.findActiveLogicByProcedure(p.getId()) != null;
+      foundStarted |= active;
+      foundTerminated = foundStarted && !active;
+
+      try {
+        Thread.sleep(100);
+      } catch (InterruptedException e) {
+        e.printStackTrace();
+      }
+    }
+
+    controller.stopTimer();
+
+    assertTrue(foundStarted);
+    assertTrue(foundTerminated);
+  }
+
   @Test
   public void testStartCheck() {
 
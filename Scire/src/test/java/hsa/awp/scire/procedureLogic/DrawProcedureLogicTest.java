@@ -30,13 +30,20 @@ import hsa.awp.campaign.rule.ICampaignRuleChecker;
 import hsa.awp.common.exception.ProgrammingErrorException;
 import hsa.awp.common.mail.IMail;
 import hsa.awp.common.mail.IMailFactory;
+import hsa.awp.common.model.TemplateDetail;
+import hsa.awp.common.services.TemplateService;
 import hsa.awp.event.facade.IEventFacade;
 import hsa.awp.event.model.Event;
 import hsa.awp.event.model.Subject;
 import hsa.awp.scire.exception.DuplicatePriorityListElementException;
+import hsa.awp.scire.procedureLogic.util.XmlDrawLogUtil;
 import hsa.awp.user.facade.IUserFacade;
 import hsa.awp.user.model.SingleUser;
 import hsa.awp.user.model.User;
+import org.apache.velocity.Template;
+import org.apache.velocity.app.VelocityEngine;
+import org.apache.velocity.runtime.RuntimeConstants;
+import org.apache.velocity.runtime.resource.loader.ClasspathResourceLoader;
 import org.jmock.Expectations;
 import org.jmock.Mockery;
 import org.jmock.integration.junit4.JUnit4Mockery;
@@ -96,6 +103,12 @@ public class DrawProcedureLogicTest {
   @Resource(name = "rule.facade")
   private ICampaignRuleChecker campaignRuleChecker;
 
+  /**
+   * Creates the registration log of the draw mails.
+   */
+  @Resource(name = "scire.xmlDrawLogUtil")
+  private XmlDrawLogUtil xmlDrawLogUtil;
+
   /**
    * Campaign to use for testing.
    */
@@ -269,6 +282,85 @@ public class DrawProcedureLogicTest {
     assertEquals(0, drawProcedureLogic.getProcedure().getPriorityLists().size());
   }
 
+  @Test
+  @Transactional
+  @DirtiesContext
+  public void testFailedMailKeepsPriorityList() {
+
+    SingleUser notified = createUser("notified");
+    notified.setMail("notified@example.org");
+    notified = userFacade.saveSingleUser(notified);
+
+    SingleUser failed = createUser("failed");
+    failed.setMail("failed@example.org");
+    failed = userFacade.saveSingleUser(failed);
+
+    List<Event> chosen = new ArrayList<Event>(events.subList(0, 3));
+    drawProcedureLogic.register(generatePriorityList(notified, notified, chosen));
+    drawProcedureLogic.register(generatePriorityList(failed, failed, chosen));
+    assertEquals(2, campaignFacade.getAllPriorityLists().size());
+
+    Mockery context = new JUnit4Mockery();
+    final IMail mail = context.mock(IMail.class, "mail");
+    final IMail failingMail = context.mock(IMail.class, "failingMail");
+    context.checking(new Expectations() {
+      {
+        allowing(mail).addByteArrayAsFileAttachment(with(any(String.class)), with(any(byte[].class)));
+        allowing(mail).send();
+        allowing(failingMail).send();
+        will(throwException(new IllegalStateException("mail server not reachable")));
+      }
+    });
+
+    drawProcedureLogic.setMailFactory(new IMailFactory() {
+      @Override
+      public IMail getInstance(String recipient, String subject, String message, String sender) {
+
+        return "failed@example.org".equals(recipient) ? failingMail : mail;
+      }
+    });
+    drawProcedureLogic.setXmlDrawLogUtil(xmlDrawLogUtil);
+    drawProcedureLogic.setTemplateService(new TemplateService() {
+      private final VelocityEngine engine = createClasspathEngine();
+
+      @Override
+      public Template loadVelocityTemplate(TemplateDetail templateDetail) {
+
+        return engine.getTemplate("templates/" + templateDetail.getTemplateType().getFileName());
+      }
+    });
+
+    drawProcedureLogic.afterActive();
+
+    assertEquals(1, drawProcedureLogic.getMailProgress().getSent());
+    assertEquals(1, drawProcedureLogic.getMailProgress().getFailed());
+
+    List<PriorityList> remaining = campaignFacade.getAllPriorityLists();
+    assertEquals(1, remaining.size());
+    assertEquals(failed.getId(), remaining.get(0).getParticipant());
+
+    // the resumed run gives up the mails which fail again
+    drawProcedureLogic.resumeMails();
+
+    assertEquals(0, drawProcedureLogic.getMailProgress().getSent());
+    assertEquals(1, drawProcedureLogic.getMailProgress().getFailed());
+    assertTrue(campaignFacade.getAllPriorityLists().isEmpty());
+  }
+
+  /**
+   * Creates a {@link VelocityEngine} loading the default mail templates from the classpath.
+   *
+   * @return initialized engine.
+   */
+  private static VelocityEngine createClasspathEngine() {
+
+    VelocityEngine engine = new VelocityEngine();
+    engine.setProperty(RuntimeConstants.RESOURCE_LOADER, "classpath");
+    engine.setProperty("classpath.resource.loader.class", ClasspathResourceLoader.class.getName());
+    engine.init();
+    return engine;
+  }
+
   /**
    * Generates the specified amount simple registrations with the given priority lists. The {@link PriorityList} is generated from
    * the given event list.
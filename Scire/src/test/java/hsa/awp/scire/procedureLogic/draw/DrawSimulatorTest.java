@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2010-2012 Matthias Klass, Johannes Leimer,
+ *               Rico Lieback, Sebastian Gabriel, Lothar Gesslein,
+ *               Alexander Rampp, Kai Weidner
+ *
+ * This file is part of the Physalix Enrollment System
+ *
+ * Foobar is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Foobar is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Foobar.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package hsa.awp.scire.procedureLogic.draw;
+
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit test for {@link DrawSimulator}.
+ */
+public class DrawSimulatorTest {
+  private static final double DELTA = 1e-9;
+
+  /**
+   * Creates a snapshot with the given number of lists, each of them choosing three out of five events. Two lists belong to
+   * the same participant.
+   *
+   * @param lists    number of lists.
+   * @param capacity capacity of every event.
+   * @return the snapshot.
+   */
+  private DrawSnapshot createSnapshot(int lists, int capacity) {
+
+    DrawSnapshot.Builder builder = DrawSnapshot.builder(3);
+    for (long event = 0; event < 5; event++) {
+      builder.addEvent(100L + event, capacity, 0);
+    }
+    for (int list = 0; list < lists; list++) {
+      for (int priority = 1; priority <= 3; priority++) {
+        builder.addItem(list, 1000L + list / 2, 1000L + list / 2, 100L + (list + priority) % 5, priority);
+      }
+    }
+    return builder.build();
+  }
+
+  private void assertSameSimulation(DrawSimulation a, DrawSimulation b) {
+
+    assertEquals(a.getRuns(), b.getRuns());
+    for (int event = 0; event < a.getSnapshot().getEventCount(); event++) {
+      assertEquals(a.getMeanFill(event), b.getMeanFill(event), DELTA);
+      assertEquals(a.getMinFill(event), b.getMinFill(event));
+      assertEquals(a.getMaxFill(event), b.getMaxFill(event));
+    }
+    for (int round = 0; round < a.getSnapshot().getRounds(); round++) {
+      assertEquals(a.getChoiceShare(round), b.getChoiceShare(round), DELTA);
+    }
+    assertEquals(a.getMeanUnassignedParticipants(), b.getMeanUnassignedParticipants(), DELTA);
+    assertEquals(a.getMinUnassignedParticipants(), b.getMinUnassignedParticipants());
+    assertEquals(a.getMaxUnassignedParticipants(), b.getMaxUnassignedParticipants());
+  }
+
+  @Test
+  public void testSameSeedSameSimulation() {
+
+    DrawSnapshot snapshot = createSnapshot(200, 10);
+
+    assertSameSimulation(new DrawSimulator(2).simulate(snapshot, 50, 42L), new DrawSimulator(2).simulate(snapshot, 50, 42L));
+  }
+
+  @Test
+  public void testThreadsDoNotChangeSimulation() {
+
+    DrawSnapshot snapshot = createSnapshot(200, 10);
+
+    assertSameSimulation(new DrawSimulator(1).simulate(snapshot, 50, 7L), new DrawSimulator(4).simulate(snapshot, 50, 7L));
+  }
+
+  @Test
+  public void testShares() {
+
+    DrawSnapshot snapshot = createSnapshot(200, 10);
+    DrawSimulation simulation = new DrawSimulator(3).simulate(snapshot, 40, 1L);
+
+    assertEquals(40, simulation.getRuns());
+    assertEquals(100, simulation.getParticipantCount());
+
+    double sum = simulation.getUnassignedListShare();
+    for (int round = 0; round < snapshot.getRounds(); round++) {
+      sum += simulation.getChoiceShare(round);
+    }
+    assertEquals(1.0, sum, DELTA);
+    assertEquals(150.0 / 200, simulation.getUnassignedListShare(), DELTA);
+
+    for (int event = 0; event < snapshot.getEventCount(); event++) {
+      assertEquals(10, simulation.getMinFill(event));
+      assertEquals(10, simulation.getMaxFill(event));
+      assertEquals(1.0, simulation.getMeanFillRate(event), DELTA);
+    }
+    assertTrue(simulation.getMinUnassignedParticipants() >= 50);
+    assertTrue(simulation.getMaxUnassignedParticipants() <= 100);
+  }
+
+  @Test
+  public void testWithCapacities() {
+
+    DrawSnapshot snapshot = createSnapshot(200, 10);
+    DrawSnapshot changed = snapshot.withCapacities(Collections.singletonMap(100L, 30));
+
+    assertEquals(10, snapshot.getCapacity(0));
+    assertEquals(30, changed.getCapacity(0));
+
+    DrawSimulation simulation = new DrawSimulator(2).simulate(changed, 20, 3L);
+    assertEquals(30, simulation.getMaxFill(0));
+    assertEquals(130.0 / 200, simulation.getUnassignedListShare(), DELTA);
+  }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2010-2012 Matthias Klass, Johannes Leimer,
+ *               Rico Lieback, Sebastian Gabriel, Lothar Gesslein,
+ *               Alexander Rampp, Kai Weidner
+ *
+ * This file is part of the Physalix Enrollment System
+ *
+ * Foobar is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Foobar is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Foobar.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package hsa.awp.scire.procedureLogic.draw;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit test for {@link DrawSnapshot}.
+ */
+public class DrawSnapshotTest {
+  /**
+   * Creates a snapshot with the given number of lists, each of them choosing three out of five events.
+   *
+   * @param lists    number of lists.
+   * @param capacity capacity of every event.
+   * @return the snapshot.
+   */
+  private DrawSnapshot createSnapshot(int lists, int capacity) {
+
+    DrawSnapshot.Builder builder = DrawSnapshot.builder(3);
+    for (long event = 0; event < 5; event++) {
+      builder.addEvent(100L + event, capacity, 0);
+    }
+    for (int list = 0; list < lists; list++) {
+      for (int priority = 1; priority <= 3; priority++) {
+        builder.addItem(list, 1000L + list, 1000L + list, 100L + (list + priority) % 5, priority);
+      }
+    }
+    return builder.build();
+  }
+
+  @Test
+  public void testSameSeedSameResult() {
+
+    DrawSnapshot snapshot = createSnapshot(200, 10);
+
+    DrawResult a = snapshot.draw(new Random(42L));
+    DrawResult b = snapshot.draw(new Random(42L));
+
+    assertEquals(a.size(), b.size());
+    for (int i = 0; i < a.size(); i++) {
+      assertEquals(a.getList(i), b.getList(i));
+      assertEquals(a.getEvent(i), b.getEvent(i));
+      assertEquals(a.getRound(i), b.getRound(i));
+    }
+  }
+
+  @Test
+  public void testCapacityIsNotExceeded() {
+
+    DrawSnapshot snapshot = createSnapshot(200, 10);
+    DrawResult result = snapshot.draw(new Random());
+
+    assertEquals(50, result.size());
+
+    int[] fill = new int[snapshot.getEventCount()];
+    boolean[] registered = new boolean[snapshot.getListCount()];
+    for (int i = 0; i < result.size(); i++) {
+      fill[result.getEvent(i)]++;
+      assertTrue(!registered[result.getList(i)]);
+      registered[result.getList(i)] = true;
+      assertEquals(snapshot.getItem(result.getList(i), result.getRound(i)), result.getEvent(i));
+    }
+    for (int event = 0; event < snapshot.getEventCount(); event++) {
+      assertEquals(10, fill[event]);
+      assertEquals(10, result.getFill(event));
+    }
+  }
+
+  @Test
+  public void testFirstPriorityWithEnoughPlaces() {
+
+    DrawSnapshot snapshot = createSnapshot(20, 100);
+    DrawResult result = snapshot.draw(new Random());
+
+    assertEquals(20, result.size());
+    for (int i = 0; i < result.size(); i++) {
+      assertEquals(0, result.getRound(i));
+    }
+  }
+
+  @Test
+  public void testExistingRegistrationsAreRespected() {
+
+    DrawSnapshot snapshot = DrawSnapshot.builder(2)
+        .addEvent(1L, 2, 2)
+        .addEvent(2L, 1, 0)
+        .addItem(10L, 20L, 20L, 1L, 1)
+        .addItem(10L, 20L, 20L, 2L, 2)
+        .build();
+
+    DrawResult result = snapshot.draw(new Random());
+
+    assertEquals(1, result.size());
+    assertEquals(2L, snapshot.getEventId(result.getEvent(0)));
+    assertEquals(1, result.getRound(0));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnknownEvent() {
+
+    DrawSnapshot.builder(1).addItem(1L, 1L, 1L, 1L, 1);
+  }
+}
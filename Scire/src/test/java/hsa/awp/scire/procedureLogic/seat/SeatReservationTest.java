@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2010-2012 Matthias Klass, Johannes Leimer,
+ *               Rico Lieback, Sebastian Gabriel, Lothar Gesslein,
+ *               Alexander Rampp, Kai Weidner
+ *
+ * This file is part of the Physalix Enrollment System
+ *
+ * Foobar is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Foobar is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Foobar.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package hsa.awp.scire.procedureLogic.seat;
+
+import hsa.awp.campaign.facade.ICampaignFacade;
+import hsa.awp.campaign.model.ConfirmedRegistration;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SeatReservationTest {
+
+  @Mock ICampaignFacade campaignFacade;
+
+  SeatReservation seatReservation;
+
+  @Before
+  public void setUp() {
+
+    seatReservation = new SeatReservation();
+    seatReservation.setCampaignFacade(campaignFacade);
+  }
+
+  @Test
+  public void testReserveUntilFull() {
+
+    when(campaignFacade.countConfirmedRegistrationsByEventId(1L)).thenReturn(3L);
+
+    assertTrue(seatReservation.reserve(1L, 5));
+    assertTrue(seatReservation.reserve(1L, 5));
+    assertFalse(seatReservation.reserve(1L, 5));
+    assertEquals(5, seatReservation.getOccupiedSeats(1L));
+
+    // the counter is read only once
+    verify(campaignFacade, times(1)).countConfirmedRegistrationsByEventId(1L);
+  }
+
+  @Test
+  public void testRelease() {
+
+    when(campaignFacade.countConfirmedRegistrationsByEventId(1L)).thenReturn(0L);
+
+    assertTrue(seatReservation.reserve(1L, 1));
+    assertFalse(seatReservation.reserve(1L, 1));
+    seatReservation.release(1L);
+    assertTrue(seatReservation.reserve(1L, 1));
+  }
+
+  @Test
+  public void testInvalidate() {
+
+    when(campaignFacade.countConfirmedRegistrationsByEventId(1L)).thenReturn(0L, 4L);
+
+    assertTrue(seatReservation.reserve(1L, 5));
+    seatReservation.confirm(1L);
+    assertEquals(1, seatReservation.getOccupiedSeats(1L));
+
+    seatReservation.invalidate(1L);
+    assertEquals(4, seatReservation.getOccupiedSeats(1L));
+  }
+
+  @Test
+  public void testInvalidateCountsPendingReservations() {
+
+    when(campaignFacade.countConfirmedRegistrationsByEventId(1L)).thenReturn(2L);
+
+    assertTrue(seatReservation.reserve(1L, 5));
+    seatReservation.invalidateAll();
+    assertEquals(3, seatReservation.getOccupiedSeats(1L));
+  }
+
+  @Test
+  public void testConcurrentReservationsDoNotOverbook() throws InterruptedException {
+
+    when(campaignFacade.countConfirmedRegistrationsByEventId(anyLong())).thenReturn(0L);
+
+    final AtomicInteger reserved = new AtomicInteger();
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    for (int i = 0; i < 2000; i++) {
+      final long eventId = i % 4;
+      executor.execute(new Runnable() {
+        @Override
+        public void run() {
+
+          if (seatReservation.reserve(eventId, 50)) {
+            reserved.incrementAndGet();
+          }
+        }
+      });
+    }
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+    assertEquals(200, reserved.get());
+    for (long eventId = 0; eventId < 4; eventId++) {
+      assertEquals(50, seatReservation.getOccupiedSeats(eventId));
+    }
+  }
+
+  @Test
+  public void testSnapshotReadsUnknownCountersOnce() {
+
+    List<Long> eventIds = Arrays.asList(1L, 2L);
+    Map<Long, Long> counts = new HashMap<Long, Long>();
+    counts.put(1L, 3L);
+    counts.put(2L, 0L);
+    when(campaignFacade.countConfirmedRegistrationsByEventIds(eventIds)).thenReturn(counts);
+
+    SeatSnapshot snapshot = seatReservation.getSnapshot(eventIds);
+    assertEquals(3, snapshot.getOccupiedSeats(1L));
+    assertEquals(0, snapshot.getOccupiedSeats(2L));
+
+    // known counters are answered from memory
+    assertEquals(snapshot.getVersion(), seatReservation.getSnapshot(eventIds).getVersion());
+    verify(campaignFacade, times(1)).countConfirmedRegistrationsByEventIds(eventIds);
+    verify(campaignFacade, never()).countConfirmedRegistrationsByEventId(anyLong());
+  }
+
+  @Test
+  public void testVersionChangesWithSeats() {
+
+    when(campaignFacade.countConfirmedRegistrationsByEventId(1L)).thenReturn(0L);
+    List<Long> eventIds = Arrays.asList(1L);
+
+    long version = seatReservation.getVersion(eventIds);
+    assertTrue(seatReservation.reserve(1L, 5));
+    seatReservation.confirm(1L);
+    assertTrue(version != seatReservation.getVersion(eventIds));
+
+    version = seatReservation.getVersion(eventIds);
+    seatReservation.confirmedRegistrationRemoved(ConfirmedRegistration.getInstance(1L, 0L));
+    assertTrue(version != seatReservation.getVersion(eventIds));
+    assertEquals(0, seatReservation.getOccupiedSeats(1L));
+  }
+
+  @Test
+  public void testVersionIgnoresOtherEvents() {
+
+    when(campaignFacade.countConfirmedRegistrationsByEventId(anyLong())).thenReturn(0L);
+    List<Long> eventIds = Arrays.asList(1L, 2L);
+
+    assertTrue(seatReservation.reserve(1L, 5));
+    long version = seatReservation.getVersion(eventIds);
+
+    assertTrue(seatReservation.reserve(3L, 5));
+    seatReservation.release(3L);
+    assertEquals(version, seatReservation.getVersion(eventIds));
+
+    assertTrue(seatReservation.reserve(2L, 5));
+    assertTrue(version != seatReservation.getVersion(eventIds));
+  }
+
+  @Test
+  public void testRemovalOfUnknownEventIsIgnored() {
+
+    List<Long> eventIds = Arrays.asList(7L);
+    long version = seatReservation.getVersion(eventIds);
+    seatReservation.confirmedRegistrationRemoved(ConfirmedRegistration.getInstance(7L, 0L));
+    assertEquals(version, seatReservation.getVersion(eventIds));
+    verify(campaignFacade, never()).countConfirmedRegistrationsByEventId(anyLong());
+  }
+}
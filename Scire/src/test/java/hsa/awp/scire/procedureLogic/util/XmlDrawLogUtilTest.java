@@ -27,7 +27,7 @@ import java.util.*;
 import static org.hamcrest.Matchers.any;
 import static org.hamcrest.Matchers.containsString;
 import static org.junit.Assert.assertThat;
-import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyCollectionOf;
 import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -59,7 +59,7 @@ public class XmlDrawLogUtilTest {
     Subject subject = new SubjectBuilder().build();
     Event event = new EventBuilder().withSubject(subject).build();
 
-    when(eventFacade.getEventById(anyLong())).thenReturn(event);
+    when(eventFacade.getEventsByIds(anyCollectionOf(Long.class))).thenReturn(Arrays.asList(event));
 
     List<MailContent> contents = new ArrayList<MailContent>();
     MailContent content = new MailContent(user);
@@ -27,6 +27,7 @@ import hsa.awp.user.model.SingleUser;
 import hsa.awp.user.model.Student;
 
 import java.util.List;
+import java.util.Properties;
 
 /**
  * The user DAO provides access to the underlying user directory. You can get the information of every user as a {@link SingleUser}
@@ -64,4 +65,14 @@ public interface ISingleUserDao extends IAbstractDao<SingleUser, Long> {
   List<SingleUser> searchForUser(String searchString);
 
   void readAllStudyCourses();
+
+  /**
+   * Creates or updates the {@link SingleUser}s described by the given directory properties. Study courses are created if
+   * necessary. A user still holding the username of a synchronized user with another uuid is renamed, since the directory
+   * reassigned the username.
+   *
+   * @param users properties of the users as returned by the directory.
+   * @return number of synchronized users.
+   */
+  int synchronizeUsers(List<Properties> users);
 }
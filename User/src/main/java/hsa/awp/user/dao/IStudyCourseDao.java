@@ -24,6 +24,9 @@ package hsa.awp.user.dao;
 import hsa.awp.common.dao.IAbstractDao;
 import hsa.awp.user.model.StudyCourse;
 
+import java.util.Collection;
+import java.util.Map;
+
 /**
  * Interface for {@link StudyCourseDao}.
  *
@@ -37,4 +40,12 @@ public interface IStudyCourseDao extends IAbstractDao<StudyCourse, Long> {
    * @return the found {@link StudyCourse} or null
    */
   StudyCourse findByName(String name);
+
+  /**
+   * Finds all {@link StudyCourse}s with the given names.
+   *
+   * @param names search names
+   * @return the found {@link StudyCourse}s by name, names without a {@link StudyCourse} are missing.
+   */
+  Map<String, StudyCourse> findByNames(Collection<String> names);
 }
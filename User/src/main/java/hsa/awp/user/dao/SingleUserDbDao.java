@@ -30,6 +30,7 @@ import hsa.awp.user.model.SingleUser;
 import javax.persistence.NoResultException;
 import javax.persistence.Query;
 import java.util.List;
+import java.util.Properties;
 
 /**
  * Data Access Object for CRUD methods of {@link SingleUser}.
@@ -88,4 +89,9 @@ public class SingleUserDbDao extends AbstractDao<SingleUser, Long> implements IS
   public void readAllStudyCourses() {
     throw new UnsupportedOperationException();
   }
+
+  @Override
+  public int synchronizeUsers(List<Properties> users) {
+    throw new UnsupportedOperationException();
+  }
 }
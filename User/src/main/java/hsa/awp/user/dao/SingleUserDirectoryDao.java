@@ -57,6 +57,11 @@ public class SingleUserDirectoryDao extends AbstractDao<SingleUser, Long> implem
 
   private IRoleMappingDao roleMappingDao;
 
+  /**
+   * If set, users are read from the database and the directory is only asked for users which are not synchronized yet.
+   */
+  private boolean localLookup;
+
   /**
    * Instantiates a user data access object.
    *
@@ -134,6 +139,13 @@ public class SingleUserDirectoryDao extends AbstractDao<SingleUser, Long> implem
       throw new IllegalArgumentException("username must not be null");
     }
 
+    if (localLookup) {
+      SingleUser singleUser = findByUsernameInDatabase(username);
+      if (singleUser != null) {
+        return singleUser;
+      }
+    }
+
     /** check whether username exists in ldap */
     Properties userProps = directory.getUserProperties(username);
     if (userProps == null) {
@@ -193,6 +205,137 @@ public class SingleUserDirectoryDao extends AbstractDao<SingleUser, Long> implem
 
   }
 
+  @Override
+  public int synchronizeUsers(List<Properties> users) {
+
+    Map<Long, Properties> usersByUuid = new LinkedHashMap<Long, Properties>();
+    for (Properties userProps : users) {
+      String uuid = userProps.getProperty(IAbstractDirectory.UUID);
+      if (uuid == null || userProps.getProperty(IAbstractDirectory.LOGIN) == null) {
+        logger.warn("skipping directory entry without uuid or login: {}", userProps);
+        continue;
+      }
+      try {
+        usersByUuid.put(Long.valueOf(uuid), userProps);
+      } catch (NumberFormatException e) {
+        logger.warn("skipping directory entry with invalid uuid: {}", userProps);
+      }
+    }
+    if (usersByUuid.isEmpty()) {
+      return 0;
+    }
+
+    renameUsersWithReassignedUsernames(usersByUuid);
+    Map<Long, SingleUser> existingUsers = findByUuidsInDatabase(usersByUuid.keySet());
+    Map<String, StudyCourse> studyCourses = getOrCreateStudyCourses(usersByUuid.values());
+    Mandator allMandator = getAllMandator();
+
+    for (Map.Entry<Long, Properties> entry : usersByUuid.entrySet()) {
+      SingleUser singleUser = existingUsers.get(entry.getKey());
+      if (singleUser == null) {
+        singleUser = createSingleUser(entry.getKey(), entry.getValue());
+        super.persist(singleUser);
+      }
+      applyProperties(singleUser, entry.getValue(), studyCourses);
+      initRoles(singleUser, allMandator);
+    }
+
+    logger.debug("synchronized {} users from the directory", usersByUuid.size());
+    return usersByUuid.size();
+  }
+
+  /**
+   * Renames users whose username now belongs to another uuid in the directory. The directory data of the page is
+   * authoritative, so no further directory lookup is necessary.
+   *
+   * @param usersByUuid directory properties by uuid.
+   */
+  private void renameUsersWithReassignedUsernames(Map<Long, Properties> usersByUuid) {
+
+    Map<String, Long> uuidByUsername = new HashMap<String, Long>();
+    for (Map.Entry<Long, Properties> entry : usersByUuid.entrySet()) {
+      uuidByUsername.put(entry.getValue().getProperty(IAbstractDirectory.LOGIN), entry.getKey());
+    }
+
+    boolean renamed = false;
+    for (SingleUser holder : findByUsernamesInDatabase(uuidByUsername.keySet())) {
+      if (!uuidByUsername.get(holder.getUsername()).equals(holder.getUuid())) {
+        renameUser(holder);
+        renamed = true;
+      }
+    }
+
+    if (renamed) {
+      // the renamed usernames have to be written before other users take them over
+      getEntityManager().flush();
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private Map<Long, SingleUser> findByUuidsInDatabase(Collection<Long> uuids) {
+
+    Map<Long, SingleUser> result = new HashMap<Long, SingleUser>();
+    List<Long> distinct = new ArrayList<Long>(uuids);
+    for (int from = 0; from < distinct.size(); from += ID_CHUNK_SIZE) {
+      Query query = getEntityManager().createQuery(
+          "select distinct o from " + SingleUser.class.getSimpleName() + " o left join fetch o.rolemappings " +
+              "where o.uuid in (:uuids)");
+      query.setParameter("uuids", distinct.subList(from, Math.min(from + ID_CHUNK_SIZE, distinct.size())));
+      for (SingleUser singleUser : (List<SingleUser>) query.getResultList()) {
+        result.put(singleUser.getUuid(), singleUser);
+      }
+    }
+    return result;
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<SingleUser> findByUsernamesInDatabase(Collection<String> usernames) {
+
+    List<SingleUser> result = new ArrayList<SingleUser>();
+    List<String> distinct = new ArrayList<String>(usernames);
+    for (int from = 0; from < distinct.size(); from += ID_CHUNK_SIZE) {
+      Query query = getEntityManager().createQuery(
+          "select o from " + SingleUser.class.getSimpleName() + " o where o.username in (:usernames)");
+      query.setParameter("usernames", distinct.subList(from, Math.min(from + ID_CHUNK_SIZE, distinct.size())));
+      result.addAll(query.getResultList());
+    }
+    return result;
+  }
+
+  private Map<String, StudyCourse> getOrCreateStudyCourses(Collection<Properties> users) {
+
+    Set<String> names = new HashSet<String>();
+    for (Properties userProps : users) {
+      String studyCourseName = userProps.getProperty(IAbstractDirectory.STUDYCOURSE);
+      if (studyCourseName != null) {
+        names.add(studyCourseName);
+      }
+    }
+
+    Map<String, StudyCourse> studyCourses = studyCourseDao.findByNames(names);
+    for (String name : names) {
+      if (!studyCourses.containsKey(name)) {
+        StudyCourse studyCourse = StudyCourse.getInstance(name);
+        studyCourseDao.persist(studyCourse);
+        studyCourses.put(name, studyCourse);
+      }
+    }
+    return studyCourses;
+  }
+
+  private SingleUser createSingleUser(Long uuid, Properties userProps) {
+
+    SingleUser singleUser;
+    // TODO Naming: hard coded value "Studenten"
+    if ("Studenten".equalsIgnoreCase(userProps.getProperty(IAbstractDirectory.ROLE))) {
+      singleUser = Student.getInstance();
+    } else {
+      singleUser = SingleUser.getInstance();
+    }
+    singleUser.setUuid(uuid);
+    return singleUser;
+  }
+
   private SingleUser getSingleUserFromDB(Properties userProps) {
     /** look for database entry for user */
     Long uuid = Long.valueOf(userProps.getProperty(IAbstractDirectory.UUID));
@@ -226,15 +369,21 @@ public class SingleUserDirectoryDao extends AbstractDao<SingleUser, Long> implem
       Long uuid = duplicateUsernameUser.getUuid();
 
       if (userDoesNotExistInDirectory(uuid)) {
-        String date = new SimpleDateFormat("yyyy-MM-dd.HH:mm:ss").format(Calendar.getInstance().getTime());
-        String renamedUsername = username + ".old-" + date;
-        duplicateUsernameUser.setUsername(renamedUsername);
-        logger.info("renamed user [{}] to [{}] because of reassigned username", username, renamedUsername);
-        super.merge(duplicateUsernameUser);
+        renameUser(duplicateUsernameUser);
       }
     }
   }
 
+  private void renameUser(SingleUser singleUser) {
+
+    String username = singleUser.getUsername();
+    String date = new SimpleDateFormat("yyyy-MM-dd.HH:mm:ss").format(Calendar.getInstance().getTime());
+    String renamedUsername = username + ".old-" + date;
+    singleUser.setUsername(renamedUsername);
+    logger.info("renamed user [{}] to [{}] because of reassigned username", username, renamedUsername);
+    super.merge(singleUser);
+  }
+
   private boolean userDoesNotExistInDirectory(Long uuid) {
     return ! userExistsInDirectory(uuid);
   }
@@ -293,6 +442,19 @@ public class SingleUserDirectoryDao extends AbstractDao<SingleUser, Long> implem
       throw new IllegalArgumentException("user properties must not be null");
     }
 
+    applyProperties(singleUser, userProps, null);
+    initRoles(singleUser);
+  }
+
+  /**
+   * Copies the directory properties into the given {@link SingleUser}.
+   *
+   * @param singleUser   the user object to set up.
+   * @param userProps    properties to fill into the user object.
+   * @param studyCourses already loaded study courses by name, may be null.
+   */
+  private void applyProperties(SingleUser singleUser, Properties userProps, Map<String, StudyCourse> studyCourses) {
+
     singleUser.setUsername(userProps.getProperty(IAbstractDirectory.LOGIN));
     singleUser.setName(userProps.getProperty(IAbstractDirectory.NAME));
     singleUser.setFaculty(userProps.getProperty(IAbstractDirectory.FACULTY));
@@ -312,11 +474,13 @@ public class SingleUserDirectoryDao extends AbstractDao<SingleUser, Long> implem
 
       String studyCourseName = userProps.getProperty(IAbstractDirectory.STUDYCOURSE);
       if (studyCourseName != null) {
-        student.setStudyCourse(getOrCreateStudyCourseIfNotPersistent(studyCourseName));
+        StudyCourse studyCourse = studyCourses != null ? studyCourses.get(studyCourseName) : null;
+        if (studyCourse == null) {
+          studyCourse = getOrCreateStudyCourseIfNotPersistent(studyCourseName);
+        }
+        student.setStudyCourse(studyCourse);
       }
     }
-
-    initRoles(singleUser);
   }
 
   public StudyCourse getOrCreateStudyCourseIfNotPersistent(String studyCourseName) {
@@ -348,6 +512,27 @@ public class SingleUserDirectoryDao extends AbstractDao<SingleUser, Long> implem
     }
   }
 
+  /**
+   * Like {@link #initRoles(SingleUser)}, but skips the database lookup if the user already has the REGISTERED role for all
+   * mandators.
+   *
+   * @param singleUser  user to initialize.
+   * @param allMandator the mandator standing for all mandators.
+   */
+  private void initRoles(SingleUser singleUser, Mandator allMandator) {
+
+    removeTeacherRole(singleUser);
+
+    if (!singleUser.hasRole(Role.REGISTERED)
+        || !singleUser.roleMappingForRole(Role.REGISTERED).getMandators().contains(allMandator)) {
+      singleUser.addRoleMapping(getAllMandatorRoleMapping(Role.REGISTERED, singleUser));
+    }
+
+    if (singleUser.isTeacher()) {
+      singleUser.addRoleMapping(getAllMandatorRoleMapping(Role.TEACHER, singleUser));
+    }
+  }
+
   private RoleMapping getAllMandatorRoleMapping(Role role, SingleUser singleUser) {
     RoleMapping roleMapping = roleMappingDao.findByExample(singleUser, Mandator.allMandator, role);
 
@@ -382,6 +567,14 @@ public class SingleUserDirectoryDao extends AbstractDao<SingleUser, Long> implem
     return mandator;
   }
 
+  /**
+   * @param localLookup if true, users are read from the database and the directory is only asked for unknown users.
+   */
+  public void setLocalLookup(boolean localLookup) {
+
+    this.localLookup = localLookup;
+  }
+
   /**
    * Sets the directory object.
    *
@@ -26,6 +26,12 @@ import hsa.awp.user.model.StudyCourse;
 
 import javax.persistence.NoResultException;
 import javax.persistence.Query;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Data Access Object for CRUD methods of {@link StudyCourse}.
@@ -57,4 +63,24 @@ public class StudyCourseDao extends AbstractDao<StudyCourse, Long> implements IS
       return null;
     }
   }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public Map<String, StudyCourse> findByNames(Collection<String> names) {
+
+    if (names == null) {
+      throw new IllegalArgumentException("no names given");
+    }
+
+    Map<String, StudyCourse> result = new HashMap<String, StudyCourse>();
+    List<String> distinct = new ArrayList<String>(new HashSet<String>(names));
+    for (int from = 0; from < distinct.size(); from += ID_CHUNK_SIZE) {
+      Query query = getEntityManager().createQuery("select o from StudyCourse o where o.name in (:names)");
+      query.setParameter("names", distinct.subList(from, Math.min(from + ID_CHUNK_SIZE, distinct.size())));
+      for (StudyCourse studyCourse : (List<StudyCourse>) query.getResultList()) {
+        result.put(studyCourse.getName(), studyCourse);
+      }
+    }
+    return result;
+  }
 }
@@ -24,7 +24,9 @@ package hsa.awp.user.facade;
 import hsa.awp.common.exception.DataAccessException;
 import hsa.awp.user.model.*;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Properties;
 
 /**
  * Class includes all access methods for the SingleUser Context.
@@ -99,6 +101,14 @@ public interface IUserFacade {
    */
   SingleUser getSingleUserById(Long id);
 
+  /**
+   * Looks for all {@link SingleUser}s with the given ids using as few queries as possible.
+   *
+   * @param ids identifiers
+   * @return found {@link SingleUser}s in the order of the given ids, unknown ids are skipped.
+   */
+  List<SingleUser> getSingleUsersByIds(Collection<Long> ids);
+
   /**
    * Looks for a {@link SingleUser} using its login name.
    *
@@ -263,6 +273,14 @@ public interface IUserFacade {
 
   void readAllStudyCourses();
 
+  /**
+   * Creates or updates the given directory users in one transaction.
+   *
+   * @param users properties of the users as returned by the directory.
+   * @return number of synchronized users.
+   */
+  int synchronizeUsers(List<Properties> users);
+
   Mandator getAllMandator();
 
   Mandator getMandatorByName(String name);
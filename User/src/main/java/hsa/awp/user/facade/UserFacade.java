@@ -25,7 +25,9 @@ import hsa.awp.user.dao.*;
 import hsa.awp.user.model.*;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Properties;
 
 /**
  * Facade for accessing all domain objects in the SingleUser Context.
@@ -111,6 +113,13 @@ public class UserFacade implements IUserFacade {
     return singleUserDao.findById(id);
   }
 
+  @Override
+  @Transactional
+  public List<SingleUser> getSingleUsersByIds(Collection<Long> ids) {
+
+    return singleUserDao.findByIds(ids);
+  }
+
   @Transactional
   @Override
   public SingleUser getSingleUserByLogin(String login) {
@@ -275,6 +284,12 @@ public class UserFacade implements IUserFacade {
     singleUserDao.readAllStudyCourses();
   }
 
+  @Override
+  @Transactional
+  public int synchronizeUsers(List<Properties> users) {
+    return singleUserDao.synchronizeUsers(users);
+  }
+
   @Override
   @Transactional
   public Mandator getAllMandator() {
@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2010-2012 Matthias Klass, Johannes Leimer,
+ *               Rico Lieback, Sebastian Gabriel, Lothar Gesslein,
+ *               Alexander Rampp, Kai Weidner
+ *
+ * This file is part of the Physalix Enrollment System
+ *
+ * Foobar is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Foobar is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Foobar.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package hsa.awp.user.util;
+
+import hsa.awp.common.naming.IAbstractDirectory;
+import hsa.awp.common.naming.IDirectoryPageHandler;
+import hsa.awp.user.facade.IUserFacade;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Periodically copies the users of the directory into the database, so logins can be answered from the database.
+ * <p/>
+ * The first run after start reads the whole directory, every further run only the users changed since the previous run
+ * (minus a small overlap against clock skew). Every page of users is written in its own transaction.
+ */
+public class DirectorySynchronizer {
+
+  private final Logger logger = LoggerFactory.getLogger(getClass());
+
+  private IAbstractDirectory directory;
+
+  private IUserFacade userFacade;
+
+  /**
+   * Whether the synchronization runs at all.
+   */
+  private boolean enabled;
+
+  /**
+   * Seconds between two synchronizations.
+   */
+  private long interval = 3600;
+
+  /**
+   * Number of users read from the directory and written to the database at once.
+   */
+  private int pageSize = 500;
+
+  /**
+   * Seconds an incremental run reaches back before the start of the previous run.
+   */
+  private long overlap = 300;
+
+  private ScheduledExecutorService executor;
+
+  /**
+   * Start of the last successful synchronization, null before the first one.
+   */
+  private volatile Date lastSynchronization;
+
+  private volatile int lastSynchronizedUsers;
+
+  /**
+   * Schedules the synchronization if it is enabled.
+   */
+  public synchronized void start() {
+
+    if (!enabled || executor != null) {
+      return;
+    }
+
+    executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+      @Override
+      public Thread newThread(Runnable runnable) {
+
+        Thread thread = new Thread(runnable, "directory-sync");
+        thread.setDaemon(true);
+        return thread;
+      }
+    });
+    executor.scheduleWithFixedDelay(new Runnable() {
+      @Override
+      public void run() {
+
+        try {
+          synchronize();
+        } catch (RuntimeException e) {
+          logger.error("directory synchronization failed", e);
+        }
+      }
+    }, 0, interval, TimeUnit.SECONDS);
+  }
+
+  /**
+   * Stops the scheduled synchronization.
+   */
+  public synchronized void stop() {
+
+    if (executor != null) {
+      executor.shutdownNow();
+      executor = null;
+    }
+  }
+
+  /**
+   * Runs one synchronization. The first call reads all users, later calls only the changed ones.
+   *
+   * @return number of synchronized users.
+   */
+  public synchronized int synchronize() {
+
+    Date start = new Date();
+    Date modifiedSince = null;
+    if (lastSynchronization != null) {
+      modifiedSince = new Date(lastSynchronization.getTime() - overlap * 1000);
+    }
+
+    final AtomicInteger count = new AtomicInteger();
+    directory.readAllUsers(modifiedSince, pageSize, new IDirectoryPageHandler<Properties>() {
+      @Override
+      public void handlePage(List<Properties> page) {
+
+        count.addAndGet(userFacade.synchronizeUsers(page));
+      }
+    });
+
+    lastSynchronization = start;
+    lastSynchronizedUsers = count.get();
+    logger.info("synchronized {} users from the directory in {}ms", lastSynchronizedUsers,
+        System.currentTimeMillis() - start.getTime());
+    return lastSynchronizedUsers;
+  }
+
+  public Date getLastSynchronization() {
+
+    return lastSynchronization;
+  }
+
+  public int getLastSynchronizedUsers() {
+
+    return lastSynchronizedUsers;
+  }
+
+  public void setDirectory(IAbstractDirectory directory) {
+
+    this.directory = directory;
+  }
+
+  public void setUserFacade(IUserFacade userFacade) {
+
+    this.userFacade = userFacade;
+  }
+
+  public void setEnabled(boolean enabled) {
+
+    this.enabled = enabled;
+  }
+
+  public void setInterval(long interval) {
+
+    this.interval = interval;
+  }
+
+  public void setPageSize(int pageSize) {
+
+    this.pageSize = pageSize;
+  }
+
+  public void setOverlap(long overlap) {
+
+    this.overlap = overlap;
+  }
+}
@@ -44,6 +44,7 @@ import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import org.springframework.test.context.transaction.TransactionConfiguration;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Properties;
 
@@ -432,6 +433,43 @@ public class TestSingleUserDirectoryDao extends GenericDaoTest<SingleUser, Singl
     rollback();
   }
 
+  /**
+   * Tests the bulk synchronization and the login lookup from the database.
+   */
+  @Test
+  public void testSynchronizeUsers() {
+
+    Properties student = DummyData.getStudent();
+    Properties teacher = DummyData.getTeacher();
+    List<Properties> page = new ArrayList<Properties>();
+    page.add(student);
+    page.add(teacher);
+
+    // no directory lookups expected from here on
+    state.become("custom");
+    getDao().setLocalLookup(true);
+
+    startTransaction();
+    assertEquals(2, getDao().synchronizeUsers(page));
+    assertEquals(2, getDao().synchronizeUsers(page));
+
+    SingleUser result = getDao().findByUsername(student.getProperty(IAbstractDirectory.LOGIN));
+    assertTrue(result instanceof Student);
+    checkProperties(result, student);
+    assertEquals(student.getProperty(IAbstractDirectory.STUDYCOURSE), ((Student) result).getStudyCourse().getName());
+    assertTrue(result.hasRole(Role.REGISTERED));
+
+    // the directory reassigned the login of the teacher to a new user
+    Properties newTeacher = new Properties(teacher);
+    newTeacher.setProperty(IAbstractDirectory.UUID, "1001");
+    assertEquals(1, getDao().synchronizeUsers(Collections.singletonList(newTeacher)));
+
+    SingleUser renamed = getDao().findUUIDinDatabase(1000L);
+    assertTrue(renamed.getUsername().startsWith(teacher.getProperty(IAbstractDirectory.LOGIN) + ".old-"));
+    assertEquals(Long.valueOf(1001L), getDao().findByUsername(teacher.getProperty(IAbstractDirectory.LOGIN)).getUuid());
+    rollback();
+  }
+
   @Test(expected = UnsupportedOperationException.class)
   @Override
   public void testMerge() {
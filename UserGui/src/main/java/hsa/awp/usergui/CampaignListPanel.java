@@ -90,11 +90,7 @@ public class CampaignListPanel extends Panel {
       private List<Campaign> fetchList() {
         List<Campaign> campaignList = new LinkedList<Campaign>();
 
-        for (Campaign campaign : controller.getCampaignsWithActiveProcedures(singleUser)) {
-          if (controller.hasCampaignAllowedRegistrations(singleUser, campaign)) {
-            campaignList.add(campaign);
-          }
-        }
+        campaignList.addAll(controller.getCampaignsWithAllowedRegistrations(singleUser));
 
         Collections.sort(campaignList, new Comparator<Campaign>() {
           @Override
@@ -28,12 +28,13 @@ import hsa.awp.event.model.Category;
 import hsa.awp.event.model.Event;
 import hsa.awp.event.util.EventSorter;
 import hsa.awp.gui.util.LoadableDetachedModel;
+import hsa.awp.scire.procedureLogic.seat.SeatSnapshot;
 import hsa.awp.user.model.SingleUser;
 import hsa.awp.usergui.controller.IUserGuiController;
 import hsa.awp.usergui.util.JavascriptEventConfirmation;
 import org.apache.wicket.AttributeModifier;
+import org.apache.wicket.ajax.AbstractAjaxTimerBehavior;
 import org.apache.wicket.ajax.AjaxRequestTarget;
-import org.apache.wicket.ajax.AjaxSelfUpdatingTimerBehavior;
 import org.apache.wicket.ajax.markup.html.AjaxFallbackLink;
 import org.apache.wicket.behavior.AttributeAppender;
 import org.apache.wicket.extensions.ajax.markup.html.modal.ModalWindow;
@@ -89,6 +90,43 @@ public class FlatListPanel extends Panel {
 
   private final SingleUser singleUser;
 
+  /**
+   * Occupied seats of the displayed events, answered from the in-memory seat counters.
+   */
+  private final LoadableDetachedModel<SeatSnapshot> seatsModel = new LoadableDetachedModel<SeatSnapshot>() {
+    /**
+     * unique serialization id.
+     */
+    private static final long serialVersionUID = -2906339283367395546L;
+
+    @Override
+    protected SeatSnapshot load() {
+
+      return controller.getSeatSnapshot(events);
+    }
+  };
+
+  /**
+   * Version of the seat counters of the displayed events the list was rendered with.
+   */
+  private long seatVersion = -1;
+
+  /**
+   * Ids of the displayed events the user already has a confirmed registration in.
+   */
+  private final LoadableDetachedModel<Set<Long>> registeredEventIdsModel = new LoadableDetachedModel<Set<Long>>() {
+    /**
+     * unique serialization id.
+     */
+    private static final long serialVersionUID = 6148923577049813270L;
+
+    @Override
+    protected Set<Long> load() {
+
+      return controller.findEventIdsWithConfirmedRegistration(singleUser, getEventIds());
+    }
+  };
+
   /**
    * Constructor for the FlatList panel, which defines all needed components.
    *
@@ -124,10 +162,43 @@ public class FlatListPanel extends Panel {
       }
     };
 
+    LoadableDetachedModel<String> dateModel = new LoadableDetachedModel<String>() {
+      /**
+       * unique serialization id.
+       */
+      private static final long serialVersionUID = -3714278116173742179L;
+
+      @Override
+      protected String load() {
+
+        DateFormat singleFormat = new SimpleDateFormat("dd.MM.yyyy HH:mm:ss");
+        return singleFormat.format(Calendar.getInstance().getTime());
+      }
+    };
+
     final WebMarkupContainer flatListContainer = new WebMarkupContainer("flatlist.container");
     flatListContainer.setOutputMarkupId(true);
 
-    flatListContainer.add(new AjaxSelfUpdatingTimerBehavior(Duration.seconds(30f)));
+    final Label dateLabel = new Label("flatlist.date", dateModel);
+    dateLabel.setOutputMarkupId(true);
+
+    // poll the seat version of the displayed events only and render the list again if one of their seats was taken or given back
+    flatListContainer.add(new AbstractAjaxTimerBehavior(Duration.seconds(30f)) {
+      /**
+       * unique serialization id.
+       */
+      private static final long serialVersionUID = -4409017383853826458L;
+
+      @Override
+      protected void onTimer(AjaxRequestTarget target) {
+
+        if (controller.getSeatVersion(events) != seatVersion) {
+          target.addComponent(flatListContainer);
+        } else {
+          target.addComponent(dateLabel);
+        }
+      }
+    });
 
     add(flatListContainer);
 
@@ -160,7 +231,7 @@ public class FlatListPanel extends Panel {
 
             int maxParticipants = event.getMaxParticipants();
 
-            long participantCount = controller.countConfirmedRegistrationsByEventId(event.getId());
+            long participantCount = seatsModel.getObject().getOccupiedSeats(event.getId());
 
             if (participantCount > maxParticipants) {
               participantCount = maxParticipants;
@@ -192,7 +263,7 @@ public class FlatListPanel extends Panel {
             Image icon = new Image("icon");
             icon.add(new AttributeModifier("src", true, new Model<String>()));
 
-            if (controller.hasParticipantConfirmedRegistrationInEvent(singleUser, event)) {
+            if (registeredEventIdsModel.getObject().contains(event.getId())) {
               link.setVisible(false);
               item.add(new AttributeAppender("class", new Model<String>("disabled"), " "));
             }
@@ -234,20 +305,7 @@ public class FlatListPanel extends Panel {
       }
     });
 
-    LoadableDetachedModel<String> dateModel = new LoadableDetachedModel<String>() {
-      /**
-       * unique serialization id.
-       */
-      private static final long serialVersionUID = -3714278116173742179L;
-
-      @Override
-      protected String load() {
-
-        DateFormat singleFormat = new SimpleDateFormat("dd.MM.yyyy HH:mm:ss");
-        return singleFormat.format(Calendar.getInstance().getTime());
-      }
-    };
-    flatListContainer.add(new Label("flatlist.date", dateModel));
+    flatListContainer.add(dateLabel);
 
     flatListContainer.add(new AjaxFallbackLink<Object>("flatlist.refresh") {
       /**
@@ -259,6 +317,7 @@ public class FlatListPanel extends Panel {
       public void onClick(AjaxRequestTarget target) {
 
         categoriesModel.detach();
+        registeredEventIdsModel.detach();
         target.addComponent(flatListContainer);
       }
     });
@@ -281,6 +340,33 @@ public class FlatListPanel extends Panel {
     }));
   }
 
+  @Override
+  protected void onBeforeRender() {
+
+    // the registrations of the user in the displayed events can only have changed if one of their seat counters changed
+    long version = controller.getSeatVersion(events);
+    if (version != seatVersion) {
+      registeredEventIdsModel.detach();
+      seatVersion = version;
+    }
+    super.onBeforeRender();
+  }
+
+  @Override
+  protected void onDetach() {
+
+    seatsModel.detach();
+    super.onDetach();
+  }
+
+  private List<Long> getEventIds() {
+    List<Long> eventIds = new ArrayList<Long>(events.size());
+    for (Event event : events) {
+      eventIds.add(event.getId());
+    }
+    return eventIds;
+  }
+
   private List<Event> getEventsOfCategory(Category category, List<Event> events) {
     List<Event> filtered = new ArrayList<Event>();
     for (Event event : events) {
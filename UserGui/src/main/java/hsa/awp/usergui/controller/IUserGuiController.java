@@ -26,6 +26,7 @@ import hsa.awp.event.model.Category;
 import hsa.awp.event.model.Event;
 import hsa.awp.gui.controller.IGuiController;
 import hsa.awp.scire.procedureLogic.DrawProcedureLogic;
+import hsa.awp.scire.procedureLogic.seat.SeatSnapshot;
 import hsa.awp.user.model.Mandator;
 import hsa.awp.user.model.SingleUser;
 
@@ -65,6 +66,14 @@ public interface IUserGuiController extends IGuiController {
    */
   List<Campaign> getCampaignsWithActiveProcedures(SingleUser user);
 
+  /**
+   * Returns all {@link Campaign}s with active procedures which contain at least one event the user can register for.
+   *
+   * @param user user to check
+   * @return the campaigns.
+   */
+  List<Campaign> getCampaignsWithAllowedRegistrations(SingleUser user);
+
   /**
    * Returns all {@link Category}s.
    *
@@ -80,6 +89,24 @@ public interface IUserGuiController extends IGuiController {
    */
   DrawProcedure getDrawProcedureById(Long id);
 
+  /**
+   * Returns the occupied seats of the given {@link Event}s from the in-memory seat counters.
+   *
+   * @param events events to look for, usually those of one {@link Campaign}.
+   * @return snapshot of the occupied seats.
+   */
+  SeatSnapshot getSeatSnapshot(List<Event> events);
+
+  /**
+   * Returns the version of the seat counters of the given {@link Event}s, which changes whenever a seat of one of them is taken or
+   * given back.
+   *
+   * @param events events to look for, usually those of one {@link Campaign}.
+   * @return current version.
+   * @see #getSeatSnapshot(List)
+   */
+  long getSeatVersion(List<Event> events);
+
   /**
    * Looks for a {@link SingleUser} by his login name.
    *
@@ -32,6 +32,8 @@ import hsa.awp.scire.controller.IScireController;
 import hsa.awp.scire.procedureLogic.DrawProcedureLogic;
 import hsa.awp.scire.procedureLogic.IFifoProcedureLogic;
 import hsa.awp.scire.procedureLogic.IProcedureLogic;
+import hsa.awp.scire.procedureLogic.seat.ISeatReservation;
+import hsa.awp.scire.procedureLogic.seat.SeatSnapshot;
 import hsa.awp.scire.services.EventCheckService;
 import hsa.awp.user.facade.IUserFacade;
 import hsa.awp.user.model.Mandator;
@@ -54,6 +56,8 @@ public class UserGuiController extends GuiController implements IUserGuiControll
 
   private EventCheckService eventCheckService;
 
+  private ISeatReservation seatReservation;
+
   /**
    * Default Constructor.
    */
@@ -141,6 +145,39 @@ public class UserGuiController extends GuiController implements IUserGuiControll
     return campaigns;
   }
 
+  @Override
+  public List<Campaign> getCampaignsWithAllowedRegistrations(SingleUser user) {
+
+    List<Campaign> campaigns = new ArrayList<Campaign>();
+    for (Campaign campaign : getCampaignsWithActiveProcedures(user)) {
+      if (ruleFacade.hasAllowedRegistrations(user, campaign)) {
+        campaigns.add(campaign);
+      }
+    }
+    return campaigns;
+  }
+
+  @Override
+  public SeatSnapshot getSeatSnapshot(List<Event> events) {
+
+    return seatReservation.getSnapshot(getEventIds(events));
+  }
+
+  @Override
+  public long getSeatVersion(List<Event> events) {
+
+    return seatReservation.getVersion(getEventIds(events));
+  }
+
+  private List<Long> getEventIds(List<Event> events) {
+
+    List<Long> eventIds = new ArrayList<Long>(events.size());
+    for (Event event : events) {
+      eventIds.add(event.getId());
+    }
+    return eventIds;
+  }
+
   private boolean isCampaignVisibleForUser(Campaign campaign, SingleUser user) {
 
     if (user instanceof Student) {
@@ -227,18 +264,7 @@ public class UserGuiController extends GuiController implements IUserGuiControll
   @Override
   public boolean hasCampaignAllowedRegistrations(SingleUser user, Campaign campaign) {
 
-    boolean found = false;
-
-    campaign = camFacade.getCampaignById(campaign.getId());
-
-    for (Long id : campaign.getEventIds()) {
-      if (isRegistrationAllowed(user, campaign, evtFacade.getEventById(id))) {
-        found = true;
-        break;
-      }
-    }
-
-    return found;
+    return ruleFacade.hasAllowedRegistrations(user, camFacade.getCampaignById(campaign.getId()));
   }
 
   @Override
@@ -373,6 +399,11 @@ public class UserGuiController extends GuiController implements IUserGuiControll
     this.eventCheckService = eventCheckService;
   }
 
+  public void setSeatReservation(ISeatReservation seatReservation) {
+
+    this.seatReservation = seatReservation;
+  }
+
   /**
    * Setter for scireController.
    *